@@ -114,6 +114,11 @@ public class AsmUtil {
         return primitiveType;
     }
 
+    @Nullable
+    public static Type unboxTypeOrNull(@NotNull Type boxedType) {
+        return primitiveTypeByBoxedType.get(boxedType);
+    }
+
     public static boolean isIntPrimitive(Type type) {
         return type == Type.INT_TYPE || type == Type.SHORT_TYPE || type == Type.BYTE_TYPE || type == Type.CHAR_TYPE;
     }
@@ -502,6 +507,8 @@ public class AsmUtil {
         // Private method is not accessible from other classes, no assertions needed
         if (getVisibilityAccessFlag(descriptor) == ACC_PRIVATE) return;
 
+        if (!state.isGenerateNotNullParamAssertionsForInternal() && descriptor.getVisibility() == Visibilities.INTERNAL) return;
+
         for (ValueParameterDescriptor parameter : descriptor.getValueParameters()) {
             JetType type = parameter.getReturnType();
             if (type == null || isNullableType(type)) continue;
@@ -510,8 +517,18 @@ public class AsmUtil {
             Type asmType = state.getTypeMapper().mapReturnType(type);
             if (asmType.getSort() == Type.OBJECT || asmType.getSort() == Type.ARRAY) {
                 v.load(index, asmType);
-                v.visitLdcInsn(parameter.getName().asString());
-                v.invokestatic("jet/runtime/Intrinsics", "checkParameterIsNotNull", "(Ljava/lang/Object;Ljava/lang/String;)V");
+                if (state.isInlineNotNullAssertions()) {
+                    // Parameter name is only loaded on the failure path
+                    Label ok = new Label();
+                    v.ifnonnull(ok);
+                    v.visitLdcInsn(parameter.getName().asString());
+                    v.invokestatic("jet/runtime/Intrinsics", "throwParameterIsNullException", "(Ljava/lang/String;)V");
+                    v.mark(ok);
+                }
+                else {
+                    v.visitLdcInsn(parameter.getName().asString());
+                    v.invokestatic("jet/runtime/Intrinsics", "checkParameterIsNotNull", "(Ljava/lang/Object;Ljava/lang/String;)V");
+                }
             }
         }
     }
@@ -521,7 +538,7 @@ public class AsmUtil {
             @NotNull GenerationState state,
             @NotNull PropertyDescriptor descriptor
     ) {
-        genNotNullAssertion(v, state, descriptor, "checkFieldIsNotNull");
+        genNotNullAssertion(v, state, descriptor, "checkFieldIsNotNull", "throwFieldIsNullException");
     }
 
     public static void genNotNullAssertionForMethod(
@@ -532,14 +549,15 @@ public class AsmUtil {
         CallableDescriptor descriptor = resolvedCall.getResultingDescriptor();
         if (descriptor instanceof ConstructorDescriptor) return;
 
-        genNotNullAssertion(v, state, descriptor, "checkReturnedValueIsNotNull");
+        genNotNullAssertion(v, state, descriptor, "checkReturnedValueIsNotNull", "throwReturnedValueIsNullException");
     }
 
     private static void genNotNullAssertion(
             @NotNull InstructionAdapter v,
             @NotNull GenerationState state,
             @NotNull CallableDescriptor descriptor,
-            @NotNull String assertMethodToCall
+            @NotNull String assertMethodToCall,
+            @NotNull String throwMethodToCall
     ) {
         if (!state.isGenerateNotNullAssertions()) return;
 
@@ -551,9 +569,19 @@ public class AsmUtil {
         Type asmType = state.getTypeMapper().mapReturnType(type);
         if (asmType.getSort() == Type.OBJECT || asmType.getSort() == Type.ARRAY) {
             v.dup();
-            v.visitLdcInsn(descriptor.getContainingDeclaration().getName().asString());
-            v.visitLdcInsn(descriptor.getName().asString());
-            v.invokestatic("jet/runtime/Intrinsics", assertMethodToCall, "(Ljava/lang/Object;Ljava/lang/String;Ljava/lang/String;)V");
+            if (state.isInlineNotNullAssertions()) {
+                Label ok = new Label();
+                v.ifnonnull(ok);
+                v.visitLdcInsn(descriptor.getContainingDeclaration().getName().asString());
+                v.visitLdcInsn(descriptor.getName().asString());
+                v.invokestatic("jet/runtime/Intrinsics", throwMethodToCall, "(Ljava/lang/String;Ljava/lang/String;)V");
+                v.mark(ok);
+            }
+            else {
+                v.visitLdcInsn(descriptor.getContainingDeclaration().getName().asString());
+                v.visitLdcInsn(descriptor.getName().asString());
+                v.invokestatic("jet/runtime/Intrinsics", assertMethodToCall, "(Ljava/lang/Object;Ljava/lang/String;Ljava/lang/String;)V");
+            }
         }
     }
 
@@ -34,6 +34,7 @@ import java.util.List;
 
 import static org.jetbrains.asm4.Opcodes.ACC_STATIC;
 import static org.jetbrains.asm4.Opcodes.RETURN;
+import static org.jetbrains.jet.codegen.CodegenUtil.isInterface;
 import static org.jetbrains.jet.codegen.binding.CodegenBinding.enumEntryNeedSubclass;
 
 public abstract class ClassBodyCodegen extends MemberCodegen {
@@ -65,6 +66,8 @@ public abstract class ClassBodyCodegen extends MemberCodegen {
     public void generate() {
         generateDeclaration();
 
+        generatePropertyMetadataInitializers();
+
         generateClassBody();
 
         generateSyntheticParts();
@@ -104,6 +107,16 @@ public abstract class ClassBodyCodegen extends MemberCodegen {
         generatePrimaryConstructorProperties(propertyCodegen, myClass);
     }
 
+    private void generatePropertyMetadataInitializers() {
+        if (kind == OwnerKind.TRAIT_IMPL || isInterface(descriptor) || state.getClassBuilderMode() != ClassBuilderMode.FULL) return;
+
+        List<JetDeclaration> declarations = myClass.getDeclarations();
+        if (PropertyCodegen.hasDelegatedProperties(declarations)) {
+            PropertyCodegen.initializePropertyMetadata(createOrGetClInitCodegen(), context, Type.getObjectType(v.getThisName()),
+                                                       declarations);
+        }
+    }
+
     private static boolean shouldProcessFirst(JetDeclaration declaration) {
         return !(declaration instanceof JetProperty || declaration instanceof JetNamedFunction);
     }
@@ -49,6 +49,7 @@ import java.util.List;
 import static org.jetbrains.asm4.Opcodes.*;
 import static org.jetbrains.jet.codegen.AsmUtil.*;
 import static org.jetbrains.jet.codegen.CodegenUtil.isConst;
+import static org.jetbrains.jet.codegen.FunctionTypesUtil.getPrimitiveFunctionType;
 import static org.jetbrains.jet.codegen.binding.CodegenBinding.*;
 
 public class ClosureCodegen extends GenerationStateAware {
@@ -95,10 +96,14 @@ public class ClosureCodegen extends GenerationStateAware {
 
         FunctionDescriptor interfaceFunction;
         String[] superInterfaces;
+        Type primitiveFunction = null;
 
         if (samInterface == null) {
             interfaceFunction = getInvokeFunction(funDescriptor);
-            superInterfaces = ArrayUtil.EMPTY_STRING_ARRAY;
+            primitiveFunction = getPrimitiveFunctionInterface();
+            superInterfaces = primitiveFunction == null
+                              ? ArrayUtil.EMPTY_STRING_ARRAY
+                              : new String[] { primitiveFunction.getInternalName() };
         }
         else {
             interfaceFunction = SingleAbstractMethodUtils.getAbstractMethodOfSamInterface(samInterface);
@@ -109,7 +114,7 @@ public class ClosureCodegen extends GenerationStateAware {
                        V1_6,
                        ACC_FINAL | ACC_SUPER,
                        asmType.getInternalName(),
-                       getGenericSignature(),
+                       getGenericSignature(primitiveFunction),
                        superClass.getInternalName(),
                        superInterfaces
         );
@@ -138,6 +143,14 @@ public class ClosureCodegen extends GenerationStateAware {
         cv.done();
     }
 
+    // The 'invoke' method generated for a closure over primitive values may also implement a specialized interface,
+    // which lets callers knowing the primitive signature avoid boxing (see ExpressionCodegen.invokePrimitiveFunction)
+    @Nullable
+    private Type getPrimitiveFunctionInterface() {
+        if (funDescriptor.getReceiverParameter() != null || funDescriptor.getExpectedThisObject() != null) return null;
+        return getPrimitiveFunctionType(typeMapper.mapSignature(Name.identifier("invoke"), funDescriptor).getAsmMethod());
+    }
+
     @NotNull
     public StackValue putInstanceOnStack(@NotNull InstructionAdapter v, @NotNull ExpressionCodegen codegen) {
         if (isConst(closure)) {
@@ -292,7 +305,7 @@ public class ClosureCodegen extends GenerationStateAware {
     }
 
     @NotNull
-    private String getGenericSignature() {
+    private String getGenericSignature(@Nullable Type primitiveFunction) {
         ClassDescriptor classDescriptor = anonymousClassForFunction(bindingContext, funDescriptor);
         Collection<JetType> supertypes = classDescriptor.getTypeConstructor().getSupertypes();
         assert supertypes.size() == 1 : "Closure must have exactly one supertype: " + funDescriptor;
@@ -303,6 +316,11 @@ public class ClosureCodegen extends GenerationStateAware {
         sw.writeSuperclass();
         typeMapper.mapType(supertype, sw, JetTypeMapperMode.TYPE_PARAMETER);
         sw.writeSuperclassEnd();
+        if (primitiveFunction != null) {
+            sw.writeInterface();
+            sw.writeAsmType(primitiveFunction);
+            sw.writeInterfaceEnd();
+        }
 
         String signature = sw.makeJavaGenericSignature();
         assert signature != null : "Closure superclass must have a generic signature: " + funDescriptor;
@@ -32,6 +32,7 @@ import org.jetbrains.jet.codegen.signature.JvmMethodSignature;
 import org.jetbrains.jet.codegen.state.JetTypeMapper;
 import org.jetbrains.jet.lang.descriptors.*;
 import org.jetbrains.jet.lang.descriptors.annotations.AnnotationDescriptor;
+import org.jetbrains.jet.lang.descriptors.impl.MutableClassDescriptor;
 import org.jetbrains.jet.lang.descriptors.impl.SimpleFunctionDescriptorImpl;
 import org.jetbrains.jet.lang.descriptors.impl.TypeParameterDescriptorImpl;
 import org.jetbrains.jet.lang.psi.JetClassOrObject;
@@ -226,6 +227,18 @@ public class CodegenUtil {
                                     });
     }
 
+    /**
+     * Members of the class which may be delegated or implemented in traits. Fake overrides which MutableClassDescriptor
+     * creates lazily are neither, so they are not created here
+     */
+    @NotNull
+    public static Collection<? extends DeclarationDescriptor> getMembersForDelegation(@NotNull ClassDescriptor classDescriptor) {
+        if (classDescriptor instanceof MutableClassDescriptor) {
+            return ((MutableClassDescriptor) classDescriptor).getAllCallableMembers();
+        }
+        return classDescriptor.getDefaultType().getMemberScope().getAllDescriptors();
+    }
+
     /**
      * A work-around of the generic nullability problem in the type checker
      * @return true if a value of this type can be null
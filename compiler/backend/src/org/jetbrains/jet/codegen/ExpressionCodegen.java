@@ -47,6 +47,9 @@ import org.jetbrains.jet.lang.psi.*;
 import org.jetbrains.jet.lang.resolve.BindingContext;
 import org.jetbrains.jet.lang.resolve.DescriptorUtils;
 import org.jetbrains.jet.lang.resolve.calls.autocasts.AutoCastReceiver;
+import org.jetbrains.jet.lang.resolve.calls.autocasts.DataFlowInfo;
+import org.jetbrains.jet.lang.resolve.calls.autocasts.DataFlowValue;
+import org.jetbrains.jet.lang.resolve.calls.autocasts.DataFlowValueFactory;
 import org.jetbrains.jet.lang.resolve.calls.model.*;
 import org.jetbrains.jet.lang.resolve.calls.util.CallMaker;
 import org.jetbrains.jet.lang.resolve.calls.util.ExpressionAsFunctionDescriptor;
@@ -70,6 +73,7 @@ import static org.jetbrains.jet.codegen.AsmUtil.*;
 import static org.jetbrains.jet.codegen.CodegenUtil.*;
 import static org.jetbrains.jet.codegen.FunctionTypesUtil.functionTypeToImpl;
 import static org.jetbrains.jet.codegen.FunctionTypesUtil.getFunctionImplType;
+import static org.jetbrains.jet.codegen.FunctionTypesUtil.getPrimitiveFunctionType;
 import static org.jetbrains.jet.codegen.binding.CodegenBinding.*;
 import static org.jetbrains.jet.lang.resolve.BindingContext.*;
 import static org.jetbrains.jet.lang.resolve.BindingContextUtils.getNotNull;
@@ -82,7 +86,6 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
 
     private static final String CLASS_NO_PATTERN_MATCHED_EXCEPTION = "jet/NoPatternMatchedException";
     private static final String CLASS_TYPE_CAST_EXCEPTION = "jet/TypeCastException";
-    public static final Set<DeclarationDescriptor> INTEGRAL_RANGES = KotlinBuiltIns.getInstance().getIntegralRanges();
 
     private int myLastLineNumber = -1;
 
@@ -97,6 +100,7 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
     private final BindingContext bindingContext;
     final MethodContext context;
     private final CodegenStatementVisitor statementVisitor;
+    private final InlineCodegen inlineCodegen;
 
     private final Stack<BlockStackElement> blockStackElements = new Stack<BlockStackElement>();
     private final Collection<String> localVariableNames = new HashSet<String>();
@@ -105,7 +109,7 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
      * When we create a temporary variable to hold some value not to compute it many times
      * we put it into this map to emit access to that variable instead of evaluating the whole expression
      */
-    private final Map<JetElement, StackValue.Local> tempVariables = Maps.newHashMap();
+    final Map<JetElement, StackValue> tempVariables = Maps.newHashMap();
 
     public CalculatedClosure generateObjectLiteral(GenerationState state, JetObjectLiteralExpression literal) {
         JetObjectDeclaration objectDeclaration = literal.getObjectDeclaration();
@@ -172,6 +176,7 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         this.bindingContext = state.getBindingContext();
         this.context = context;
         this.statementVisitor = new CodegenStatementVisitor(this);
+        this.inlineCodegen = new InlineCodegen(this);
     }
 
     protected InstructionAdapter createInstructionAdapter(MethodVisitor mv) {
@@ -215,6 +220,10 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         return bindingContext;
     }
 
+    public FrameMap getFrameMap() {
+        return myFrameMap;
+    }
+
     public Collection<String> getLocalVariableNamesForExpression() {
         return localVariableNames;
     }
@@ -479,6 +488,20 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         }
 
         JetExpression loopRange = forExpression.getLoopRange();
+        assert loopRange != null;
+
+        // Is it "a downTo b", "array.indices", "(1..n).reversed()", "a..b step 2" or so
+        RangeCodegenUtil.ProgressionCall progressionCall = RangeCodegenUtil.getProgressionCall(bindingContext, loopRange);
+        if (progressionCall != null) {
+            if (progressionCall.kind == RangeCodegenUtil.ProgressionCallKind.INDICES) {
+                generateForLoop(new ForInIndicesLoopGenerator(forExpression, progressionCall.receiver));
+            }
+            else {
+                generateForLoop(new ForInProgressionLiteralLoopGenerator(forExpression));
+            }
+            return StackValue.none();
+        }
+
         JetType loopRangeType = bindingContext.get(BindingContext.EXPRESSION_TYPE, loopRange);
         assert loopRangeType != null;
         Type asmLoopRangeType = asmType(loopRangeType);
@@ -981,14 +1004,37 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         }
     }
 
-    private class ForInProgressionExpressionLoopGenerator extends AbstractForInProgressionOrRangeLoopGenerator {
-        private int incrementVar;
-        private Type incrementType;
+    private class ForInIndicesLoopGenerator extends AbstractForInRangeLoopGenerator {
+        private final JetExpression arrayOrCollection;
+
+        private ForInIndicesLoopGenerator(@NotNull JetForExpression forExpression, @NotNull JetExpression arrayOrCollection) {
+            super(forExpression);
+            this.arrayOrCollection = arrayOrCollection;
+        }
+
+        @Override
+        protected void storeRangeStartAndEnd() {
+            v.iconst(0);
+            v.store(loopParameterVar, Type.INT_TYPE);
+
+            genLastIndex(arrayOrCollection);
+            v.store(endVar, Type.INT_TYPE);
+        }
+    }
+
+    private abstract class AbstractForInProgressionLoopGenerator extends AbstractForInProgressionOrRangeLoopGenerator {
+        protected final JetType loopRangeType;
+
+        protected int incrementVar;
+        protected Type incrementType;
 
         private int finalVar;
 
-        private ForInProgressionExpressionLoopGenerator(@NotNull JetForExpression forExpression) {
+        private AbstractForInProgressionLoopGenerator(@NotNull JetForExpression forExpression) {
             super(forExpression);
+
+            loopRangeType = bindingContext.get(EXPRESSION_TYPE, forExpression.getLoopRange());
+            assert loopRangeType != null;
         }
 
         @Override
@@ -1002,25 +1048,18 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
 
             incrementVar = createLoopTempVariable(asmElementType);
 
-            JetType loopRangeType = bindingContext.get(EXPRESSION_TYPE, forExpression.getLoopRange());
-            assert loopRangeType != null;
-            Type asmLoopRangeType = asmType(loopRangeType);
-
             Collection<VariableDescriptor> incrementProp = loopRangeType.getMemberScope().getProperties(Name.identifier("increment"));
             assert incrementProp.size() == 1 : loopRangeType + " " + incrementProp.size();
             incrementType = asmType(incrementProp.iterator().next().getType());
 
-            gen(forExpression.getLoopRange(), asmLoopRangeType);
-            v.dup();
-            v.dup();
-
-            generateRangeOrProgressionProperty(asmLoopRangeType, "getStart", asmElementType, loopParameterVar);
-            generateRangeOrProgressionProperty(asmLoopRangeType, "getEnd", asmElementType, endVar);
-            generateRangeOrProgressionProperty(asmLoopRangeType, "getIncrement", incrementType, incrementVar);
+            storeProgressionParametersToLocalVars();
 
             storeFinalVar();
         }
 
+        // Stores start, end and increment of the progression to loopParameterVar, endVar and incrementVar
+        protected abstract void storeProgressionParametersToLocalVars();
+
         private void storeFinalVar() {
             if (!isIntegerProgression) {
                 finalVar = -1;
@@ -1134,6 +1173,149 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         }
     }
 
+    private class ForInProgressionExpressionLoopGenerator extends AbstractForInProgressionLoopGenerator {
+        private ForInProgressionExpressionLoopGenerator(@NotNull JetForExpression forExpression) {
+            super(forExpression);
+        }
+
+        @Override
+        protected void storeProgressionParametersToLocalVars() {
+            Type asmLoopRangeType = asmType(loopRangeType);
+
+            gen(forExpression.getLoopRange(), asmLoopRangeType);
+            v.dup();
+            v.dup();
+
+            generateRangeOrProgressionProperty(asmLoopRangeType, "getStart", asmElementType, loopParameterVar);
+            generateRangeOrProgressionProperty(asmLoopRangeType, "getEnd", asmElementType, endVar);
+            generateRangeOrProgressionProperty(asmLoopRangeType, "getIncrement", incrementType, incrementVar);
+        }
+    }
+
+    // Neither the progression nor any of the ranges and progressions it is made of are created,
+    // e.g. "for (i in (a..b).reversed() step 2)" is compiled to a counted loop from b to a with increment -2
+    private class ForInProgressionLiteralLoopGenerator extends AbstractForInProgressionLoopGenerator {
+        private ForInProgressionLiteralLoopGenerator(@NotNull JetForExpression forExpression) {
+            super(forExpression);
+        }
+
+        @Override
+        protected void storeProgressionParametersToLocalVars() {
+            JetExpression loopRange = forExpression.getLoopRange();
+            assert loopRange != null;
+            storeProgressionParameters(loopRange, loopParameterVar, endVar);
+        }
+
+        private void storeProgressionParameters(@NotNull JetExpression expression, int startVar, int endVar) {
+            RangeCodegenUtil.ProgressionCall call = RangeCodegenUtil.getProgressionCall(bindingContext, expression);
+            if (call == null) {
+                // A range or progression instance, its properties are read as usual
+                JetType rangeType = bindingContext.get(EXPRESSION_TYPE, expression);
+                assert rangeType != null;
+                Type asmRangeType = asmType(rangeType);
+
+                gen(expression, asmRangeType);
+                v.dup();
+                v.dup();
+
+                generateRangeOrProgressionProperty(asmRangeType, "getStart", asmElementType, startVar);
+                generateRangeOrProgressionProperty(asmRangeType, "getEnd", asmElementType, endVar);
+                generateRangeOrProgressionProperty(asmRangeType, "getIncrement", incrementType, incrementVar);
+                return;
+            }
+
+            switch (call.kind) {
+                case RANGE_TO:
+                case DOWN_TO:
+                    gen(call.receiver, asmElementType);
+                    v.store(startVar, asmElementType);
+
+                    assert call.argument != null;
+                    gen(call.argument, asmElementType);
+                    v.store(endVar, asmElementType);
+
+                    storeIncrement(call.kind == RangeCodegenUtil.ProgressionCallKind.RANGE_TO ? 1 : -1);
+                    break;
+
+                case INDICES:
+                    v.iconst(0);
+                    v.store(startVar, Type.INT_TYPE);
+
+                    genLastIndex(call.receiver);
+                    v.store(endVar, Type.INT_TYPE);
+
+                    storeIncrement(1);
+                    break;
+
+                case REVERSED:
+                    storeProgressionParameters(call.receiver, endVar, startVar);
+
+                    v.load(incrementVar, incrementType);
+                    v.neg(incrementType);
+                    v.store(incrementVar, incrementType);
+                    break;
+
+                case STEP:
+                    storeProgressionParameters(call.receiver, startVar, endVar);
+
+                    assert call.argument != null;
+                    storeStep(call.argument);
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unexpected progression call: " + call.kind);
+            }
+        }
+
+        private void storeIncrement(int increment) {
+            v.iconst(increment);
+            StackValue.coerce(Type.INT_TYPE, incrementType, v);
+            v.store(incrementVar, incrementType);
+        }
+
+        // Same as step() in the standard library: the step must be positive, the direction of the progression is kept
+        private void storeStep(@NotNull JetExpression stepExpression) {
+            int stepVar = createLoopTempVariable(incrementType);
+            gen(stepExpression, incrementType);
+            v.store(stepVar, incrementType);
+
+            Label stepIsPositive = new Label();
+            v.load(stepVar, incrementType);
+            genCompareWithZero(incrementType);
+            v.ifgt(stepIsPositive);
+
+            String exceptionClass = "java/lang/IllegalArgumentException";
+            v.anew(Type.getObjectType(exceptionClass));
+            v.dup();
+            genStringBuilderConstructor(v);
+            v.aconst("Step must be positive, was: ");
+            genInvokeAppendMethod(v, JAVA_STRING_TYPE);
+            v.load(stepVar, incrementType);
+            genInvokeAppendMethod(v, incrementType);
+            v.invokevirtual("java/lang/StringBuilder", "toString", "()Ljava/lang/String;");
+            v.invokespecial(exceptionClass, "<init>", "(Ljava/lang/String;)V");
+            v.athrow();
+
+            v.mark(stepIsPositive);
+            Label keepDirection = new Label();
+            v.load(stepVar, incrementType);
+            v.load(incrementVar, incrementType);
+            genCompareWithZero(incrementType);
+            v.ifgt(keepDirection);
+            v.neg(incrementType);
+            v.mark(keepDirection);
+            v.store(incrementVar, incrementType);
+        }
+
+        // Replaces an integer value on stack with a value of type int which has the same sign
+        private void genCompareWithZero(@NotNull Type type) {
+            if (type.getSort() == Type.LONG) {
+                v.lconst(0L);
+                v.lcmp();
+            }
+        }
+    }
+
 
     @Override
     public StackValue visitBreakExpression(@NotNull JetBreakExpression expression, StackValue receiver) {
@@ -1494,6 +1676,9 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
     }
 
     private void markLineNumber(@NotNull JetElement statement) {
+        if (!inlineCodegen.shouldMarkLineNumber(statement)) {
+            return;
+        }
         Document document = statement.getContainingFile().getViewProvider().getDocument();
         if (document != null) {
             int lineNumber = document.getLineNumber(statement.getTextRange().getStartOffset());  // 0-based
@@ -1562,6 +1747,10 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
 
     @Override
     public StackValue visitReturnExpression(@NotNull JetReturnExpression expression, StackValue receiver) {
+        if (inlineCodegen.isInlining()) {
+            return inlineCodegen.generateReturn(expression);
+        }
+
         JetExpression returnedExpression = expression.getReturnedExpression();
         if (returnedExpression != null) {
             gen(returnedExpression, returnType);
@@ -1587,7 +1776,7 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         }
     }
 
-    private static boolean endsWithReturn(JetElement bodyExpression) {
+    static boolean endsWithReturn(JetElement bodyExpression) {
         if (bodyExpression instanceof JetBlockExpression) {
             List<JetElement> statements = ((JetBlockExpression) bodyExpression).getStatements();
             return statements.size() > 0 && statements.get(statements.size() - 1) instanceof JetReturnExpression;
@@ -1894,6 +2083,10 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         Call call = bindingContext.get(CALL, expression.getCalleeExpression());
         if (resolvedCall instanceof VariableAsFunctionResolvedCall) {
             VariableAsFunctionResolvedCall variableAsFunctionResolvedCall = (VariableAsFunctionResolvedCall) resolvedCall;
+            StackValue inlinedLambdaCall = inlineCodegen.generateLambdaCall(variableAsFunctionResolvedCall);
+            if (inlinedLambdaCall != null) {
+                return inlinedLambdaCall;
+            }
             ResolvedCallWithTrace<FunctionDescriptor> functionCall = variableAsFunctionResolvedCall.getFunctionCall();
             return invokeFunction(call, receiver, functionCall);
         }
@@ -1982,6 +2175,13 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         FunctionDescriptor fd = (FunctionDescriptor) resolvedCall.getResultingDescriptor();
         boolean superCall = isSuperCall(call);
 
+        if (!superCall) {
+            JetNamedFunction inlineFunction = inlineCodegen.findInlinableFunction(resolvedCall);
+            if (inlineFunction != null) {
+                return inlineCodegen.generateCall(call, resolvedCall, inlineFunction, receiver);
+            }
+        }
+
         if (superCall && !isInterface(fd.getContainingDeclaration())) {
             JetSuperExpression expression = getSuperCallExpression(call);
             ClassDescriptor owner = getSuperCallLabelTarget(expression);
@@ -1997,6 +2197,12 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         Callable callable = resolveToCallable(fd, superCall);
         if (callable instanceof CallableMethod) {
             CallableMethod callableMethod = (CallableMethod) callable;
+            Method primitiveInvoke = superCall ? null : getPrimitiveFunctionInvoke(fd);
+            if (primitiveInvoke != null) {
+                invokePrimitiveFunction(callableMethod, primitiveInvoke, resolvedCall, receiver);
+                return returnValueAsStackValue(fd, primitiveInvoke.getReturnType());
+            }
+
             invokeMethodWithArguments(callableMethod, resolvedCall, call, receiver);
 
             Type callReturnType = callableMethod.getSignature().getAsmMethod().getReturnType();
@@ -2050,6 +2256,79 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         }
     }
 
+    // If fd is 'invoke' of a function type whose signature is primitive after substitution, e.g. (Int) -> Int,
+    // returns the signature of the corresponding jet.runtime.PrimitiveFunction interface
+    @Nullable
+    private Method getPrimitiveFunctionInvoke(@NotNull FunctionDescriptor fd) {
+        List<ValueParameterDescriptor> parameters = fd.getValueParameters();
+        if (parameters.size() >= KotlinBuiltIns.FUNCTION_TRAIT_COUNT) return null;
+        if (fd.getOriginal().getContainingDeclaration() != KotlinBuiltIns.getInstance().getFunction(parameters.size())) return null;
+
+        JetType returnType = fd.getReturnType();
+        assert returnType != null : "Return type of invoke should be resolved: " + fd;
+
+        Type[] argumentTypes = new Type[parameters.size()];
+        for (ValueParameterDescriptor parameter : parameters) {
+            argumentTypes[parameter.getIndex()] = asmType(parameter.getType());
+        }
+        Method invoke = new Method("invoke", asmType(returnType), argumentTypes);
+        return getPrimitiveFunctionType(invoke) != null ? invoke : null;
+    }
+
+    // Closures with a primitive signature implement a specialized interface, other implementations are called through the erased one:
+    //   f instanceof PrimitiveFunction$IntToInt ? ((PrimitiveFunction$IntToInt) f).invoke(x) : (Integer) f.invoke((Integer) x)
+    private void invokePrimitiveFunction(
+            @NotNull CallableMethod callableMethod,
+            @NotNull Method primitiveInvoke,
+            @NotNull ResolvedCall<? extends CallableDescriptor> resolvedCall,
+            @NotNull StackValue receiver
+    ) {
+        if (resolvedCall instanceof VariableAsFunctionResolvedCall) {
+            resolvedCall = ((VariableAsFunctionResolvedCall) resolvedCall).getFunctionCall();
+        }
+
+        genThisAndReceiverFromResolvedCall(receiver, resolvedCall, callableMethod);
+
+        Type[] argumentTypes = primitiveInvoke.getArgumentTypes();
+        pushMethodArguments(resolvedCall, Arrays.asList(argumentTypes));
+
+        int[] argumentIndices = new int[argumentTypes.length];
+        for (int i = argumentTypes.length - 1; i >= 0; i--) {
+            argumentIndices[i] = myFrameMap.enterTemp(argumentTypes[i]);
+            v.store(argumentIndices[i], argumentTypes[i]);
+        }
+
+        Type primitiveFunction = getPrimitiveFunctionType(primitiveInvoke);
+        assert primitiveFunction != null : "No specialized interface for " + primitiveInvoke;
+
+        Label generic = new Label();
+        Label end = new Label();
+
+        v.dup();
+        v.instanceOf(primitiveFunction);
+        v.ifeq(generic);
+        v.checkcast(primitiveFunction);
+        for (int i = 0; i < argumentTypes.length; i++) {
+            v.load(argumentIndices[i], argumentTypes[i]);
+        }
+        v.invokeinterface(primitiveFunction.getInternalName(), primitiveInvoke.getName(), primitiveInvoke.getDescriptor());
+        v.goTo(end);
+
+        v.mark(generic);
+        List<Type> genericArgumentTypes = callableMethod.getValueParameterTypes();
+        for (int i = 0; i < argumentTypes.length; i++) {
+            StackValue.local(argumentIndices[i], argumentTypes[i]).put(genericArgumentTypes.get(i), v);
+        }
+        callableMethod.invokeWithoutAssertions(v);
+        StackValue.coerce(callableMethod.getReturnType(), primitiveInvoke.getReturnType(), v);
+
+        v.mark(end);
+
+        for (Type argumentType : argumentTypes) {
+            myFrameMap.leaveTemp(argumentType);
+        }
+    }
+
     @NotNull
     private StackValue returnValueAsStackValue(FunctionDescriptor fd, Type callReturnType) {
         if (callReturnType != Type.VOID_TYPE) {
@@ -2192,6 +2471,11 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
     }
 
     private StackValue generateReceiver(DeclarationDescriptor provided) {
+        StackValue inlinedReceiver = inlineCodegen.lookupReceiver(provided);
+        if (inlinedReceiver != null) {
+            return inlinedReceiver;
+        }
+
         if (context.getCallableDescriptorWithReceiver() == provided) {
             StackValue result = context.getReceiverExpression(typeMapper);
             return castToRequiredTypeOfInterfaceIfNeeded(result, provided, null);
@@ -2657,10 +2941,12 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
 
     private StackValue generateIn(JetBinaryExpression expression) {
         boolean inverted = expression.getOperationReference().getReferencedNameElementType() == JetTokens.NOT_IN;
-        if (isIntRangeExpr(expression.getRight())) {
-            StackValue leftValue = StackValue.expression(Type.INT_TYPE, expression.getLeft(), this);
-            JetBinaryExpression rangeExpression = (JetBinaryExpression) expression.getRight();
-            getInIntRange(leftValue, rangeExpression, inverted);
+        JetExpression rangeExpression = expression.getRight();
+        RangeCodegenUtil.ProgressionCall rangeCall = rangeExpression != null ? getPrimitiveRangeCall(rangeExpression) : null;
+        if (rangeCall != null) {
+            Type elementType = getRangeElementType(rangeExpression);
+            StackValue leftValue = StackValue.expression(elementType, expression.getLeft(), this);
+            genInRange(leftValue, rangeCall, elementType, inverted);
         }
         else {
             invokeFunctionByReference(expression.getOperationReference());
@@ -2671,43 +2957,101 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         return StackValue.onStack(Type.BOOLEAN_TYPE);
     }
 
-    private void getInIntRange(StackValue leftValue, JetBinaryExpression rangeExpression, boolean inverted) {
-        v.iconst(1);
-        // 1
-        leftValue.put(Type.INT_TYPE, v);
-        // 1 l
-        v.dup2();
-        // 1 l 1 l
+    // "x in a..b" of primitives and "i in array.indices" are checked without creating a range
+    @Nullable
+    private RangeCodegenUtil.ProgressionCall getPrimitiveRangeCall(@NotNull JetExpression rangeExpression) {
+        RangeCodegenUtil.ProgressionCall rangeCall = RangeCodegenUtil.getProgressionCall(bindingContext, rangeExpression);
+        if (rangeCall == null) return null;
+        switch (rangeCall.kind) {
+            case RANGE_TO:
+            case INDICES:
+                return rangeCall;
+            default:
+                return null;
+        }
+    }
 
-        //noinspection ConstantConditions
-        gen(rangeExpression.getLeft(), Type.INT_TYPE);
-        // 1 l 1 l r
-        Label lok = new Label();
-        v.ificmpge(lok);
-        // 1 l 1
-        v.pop();
-        v.iconst(0);
-        v.mark(lok);
-        // 1 l c
-        v.dupX2();
-        // c 1 l c
-        v.pop();
-        // c 1 l
+    @NotNull
+    private Type getRangeElementType(@NotNull JetExpression rangeExpression) {
+        JetType rangeType = bindingContext.get(EXPRESSION_TYPE, rangeExpression);
+        assert rangeType != null;
+        Collection<VariableDescriptor> startProp = rangeType.getMemberScope().getProperties(Name.identifier("start"));
+        assert startProp.size() == 1 : rangeType + " " + startProp.size();
+        return asmType(startProp.iterator().next().getType());
+    }
 
-        gen(rangeExpression.getRight(), Type.INT_TYPE);
-        // c 1 l r
-        Label rok = new Label();
-        v.ificmple(rok);
-        // c 1
-        v.pop();
-        v.iconst(0);
-        v.mark(rok);
-        // c c
+    // Same as contains() of ranges: start <= value && value <= end, both bounds are always evaluated
+    private void genInRange(StackValue value, RangeCodegenUtil.ProgressionCall rangeCall, Type elementType, boolean inverted) {
+        int valueVar = myFrameMap.enterTemp(elementType);
+        value.put(elementType, v);
+        v.store(valueVar, elementType);
+
+        if (rangeCall.kind == RangeCodegenUtil.ProgressionCallKind.INDICES) {
+            v.iconst(0);
+        }
+        else {
+            gen(rangeCall.receiver, elementType);
+        }
+        v.load(valueVar, elementType);
+        genLessOrEqual(elementType);
+
+        v.load(valueVar, elementType);
+        if (rangeCall.kind == RangeCodegenUtil.ProgressionCallKind.INDICES) {
+            genLastIndex(rangeCall.receiver);
+        }
+        else {
+            assert rangeCall.argument != null;
+            gen(rangeCall.argument, elementType);
+        }
+        genLessOrEqual(elementType);
 
         v.and(Type.INT_TYPE);
         if (inverted) {
             genInvertBoolean(v);
         }
+
+        myFrameMap.leaveTemp(elementType);
+    }
+
+    // Consumes two primitive values and puts 1 if the first one is less than or equal to the second one, 0 otherwise (also for NaN)
+    private void genLessOrEqual(Type type) {
+        Label greater = new Label();
+        Label end = new Label();
+        switch (type.getSort()) {
+            case Type.LONG:
+                v.lcmp();
+                v.ifgt(greater);
+                break;
+            case Type.FLOAT:
+            case Type.DOUBLE:
+                v.cmpg(type);
+                v.ifgt(greater);
+                break;
+            default:
+                v.ificmpgt(greater);
+        }
+        v.iconst(1);
+        v.goTo(end);
+        v.mark(greater);
+        v.iconst(0);
+        v.mark(end);
+    }
+
+    // Puts the last index of an array or a collection on stack
+    private void genLastIndex(@NotNull JetExpression arrayOrCollection) {
+        JetType type = bindingContext.get(EXPRESSION_TYPE, arrayOrCollection);
+        assert type != null;
+        Type asmType = asmType(type);
+
+        gen(arrayOrCollection, asmType);
+        if (asmType.getSort() == Type.ARRAY) {
+            v.arraylength();
+        }
+        else {
+            v.invokeinterface("java/util/Collection", "size", "()I");
+        }
+        v.iconst(1);
+        v.sub(Type.INT_TYPE);
     }
 
     private StackValue generateBooleanAnd(JetBinaryExpression expression) {
@@ -2756,6 +3100,15 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
             return genCmpWithZero(left, leftType, opToken);
         }
 
+        if (JetTokens.EQEQ == opToken || JetTokens.EXCLEQ == opToken) {
+            Type leftPrimitiveType = primitiveTypeForEquality(left, leftType);
+            if (leftPrimitiveType != null && leftPrimitiveType.equals(primitiveTypeForEquality(right, rightType))) {
+                gen(left, leftPrimitiveType);
+                gen(right, leftPrimitiveType);
+                return genEqualsForExpressionsOnStack(v, opToken, leftPrimitiveType, leftPrimitiveType);
+            }
+        }
+
         if (isPrimitive(leftType) != isPrimitive(rightType)) {
             leftType = boxType(leftType);
             gen(left, leftType);
@@ -2770,6 +3123,45 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         return genEqualsForExpressionsOnStack(v, opToken, leftType, rightType);
     }
 
+    /**
+     * Returns a primitive type the value of the expression can be compared as with a plain primitive comparison:
+     * the type itself if it's primitive, or the unboxed type if it's a wrapper and data flow proves the value is not null.
+     * Floating point wrappers are not unboxed, because their equals() differs from the primitive comparison for NaN and -0.0
+     */
+    @Nullable
+    private Type primitiveTypeForEquality(@NotNull JetExpression expression, @NotNull Type type) {
+        if (isPrimitive(type)) {
+            return type;
+        }
+        Type unboxedType = unboxTypeOrNull(type);
+        if (unboxedType == null || unboxedType == Type.FLOAT_TYPE || unboxedType == Type.DOUBLE_TYPE) {
+            return null;
+        }
+        return isKnownToBeNotNull(expression) ? unboxedType : null;
+    }
+
+    private boolean isKnownToBeNotNull(@NotNull JetExpression expression) {
+        JetType jetType = bindingContext.get(EXPRESSION_TYPE, expression);
+        if (jetType == null) return false;
+
+        DataFlowInfo dataFlowInfo = bindingContext.get(EXPRESSION_DATA_FLOW_INFO, expression);
+        if (dataFlowInfo == null) {
+            dataFlowInfo = DataFlowInfo.EMPTY;
+        }
+
+        DataFlowValue value = DataFlowValueFactory.createDataFlowValue(expression, jetType, bindingContext);
+        return !dataFlowInfo.getNullability(value).canBeNull();
+    }
+
+    /**
+     * The value was proven not null by data flow, e.g. by an earlier null check. A value of a not-null type is still checked,
+     * because it can be null at runtime, e.g. if it's a parameter which has no not-null assertion or a property read before it's set
+     */
+    private boolean isNullCheckRedundant(@NotNull JetExpression expression) {
+        JetType type = bindingContext.get(EXPRESSION_TYPE, expression);
+        return type != null && isNullableType(type) && isKnownToBeNotNull(expression);
+    }
+
     private boolean isIntZero(JetExpression expr, Type exprType) {
         CompileTimeConstant<?> exprValue = bindingContext.get(BindingContext.COMPILE_TIME_VALUE, expr);
         return isIntPrimitive(exprType) && exprValue != null && exprValue.getValue().equals(0);
@@ -3025,11 +3417,15 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
     @Override
     public StackValue visitPostfixExpression(@NotNull JetPostfixExpression expression, StackValue receiver) {
         if (expression.getOperationReference().getReferencedNameElementType() == JetTokens.EXCLEXCL) {
-            StackValue base = genQualified(receiver, expression.getBaseExpression());
+            JetExpression baseExpression = expression.getBaseExpression();
+            StackValue base = genQualified(receiver, baseExpression);
             if (isPrimitive(base.type)) {
                 return base;
             }
             base.put(base.type, v);
+            if (isNullCheckRedundant(baseExpression)) {
+                return StackValue.onStack(base.type);
+            }
             v.dup();
             Label ok = new Label();
             v.ifnonnull(ok);
@@ -3733,8 +4129,9 @@ The "returned" value of try expression with no finally is either the last expres
             }
             JetSimpleNameExpression operationReference = conditionInRange.getOperationReference();
             boolean inverted = operationReference.getReferencedNameElementType() == JetTokens.NOT_IN;
-            if (isIntRangeExpr(rangeExpression)) {
-                getInIntRange(new StackValue.Local(subjectLocal, subjectType), (JetBinaryExpression) rangeExpression, inverted);
+            RangeCodegenUtil.ProgressionCall rangeCall = getPrimitiveRangeCall(rangeExpression);
+            if (rangeCall != null) {
+                genInRange(new StackValue.Local(subjectLocal, subjectType), rangeCall, getRangeElementType(rangeExpression), inverted);
             }
             else {
                 //FunctionDescriptor op =
@@ -3770,19 +4167,6 @@ The "returned" value of try expression with no finally is either the last expres
         invokeFunction(call, StackValue.none(), resolvedCall);
     }
 
-    private boolean isIntRangeExpr(JetExpression rangeExpression) {
-        if (rangeExpression instanceof JetBinaryExpression) {
-            JetBinaryExpression binaryExpression = (JetBinaryExpression) rangeExpression;
-            if (binaryExpression.getOperationReference().getReferencedNameElementType() == JetTokens.RANGE) {
-                JetType jetType = bindingContext.get(BindingContext.EXPRESSION_TYPE, rangeExpression);
-                assert jetType != null;
-                DeclarationDescriptor descriptor = jetType.getConstructor().getDeclarationDescriptor();
-                return INTEGRAL_RANGES.contains(descriptor);
-            }
-        }
-        return false;
-    }
-
     private void throwNewException(@NotNull String className) {
         throwNewException(className, null);
     }
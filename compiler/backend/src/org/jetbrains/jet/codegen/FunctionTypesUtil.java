@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.asm4.Type;
+import org.jetbrains.asm4.commons.Method;
 import org.jetbrains.jet.lang.descriptors.*;
 import org.jetbrains.jet.lang.descriptors.impl.MutableClassDescriptor;
 import org.jetbrains.jet.lang.resolve.name.Name;
@@ -41,6 +42,18 @@ public class FunctionTypesUtil {
 
     private static final ImmutableMap<ClassDescriptor, ClassDescriptor> FUNCTION_TO_IMPL;
 
+    private static final ImmutableMap<String, String> PRIMITIVE_FUNCTIONS = ImmutableMap.<String, String>builder()
+            .put("(I)I", "IntToInt")
+            .put("(I)Z", "IntToBoolean")
+            .put("(J)J", "LongToLong")
+            .put("(J)Z", "LongToBoolean")
+            .put("(D)D", "DoubleToDouble")
+            .put("(D)Z", "DoubleToBoolean")
+            .put("(II)I", "IntIntToInt")
+            .put("(JJ)J", "LongLongToLong")
+            .put("(DD)D", "DoubleDoubleToDouble")
+            .build();
+
     static {
         int n = KotlinBuiltIns.FUNCTION_TRAIT_COUNT;
         FUNCTIONS = new ArrayList<ClassDescriptor>(n);
@@ -177,4 +190,11 @@ public class FunctionTypesUtil {
             return Type.getObjectType("jet/FunctionImpl" + paramCount);
         }
     }
+
+    // Returns the interface from jet.runtime.PrimitiveFunction declaring an 'invoke' method with the given signature, if any
+    @Nullable
+    public static Type getPrimitiveFunctionType(@NotNull Method invoke) {
+        String name = PRIMITIVE_FUNCTIONS.get(invoke.getDescriptor());
+        return name != null ? Type.getObjectType("jet/runtime/PrimitiveFunction$" + name) : null;
+    }
 }
@@ -0,0 +1,693 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.util.containers.Stack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.asm4.Label;
+import org.jetbrains.asm4.Type;
+import org.jetbrains.asm4.commons.InstructionAdapter;
+import org.jetbrains.jet.JetNodeTypes;
+import org.jetbrains.jet.codegen.binding.CodegenBinding;
+import org.jetbrains.jet.codegen.intrinsics.Synchronized;
+import org.jetbrains.jet.codegen.state.JetTypeMapper;
+import org.jetbrains.jet.lang.descriptors.*;
+import org.jetbrains.jet.lang.psi.*;
+import org.jetbrains.jet.lang.resolve.BindingContext;
+import org.jetbrains.jet.lang.resolve.BindingContextUtils;
+import org.jetbrains.jet.lang.resolve.calls.model.*;
+import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns;
+import org.jetbrains.jet.lexer.JetTokens;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates calls of top-level <code>inline</code> functions declared in the sources being compiled by emitting their bodies
+ * right at the call site. Parameters become locals of the calling method, and a function literal passed to a parameter that
+ * is only ever invoked is not turned into a closure object: its body is emitted in place of each invocation.
+ *
+ * Functions which can't be safely moved to another class (e.g. the ones touching non-public declarations or declaring
+ * closures of their own) are called as usual.
+ */
+public class InlineCodegen {
+    private final ExpressionCodegen codegen;
+    private final BindingContext bindingContext;
+    private final JetTypeMapper typeMapper;
+    private final InstructionAdapter v;
+
+    private final Stack<InlinedFunction> inlinedFunctions = new Stack<InlinedFunction>();
+    private final Map<ValueParameterDescriptor, JetFunctionLiteralExpression> inlinedLambdas = Maps.newHashMap();
+    private PsiFile callSiteFile;
+
+    private static class InlinedFunction {
+        final SimpleFunctionDescriptor descriptor;
+        final Type returnType;
+        final Label end;
+
+        InlinedFunction(@NotNull SimpleFunctionDescriptor descriptor, @NotNull Type returnType, @NotNull Label end) {
+            this.descriptor = descriptor;
+            this.returnType = returnType;
+            this.end = end;
+        }
+    }
+
+    InlineCodegen(@NotNull ExpressionCodegen codegen) {
+        this.codegen = codegen;
+        this.bindingContext = codegen.getBindingContext();
+        this.typeMapper = codegen.typeMapper;
+        this.v = codegen.v;
+    }
+
+    @Nullable
+    public JetNamedFunction findInlinableFunction(@NotNull ResolvedCall<? extends CallableDescriptor> resolvedCall) {
+        JetNamedFunction function = findInlinableFunction(bindingContext, resolvedCall);
+        assert function == null || !isBeingInlined(resolvedCall.getResultingDescriptor().getOriginal()) :
+                "Recursive inlining is not detected for " + resolvedCall.getCall().getCallElement().getText();
+        return function;
+    }
+
+    /**
+     * Both the codegen and CapturedVariablesAnalyzer decide whether a call is inlined here, so that a variable is never considered
+     * not shared when it is in fact captured by a closure
+     */
+    @Nullable
+    private static JetNamedFunction findInlinableFunction(
+            @NotNull BindingContext bindingContext,
+            @NotNull ResolvedCall<? extends CallableDescriptor> resolvedCall
+    ) {
+        CallableDescriptor descriptor = resolvedCall.getResultingDescriptor().getOriginal();
+        if (!(descriptor instanceof SimpleFunctionDescriptor) || !((SimpleFunctionDescriptor) descriptor).isInline()) {
+            return null;
+        }
+        if (!(descriptor.getContainingDeclaration() instanceof NamespaceDescriptor)) {
+            return null;
+        }
+
+        PsiElement declaration = BindingContextUtils.descriptorToDeclaration(bindingContext, descriptor);
+        if (!(declaration instanceof JetNamedFunction)) {
+            return null;
+        }
+        JetNamedFunction function = (JetNamedFunction) declaration;
+        if (function.getBodyExpression() == null) {
+            return null;
+        }
+
+        InlinabilityChecker checker = new InlinabilityChecker(bindingContext, function, descriptor);
+        for (JetParameter parameter : function.getValueParameters()) {
+            JetExpression defaultValue = parameter.getDefaultValue();
+            if (defaultValue != null) {
+                defaultValue.accept(checker);
+            }
+        }
+        function.getBodyExpression().accept(checker);
+        if (!checker.inlinable) {
+            return null;
+        }
+
+        return mayBeGeneratedAt(bindingContext, function, resolvedCall.getCall().getCallElement()) ? null : function;
+    }
+
+    /**
+     * A function can't be inlined into itself: its parameters already occupy the frame. Tells whether the function may already be
+     * being generated at the given place, in any context where the code around it is generated:
+     * - it is the enclosing function, or calls it (possibly indirectly), so the enclosing function may be inlined into it;
+     * - an inlined function literal containing the place is passed to it or to a function it calls, so the literal's body may be
+     *   generated inside it.
+     * The result only depends on the source, unlike {@link #isBeingInlined}, which checks the current codegen state
+     */
+    private static boolean mayBeGeneratedAt(
+            @NotNull BindingContext bindingContext,
+            @NotNull JetNamedFunction function,
+            @NotNull PsiElement place
+    ) {
+        Set<JetNamedFunction> calledFromFunction = null;
+        for (PsiElement element = place.getParent(); element != null; element = element.getParent()) {
+            if (element instanceof JetFunctionLiteral) {
+                JetFunctionLiteralExpression lambda = (JetFunctionLiteralExpression) element.getParent();
+                if (!isInlinedLambda(bindingContext, lambda)) {
+                    // Closures are generated in classes of their own
+                    return false;
+                }
+
+                JetNamedFunction receivingFunction = getFunctionReceivingInlinedLambda(bindingContext, lambda);
+                if (receivingFunction != null) {
+                    if (receivingFunction == function ||
+                        collectCalledInlineFunctions(bindingContext, receivingFunction).contains(function)) {
+                        return true;
+                    }
+                }
+            }
+            else if (element instanceof JetNamedFunction) {
+                if (element == function) {
+                    return true;
+                }
+                if (calledFromFunction == null) {
+                    calledFromFunction = collectCalledInlineFunctions(bindingContext, function);
+                }
+                return calledFromFunction.contains(element);
+            }
+            else if (element instanceof JetDeclarationWithBody || element instanceof JetClassOrObject) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    // Inline functions called from the given one, directly or through other inline functions
+    @NotNull
+    private static Set<JetNamedFunction> collectCalledInlineFunctions(
+            @NotNull final BindingContext bindingContext,
+            @NotNull JetNamedFunction function
+    ) {
+        final Set<JetNamedFunction> result = Sets.newHashSet();
+        final List<JetNamedFunction> queue = Lists.newArrayList(function);
+        while (!queue.isEmpty()) {
+            queue.remove(queue.size() - 1).accept(new JetTreeVisitorVoid() {
+                @Override
+                public void visitReferenceExpression(JetReferenceExpression expression) {
+                    ResolvedCall<? extends CallableDescriptor> resolvedCall = bindingContext.get(BindingContext.RESOLVED_CALL, expression);
+                    CallableDescriptor target = resolvedCall != null ? resolvedCall.getResultingDescriptor().getOriginal() : null;
+                    if (target instanceof SimpleFunctionDescriptor && ((SimpleFunctionDescriptor) target).isInline()) {
+                        PsiElement declaration = BindingContextUtils.descriptorToDeclaration(bindingContext, target);
+                        if (declaration instanceof JetNamedFunction && result.add((JetNamedFunction) declaration)) {
+                            queue.add((JetNamedFunction) declaration);
+                        }
+                    }
+                    super.visitReferenceExpression(expression);
+                }
+            });
+        }
+        return result;
+    }
+
+    // A function can't be inlined into itself: its parameters already occupy the frame
+    private boolean isBeingInlined(@NotNull CallableDescriptor descriptor) {
+        for (InlinedFunction function : inlinedFunctions) {
+            if (function.descriptor == descriptor) {
+                return true;
+            }
+        }
+
+        FrameMap frameMap = codegen.myFrameMap;
+        ReceiverParameterDescriptor receiverParameter = descriptor.getReceiverParameter();
+        if (receiverParameter != null && frameMap.getIndex(receiverParameter) >= 0) {
+            return true;
+        }
+        for (ValueParameterDescriptor parameter : descriptor.getValueParameters()) {
+            if (frameMap.getIndex(parameter) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    public StackValue generateCall(
+            @NotNull Call call,
+            @NotNull ResolvedCall<? extends CallableDescriptor> resolvedCall,
+            @NotNull JetNamedFunction function,
+            @NotNull StackValue receiver
+    ) {
+        SimpleFunctionDescriptor descriptor = (SimpleFunctionDescriptor) resolvedCall.getResultingDescriptor().getOriginal();
+        FrameMap frameMap = codegen.myFrameMap;
+        List<DeclarationDescriptor> locals = Lists.newArrayList();
+        List<ValueParameterDescriptor> lambdaParameters = Lists.newArrayList();
+
+        StackValue receiverValue = StackValue.receiver(resolvedCall, receiver, codegen, null);
+        ReceiverParameterDescriptor receiverParameter = descriptor.getReceiverParameter();
+        if (receiverParameter != null) {
+            Type receiverType = typeMapper.mapType(receiverParameter.getType());
+            receiverValue.put(receiverType, v);
+            v.store(frameMap.enter(receiverParameter, receiverType), receiverType);
+            locals.add(receiverParameter);
+        }
+        else {
+            receiverValue.put(receiverValue.type, v);
+        }
+
+        Collection<ValueParameterDescriptor> invokedParameters = collectInvokedOnlyParameters(bindingContext, function, descriptor);
+        List<ResolvedValueArgument> arguments = resolvedCall.getValueArgumentsByIndex();
+        for (ValueParameterDescriptor parameter : descriptor.getValueParameters()) {
+            ResolvedValueArgument argument = arguments.get(parameter.getIndex());
+
+            JetFunctionLiteralExpression lambda =
+                    invokedParameters.contains(parameter) ? getInlinableLambda(bindingContext, argument) : null;
+            if (lambda != null) {
+                inlinedLambdas.put(parameter, lambda);
+                lambdaParameters.add(parameter);
+                continue;
+            }
+
+            Type type = typeMapper.mapType(parameter.getType());
+            if (argument instanceof ExpressionValueArgument) {
+                ValueArgument valueArgument = ((ExpressionValueArgument) argument).getValueArgument();
+                assert valueArgument != null && valueArgument.getArgumentExpression() != null : "No argument for " + parameter;
+                codegen.gen(valueArgument.getArgumentExpression(), type);
+            }
+            else if (argument instanceof DefaultValueArgument) {
+                JetParameter declaration = (JetParameter) BindingContextUtils.descriptorToDeclaration(bindingContext, parameter);
+                assert declaration != null && declaration.getDefaultValue() != null : "No default value for " + parameter;
+                codegen.gen(declaration.getDefaultValue(), type);
+            }
+            else if (argument instanceof VarargValueArgument) {
+                ValueParameterDescriptor substituted = resolvedCall.getResultingDescriptor().getValueParameters().get(parameter.getIndex());
+                codegen.genVarargs(substituted, (VarargValueArgument) argument);
+                StackValue.coerce(typeMapper.mapType(substituted.getType()), type, v);
+            }
+            else {
+                throw new UnsupportedOperationException("Unknown argument " + argument + " for " + parameter);
+            }
+            v.store(frameMap.enter(parameter, type), type);
+            locals.add(parameter);
+        }
+
+        if (inlinedFunctions.isEmpty()) {
+            callSiteFile = call.getCallElement().getContainingFile();
+        }
+        Type returnType = typeMapper.mapReturnType(descriptor.getReturnType());
+        InlinedFunction inlinedFunction = new InlinedFunction(descriptor, returnType, new Label());
+        inlinedFunctions.push(inlinedFunction);
+
+        JetExpression body = function.getBodyExpression();
+        assert body != null : "Inline function without a body: " + descriptor;
+        StackValue result = codegen.gen(body);
+        if (result.type != Type.VOID_TYPE || !ExpressionCodegen.endsWithReturn(body)) {
+            result.put(returnType, v);
+        }
+        v.mark(inlinedFunction.end);
+
+        inlinedFunctions.pop();
+        if (inlinedFunctions.isEmpty()) {
+            callSiteFile = null;
+        }
+        for (ValueParameterDescriptor parameter : lambdaParameters) {
+            inlinedLambdas.remove(parameter);
+        }
+        for (DeclarationDescriptor local : Lists.reverse(locals)) {
+            frameMap.leave(local);
+        }
+
+        if (returnType == Type.VOID_TYPE) {
+            return StackValue.none();
+        }
+        Type callReturnType = typeMapper.mapReturnType(resolvedCall.getResultingDescriptor().getReturnType());
+        StackValue.coerce(returnType, callReturnType, v);
+        return StackValue.onStack(callReturnType);
+    }
+
+    @Nullable
+    public StackValue generateLambdaCall(@NotNull VariableAsFunctionResolvedCall resolvedCall) {
+        JetFunctionLiteralExpression lambda = inlinedLambdas.get(resolvedCall.getVariableCall().getResultingDescriptor().getOriginal());
+        if (lambda == null) {
+            return null;
+        }
+
+        JetFunctionLiteral functionLiteral = lambda.getFunctionLiteral();
+        FunctionDescriptor descriptor = bindingContext.get(BindingContext.FUNCTION, functionLiteral);
+        assert descriptor != null : "Function literal is not resolved to descriptor: " + functionLiteral.getText();
+
+        FrameMap frameMap = codegen.myFrameMap;
+        List<ResolvedValueArgument> arguments = resolvedCall.getFunctionCall().getValueArgumentsByIndex();
+        List<ValueParameterDescriptor> parameters = descriptor.getValueParameters();
+        for (ValueParameterDescriptor parameter : parameters) {
+            ResolvedValueArgument argument = arguments.get(parameter.getIndex());
+            assert argument instanceof ExpressionValueArgument : "Unexpected argument " + argument + " of " + functionLiteral.getText();
+            ValueArgument valueArgument = ((ExpressionValueArgument) argument).getValueArgument();
+            assert valueArgument != null && valueArgument.getArgumentExpression() != null : "No argument for " + parameter;
+
+            Type type = typeMapper.mapType(parameter.getType());
+            codegen.gen(valueArgument.getArgumentExpression(), type);
+            v.store(frameMap.enter(parameter, type), type);
+        }
+
+        Type returnType = typeMapper.mapReturnType(descriptor.getReturnType());
+        codegen.gen(functionLiteral.getBodyExpression()).put(returnType, v);
+
+        for (ValueParameterDescriptor parameter : Lists.reverse(parameters)) {
+            frameMap.leave(parameter);
+        }
+
+        return returnType == Type.VOID_TYPE ? StackValue.none() : StackValue.onStack(returnType);
+    }
+
+    public boolean isInlining() {
+        return !inlinedFunctions.isEmpty();
+    }
+
+    @NotNull
+    public StackValue generateReturn(@NotNull JetReturnExpression expression) {
+        InlinedFunction function = inlinedFunctions.peek();
+        JetExpression returnedExpression = expression.getReturnedExpression();
+        if (returnedExpression != null) {
+            codegen.gen(returnedExpression, function.returnType);
+        }
+        v.goTo(function.end);
+        return StackValue.none();
+    }
+
+    @Nullable
+    public StackValue lookupReceiver(@NotNull DeclarationDescriptor provided) {
+        if (inlinedFunctions.isEmpty() || !(provided instanceof CallableDescriptor)) {
+            return null;
+        }
+        ReceiverParameterDescriptor receiverParameter = ((CallableDescriptor) provided).getReceiverParameter();
+        if (receiverParameter == null) {
+            return null;
+        }
+        int index = codegen.myFrameMap.getIndex(receiverParameter);
+        return index >= 0 ? StackValue.local(index, typeMapper.mapType(receiverParameter.getType())) : null;
+    }
+
+    // Line numbers from the file of an inlined function would be attributed to the file of the call site
+    public boolean shouldMarkLineNumber(@NotNull JetElement element) {
+        return inlinedFunctions.isEmpty() || element.getContainingFile() == callSiteFile;
+    }
+
+    /**
+     * Tells whether the function literal is passed to a call which is going to be inlined (or to synchronized()), and its body
+     * will be emitted in place of the invocations instead of creating a closure. Local variables captured only by such literals
+     * don't need shared boxes.
+     */
+    public static boolean isInlinedLambda(@NotNull BindingContext bindingContext, @NotNull JetFunctionLiteralExpression lambda) {
+        ResolvedCall<? extends CallableDescriptor> resolvedCall = getCallTakingLambda(bindingContext, lambda);
+        if (resolvedCall == null) {
+            return false;
+        }
+        if (Synchronized.isSynchronized(resolvedCall.getResultingDescriptor())) {
+            return getInlinableLambda(bindingContext, resolvedCall.getValueArgumentsByIndex().get(1)) == lambda;
+        }
+        JetNamedFunction function = findInlinableFunction(bindingContext, resolvedCall);
+        if (function == null) {
+            return false;
+        }
+
+        SimpleFunctionDescriptor descriptor = (SimpleFunctionDescriptor) resolvedCall.getResultingDescriptor().getOriginal();
+        Collection<ValueParameterDescriptor> invokedParameters = collectInvokedOnlyParameters(bindingContext, function, descriptor);
+        List<ResolvedValueArgument> arguments = resolvedCall.getValueArgumentsByIndex();
+        for (ValueParameterDescriptor parameter : invokedParameters) {
+            if (getInlinableLambda(bindingContext, arguments.get(parameter.getIndex())) == lambda) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The inline function, which the literal is passed to and inlined into, or null if it is inlined into synchronized()
+    @Nullable
+    private static JetNamedFunction getFunctionReceivingInlinedLambda(
+            @NotNull BindingContext bindingContext,
+            @NotNull JetFunctionLiteralExpression lambda
+    ) {
+        ResolvedCall<? extends CallableDescriptor> resolvedCall = getCallTakingLambda(bindingContext, lambda);
+        assert resolvedCall != null : "Inlined lambda is not an argument of a call: " + lambda.getText();
+        if (Synchronized.isSynchronized(resolvedCall.getResultingDescriptor())) {
+            return null;
+        }
+        return (JetNamedFunction) BindingContextUtils.descriptorToDeclaration(
+                bindingContext, resolvedCall.getResultingDescriptor().getOriginal());
+    }
+
+    @Nullable
+    private static ResolvedCall<? extends CallableDescriptor> getCallTakingLambda(
+            @NotNull BindingContext bindingContext,
+            @NotNull JetFunctionLiteralExpression lambda
+    ) {
+        PsiElement argument = lambda;
+        while (argument.getParent() instanceof JetParenthesizedExpression) {
+            argument = argument.getParent();
+        }
+        PsiElement parent = argument.getParent();
+        if (parent instanceof JetValueArgument) {
+            parent = parent.getParent() != null ? parent.getParent().getParent() : null;
+        }
+        if (!(parent instanceof JetCallExpression)) {
+            return null;
+        }
+
+        JetExpression callee = ((JetCallExpression) parent).getCalleeExpression();
+        ResolvedCall<? extends CallableDescriptor> resolvedCall = bindingContext.get(BindingContext.RESOLVED_CALL, callee);
+        if (resolvedCall == null || resolvedCall instanceof VariableAsFunctionResolvedCall) {
+            return null;
+        }
+        return resolvedCall;
+    }
+
+    @NotNull
+    private static Collection<ValueParameterDescriptor> collectInvokedOnlyParameters(
+            @NotNull final BindingContext bindingContext,
+            @NotNull JetNamedFunction function,
+            @NotNull SimpleFunctionDescriptor descriptor
+    ) {
+        final Collection<ValueParameterDescriptor> result = Sets.newHashSet();
+        for (ValueParameterDescriptor parameter : descriptor.getValueParameters()) {
+            if (!parameter.getType().isNullable() && KotlinBuiltIns.getInstance().isFunctionType(parameter.getType())) {
+                result.add(parameter);
+            }
+        }
+        if (result.isEmpty()) {
+            return result;
+        }
+
+        function.accept(new JetTreeVisitorVoid() {
+            @Override
+            public void visitSimpleNameExpression(JetSimpleNameExpression expression) {
+                DeclarationDescriptor target = getReferencedDescriptor(bindingContext, expression);
+                if (target instanceof ValueParameterDescriptor && !isInvocationCallee(bindingContext, expression)) {
+                    result.remove(target);
+                }
+                super.visitSimpleNameExpression(expression);
+            }
+        });
+        return result;
+    }
+
+    private static boolean isInvocationCallee(@NotNull BindingContext bindingContext, @NotNull JetSimpleNameExpression expression) {
+        PsiElement parent = expression.getParent();
+        return parent instanceof JetCallExpression &&
+               ((JetCallExpression) parent).getCalleeExpression() == expression &&
+               bindingContext.get(BindingContext.RESOLVED_CALL, expression) instanceof VariableAsFunctionResolvedCall;
+    }
+
+    /**
+     * Returns the function literal passed as the argument if its body can be emitted in place of its invocation, or null.
+     */
+    @Nullable
+    public static JetFunctionLiteralExpression getInlinableLambda(
+            @NotNull BindingContext bindingContext,
+            @NotNull ResolvedValueArgument argument
+    ) {
+        if (!(argument instanceof ExpressionValueArgument)) {
+            return null;
+        }
+        ValueArgument valueArgument = ((ExpressionValueArgument) argument).getValueArgument();
+        JetExpression argumentExpression = valueArgument != null ? valueArgument.getArgumentExpression() : null;
+        JetExpression expression = argumentExpression != null ? JetPsiUtil.deparenthesize(argumentExpression) : null;
+        if (!(expression instanceof JetFunctionLiteralExpression)) {
+            return null;
+        }
+
+        JetFunctionLiteralExpression lambda = (JetFunctionLiteralExpression) expression;
+        if (Boolean.TRUE.equals(bindingContext.get(BindingContext.BLOCK, lambda)) ||
+            bindingContext.get(CodegenBinding.SAM_VALUE, lambda) != null) {
+            return null;
+        }
+        FunctionDescriptor descriptor = bindingContext.get(BindingContext.FUNCTION, lambda.getFunctionLiteral());
+        if (descriptor == null || descriptor.getReceiverParameter() != null) {
+            return null;
+        }
+
+        InlinabilityChecker checker = new InlinabilityChecker(bindingContext, null, null);
+        lambda.getFunctionLiteral().getBodyExpression().accept(checker);
+        return checker.inlinable ? lambda : null;
+    }
+
+    @Nullable
+    private static DeclarationDescriptor getReferencedDescriptor(
+            @NotNull BindingContext bindingContext,
+            @NotNull JetSimpleNameExpression expression
+    ) {
+        ResolvedCall<? extends CallableDescriptor> resolvedCall = bindingContext.get(BindingContext.RESOLVED_CALL, expression);
+        if (resolvedCall instanceof VariableAsFunctionResolvedCall) {
+            resolvedCall = ((VariableAsFunctionResolvedCall) resolvedCall).getVariableCall();
+        }
+        DeclarationDescriptor descriptor = resolvedCall != null
+                                           ? resolvedCall.getResultingDescriptor()
+                                           : bindingContext.get(BindingContext.REFERENCE_TARGET, expression);
+        return descriptor != null ? descriptor.getOriginal() : null;
+    }
+
+    /**
+     * Finds constructs that can't be moved from the inline function (or the function literal) to the call site: declarations
+     * which are compiled to classes of their own, code that relies on the operand stack being empty (try blocks, returns in
+     * the middle of an expression), and references to declarations that may be inaccessible from the class of the call site.
+     * When checking a function literal, <code>function</code> is null and no returns are allowed.
+     */
+    private static class InlinabilityChecker extends JetTreeVisitorVoid {
+        private final BindingContext bindingContext;
+        private final JetNamedFunction function;
+        private final CallableDescriptor descriptor;
+
+        boolean inlinable = true;
+
+        InlinabilityChecker(
+                @NotNull BindingContext bindingContext,
+                @Nullable JetNamedFunction function,
+                @Nullable CallableDescriptor descriptor
+        ) {
+            this.bindingContext = bindingContext;
+            this.function = function;
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public void visitElement(PsiElement element) {
+            if (inlinable) {
+                super.visitElement(element);
+            }
+        }
+
+        @Override
+        public void visitFunctionLiteralExpression(JetFunctionLiteralExpression expression) {
+            inlinable = false;
+        }
+
+        @Override
+        public void visitObjectLiteralExpression(JetObjectLiteralExpression expression) {
+            inlinable = false;
+        }
+
+        @Override
+        public void visitCallableReferenceExpression(JetCallableReferenceExpression expression) {
+            inlinable = false;
+        }
+
+        @Override
+        public void visitClass(JetClass klass) {
+            inlinable = false;
+        }
+
+        @Override
+        public void visitObjectDeclaration(JetObjectDeclaration declaration) {
+            inlinable = false;
+        }
+
+        @Override
+        public void visitNamedFunction(JetNamedFunction function) {
+            inlinable = false;
+        }
+
+        @Override
+        public void visitTryExpression(JetTryExpression expression) {
+            inlinable = false;
+        }
+
+        @Override
+        public void visitSuperExpression(JetSuperExpression expression) {
+            inlinable = false;
+        }
+
+        @Override
+        public void visitReturnExpression(JetReturnExpression expression) {
+            if (function == null || expression.getTargetLabel() != null ||
+                !isAtStatementPosition(expression, function.getBodyExpression())) {
+                inlinable = false;
+                return;
+            }
+            super.visitReturnExpression(expression);
+        }
+
+        @Override
+        public void visitSimpleNameExpression(JetSimpleNameExpression expression) {
+            if (function != null && !isAccessibleEverywhere(getReferencedDescriptor(bindingContext, expression))) {
+                inlinable = false;
+                return;
+            }
+            super.visitSimpleNameExpression(expression);
+        }
+
+        private boolean isAccessibleEverywhere(@Nullable DeclarationDescriptor target) {
+            for (DeclarationDescriptor current = target; current != null && current != descriptor;
+                 current = current.getContainingDeclaration()) {
+                if (current instanceof PropertyDescriptor) {
+                    PropertySetterDescriptor setter = ((PropertyDescriptor) current).getSetter();
+                    if (setter != null && !isAccessibleEverywhere(setter.getVisibility())) {
+                        return false;
+                    }
+                }
+                if (current instanceof DeclarationDescriptorWithVisibility &&
+                    !isAccessibleEverywhere(((DeclarationDescriptorWithVisibility) current).getVisibility())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isAccessibleEverywhere(@NotNull Visibility visibility) {
+            return visibility == Visibilities.PUBLIC || visibility == Visibilities.INTERNAL || visibility == Visibilities.LOCAL;
+        }
+
+        // A return jumps to the end of the inlined body, so nothing may be left on the operand stack by the enclosing expressions
+        private static boolean isAtStatementPosition(@NotNull JetReturnExpression expression, @Nullable JetExpression body) {
+            PsiElement child = expression;
+            while (child != body) {
+                PsiElement parent = child.getParent();
+                if (!isStatementContainer(parent, child)) {
+                    return false;
+                }
+                child = parent;
+            }
+            return true;
+        }
+
+        private static boolean isStatementContainer(@Nullable PsiElement parent, @NotNull PsiElement child) {
+            if (parent instanceof JetBlockExpression || parent instanceof JetParenthesizedExpression) {
+                return true;
+            }
+            if (parent instanceof JetContainerNode) {
+                IElementType type = parent.getNode().getElementType();
+                return type == JetNodeTypes.THEN || type == JetNodeTypes.ELSE || type == JetNodeTypes.BODY;
+            }
+            if (parent instanceof JetIfExpression || parent instanceof JetLoopExpression) {
+                return child instanceof JetContainerNode;
+            }
+            if (parent instanceof JetWhenExpression) {
+                return child instanceof JetWhenEntry;
+            }
+            if (parent instanceof JetWhenEntry) {
+                return child == ((JetWhenEntry) parent).getExpression();
+            }
+            if (parent instanceof JetProperty) {
+                return child == ((JetProperty) parent).getInitializer();
+            }
+            if (parent instanceof JetBinaryExpression) {
+                JetBinaryExpression binaryExpression = (JetBinaryExpression) parent;
+                return binaryExpression.getOperationToken() == JetTokens.ELVIS && child == binaryExpression.getRight();
+            }
+            return false;
+        }
+    }
+}
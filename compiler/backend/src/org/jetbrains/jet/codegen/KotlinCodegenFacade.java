@@ -27,6 +27,7 @@ import org.jetbrains.jet.lang.psi.JetPsiUtil;
 import org.jetbrains.jet.lang.psi.JetScript;
 import org.jetbrains.jet.lang.resolve.ScriptNameUtil;
 import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.utils.PerformanceReport;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -50,7 +51,13 @@ public class KotlinCodegenFacade {
 
         state.getScriptCodegen().registerEarlierScripts(Collections.<Pair<ScriptDescriptor, Type>>emptyList());
 
-        state.beforeCompile();
+        PerformanceReport.Phase phase = PerformanceReport.startPhase("codegen preparation");
+        try {
+            state.beforeCompile();
+        }
+        finally {
+            phase.end();
+        }
 
         MultiMap<FqName, JetFile> namespaceGrouping = new MultiMap<FqName, JetFile>();
         for (JetFile file : state.getFiles()) {
@@ -69,8 +76,14 @@ public class KotlinCodegenFacade {
             @NotNull Collection<JetFile> jetFiles,
             @NotNull CompilationErrorHandler errorHandler
     ) {
+        PerformanceReport.Phase phase = PerformanceReport.startPhase("codegen", fqName.asString());
+        try {
             NamespaceCodegen codegen = state.getFactory().forNamespace(fqName, jetFiles);
             codegen.generate(errorHandler);
+        }
+        finally {
+            phase.end();
+        }
     }
 
     private KotlinCodegenFacade() {}
@@ -265,7 +265,7 @@ public class NamespaceCodegen extends MemberCodegen {
 
     private void generateStaticInitializers(@NotNull ClassBuilder builder, @NotNull JetFile file, @NotNull FieldOwnerContext context) {
         List<JetProperty> properties = collectPropertiesToInitialize(file);
-        if (properties.isEmpty()) return;
+        if (properties.isEmpty() && !PropertyCodegen.hasDelegatedProperties(file.getDeclarations())) return;
 
         MethodVisitor mv = builder.newMethod(file, ACC_STATIC, "<clinit>", "()V", null, null);
         if (state.getClassBuilderMode() == ClassBuilderMode.FULL) {
@@ -282,6 +282,8 @@ public class NamespaceCodegen extends MemberCodegen {
 
             ExpressionCodegen codegen = new ExpressionCodegen(mv, frameMap, Type.VOID_TYPE, context.intoFunction(clInit), state);
 
+            PropertyCodegen.initializePropertyMetadata(codegen, context, Type.getObjectType(builder.getThisName()), file.getDeclarations());
+
             for (JetDeclaration declaration : properties) {
                 ImplementationBodyCodegen.
                         initializeProperty(codegen, state.getBindingContext(), (JetProperty) declaration);
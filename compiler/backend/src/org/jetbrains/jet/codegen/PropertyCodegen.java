@@ -42,11 +42,13 @@ import org.jetbrains.jet.lang.types.ErrorUtils;
 import org.jetbrains.jet.lang.types.JetType;
 import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns;
 
+import java.util.List;
+
 import static org.jetbrains.asm4.Opcodes.*;
 import static org.jetbrains.jet.codegen.AsmUtil.*;
 import static org.jetbrains.jet.codegen.CodegenUtil.getParentBodyCodegen;
 import static org.jetbrains.jet.codegen.CodegenUtil.isInterface;
-import static org.jetbrains.jet.lang.resolve.java.AsmTypeConstants.OBJECT_TYPE;
+import static org.jetbrains.jet.lang.resolve.java.AsmTypeConstants.*;
 
 public class PropertyCodegen extends GenerationStateAware {
     @NotNull
@@ -92,6 +94,7 @@ public class PropertyCodegen extends GenerationStateAware {
         }
         else if (kind != OwnerKind.TRAIT_IMPL) {
             generateBackingField(p, propertyDescriptor);
+            generatePropertyMetadataField(p, propertyDescriptor);
         }
 
         generateGetter(p, propertyDescriptor, p.getGetter());
@@ -155,6 +158,57 @@ public class PropertyCodegen extends GenerationStateAware {
         }
     }
 
+    // Delegated property accessors pass the same PropertyMetadata instance to the delegate on every call,
+    // it's created in the static initializer of the class (see initializePropertyMetadata)
+    private void generatePropertyMetadataField(@NotNull JetProperty p, @NotNull PropertyDescriptor propertyDescriptor) {
+        if (p.getDelegateExpression() == null || isInterface(propertyDescriptor.getContainingDeclaration())) return;
+
+        v.newField(p, ACC_PRIVATE | ACC_STATIC | ACC_FINAL | ACC_SYNTHETIC, getPropertyMetadataFieldName(context, propertyDescriptor),
+                   JET_PROPERTY_METADATA_TYPE.getDescriptor(), null, null);
+    }
+
+    @NotNull
+    private StackValue getPropertyMetadataField(@NotNull PropertyDescriptor propertyDescriptor) {
+        return StackValue.field(JET_PROPERTY_METADATA_TYPE, Type.getObjectType(v.getThisName()),
+                                getPropertyMetadataFieldName(context, propertyDescriptor), true);
+    }
+
+    @NotNull
+    private static String getPropertyMetadataFieldName(@NotNull FieldOwnerContext context, @NotNull PropertyDescriptor propertyDescriptor) {
+        return context.getFieldName(propertyDescriptor, true) + JvmAbi.PROPERTY_METADATA_FIELD_NAME_SUFFIX;
+    }
+
+    public static boolean hasDelegatedProperties(@NotNull List<JetDeclaration> declarations) {
+        for (JetDeclaration declaration : declarations) {
+            if (declaration instanceof JetProperty && ((JetProperty) declaration).getDelegateExpression() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void initializePropertyMetadata(
+            @NotNull ExpressionCodegen codegen,
+            @NotNull FieldOwnerContext context,
+            @NotNull Type owner,
+            @NotNull List<JetDeclaration> declarations
+    ) {
+        InstructionAdapter iv = codegen.v;
+        for (JetDeclaration declaration : declarations) {
+            if (!(declaration instanceof JetProperty) || ((JetProperty) declaration).getDelegateExpression() == null) continue;
+
+            VariableDescriptor descriptor = codegen.getBindingContext().get(BindingContext.VARIABLE, declaration);
+            assert descriptor instanceof PropertyDescriptor : "Property should have a property descriptor: " + declaration.getText();
+
+            iv.anew(JET_PROPERTY_METADATA_IMPL_TYPE);
+            iv.dup();
+            iv.aconst(descriptor.getName().asString());
+            iv.invokespecial(JET_PROPERTY_METADATA_IMPL_TYPE.getInternalName(), "<init>", "(Ljava/lang/String;)V");
+            iv.putstatic(owner.getInternalName(), getPropertyMetadataFieldName(context, (PropertyDescriptor) descriptor),
+                         JET_PROPERTY_METADATA_TYPE.getDescriptor());
+        }
+    }
+
     private FieldVisitor generateBackingField(JetNamedDeclaration element, PropertyDescriptor propertyDescriptor, boolean isDelegate, JetType jetType, Object defaultValue) {
         int modifiers = getDeprecatedAccessFlag(propertyDescriptor);
 
@@ -237,7 +291,8 @@ public class PropertyCodegen extends GenerationStateAware {
             FunctionGenerationStrategy strategy;
             if (defaultGetter) {
                 if (p instanceof JetProperty && ((JetProperty) p).getDelegateExpression() != null) {
-                    strategy = new DefaultPropertyWithDelegateAccessorStrategy(state, getterDescriptor);
+                    strategy = new DefaultPropertyWithDelegateAccessorStrategy(state, getterDescriptor,
+                                                                               getPropertyMetadataField(propertyDescriptor));
                 }
                 else {
                     strategy = new DefaultPropertyAccessorStrategy(state, getterDescriptor);
@@ -268,7 +323,8 @@ public class PropertyCodegen extends GenerationStateAware {
                 FunctionGenerationStrategy strategy;
                 if (defaultSetter) {
                     if (p instanceof JetProperty && ((JetProperty) p).getDelegateExpression() != null) {
-                        strategy = new DefaultPropertyWithDelegateAccessorStrategy(state, setterDescriptor);
+                        strategy = new DefaultPropertyWithDelegateAccessorStrategy(state, setterDescriptor,
+                                                                                   getPropertyMetadataField(propertyDescriptor));
                     }
                     else {
                         strategy = new DefaultPropertyAccessorStrategy(state, setterDescriptor);
@@ -342,8 +398,15 @@ public class PropertyCodegen extends GenerationStateAware {
     }
 
     private static class DefaultPropertyWithDelegateAccessorStrategy extends FunctionGenerationStrategy.CodegenBased<PropertyAccessorDescriptor> {
-        public DefaultPropertyWithDelegateAccessorStrategy(@NotNull GenerationState state, @NotNull PropertyAccessorDescriptor descriptor) {
+        private final StackValue propertyMetadata;
+
+        public DefaultPropertyWithDelegateAccessorStrategy(
+                @NotNull GenerationState state,
+                @NotNull PropertyAccessorDescriptor descriptor,
+                @NotNull StackValue propertyMetadata
+        ) {
             super(state, descriptor);
+            this.propertyMetadata = propertyMetadata;
         }
 
         @Override
@@ -361,6 +424,10 @@ public class PropertyCodegen extends GenerationStateAware {
             Call call = bindingContext.get(BindingContext.DELEGATED_PROPERTY_CALL, callableDescriptor);
             assert call != null : "Call should be recorded for delegate call " + signature.toString();
 
+            // The second argument of the convention call is a synthetic 'PropertyMetadataImpl("name")' expression
+            JetExpression propertyMetadataArgument = call.getValueArguments().get(1).getArgumentExpression();
+            codegen.tempVariables.put(propertyMetadataArgument, propertyMetadata);
+
             PropertyDescriptor property = callableDescriptor.getCorrespondingProperty();
             Type asmType = typeMapper.mapType(property);
 
@@ -19,10 +19,11 @@ package org.jetbrains.jet.codegen;
 import com.google.common.collect.ImmutableMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.jetbrains.jet.lang.descriptors.CallableDescriptor;
-import org.jetbrains.jet.lang.descriptors.ClassifierDescriptor;
+import org.jetbrains.jet.lang.descriptors.*;
 import org.jetbrains.jet.lang.psi.*;
+import org.jetbrains.jet.lang.resolve.BindingContext;
 import org.jetbrains.jet.lang.resolve.DescriptorUtils;
+import org.jetbrains.jet.lang.resolve.calls.model.ResolvedCall;
 import org.jetbrains.jet.lang.resolve.name.FqName;
 import org.jetbrains.jet.lang.resolve.name.Name;
 import org.jetbrains.jet.lang.types.JetType;
@@ -32,11 +33,18 @@ import org.jetbrains.jet.lang.types.lang.PrimitiveType;
 import java.util.List;
 
 import static org.jetbrains.jet.codegen.AsmUtil.isPrimitiveNumberClassDescriptor;
+import static org.jetbrains.jet.lang.resolve.BindingContext.RESOLVED_CALL;
 
 public class RangeCodegenUtil {
     private static final ImmutableMap<FqName, PrimitiveType> RANGE_TO_ELEMENT_TYPE;
     private static final ImmutableMap<FqName, PrimitiveType> PROGRESSION_TO_ELEMENT_TYPE;
 
+    private static final FqName KOTLIN_PACKAGE = FqName.topLevel(Name.identifier("kotlin"));
+    private static final Name DOWN_TO = Name.identifier("downTo");
+    private static final Name REVERSED = Name.identifier("reversed");
+    private static final Name STEP = Name.identifier("step");
+    private static final Name INDICES = Name.identifier("indices");
+
     static {
         ImmutableMap.Builder<FqName, PrimitiveType> rangeBuilder = ImmutableMap.builder();
         ImmutableMap.Builder<FqName, PrimitiveType> progressionBuilder = ImmutableMap.builder();
@@ -88,6 +96,121 @@ public class RangeCodegenUtil {
         return null;
     }
 
+    // Recognizes rangeTo() of primitives, downTo(), reversed() and step() from the standard library and indices of arrays and collections.
+    // Start, end and increment of the resulting progression can be computed without creating the progression object
+    @Nullable
+    public static ProgressionCall getProgressionCall(@NotNull BindingContext bindingContext, @NotNull JetExpression expression) {
+        JetExpression receiver;
+        JetExpression callee;
+        JetExpression argument = null;
+
+        JetExpression deparenthesized = JetPsiUtil.deparenthesize(expression);
+        if (deparenthesized instanceof JetBinaryExpression) {
+            // a downTo b, a .. b, r step s
+            JetBinaryExpression binaryExpression = (JetBinaryExpression) deparenthesized;
+            receiver = binaryExpression.getLeft();
+            callee = binaryExpression.getOperationReference();
+            argument = binaryExpression.getRight();
+            if (receiver == null || argument == null) return null;
+        }
+        else if (deparenthesized instanceof JetDotQualifiedExpression) {
+            // a.downTo(b), r.reversed(), array.indices
+            JetDotQualifiedExpression qualifiedExpression = (JetDotQualifiedExpression) deparenthesized;
+            receiver = qualifiedExpression.getReceiverExpression();
+            JetExpression selector = qualifiedExpression.getSelectorExpression();
+            if (selector instanceof JetCallExpression) {
+                JetCallExpression callExpression = (JetCallExpression) selector;
+                List<? extends ValueArgument> arguments = callExpression.getValueArguments();
+                if (arguments.size() > 1 || !callExpression.getFunctionLiteralArguments().isEmpty()) return null;
+                callee = callExpression.getCalleeExpression();
+                if (arguments.size() == 1) {
+                    argument = arguments.get(0).getArgumentExpression();
+                    if (argument == null) return null;
+                }
+            }
+            else if (selector instanceof JetSimpleNameExpression) {
+                callee = selector;
+            }
+            else {
+                return null;
+            }
+        }
+        else {
+            return null;
+        }
+
+        if (callee == null) return null;
+        ResolvedCall<? extends CallableDescriptor> resolvedCall = bindingContext.get(RESOLVED_CALL, callee);
+        if (resolvedCall == null) return null;
+
+        ProgressionCallKind kind = getProgressionCallKind(resolvedCall.getResultingDescriptor().getOriginal());
+        if (kind == null || kind.hasArgument != (argument != null)) return null;
+
+        return new ProgressionCall(kind, receiver, argument);
+    }
+
+    @Nullable
+    private static ProgressionCallKind getProgressionCallKind(@NotNull CallableDescriptor descriptor) {
+        if (isOptimizableRangeTo(descriptor)) {
+            return ProgressionCallKind.RANGE_TO;
+        }
+
+        Name name = descriptor.getName();
+        if (INDICES.equals(name) && descriptor instanceof PropertyDescriptor && isArrayClass(descriptor.getContainingDeclaration())) {
+            return ProgressionCallKind.INDICES;
+        }
+
+        ReceiverParameterDescriptor receiverParameter = descriptor.getReceiverParameter();
+        if (receiverParameter == null || !isKotlinPackageMember(descriptor)) return null;
+        JetType receiverType = receiverParameter.getType();
+        if (receiverType.isNullable()) return null;
+
+        if (DOWN_TO.equals(name) && descriptor instanceof FunctionDescriptor) {
+            if (isPrimitiveNumberClassDescriptor(receiverType.getConstructor().getDeclarationDescriptor())) {
+                return ProgressionCallKind.DOWN_TO;
+            }
+        }
+        else if (REVERSED.equals(name) && descriptor instanceof FunctionDescriptor) {
+            if (isRange(receiverType) || isProgression(receiverType)) {
+                return ProgressionCallKind.REVERSED;
+            }
+        }
+        else if (STEP.equals(name) && descriptor instanceof FunctionDescriptor) {
+            // Floating point steps are also checked for NaN, so they are left to the library
+            PrimitiveType elementType = getPrimitiveRangeOrProgressionElementType(receiverType);
+            if (elementType != null && elementType != PrimitiveType.FLOAT && elementType != PrimitiveType.DOUBLE) {
+                return ProgressionCallKind.STEP;
+            }
+        }
+        else if (INDICES.equals(name) && descriptor instanceof PropertyDescriptor) {
+            if (receiverType.getConstructor().getDeclarationDescriptor() == KotlinBuiltIns.getInstance().getCollection()) {
+                return ProgressionCallKind.INDICES;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isKotlinPackageMember(@NotNull CallableDescriptor descriptor) {
+        DeclarationDescriptor containingDeclaration = descriptor.getContainingDeclaration();
+        return containingDeclaration instanceof NamespaceDescriptor &&
+               KOTLIN_PACKAGE.equals(DescriptorUtils.getFQName(containingDeclaration).toSafe());
+    }
+
+    private static boolean isArrayClass(@NotNull DeclarationDescriptor descriptor) {
+        KotlinBuiltIns builtIns = KotlinBuiltIns.getInstance();
+        if (descriptor == builtIns.getArray()) return true;
+        for (PrimitiveType primitiveType : PrimitiveType.values()) {
+            if (descriptor == builtIns.getPrimitiveArrayClassDescriptor(primitiveType)) return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    private static PrimitiveType getPrimitiveRangeOrProgressionElementType(@NotNull JetType rangeType) {
+        PrimitiveType rangeElementType = getPrimitiveRangeElementType(rangeType);
+        return rangeElementType != null ? rangeElementType : getPrimitiveProgressionElementType(rangeType);
+    }
+
     @Nullable
     private static PrimitiveType getPrimitiveRangeElementType(JetType rangeType) {
         return getPrimitiveRangeOrProgressionElementType(rangeType, RANGE_TO_ELEMENT_TYPE);
@@ -131,6 +254,33 @@ public class RangeCodegenUtil {
         return KotlinBuiltIns.BUILT_INS_PACKAGE_FQ_NAME.child(Name.identifier(type.getTypeName() + "Progression"));
     }
 
+    public enum ProgressionCallKind {
+        RANGE_TO(true),
+        DOWN_TO(true),
+        STEP(true),
+        REVERSED(false),
+        INDICES(false);
+
+        private final boolean hasArgument;
+
+        ProgressionCallKind(boolean hasArgument) {
+            this.hasArgument = hasArgument;
+        }
+    }
+
+    public static class ProgressionCall {
+        public final ProgressionCallKind kind;
+        public final JetExpression receiver;
+        // Null for reversed() and indices
+        public final JetExpression argument;
+
+        private ProgressionCall(@NotNull ProgressionCallKind kind, @NotNull JetExpression receiver, @Nullable JetExpression argument) {
+            this.kind = kind;
+            this.receiver = receiver;
+            this.argument = argument;
+        }
+    }
+
     public static class BinaryCall {
         public final JetExpression left;
         public final JetExpression op;
@@ -83,6 +83,7 @@ public class ScriptCodegen extends MemberCodegen {
                                  new String[0]);
 
         genMembers(scriptDeclaration, context, classBuilder);
+        genPropertyMetadataInitializer(scriptDeclaration, scriptDescriptor, context, classType, classBuilder);
         genFieldsForParameters(scriptDescriptor, classBuilder);
         genConstructor(scriptDeclaration, scriptDescriptor, classDescriptorForScript, classBuilder,
                        context.intoFunction(scriptDescriptor.getScriptCodeDescriptor()),
@@ -176,6 +177,27 @@ public class ScriptCodegen extends MemberCodegen {
         mv.visitEnd();
     }
 
+    private void genPropertyMetadataInitializer(
+            @NotNull JetScript scriptDeclaration,
+            @NotNull ScriptDescriptor scriptDescriptor,
+            @NotNull ScriptContext context,
+            @NotNull Type classType,
+            @NotNull ClassBuilder classBuilder
+    ) {
+        List<JetDeclaration> declarations = scriptDeclaration.getDeclarations();
+        if (!PropertyCodegen.hasDelegatedProperties(declarations)) return;
+
+        MethodVisitor mv = classBuilder.newMethod(scriptDeclaration, ACC_STATIC, "<clinit>", "()V", null, null);
+        mv.visitCode();
+
+        ExpressionCodegen codegen = new ExpressionCodegen(mv, new FrameMap(), Type.VOID_TYPE,
+                                                          context.intoFunction(scriptDescriptor.getScriptCodeDescriptor()), state);
+        PropertyCodegen.initializePropertyMetadata(codegen, context, classType, declarations);
+
+        mv.visitInsn(RETURN);
+        FunctionCodegen.endVisit(mv, "static initializer for script", scriptDeclaration);
+    }
+
     private void genFieldsForParameters(@NotNull ScriptDescriptor script, @NotNull ClassBuilder classBuilder) {
         for (ScriptDescriptor earlierScript : earlierScripts) {
             Type earlierClassName = asmTypeForScriptDescriptor(bindingContext, earlierScript);
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.binding;
+
+import com.google.common.collect.Sets;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.codegen.InlineCodegen;
+import org.jetbrains.jet.lang.descriptors.PropertyDescriptor;
+import org.jetbrains.jet.lang.descriptors.VariableDescriptor;
+import org.jetbrains.jet.lang.psi.*;
+import org.jetbrains.jet.lang.resolve.BindingContext;
+import org.jetbrains.jet.lang.resolve.BindingContextUtils;
+import org.jetbrains.jet.lang.resolve.BindingTrace;
+import org.jetbrains.jet.lang.types.expressions.OperatorConventions;
+import org.jetbrains.jet.lexer.JetTokens;
+
+import java.util.Set;
+
+import static org.jetbrains.jet.codegen.binding.CodegenBinding.CAPTURED_VAR_NOT_SHARED;
+import static org.jetbrains.jet.lang.resolve.BindingContext.CAPTURED_IN_CLOSURE;
+
+/**
+ * Finds local <code>var</code>s which are captured in closures but still don't need to be boxed into <code>jet.runtime.SharedVar</code>:
+ * the ones never reassigned after the initialization (closures can capture their value just like for <code>val</code>s),
+ * and the ones captured only by function literals which are inlined at the call site, so that their code runs in the same frame.
+ */
+class CapturedVariablesAnalyzer extends JetTreeVisitorVoid {
+    private final BindingTrace bindingTrace;
+    private final BindingContext bindingContext;
+
+    private final Set<VariableDescriptor> capturedVariables = Sets.newLinkedHashSet();
+    private final Set<VariableDescriptor> reassignedVariables = Sets.newHashSet();
+    private final Set<VariableDescriptor> escapingVariables = Sets.newHashSet();
+
+    CapturedVariablesAnalyzer(@NotNull BindingTrace bindingTrace) {
+        this.bindingTrace = bindingTrace;
+        this.bindingContext = bindingTrace.getBindingContext();
+    }
+
+    @Override
+    public void visitSimpleNameExpression(JetSimpleNameExpression expression) {
+        super.visitSimpleNameExpression(expression);
+
+        VariableDescriptor variable = BindingContextUtils.extractVariableDescriptorIfAny(bindingContext, expression, true);
+        if (variable == null || variable instanceof PropertyDescriptor || !variable.isVar()) return;
+
+        if (bindingContext.get(CAPTURED_IN_CLOSURE, variable) == null) return;
+
+        PsiElement declaration = BindingContextUtils.descriptorToDeclaration(bindingContext, variable);
+        if (declaration == null) return;
+
+        capturedVariables.add(variable);
+        if (isAssignmentTarget(expression)) {
+            reassignedVariables.add(variable);
+        }
+        // CaptureKind only tells whether the frontend considers the called function inline. The codegen decides on its own which
+        // function literals are emitted in place (e.g. the ones passed to synchronized(), which is not an inline function)
+        if (!isReferencedFromInlinedCode(expression, declaration)) {
+            escapingVariables.add(variable);
+        }
+    }
+
+    public void recordResults() {
+        for (VariableDescriptor variable : capturedVariables) {
+            if (!escapingVariables.contains(variable) || !reassignedVariables.contains(variable) && hasInitializer(variable)) {
+                bindingTrace.record(CAPTURED_VAR_NOT_SHARED, variable);
+            }
+        }
+    }
+
+    private boolean hasInitializer(@NotNull VariableDescriptor variable) {
+        PsiElement declaration = BindingContextUtils.descriptorToDeclaration(bindingContext, variable);
+        return declaration instanceof JetProperty && ((JetProperty) declaration).getInitializer() != null;
+    }
+
+    // Every function literal between the reference and the declaration must be inlined, otherwise the reference is compiled
+    // into another class and the variable has to be shared with it
+    private boolean isReferencedFromInlinedCode(@NotNull JetSimpleNameExpression expression, @NotNull PsiElement declaration) {
+        for (PsiElement element = expression.getParent();
+             element != null && !PsiTreeUtil.isAncestor(element, declaration, true);
+             element = element.getParent()) {
+            if (element instanceof JetFunctionLiteral) {
+                if (!InlineCodegen.isInlinedLambda(bindingContext, (JetFunctionLiteralExpression) element.getParent())) {
+                    return false;
+                }
+            }
+            else if (element instanceof JetDeclarationWithBody || element instanceof JetClassOrObject) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAssignmentTarget(@NotNull JetSimpleNameExpression expression) {
+        PsiElement child = expression;
+        PsiElement parent = expression.getParent();
+        while (parent instanceof JetParenthesizedExpression) {
+            child = parent;
+            parent = parent.getParent();
+        }
+
+        if (parent instanceof JetBinaryExpression) {
+            JetBinaryExpression binaryExpression = (JetBinaryExpression) parent;
+            IElementType operationToken = binaryExpression.getOperationToken();
+            return binaryExpression.getLeft() == child &&
+                   (operationToken == JetTokens.EQ || OperatorConventions.ASSIGNMENT_OPERATIONS.containsKey(operationToken));
+        }
+        if (parent instanceof JetUnaryExpression) {
+            IElementType operationToken = ((JetUnaryExpression) parent).getOperationReference().getReferencedNameElementType();
+            return operationToken == JetTokens.PLUSPLUS || operationToken == JetTokens.MINUSMINUS;
+        }
+        return false;
+    }
+}
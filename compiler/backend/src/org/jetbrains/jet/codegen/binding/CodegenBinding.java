@@ -59,14 +59,23 @@ public class CodegenBinding {
 
     public static final WritableSlice<JetExpression, ClassDescriptorFromJvmBytecode> SAM_VALUE = Slices.createSimpleSlice();
 
+    public static final WritableSlice<VariableDescriptor, Boolean> CAPTURED_VAR_NOT_SHARED = Slices.createSimpleSetSlice();
+
     private CodegenBinding() {
     }
 
     public static void initTrace(BindingTrace bindingTrace, Collection<JetFile> files) {
         CodegenAnnotatingVisitor visitor = new CodegenAnnotatingVisitor(bindingTrace);
-        for (JetFile file : allFilesInNamespaces(bindingTrace.getBindingContext(), files)) {
+        Collection<JetFile> allFiles = allFilesInNamespaces(bindingTrace.getBindingContext(), files);
+        for (JetFile file : allFiles) {
             file.accept(visitor);
         }
+
+        CapturedVariablesAnalyzer capturedVariablesAnalyzer = new CapturedVariablesAnalyzer(bindingTrace);
+        for (JetFile file : allFiles) {
+            file.accept(capturedVariablesAnalyzer);
+        }
+        capturedVariablesAnalyzer.recordResults();
     }
 
     public static boolean enumEntryNeedSubclass(BindingContext bindingContext, JetEnumEntry enumEntry) {
@@ -379,7 +388,8 @@ public class CodegenBinding {
     public static boolean isVarCapturedInClosure(BindingContext bindingContext, DeclarationDescriptor descriptor) {
         if (!(descriptor instanceof VariableDescriptor) || descriptor instanceof PropertyDescriptor) return false;
         VariableDescriptor variableDescriptor = (VariableDescriptor) descriptor;
-        return bindingContext.get(CAPTURED_IN_CLOSURE, variableDescriptor) != null && variableDescriptor.isVar();
+        return bindingContext.get(CAPTURED_IN_CLOSURE, variableDescriptor) != null && variableDescriptor.isVar() &&
+               !Boolean.TRUE.equals(bindingContext.get(CAPTURED_VAR_NOT_SHARED, variableDescriptor));
     }
 
     public static boolean hasThis0(BindingContext bindingContext, ClassDescriptor classDescriptor) {
@@ -65,7 +65,7 @@ public class CompareTo implements IntrinsicMethod {
             v.invokestatic("jet/runtime/Intrinsics", "compare", "(II)I");
         }
         else if (type == Type.LONG_TYPE) {
-            v.invokestatic("jet/runtime/Intrinsics", "compare", "(JJ)I");
+            v.lcmp();
         }
         else if (type == Type.FLOAT_TYPE) {
             v.invokestatic("java/lang/Float", "compare", "(FF)I");
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.intrinsics;
+
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.asm4.Label;
+import org.jetbrains.asm4.Type;
+import org.jetbrains.asm4.commons.InstructionAdapter;
+import org.jetbrains.jet.codegen.ExpressionCodegen;
+import org.jetbrains.jet.codegen.FrameMap;
+import org.jetbrains.jet.codegen.InlineCodegen;
+import org.jetbrains.jet.codegen.StackValue;
+import org.jetbrains.jet.codegen.state.GenerationState;
+import org.jetbrains.jet.lang.descriptors.CallableDescriptor;
+import org.jetbrains.jet.lang.descriptors.FunctionDescriptor;
+import org.jetbrains.jet.lang.psi.*;
+import org.jetbrains.jet.lang.resolve.BindingContext;
+import org.jetbrains.jet.lang.resolve.DescriptorUtils;
+import org.jetbrains.jet.lang.resolve.calls.model.ExpressionValueArgument;
+import org.jetbrains.jet.lang.resolve.calls.model.ResolvedCall;
+import org.jetbrains.jet.lang.resolve.calls.model.ResolvedValueArgument;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.lang.resolve.name.Name;
+import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns;
+
+import java.util.List;
+
+import static org.jetbrains.jet.lang.resolve.java.AsmTypeConstants.*;
+
+/**
+ * Generates <code>synchronized(lock) { ... }</code> the same way javac generates a synchronized statement: the lock is taken
+ * with MONITORENTER and released with MONITOREXIT both after the block and in a catch-all handler. A function literal passed
+ * as the block is emitted in place, so no closure is created for it.
+ */
+public class Synchronized implements IntrinsicMethod {
+    private static final FqName SYNCHRONIZED = KotlinBuiltIns.BUILT_INS_PACKAGE_FQ_NAME.child(Name.identifier("synchronized"));
+
+    public static boolean isSynchronized(@NotNull CallableDescriptor descriptor) {
+        return descriptor.getValueParameters().size() == 2 && SYNCHRONIZED.toUnsafe().equals(DescriptorUtils.getFQName(descriptor));
+    }
+
+    @Override
+    public StackValue generate(
+            ExpressionCodegen codegen,
+            InstructionAdapter v,
+            @NotNull Type expectedType,
+            @Nullable PsiElement element,
+            @Nullable List<JetExpression> arguments,
+            StackValue receiver,
+            @NotNull GenerationState state
+    ) {
+        BindingContext bindingContext = codegen.getBindingContext();
+        JetCallExpression call = (JetCallExpression) element;
+        assert call != null;
+        ResolvedCall<? extends CallableDescriptor> resolvedCall =
+                bindingContext.get(BindingContext.RESOLVED_CALL, call.getCalleeExpression());
+        assert resolvedCall != null : "Couldn't find resolved call: " + call.getText();
+        List<ResolvedValueArgument> valueArguments = resolvedCall.getValueArgumentsByIndex();
+
+        FrameMap frameMap = codegen.getFrameMap();
+        int lockVar = frameMap.enterTemp(OBJECT_TYPE);
+        codegen.gen(getArgumentExpression(valueArguments.get(0)), OBJECT_TYPE);
+        v.store(lockVar, OBJECT_TYPE);
+
+        JetFunctionLiteralExpression lambda = InlineCodegen.getInlinableLambda(bindingContext, valueArguments.get(1));
+        if (lambda == null) {
+            codegen.gen(getArgumentExpression(valueArguments.get(1)), JET_FUNCTION0_TYPE);
+        }
+
+        v.load(lockVar, OBJECT_TYPE);
+        v.monitorenter();
+
+        Label blockStart = new Label();
+        Label blockEnd = new Label();
+        Label handlerStart = new Label();
+        Label handlerEnd = new Label();
+        Label end = new Label();
+
+        v.mark(blockStart);
+        Type resultType;
+        if (lambda != null) {
+            JetFunctionLiteral functionLiteral = lambda.getFunctionLiteral();
+            FunctionDescriptor descriptor = bindingContext.get(BindingContext.FUNCTION, functionLiteral);
+            assert descriptor != null : "Function literal is not resolved to descriptor: " + functionLiteral.getText();
+
+            resultType = state.getTypeMapper().mapReturnType(descriptor.getReturnType());
+            codegen.gen(functionLiteral.getBodyExpression()).put(resultType, v);
+        }
+        else {
+            v.invokeinterface(JET_FUNCTION0_TYPE.getInternalName(), "invoke", "()Ljava/lang/Object;");
+            resultType = OBJECT_TYPE;
+        }
+        v.load(lockVar, OBJECT_TYPE);
+        v.monitorexit();
+        v.mark(blockEnd);
+        v.goTo(end);
+
+        // The handler covers itself, as in javac: MONITOREXIT is retried if it fails
+        v.mark(handlerStart);
+        int exceptionVar = frameMap.enterTemp(JAVA_THROWABLE_TYPE);
+        v.store(exceptionVar, JAVA_THROWABLE_TYPE);
+        v.load(lockVar, OBJECT_TYPE);
+        v.monitorexit();
+        v.mark(handlerEnd);
+        v.load(exceptionVar, JAVA_THROWABLE_TYPE);
+        v.athrow();
+        frameMap.leaveTemp(JAVA_THROWABLE_TYPE);
+
+        v.visitTryCatchBlock(blockStart, blockEnd, handlerStart, null);
+        v.visitTryCatchBlock(handlerStart, handlerEnd, handlerStart, null);
+
+        v.mark(end);
+        frameMap.leaveTemp(OBJECT_TYPE);
+
+        StackValue.coerce(resultType, expectedType, v);
+        return StackValue.onStack(expectedType);
+    }
+
+    @NotNull
+    private static JetExpression getArgumentExpression(@NotNull ResolvedValueArgument argument) {
+        assert argument instanceof ExpressionValueArgument : "Unexpected argument of synchronized(): " + argument;
+        ValueArgument valueArgument = ((ExpressionValueArgument) argument).getValueArgument();
+        JetExpression expression = valueArgument != null ? valueArgument.getArgumentExpression() : null;
+        assert expression != null : "No argument expression for synchronized()";
+        return expression;
+    }
+}
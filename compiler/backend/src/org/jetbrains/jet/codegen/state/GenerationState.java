@@ -69,6 +69,10 @@ public class GenerationState {
 
     private final boolean generateNotNullParamAssertions;
 
+    private final boolean inlineNotNullAssertions;
+
+    private final boolean generateNotNullParamAssertionsForInternal;
+
     private final boolean generateDeclaredClasses;
 
     public GenerationState(Project project, ClassBuilderFactory builderFactory, BindingContext bindingContext, List<JetFile> files) {
@@ -85,6 +89,23 @@ public class GenerationState {
             boolean generateNotNullAssertions,
             boolean generateNotNullParamAssertions,
             boolean generateDeclaredClasses
+    ) {
+        this(project, builderFactory, progress, bindingContext, files, builtinToJavaTypesMapping,
+             generateNotNullAssertions, generateNotNullParamAssertions, false, true, generateDeclaredClasses);
+    }
+
+    public GenerationState(
+            @NotNull Project project,
+            @NotNull ClassBuilderFactory builderFactory,
+            @NotNull Progress progress,
+            @NotNull BindingContext bindingContext,
+            @NotNull List<JetFile> files,
+            @NotNull BuiltinToJavaTypesMapping builtinToJavaTypesMapping,
+            boolean generateNotNullAssertions,
+            boolean generateNotNullParamAssertions,
+            boolean inlineNotNullAssertions,
+            boolean generateNotNullParamAssertionsForInternal,
+            boolean generateDeclaredClasses
     ) {
         this.project = project;
         this.progress = progress;
@@ -104,6 +125,8 @@ public class GenerationState {
 
         this.generateNotNullAssertions = generateNotNullAssertions;
         this.generateNotNullParamAssertions = generateNotNullParamAssertions;
+        this.inlineNotNullAssertions = inlineNotNullAssertions;
+        this.generateNotNullParamAssertionsForInternal = generateNotNullParamAssertionsForInternal;
         this.generateDeclaredClasses = generateDeclaredClasses;
     }
 
@@ -170,6 +193,14 @@ public class GenerationState {
         return generateNotNullParamAssertions;
     }
 
+    public boolean isInlineNotNullAssertions() {
+        return inlineNotNullAssertions;
+    }
+
+    public boolean isGenerateNotNullParamAssertionsForInternal() {
+        return generateNotNullParamAssertionsForInternal;
+    }
+
     public boolean isGenerateDeclaredClasses() {
         return generateDeclaredClasses;
     }
@@ -48,6 +48,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.jetbrains.asm4.Opcodes.*;
 import static org.jetbrains.jet.codegen.AsmUtil.boxType;
@@ -61,6 +64,16 @@ public class JetTypeMapper extends BindingTraceAware {
     private final boolean mapBuiltinsToJava;
     private final ClassBuilderMode classBuilderMode;
 
+    // Signatures of the same function are requested from every call site, so they are computed once per original descriptor
+    private final ConcurrentMap<SignatureKey, JvmMethodSignature> signatureCache = new ConcurrentHashMap<SignatureKey, JvmMethodSignature>();
+    // Types without arguments are mapped without a signature writer most of the time (owners, receivers, locals)
+    private final ConcurrentMap<TypeKey, Type> typeCache = new ConcurrentHashMap<TypeKey, Type>();
+
+    private final AtomicInteger signatureCacheHits = new AtomicInteger();
+    private final AtomicInteger signatureCacheMisses = new AtomicInteger();
+    private final AtomicInteger typeCacheHits = new AtomicInteger();
+    private final AtomicInteger typeCacheMisses = new AtomicInteger();
+
     public JetTypeMapper(BindingTrace bindingTrace, boolean mapBuiltinsToJava, ClassBuilderMode mode) {
         super(bindingTrace);
         this.mapBuiltinsToJava = mapBuiltinsToJava;
@@ -217,17 +230,36 @@ public class JetTypeMapper extends BindingTraceAware {
 
     @NotNull
     public Type mapType(@NotNull JetType jetType, @NotNull JetTypeMapperMode kind) {
-        return mapType(jetType, null, kind);
+        return mapTypeCached(jetType, kind);
     }
 
     @NotNull
     public Type mapType(@NotNull JetType jetType) {
-        return mapType(jetType, null, JetTypeMapperMode.VALUE);
+        return mapTypeCached(jetType, JetTypeMapperMode.VALUE);
     }
 
     @NotNull
     public Type mapType(@NotNull VariableDescriptor variableDescriptor) {
-        return mapType(variableDescriptor.getType(), null, JetTypeMapperMode.VALUE);
+        return mapTypeCached(variableDescriptor.getType(), JetTypeMapperMode.VALUE);
+    }
+
+    @NotNull
+    private Type mapTypeCached(@NotNull JetType jetType, @NotNull JetTypeMapperMode kind) {
+        if (!jetType.getArguments().isEmpty()) {
+            return mapType(jetType, null, kind);
+        }
+
+        TypeKey key = new TypeKey(jetType.getConstructor(), jetType.isNullable(), kind);
+        Type cached = typeCache.get(key);
+        if (cached != null) {
+            typeCacheHits.incrementAndGet();
+            return cached;
+        }
+
+        typeCacheMisses.incrementAndGet();
+        Type type = mapType(jetType, null, kind);
+        typeCache.put(key, type);
+        return type;
     }
 
     @NotNull
@@ -649,6 +681,31 @@ public class JetTypeMapper extends BindingTraceAware {
             needGenericSignature = false;
         }
 
+        // Substituted descriptors and static delegate kinds are created anew each time, there's no point in caching them
+        if (f.getOriginal() != f || kind instanceof OwnerKind.StaticDelegateKind) {
+            return computeSignature(methodName, f, needGenericSignature, kind);
+        }
+
+        SignatureKey key = new SignatureKey(f, methodName, needGenericSignature, kind);
+        JvmMethodSignature cached = signatureCache.get(key);
+        if (cached != null) {
+            signatureCacheHits.incrementAndGet();
+            return cached;
+        }
+
+        signatureCacheMisses.incrementAndGet();
+        JvmMethodSignature signature = computeSignature(methodName, f, needGenericSignature, kind);
+        signatureCache.put(key, signature);
+        return signature;
+    }
+
+    @NotNull
+    private JvmMethodSignature computeSignature(
+            @NotNull String methodName,
+            @NotNull FunctionDescriptor f,
+            boolean needGenericSignature,
+            @NotNull OwnerKind kind
+    ) {
         BothSignatureWriter signatureVisitor = new BothSignatureWriter(BothSignatureWriter.Mode.METHOD, needGenericSignature);
 
         writeFormalTypeParameters(f.getTypeParameters(), signatureVisitor);
@@ -1008,4 +1065,86 @@ public class JetTypeMapper extends BindingTraceAware {
     private Type asmTypeOrVoid(@Nullable JetType type) {
         return type == null ? Type.VOID_TYPE : mapType(type);
     }
+
+    @NotNull
+    public String getCacheStatistics() {
+        return "Type mapper cache: " +
+               "signatures " + signatureCacheHits.get() + " hits, " + signatureCacheMisses.get() + " misses; " +
+               "types " + typeCacheHits.get() + " hits, " + typeCacheMisses.get() + " misses";
+    }
+
+    public int getSignatureCacheHits() {
+        return signatureCacheHits.get();
+    }
+
+    public int getSignatureCacheMisses() {
+        return signatureCacheMisses.get();
+    }
+
+    private static final class SignatureKey {
+        private final FunctionDescriptor descriptor;
+        private final String methodName;
+        private final boolean needGenericSignature;
+        private final OwnerKind kind;
+
+        private SignatureKey(
+                @NotNull FunctionDescriptor descriptor,
+                @NotNull String methodName,
+                boolean needGenericSignature,
+                @NotNull OwnerKind kind
+        ) {
+            this.descriptor = descriptor;
+            this.methodName = methodName;
+            this.needGenericSignature = needGenericSignature;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SignatureKey)) return false;
+            SignatureKey other = (SignatureKey) o;
+            return descriptor == other.descriptor &&
+                   needGenericSignature == other.needGenericSignature &&
+                   kind == other.kind &&
+                   methodName.equals(other.methodName);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(descriptor);
+            result = 31 * result + methodName.hashCode();
+            result = 31 * result + (needGenericSignature ? 1 : 0);
+            result = 31 * result + System.identityHashCode(kind);
+            return result;
+        }
+    }
+
+    private static final class TypeKey {
+        private final TypeConstructor constructor;
+        private final boolean nullable;
+        private final JetTypeMapperMode kind;
+
+        private TypeKey(@NotNull TypeConstructor constructor, boolean nullable, @NotNull JetTypeMapperMode kind) {
+            this.constructor = constructor;
+            this.nullable = nullable;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TypeKey)) return false;
+            TypeKey other = (TypeKey) o;
+            return constructor.equals(other.constructor) && nullable == other.nullable && kind == other.kind;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = constructor.hashCode();
+            result = 31 * result + (nullable ? 1 : 0);
+            result = 31 * result + kind.hashCode();
+            return result;
+        }
+    }
 }
@@ -38,6 +38,8 @@ import org.jetbrains.jet.lang.resolve.java.JavaBindingContext;
 import org.jetbrains.jet.lang.resolve.java.JvmAbi;
 import org.jetbrains.jet.lang.resolve.java.resolver.TraceBasedErrorReporter;
 import org.jetbrains.jet.lang.resolve.kotlin.VirtualFileKotlinClass;
+import org.jetbrains.jet.storage.LockBasedStorageManager;
+import org.jetbrains.jet.utils.PerformanceReport;
 
 import java.util.Collection;
 import java.util.List;
@@ -162,8 +164,15 @@ public final class AnalyzerWithCompilerReport {
 
     private void reportSyntaxErrors(@NotNull Collection<JetFile> files) {
         for (JetFile file : files) {
-            reportSyntaxErrors(file, messageCollectorWrapper);
+            PerformanceReport.Phase phase = PerformanceReport.startPhase("parsing", file.getName());
+            try {
+                reportSyntaxErrors(file, messageCollectorWrapper);
+            }
+            finally {
+                phase.end();
+            }
         }
+        PerformanceReport.count("files", files.size());
     }
 
     public static class SyntaxErrorReport {
@@ -222,7 +231,15 @@ public final class AnalyzerWithCompilerReport {
 
     public void analyzeAndReport(@NotNull Function0<AnalyzeExhaust> analyzer, @NotNull Collection<JetFile> files) {
         reportSyntaxErrors(files);
-        analyzeExhaust = analyzer.invoke();
+        PerformanceReport.Phase phase = PerformanceReport.startPhase("analysis");
+        long lazyValuesBefore = LockBasedStorageManager.getComputedLazyValueCount();
+        try {
+            analyzeExhaust = analyzer.invoke();
+        }
+        finally {
+            phase.end();
+            PerformanceReport.count("lazy values computed", LockBasedStorageManager.getComputedLazyValueCount() - lazyValuesBefore);
+        }
         reportDiagnostics(analyzeExhaust.getBindingContext(), messageCollectorWrapper);
         reportIncompleteHierarchies();
         reportAlternativeSignatureErrors();
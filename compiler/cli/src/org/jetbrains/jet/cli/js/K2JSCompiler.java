@@ -41,6 +41,7 @@ import org.jetbrains.jet.config.CompilerConfiguration;
 import org.jetbrains.jet.lang.psi.JetFile;
 import org.jetbrains.k2js.analyze.AnalyzerFacadeForJS;
 import org.jetbrains.k2js.config.*;
+import org.jetbrains.k2js.facade.DeadCodeEliminator;
 import org.jetbrains.k2js.facade.K2JSTranslator;
 import org.jetbrains.k2js.facade.MainCallParameters;
 
@@ -99,7 +100,7 @@ public class K2JSCompiler extends CLICompiler<K2JSCompilerArguments> {
         }
 
         MainCallParameters mainCallParameters = arguments.createMainCallParameters();
-        return translateAndGenerateOutputFile(mainCallParameters, environmentForJS, config, outputFile);
+        return translateAndGenerateOutputFile(mainCallParameters, environmentForJS, config, outputFile, messageCollector);
     }
 
     private static void reportCompiledSourcesList(@NotNull MessageCollector messageCollector,
@@ -125,10 +126,15 @@ public class K2JSCompiler extends CLICompiler<K2JSCompilerArguments> {
             @NotNull MainCallParameters mainCall,
             @NotNull JetCoreEnvironment environmentForJS,
             @NotNull Config config,
-            @NotNull String outputFile
+            @NotNull String outputFile,
+            @NotNull MessageCollector messageCollector
     ) {
         try {
-            K2JSTranslator.translateWithMainCallParametersAndSaveToFile(mainCall, environmentForJS.getSourceFiles(), outputFile, config);
+            DeadCodeEliminator.Statistics statistics =
+                    K2JSTranslator.translateWithMainCallParametersAndSaveToFile(mainCall, environmentForJS.getSourceFiles(), outputFile, config);
+            if (statistics != null) {
+                messageCollector.report(CompilerMessageSeverity.INFO, statistics.toString(), CompilerMessageLocation.NO_LOCATION);
+            }
         }
         catch (Exception e) {
             throw new RuntimeException(e);
@@ -155,12 +161,16 @@ public class K2JSCompiler extends CLICompiler<K2JSCompilerArguments> {
         }
         EcmaVersion ecmaVersion = EcmaVersion.defaultVersion();
         String moduleId = FileUtil.getNameWithoutExtension(new File(arguments.outputFile));
+        Config config;
         if (arguments.libraryFiles != null) {
-            return new LibrarySourcesConfig(project, moduleId, Arrays.asList(arguments.libraryFiles), ecmaVersion, arguments.sourcemap);
+            config = new LibrarySourcesConfig(project, moduleId, Arrays.asList(arguments.libraryFiles), ecmaVersion, arguments.sourcemap);
         }
         else {
             // lets discover the JS library definitions on the classpath
-            return new ClassPathLibraryDefintionsConfig(project, moduleId, ecmaVersion, arguments.sourcemap);
+            config = new ClassPathLibraryDefintionsConfig(project, moduleId, ecmaVersion, arguments.sourcemap);
         }
+        config.setEliminateDeadCode(arguments.eliminateDeadCode);
+        config.setMinify(arguments.minify);
+        return config;
     }
 }
@@ -38,6 +38,12 @@ public class K2JSCompilerArguments extends CommonCompilerArguments {
     @Argument(value = "sourcemap", description = "Generate SourceMap")
     public boolean sourcemap;
 
+    @Argument(value = "eliminateDeadCode", description = "Remove declarations unreachable from main function and tests")
+    public boolean eliminateDeadCode;
+
+    @Argument(value = "minify", description = "Shorten local names and strip whitespace in generated js files")
+    public boolean minify;
+
     @Argument(value = "target", description = "Generate js files for specific ECMA version (now support only ECMA 5)")
     public String target;
 
@@ -39,4 +39,12 @@ public class JVMConfigurationKeys {
             CompilerConfigurationKey.create("generate not-null assertions");
     public static final CompilerConfigurationKey<Boolean> GENERATE_NOT_NULL_PARAMETER_ASSERTIONS =
             CompilerConfigurationKey.create("generate not-null parameter assertions");
+    public static final CompilerConfigurationKey<Boolean> INLINE_NOT_NULL_ASSERTIONS =
+            CompilerConfigurationKey.create("inline not-null assertions");
+    public static final CompilerConfigurationKey<Boolean> GENERATE_NOT_NULL_PARAMETER_ASSERTIONS_FOR_INTERNAL =
+            CompilerConfigurationKey.create("generate not-null parameter assertions for internal methods");
+
+    public static final CompilerConfigurationKey<Boolean> BINARY_JAVA_MODEL = CompilerConfigurationKey.create("binary java model");
+
+    public static final CompilerConfigurationKey<File> LIBRARY_CACHE_FILE = CompilerConfigurationKey.create("library class cache file");
 }
@@ -39,6 +39,7 @@ import org.jetbrains.jet.lang.resolve.AnalyzerScriptParameter;
 import org.jetbrains.jet.utils.KotlinPaths;
 import org.jetbrains.jet.utils.KotlinPathsFromHomeDir;
 import org.jetbrains.jet.utils.PathUtil;
+import org.jetbrains.jet.utils.PerformanceReport;
 
 import java.io.File;
 import java.io.PrintStream;
@@ -123,11 +124,19 @@ public class K2JVMCompiler extends CLICompiler<K2JVMCompilerArguments> {
 
         configuration.put(JVMConfigurationKeys.GENERATE_NOT_NULL_ASSERTIONS, arguments.notNullAssertions);
         configuration.put(JVMConfigurationKeys.GENERATE_NOT_NULL_PARAMETER_ASSERTIONS, arguments.notNullParamAssertions);
+        configuration.put(JVMConfigurationKeys.INLINE_NOT_NULL_ASSERTIONS, arguments.inlineNotNullAssertions);
+        configuration.put(JVMConfigurationKeys.GENERATE_NOT_NULL_PARAMETER_ASSERTIONS_FOR_INTERNAL, !arguments.noInternalParamAssertions);
+        configuration.put(JVMConfigurationKeys.BINARY_JAVA_MODEL, arguments.binaryJavaModel);
+        if (arguments.libraryCache != null) {
+            configuration.put(JVMConfigurationKeys.LIBRARY_CACHE_FILE, new File(arguments.libraryCache));
+        }
 
         configuration.put(CLIConfigurationKeys.MESSAGE_COLLECTOR_KEY, messageCollector);
 
         messageCollector.report(CompilerMessageSeverity.LOGGING, "Configuring the compilation environment",
                                 CompilerMessageLocation.NO_LOCATION);
+        PerformanceReport performanceReport = arguments.reportPerf ? new PerformanceReport() : null;
+        PerformanceReport.install(performanceReport);
         try {
             configureEnvironment(configuration, arguments);
 
@@ -159,6 +168,12 @@ public class K2JVMCompiler extends CLICompiler<K2JVMCompilerArguments> {
                                     MessageUtil.psiElementToMessageLocation(e.getElement()));
             return INTERNAL_ERROR;
         }
+        finally {
+            PerformanceReport.install(null);
+            if (performanceReport != null) {
+                messageCollector.report(CompilerMessageSeverity.INFO, performanceReport.toJson(), CompilerMessageLocation.NO_LOCATION);
+            }
+        }
     }
 
 
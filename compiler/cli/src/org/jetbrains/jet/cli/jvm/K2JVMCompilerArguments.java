@@ -70,6 +70,21 @@ public class K2JVMCompilerArguments extends CommonCompilerArguments {
     @Argument(value = "notNullParamAssertions", description = "generate not-null assertions on parameters of methods accessible from Java")
     public boolean notNullParamAssertions;
 
+    @Argument(value = "inlineNotNullAssertions", description = "generate not-null assertions as inline null checks calling the runtime only on failure")
+    public boolean inlineNotNullAssertions;
+
+    @Argument(value = "noInternalParamAssertions", description = "don't generate not-null assertions on parameters of internal methods")
+    public boolean noInternalParamAssertions;
+
+    @Argument(value = "binaryJavaModel", description = "read compiled Java classes from class files directly instead of building PSI for them")
+    public boolean binaryJavaModel;
+
+    @Argument(value = "libraryCache", description = "file to keep headers of Kotlin classes read from library jars between compilations")
+    public String libraryCache;
+
+    @Argument(value = "reportPerf", description = "report time and memory spent in compiler phases in JSON format")
+    public boolean reportPerf;
+
     @Argument(value = "builtins", description = "compile builtin classes (internal)")
     public boolean builtins;
 
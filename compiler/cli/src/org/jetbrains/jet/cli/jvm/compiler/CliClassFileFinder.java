@@ -0,0 +1,138 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.cli.jvm.compiler;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.binary.ClassFileFinder;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.utils.ExceptionUtils;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class CliClassFileFinder implements ClassFileFinder {
+    private static final String ANNOTATIONS_FILE_NAME = "annotations.xml";
+    // Item names look like "java.util.List E get(int) 0": the class name goes first, followed by the member and parameter
+    private static final Pattern ITEM_NAME = Pattern.compile("<item\\s+name\\s*=\\s*\"([^\"]*)\"");
+
+    @NotNull
+    private final ClassPath classPath;
+    @NotNull
+    private final List<VirtualFile> externalAnnotationsRoots;
+
+    // Package path -> qualified names of classes annotated in that package's annotations.xml files
+    private final Map<String, Set<String>> annotatedClassesByPackage = new HashMap<String, Set<String>>();
+
+    public CliClassFileFinder(@NotNull ClassPath classPath, @NotNull List<VirtualFile> externalAnnotationsRoots) {
+        this.classPath = classPath;
+        this.externalAnnotationsRoots = externalAnnotationsRoots;
+    }
+
+    @Nullable
+    @Override
+    public VirtualFile findClassFile(@NotNull FqName className) {
+        for (VirtualFile root : classPath) {
+            String qName = className.asString();
+            VirtualFile cur = root;
+            int start = 0;
+
+            // Looking for the package directory, the rest of the name is the name of the class file
+            while (true) {
+                int dot = qName.indexOf('.', start);
+                if (dot < 0) break;
+
+                VirtualFile child = cur.findChild(qName.substring(start, dot));
+                if (child == null || !child.isDirectory()) break;
+                cur = child;
+                start = dot + 1;
+            }
+
+            String classNameInPackage = qName.substring(start);
+
+            // Java sources are loaded through PSI, and they shadow class files from the following roots
+            int firstDot = classNameInPackage.indexOf('.');
+            String topLevelName = firstDot < 0 ? classNameInPackage : classNameInPackage.substring(0, firstDot);
+            if (cur.findChild(topLevelName + ".java") != null) return null;
+
+            VirtualFile file = cur.findChild(classNameInPackage.replace('.', '$') + ".class");
+            if (file != null && file.isValid()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public VirtualFile findClassFileByInternalName(@NotNull String internalName) {
+        for (VirtualFile root : classPath) {
+            VirtualFile file = root.findFileByRelativePath(internalName + ".class");
+            if (file != null && file.isValid()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean hasExternalAnnotations(@NotNull String internalName, @NotNull FqName fqName) {
+        if (externalAnnotationsRoots.isEmpty()) return false;
+
+        int lastSlash = internalName.lastIndexOf('/');
+        String packagePath = lastSlash < 0 ? "" : internalName.substring(0, lastSlash);
+
+        Set<String> annotatedClasses = annotatedClassesByPackage.get(packagePath);
+        if (annotatedClasses == null) {
+            annotatedClasses = loadAnnotatedClasses(packagePath);
+            annotatedClassesByPackage.put(packagePath, annotatedClasses);
+        }
+        return annotatedClasses.contains(fqName.asString());
+    }
+
+    @NotNull
+    private Set<String> loadAnnotatedClasses(@NotNull String packagePath) {
+        String annotationsFilePath = packagePath.isEmpty() ? ANNOTATIONS_FILE_NAME : packagePath + "/" + ANNOTATIONS_FILE_NAME;
+
+        Set<String> result = new HashSet<String>();
+        for (VirtualFile root : externalAnnotationsRoots) {
+            VirtualFile file = root.findFileByRelativePath(annotationsFilePath);
+            if (file == null) continue;
+
+            String text;
+            try {
+                text = new String(file.contentsToByteArray(), file.getCharset());
+            }
+            catch (IOException e) {
+                throw ExceptionUtils.rethrow(e);
+            }
+
+            Matcher matcher = ITEM_NAME.matcher(text);
+            while (matcher.find()) {
+                String itemName = StringUtil.unescapeXml(matcher.group(1));
+                int space = itemName.indexOf(' ');
+                result.add(space < 0 ? itemName : itemName.substring(0, space));
+            }
+        }
+        return result;
+    }
+}
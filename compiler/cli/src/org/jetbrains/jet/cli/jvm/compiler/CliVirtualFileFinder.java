@@ -19,6 +19,7 @@ package org.jetbrains.jet.cli.jvm.compiler;
 import com.intellij.openapi.vfs.VirtualFile;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.kotlin.LibraryClassHeaderCache;
 import org.jetbrains.jet.lang.resolve.kotlin.VirtualFileFinder;
 import org.jetbrains.jet.lang.resolve.kotlin.VirtualFileKotlinClass;
 import org.jetbrains.jet.lang.resolve.kotlin.header.KotlinClassHeader;
@@ -29,17 +30,28 @@ public class CliVirtualFileFinder implements VirtualFileFinder {
     @NotNull
     private final ClassPath classPath;
 
-    public CliVirtualFileFinder(@NotNull ClassPath path) {
-        classPath = path;
+    @Nullable
+    private final LibraryClassHeaderCache headerCache;
+
+    public CliVirtualFileFinder(@NotNull ClassPath path, @Nullable LibraryClassHeaderCache headerCache) {
+        this.classPath = path;
+        this.headerCache = headerCache;
     }
 
     @Nullable
     @Override
     public VirtualFile find(@NotNull FqName className) {
+        VirtualFileKotlinClass kotlinClass = findKotlinClass(className);
+        return kotlinClass == null ? null : kotlinClass.getFile();
+    }
+
+    @Nullable
+    @Override
+    public VirtualFileKotlinClass findKotlinClass(@NotNull FqName className) {
         for (VirtualFile root : classPath) {
-            VirtualFile fileInRoot = findFileInRoot(className.asString(), root);
-            if (fileInRoot != null) {
-                return fileInRoot;
+            VirtualFileKotlinClass classInRoot = findClassInRoot(className.asString(), root);
+            if (classInRoot != null) {
+                return classInRoot;
             }
         }
         return null;
@@ -47,7 +59,7 @@ public class CliVirtualFileFinder implements VirtualFileFinder {
 
     //NOTE: copied with some changes from CoreJavaFileManager
     @Nullable
-    private static VirtualFile findFileInRoot(@NotNull String qName, @NotNull VirtualFile root) {
+    private VirtualFileKotlinClass findClassInRoot(@NotNull String qName, @NotNull VirtualFile root) {
         String pathRest = qName;
         VirtualFile cur = root;
 
@@ -71,8 +83,9 @@ public class CliVirtualFileFinder implements VirtualFileFinder {
                 return null;
             }
             //NOTE: currently we use VirtualFileFinder to find Kotlin binaries only
-            if (KotlinClassHeader.read(new VirtualFileKotlinClass(vFile)) != null) {
-                return vFile;
+            VirtualFileKotlinClass kotlinClass = new VirtualFileKotlinClass(vFile, headerCache);
+            if (KotlinClassHeader.read(kotlinClass) != null) {
+                return kotlinClass;
             }
         }
         return null;
@@ -29,6 +29,7 @@ import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.extensions.Extensions;
 import com.intellij.openapi.fileTypes.PlainTextFileType;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElementFinder;
 import com.intellij.psi.PsiFile;
@@ -36,6 +37,7 @@ import com.intellij.psi.PsiManager;
 import com.intellij.psi.impl.compiled.ClsCustomNavigationPolicy;
 import com.intellij.psi.impl.file.impl.JavaFileManager;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jet.CompilerModeProvider;
 import org.jetbrains.jet.OperationModeProvider;
 import org.jetbrains.jet.asJava.JavaElementFinder;
@@ -51,6 +53,8 @@ import org.jetbrains.jet.lang.parsing.JetParserDefinition;
 import org.jetbrains.jet.lang.parsing.JetScriptDefinitionProvider;
 import org.jetbrains.jet.lang.psi.JetFile;
 import org.jetbrains.jet.lang.resolve.java.JetFilesProvider;
+import org.jetbrains.jet.lang.resolve.java.structure.binary.ClassFileFinder;
+import org.jetbrains.jet.lang.resolve.kotlin.LibraryClassHeaderCache;
 import org.jetbrains.jet.lang.resolve.kotlin.VirtualFileFinder;
 import org.jetbrains.jet.plugin.JetFileType;
 import org.jetbrains.jet.utils.PathUtil;
@@ -126,7 +130,12 @@ public class JetCoreEnvironment {
         JetScriptDefinitionProvider.getInstance(project).addScriptDefinitions(
                 configuration.getList(CommonConfigurationKeys.SCRIPT_DEFINITIONS_KEY));
 
-        project.registerService(VirtualFileFinder.class, new CliVirtualFileFinder(classPath));
+        LibraryClassHeaderCache headerCache = createLibraryClassHeaderCache(parentDisposable);
+        project.registerService(VirtualFileFinder.class, new CliVirtualFileFinder(classPath, headerCache));
+        if (configuration.get(JVMConfigurationKeys.BINARY_JAVA_MODEL, false)) {
+            project.registerService(ClassFileFinder.class,
+                                    new CliClassFileFinder(classPath, annotationsManager.getExternalAnnotationsRoots()));
+        }
     }
 
     public CompilerConfiguration getConfiguration() {
@@ -189,6 +198,21 @@ public class JetCoreEnvironment {
         addSources(new File(path));
     }
 
+    @Nullable
+    private LibraryClassHeaderCache createLibraryClassHeaderCache(@NotNull Disposable parentDisposable) {
+        File cacheFile = configuration.get(JVMConfigurationKeys.LIBRARY_CACHE_FILE);
+        if (cacheFile == null) return null;
+
+        final LibraryClassHeaderCache cache = LibraryClassHeaderCache.load(cacheFile);
+        Disposer.register(parentDisposable, new Disposable() {
+            @Override
+            public void dispose() {
+                cache.save();
+            }
+        });
+        return cache;
+    }
+
     private void addToClasspath(File path) {
         if (path.isFile()) {
             VirtualFile jarFile = applicationEnvironment.getJarFileSystem().findFileByPath(path + "!/");
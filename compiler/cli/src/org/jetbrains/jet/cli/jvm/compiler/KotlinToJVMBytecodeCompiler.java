@@ -44,6 +44,7 @@ import org.jetbrains.jet.lang.psi.JetFile;
 import org.jetbrains.jet.lang.psi.JetPsiUtil;
 import org.jetbrains.jet.lang.resolve.AnalyzerScriptParameter;
 import org.jetbrains.jet.lang.resolve.BindingTrace;
+import org.jetbrains.jet.lang.resolve.BindingTraceContext;
 import org.jetbrains.jet.lang.resolve.ScriptNameUtil;
 import org.jetbrains.jet.lang.resolve.java.AnalyzerFacadeForJVM;
 import org.jetbrains.jet.lang.resolve.java.PackageClassUtils;
@@ -52,6 +53,7 @@ import org.jetbrains.jet.plugin.JetMainDetector;
 import org.jetbrains.jet.utils.ExceptionUtils;
 import org.jetbrains.jet.utils.KotlinPaths;
 import org.jetbrains.jet.utils.PathUtil;
+import org.jetbrains.jet.utils.PerformanceReport;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -129,27 +131,33 @@ public class KotlinToJVMBytecodeCompiler {
             if (moduleFactory == null) {
                 return false;
             }
-            if (outputDir != null) {
-                CompileEnvironmentUtil.writeToOutputDirectory(moduleFactory, outputDir);
-            }
-            else {
-                File path = jarPath != null ? jarPath : new File(directory, moduleBuilder.getModuleName() + ".jar");
-                FileOutputStream outputStream = null;
-                try {
-                    outputStream = new FileOutputStream(path);
-                    CompileEnvironmentUtil.writeToJar(moduleFactory, outputStream, null, jarRuntime);
-                    outputStream.close();
-                }
-                catch (FileNotFoundException e) {
-                    throw new CompileEnvironmentException("Invalid jar path " + path, e);
-                }
-                catch (IOException e) {
-                    throw ExceptionUtils.rethrow(e);
+            PerformanceReport.Phase phase = PerformanceReport.startPhase("output", moduleBuilder.getModuleName());
+            try {
+                if (outputDir != null) {
+                    CompileEnvironmentUtil.writeToOutputDirectory(moduleFactory, outputDir);
                 }
-                finally {
-                    ExceptionUtils.closeQuietly(outputStream);
+                else {
+                    File path = jarPath != null ? jarPath : new File(directory, moduleBuilder.getModuleName() + ".jar");
+                    FileOutputStream outputStream = null;
+                    try {
+                        outputStream = new FileOutputStream(path);
+                        CompileEnvironmentUtil.writeToJar(moduleFactory, outputStream, null, jarRuntime);
+                        outputStream.close();
+                    }
+                    catch (FileNotFoundException e) {
+                        throw new CompileEnvironmentException("Invalid jar path " + path, e);
+                    }
+                    catch (IOException e) {
+                        throw ExceptionUtils.rethrow(e);
+                    }
+                    finally {
+                        ExceptionUtils.closeQuietly(outputStream);
+                    }
                 }
             }
+            finally {
+                phase.end();
+            }
         }
         return true;
     }
@@ -186,28 +194,35 @@ public class KotlinToJVMBytecodeCompiler {
 
         try {
             ClassFileFactory factory = generationState.getFactory();
-            if (jar != null) {
-                FileOutputStream os = null;
-                try {
-                    os = new FileOutputStream(jar);
-                    CompileEnvironmentUtil.writeToJar(factory, new FileOutputStream(jar), mainClass, includeRuntime);
-                    os.close();
-                }
-                catch (FileNotFoundException e) {
-                    throw new CompileEnvironmentException("Invalid jar path " + jar, e);
+            PerformanceReport.Phase phase = PerformanceReport.startPhase("output");
+            try {
+                if (jar != null) {
+                    FileOutputStream os = null;
+                    try {
+                        os = new FileOutputStream(jar);
+                        CompileEnvironmentUtil.writeToJar(factory, new FileOutputStream(jar), mainClass, includeRuntime);
+                        os.close();
+                    }
+                    catch (FileNotFoundException e) {
+                        throw new CompileEnvironmentException("Invalid jar path " + jar, e);
+                    }
+                    catch (IOException e) {
+                        throw ExceptionUtils.rethrow(e);
+                    }
+                    finally {
+                        ExceptionUtils.closeQuietly(os);
+                    }
                 }
-                catch (IOException e) {
-                    throw ExceptionUtils.rethrow(e);
+                else if (outputDir != null) {
+                    CompileEnvironmentUtil.writeToOutputDirectory(factory, outputDir);
                 }
-                finally {
-                    ExceptionUtils.closeQuietly(os);
+                else {
+                    throw new CompileEnvironmentException(
+                            "Output directory or jar file is not specified - no files will be saved to the disk");
                 }
             }
-            else if (outputDir != null) {
-                CompileEnvironmentUtil.writeToOutputDirectory(factory, outputDir);
-            }
-            else {
-                throw new CompileEnvironmentException("Output directory or jar file is not specified - no files will be saved to the disk");
+            finally {
+                phase.end();
             }
             return true;
         }
@@ -315,7 +330,7 @@ public class KotlinToJVMBytecodeCompiler {
                     @Override
                     public AnalyzeExhaust invoke() {
                         BindingTrace sharedTrace = CliLightClassGenerationSupport.getInstanceForCli(environment.getProject()).getTrace();
-                        return AnalyzerFacadeForJVM.analyzeFilesWithJavaIntegration(
+                        AnalyzeExhaust exhaust = AnalyzerFacadeForJVM.analyzeFilesWithJavaIntegration(
                                 environment.getProject(),
                                 environment.getSourceFiles(),
                                 sharedTrace,
@@ -323,6 +338,10 @@ public class KotlinToJVMBytecodeCompiler {
                                 filesToAnalyzeCompletely,
                                 false
                         );
+                        if (PerformanceReport.getCurrent() != null && sharedTrace instanceof BindingTraceContext) {
+                            PerformanceReport.count("binding trace entries", ((BindingTraceContext) sharedTrace).getEntryCount());
+                        }
+                        return exhaust;
                     }
                 }, environment.getSourceFiles()
         );
@@ -356,9 +375,19 @@ public class KotlinToJVMBytecodeCompiler {
                 configuration.get(JVMConfigurationKeys.BUILTIN_TO_JAVA_TYPES_MAPPING_KEY, BuiltinToJavaTypesMapping.ENABLED),
                 configuration.get(JVMConfigurationKeys.GENERATE_NOT_NULL_ASSERTIONS, false),
                 configuration.get(JVMConfigurationKeys.GENERATE_NOT_NULL_PARAMETER_ASSERTIONS, false),
+                configuration.get(JVMConfigurationKeys.INLINE_NOT_NULL_ASSERTIONS, false),
+                configuration.get(JVMConfigurationKeys.GENERATE_NOT_NULL_PARAMETER_ASSERTIONS_FOR_INTERNAL, true),
                 /*generateDeclaredClasses = */true
         );
         KotlinCodegenFacade.compileCorrectFiles(generationState, CompilationErrorHandler.THROW_EXCEPTION);
+        PerformanceReport.count("type mapper cache hits", generationState.getTypeMapper().getSignatureCacheHits());
+        PerformanceReport.count("type mapper cache misses", generationState.getTypeMapper().getSignatureCacheMisses());
+
+        MessageCollector messageCollector = configuration.get(CLIConfigurationKeys.MESSAGE_COLLECTOR_KEY);
+        if (messageCollector != null) {
+            messageCollector.report(CompilerMessageSeverity.LOGGING, generationState.getTypeMapper().getCacheStatistics(),
+                                    CompilerMessageLocation.NO_LOCATION);
+        }
 
         CompilerPluginContext context = new CompilerPluginContext(project, exhaust.getBindingContext(), environment.getSourceFiles());
         for (CompilerPlugin plugin : configuration.getList(CLIConfigurationKeys.COMPILER_PLUGINS)) {
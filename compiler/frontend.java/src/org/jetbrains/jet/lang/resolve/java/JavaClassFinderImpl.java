@@ -16,6 +16,7 @@
 
 package org.jetbrains.jet.lang.resolve.java;
 
+import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Comparing;
 import com.intellij.openapi.vfs.VirtualFile;
@@ -27,6 +28,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jet.lang.resolve.java.structure.JavaClass;
 import org.jetbrains.jet.lang.resolve.java.structure.JavaPackage;
+import org.jetbrains.jet.lang.resolve.java.structure.binary.BinaryJavaClassFinder;
+import org.jetbrains.jet.lang.resolve.java.structure.binary.ClassFileFinder;
 import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaClassImpl;
 import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaPackageImpl;
 import org.jetbrains.jet.lang.resolve.name.FqName;
@@ -42,6 +45,10 @@ public class JavaClassFinderImpl implements JavaClassFinder {
     private GlobalSearchScope javaSearchScope;
     private JavaPsiFacadeKotlinHacks javaFacade;
 
+    // Reads compiled Java classes directly from class files, if the environment provides access to them
+    @Nullable
+    private BinaryJavaClassFinder binaryClassFinder;
+
     @Inject
     public void setProject(@NotNull Project project) {
         this.project = project;
@@ -73,11 +80,38 @@ public class JavaClassFinderImpl implements JavaClassFinder {
             }
         };
         javaFacade = new JavaPsiFacadeKotlinHacks(project);
+
+        ClassFileFinder classFileFinder = ServiceManager.getService(project, ClassFileFinder.class);
+        if (classFileFinder != null) {
+            binaryClassFinder = new BinaryJavaClassFinder(classFileFinder, new JavaClassFinder() {
+                @Nullable
+                @Override
+                public JavaClass findClass(@NotNull FqName fqName) {
+                    return findPsiClass(fqName);
+                }
+
+                @Nullable
+                @Override
+                public JavaPackage findPackage(@NotNull FqName fqName) {
+                    return JavaClassFinderImpl.this.findPackage(fqName);
+                }
+            });
+        }
     }
 
     @Nullable
     @Override
     public JavaClass findClass(@NotNull FqName fqName) {
+        if (binaryClassFinder != null) {
+            JavaClass javaClass = binaryClassFinder.findClass(fqName);
+            if (javaClass != null) return javaClass;
+        }
+
+        return findPsiClass(fqName);
+    }
+
+    @Nullable
+    private JavaClass findPsiClass(@NotNull FqName fqName) {
         PsiClass psiClass = javaFacade.findClass(fqName.asString(), javaSearchScope);
         if (psiClass == null) return null;
 
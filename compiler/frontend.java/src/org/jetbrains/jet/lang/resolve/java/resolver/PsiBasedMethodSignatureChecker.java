@@ -171,6 +171,8 @@ public class PsiBasedMethodSignatureChecker implements MethodSignatureChecker {
             @NotNull List<String> signatureErrors,
             @NotNull List<FunctionDescriptor> superFunctions
     ) {
+        if (!(method instanceof JavaMethodImpl)) return;
+
         JavaMethodImpl methodWithPsi = (JavaMethodImpl) method;
         if (!RawTypesCheck.hasRawTypesInHierarchicalSignature(methodWithPsi) &&
             isMethodReturnTypeCompatible(methodWithPsi) &&
@@ -20,6 +20,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jet.lang.descriptors.CallableMemberDescriptor;
 import org.jetbrains.jet.lang.descriptors.ClassDescriptor;
+import org.jetbrains.jet.lang.descriptors.FunctionDescriptor;
 import org.jetbrains.jet.lang.descriptors.TypeParameterDescriptor;
 import org.jetbrains.jet.lang.descriptors.ValueParameterDescriptor;
 import org.jetbrains.jet.lang.resolve.BindingTrace;
@@ -61,6 +62,12 @@ public class TraceBasedExternalSignatureResolver implements ExternalSignatureRes
             @NotNull List<ValueParameterDescriptor> valueParameters,
             @NotNull List<TypeParameterDescriptor> typeParameters
     ) {
+        if (!(method instanceof JavaMethodImpl)) {
+            // Binary classes are only loaded without PSI when there is nothing to propagate from their supertypes
+            return new PropagatedMethodSignature(returnType, receiverType, valueParameters, typeParameters,
+                                                 Collections.<String>emptyList(), Collections.<FunctionDescriptor>emptyList());
+        }
+
         SignaturesPropagationData data =
                 new SignaturesPropagationData(owner, returnType, receiverType, valueParameters, typeParameters, (JavaMethodImpl) method,
                                               trace);
@@ -79,6 +86,11 @@ public class TraceBasedExternalSignatureResolver implements ExternalSignatureRes
             @NotNull List<ValueParameterDescriptor> valueParameters,
             @NotNull List<TypeParameterDescriptor> typeParameters
     ) {
+        if (!(method instanceof JavaMethodImpl)) {
+            return new AlternativeMethodSignature(returnType, receiverType, valueParameters, typeParameters,
+                                                  Collections.<String>emptyList());
+        }
+
         AlternativeMethodSignatureData data =
                 new AlternativeMethodSignatureData(annotationResolver, (JavaMethodImpl) method, receiverType, valueParameters, returnType,
                                                    typeParameters, hasSuperMethods);
@@ -99,6 +111,10 @@ public class TraceBasedExternalSignatureResolver implements ExternalSignatureRes
             @NotNull JetType returnType,
             boolean isVar
     ) {
+        if (!(field instanceof JavaFieldImpl)) {
+            return new AlternativeFieldSignature(returnType, null);
+        }
+
         AlternativeFieldSignatureData data =
                 new AlternativeFieldSignatureData(annotationResolver, (JavaFieldImpl) field, returnType, isVar);
 
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.asm4.AnnotationVisitor;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaAnnotation;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaAnnotationArgument;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class BinaryJavaAnnotation implements JavaAnnotation {
+    private final String desc;
+    private final BinaryJavaClassFinder classFinder;
+    private final List<JavaAnnotationArgument> arguments = new ArrayList<JavaAnnotationArgument>(1);
+
+    private BinaryJavaAnnotation(@NotNull String desc, @NotNull BinaryJavaClassFinder classFinder) {
+        this.desc = desc;
+        this.classFinder = classFinder;
+    }
+
+    /**
+     * Creates an annotation, adds it to the given collection and returns a visitor which will fill in its arguments
+     */
+    @NotNull
+    /* package */ static AnnotationVisitor addAnnotation(
+            @NotNull Collection<JavaAnnotation> annotations,
+            @NotNull String desc,
+            @NotNull BinaryJavaClassFinder classFinder
+    ) {
+        BinaryJavaAnnotation annotation = new BinaryJavaAnnotation(desc, classFinder);
+        annotations.add(annotation);
+        return new BinaryJavaAnnotationVisitor(annotation.arguments, classFinder);
+    }
+
+    @Nullable
+    /* package */ static JavaAnnotation findAnnotation(@NotNull Collection<JavaAnnotation> annotations, @NotNull FqName fqName) {
+        for (JavaAnnotation annotation : annotations) {
+            if (fqName.equals(annotation.getFqName())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public JavaAnnotationArgument findArgument(@NotNull Name name) {
+        for (JavaAnnotationArgument argument : arguments) {
+            if (name.equals(argument.getName())) {
+                return argument;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaAnnotationArgument> getArguments() {
+        return arguments;
+    }
+
+    @Override
+    @Nullable
+    public FqName getFqName() {
+        return classFinder.fqNameByDescriptor(desc);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + desc;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.asm4.AnnotationVisitor;
+import org.jetbrains.asm4.Type;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaAnnotation;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaAnnotationArgument;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaType;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.jetbrains.asm4.Opcodes.ASM4;
+
+/**
+ * Collects annotation arguments reported by ASM into a list of {@link JavaAnnotationArgument}s
+ */
+/* package */ class BinaryJavaAnnotationVisitor extends AnnotationVisitor {
+    private final Collection<JavaAnnotationArgument> arguments;
+    private final BinaryJavaClassFinder classFinder;
+
+    public BinaryJavaAnnotationVisitor(@NotNull Collection<JavaAnnotationArgument> arguments, @NotNull BinaryJavaClassFinder classFinder) {
+        super(ASM4);
+        this.arguments = arguments;
+        this.classFinder = classFinder;
+    }
+
+    @Override
+    public void visit(String name, Object value) {
+        arguments.add(createArgument(name, value));
+    }
+
+    @NotNull
+    private JavaAnnotationArgument createArgument(String name, @NotNull Object value) {
+        if (value instanceof Type) {
+            JavaType type = new BinarySignatureParser(((Type) value).getDescriptor(), classFinder).parseType();
+            return new BinaryJavaClassObjectAnnotationArgument(name, type);
+        }
+        if (value.getClass().isArray()) {
+            // Arrays of primitive values are reported by ASM in a single call
+            int length = Array.getLength(value);
+            List<JavaAnnotationArgument> elements = new ArrayList<JavaAnnotationArgument>(length);
+            for (int i = 0; i < length; i++) {
+                elements.add(createArgument(null, Array.get(value, i)));
+            }
+            return new BinaryJavaArrayAnnotationArgument(name, elements);
+        }
+        return new BinaryJavaLiteralAnnotationArgument(name, value);
+    }
+
+    @Override
+    public void visitEnum(String name, String desc, String value) {
+        arguments.add(new BinaryJavaEnumValueAnnotationArgument(name, desc, value, classFinder));
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String name, String desc) {
+        List<JavaAnnotation> annotation = new ArrayList<JavaAnnotation>(1);
+        AnnotationVisitor visitor = BinaryJavaAnnotation.addAnnotation(annotation, desc, classFinder);
+        arguments.add(new BinaryJavaAnnotationAsAnnotationArgument(name, annotation.get(0)));
+        return visitor;
+    }
+
+    @Override
+    public AnnotationVisitor visitArray(String name) {
+        List<JavaAnnotationArgument> elements = new ArrayList<JavaAnnotationArgument>();
+        arguments.add(new BinaryJavaArrayAnnotationArgument(name, elements));
+        return new BinaryJavaAnnotationVisitor(elements, classFinder);
+    }
+}
@@ -0,0 +1,491 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.asm4.*;
+import org.jetbrains.jet.lang.descriptors.Visibility;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import java.util.*;
+
+import static org.jetbrains.asm4.ClassReader.*;
+import static org.jetbrains.asm4.Opcodes.*;
+
+/**
+ * Java class read from a class file. Only the header of the class and signatures of its members are read from the class file,
+ * method bodies and debug information are skipped. Generic signatures are parsed lazily, when types are requested
+ */
+public class BinaryJavaClass implements JavaClass, BinaryJavaTypeContext {
+    private static final String JAVA_LANG_OBJECT = "java/lang/Object";
+    private static final String JAVA_LANG_ENUM = "java/lang/Enum";
+    private static final String JAVA_LANG_ANNOTATION_ANNOTATION = "java/lang/annotation/Annotation";
+    private static final String SYNTHETIC_PARAMETER_ANNOTATION = "Ljava/lang/Synthetic;";
+
+    private final BinaryJavaClassFinder classFinder;
+
+    private String internalName;
+    private int access;
+    private String signature;
+    private String superName;
+    private String[] interfaces;
+    private String outerInternalName;
+    private Name name;
+    private FqName fqName;
+
+    private final List<String> innerClassNames = new ArrayList<String>(0);
+    private final List<BinaryJavaField> fields = new ArrayList<BinaryJavaField>();
+    // Constructors are included, as in PsiClass.getMethods()
+    private final List<BinaryJavaMethod> methods = new ArrayList<BinaryJavaMethod>();
+    private List<JavaAnnotation> annotations = Collections.emptyList();
+
+    private List<JavaTypeParameter> typeParameters;
+    private List<JavaClassifierType> supertypes;
+    private JavaClassifierType defaultType;
+
+    public BinaryJavaClass(@NotNull byte[] contents, @NotNull BinaryJavaClassFinder classFinder) {
+        this.classFinder = classFinder;
+        new ClassReader(contents).accept(new Reader(), SKIP_CODE | SKIP_DEBUG | SKIP_FRAMES);
+    }
+
+    private class Reader extends ClassVisitor {
+        // Inner class name -> [outer class name, simple name], for this class and all its containing classes
+        private final Map<String, String[]> innerClassEntries = new HashMap<String, String[]>();
+
+        public Reader() {
+            super(ASM4);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            BinaryJavaClass.this.internalName = name;
+            BinaryJavaClass.this.access = access;
+            BinaryJavaClass.this.signature = signature;
+            BinaryJavaClass.this.superName = superName;
+            BinaryJavaClass.this.interfaces = interfaces;
+        }
+
+        @Override
+        public void visitInnerClass(String name, String outerName, String innerName, int access) {
+            innerClassEntries.put(name, new String[] {outerName, innerName});
+            classFinder.recordInnerClass(name, outerName, innerName);
+
+            if (name.equals(internalName)) {
+                // Access flags of a nested class are only correct in the InnerClasses attribute (e.g. private, protected, static)
+                BinaryJavaClass.this.access = access;
+                outerInternalName = outerName;
+            }
+            else if (internalName.equals(outerName) && innerName != null && (access & ACC_SYNTHETIC) == 0) {
+                innerClassNames.add(name);
+            }
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+            annotations = BinaryJavaElementUtil.ensureMutable(annotations);
+            return BinaryJavaAnnotation.addAnnotation(annotations, desc, classFinder);
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+            computeNames();
+            if ((access & ACC_SYNTHETIC) != 0) return null;
+
+            final BinaryJavaField field = new BinaryJavaField(BinaryJavaClass.this, access, name, desc, signature, value);
+            fields.add(field);
+
+            return new FieldVisitor(ASM4) {
+                @Override
+                public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                    return field.addAnnotation(desc);
+                }
+            };
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            computeNames();
+            if ((access & (ACC_SYNTHETIC | ACC_BRIDGE)) != 0 || "<clinit>".equals(name)) return null;
+            if (isEnum() && isSyntheticEnumMethod(name, desc)) return null;
+
+            final BinaryJavaMethod method = new BinaryJavaMethod(
+                    BinaryJavaClass.this, access, name, desc, signature, getSyntheticParameterCount(name));
+            methods.add(method);
+
+            return new MethodVisitor(ASM4) {
+                @Override
+                public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                    return method.addAnnotation(desc);
+                }
+
+                @Override
+                public AnnotationVisitor visitParameterAnnotation(int parameter, String desc, boolean visible) {
+                    if (SYNTHETIC_PARAMETER_ANNOTATION.equals(desc)) return null;
+                    return method.addParameterAnnotation(parameter, desc);
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotationDefault() {
+                    method.setHasAnnotationParameterDefaultValue();
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public void visitEnd() {
+            computeNames();
+        }
+
+        // InnerClasses attribute is visited before fields and methods, and constructors need the name of the class
+        private void computeNames() {
+            if (name != null) return;
+            name = Name.identifier(getSimpleName(internalName));
+            fqName = computeFqName(internalName);
+        }
+
+        @NotNull
+        private String getSimpleName(@NotNull String className) {
+            String[] entry = innerClassEntries.get(className);
+            if (entry != null && entry[1] != null) {
+                return entry[1];
+            }
+            return className.substring(className.lastIndexOf('/') + 1);
+        }
+
+        @Nullable
+        private FqName computeFqName(@NotNull String className) {
+            String[] entry = innerClassEntries.get(className);
+            if (entry == null) {
+                return new FqName(className.replace('/', '.'));
+            }
+
+            // Local or anonymous class
+            if (entry[0] == null || entry[1] == null) return null;
+
+            FqName outerFqName = computeFqName(entry[0]);
+            return outerFqName == null ? null : outerFqName.child(Name.identifier(entry[1]));
+        }
+    }
+
+    private int getSyntheticParameterCount(@NotNull String methodName) {
+        if (!"<init>".equals(methodName)) return 0;
+        if (isEnum()) return 2;
+        if (outerInternalName != null && !isStatic()) return 1;
+        return 0;
+    }
+
+    private static boolean isSyntheticEnumMethod(@NotNull String name, @NotNull String desc) {
+        return "values".equals(name) && desc.startsWith("()") ||
+               "valueOf".equals(name) && desc.startsWith("(Ljava/lang/String;)");
+    }
+
+    @NotNull
+    public String getInternalName() {
+        return internalName;
+    }
+
+    @NotNull
+    @Override
+    public BinaryJavaClassFinder getClassFinder() {
+        return classFinder;
+    }
+
+    @Nullable
+    @Override
+    public JavaTypeParameter findTypeParameter(@NotNull String name) {
+        for (JavaTypeParameter typeParameter : getTypeParameters()) {
+            if (typeParameter.getName().asString().equals(name)) {
+                return typeParameter;
+            }
+        }
+        if (!isStatic()) {
+            JavaClass outerClass = getOuterClass();
+            if (outerClass instanceof BinaryJavaClass) {
+                return ((BinaryJavaClass) outerClass).findTypeParameter(name);
+            }
+        }
+        return null;
+    }
+
+    private void parseSignature() {
+        if (typeParameters != null) return;
+
+        List<JavaClassifierType> result = new ArrayList<JavaClassifierType>(1);
+        if (signature != null) {
+            BinarySignatureParser parser = new BinarySignatureParser(signature, this);
+            typeParameters = parser.parseTypeParameters(this);
+            JavaClassifierType superClass = (JavaClassifierType) parser.parseType();
+            if (!isInterface()) {
+                addSupertype(result, superClass);
+            }
+            while (!parser.atEnd()) {
+                addSupertype(result, (JavaClassifierType) parser.parseType());
+            }
+        }
+        else {
+            typeParameters = Collections.emptyList();
+            if (superName != null && !isInterface()) {
+                addSupertype(result, rawType(superName));
+            }
+            for (String superInterface : interfaces) {
+                addSupertype(result, rawType(superInterface));
+            }
+        }
+        supertypes = result;
+    }
+
+    @NotNull
+    private JavaClassifierType rawType(@NotNull String internalName) {
+        return BinaryJavaClassifierType.classType(this, internalName, Collections.<JavaType>emptyList(), Collections.<JavaType>emptyList());
+    }
+
+    private void addSupertype(@NotNull List<JavaClassifierType> supertypes, @NotNull JavaClassifierType supertype) {
+        // Implicit supertypes are not present in the PSI of Java classes
+        BinaryJavaClassifierType type = (BinaryJavaClassifierType) supertype;
+        if (type.isClassType(JAVA_LANG_OBJECT)) return;
+        if (isEnum() && type.isClassType(JAVA_LANG_ENUM)) return;
+        if (isAnnotationType() && type.isClassType(JAVA_LANG_ANNOTATION_ANNOTATION)) return;
+        supertypes.add(supertype);
+    }
+
+    /**
+     * @return internal names of the superclass and all superinterfaces, including implicit ones
+     */
+    @NotNull
+    /* package */ List<String> getSuperInternalNames() {
+        List<String> result = new ArrayList<String>(interfaces.length + 1);
+        if (superName != null) {
+            result.add(superName);
+        }
+        result.addAll(Arrays.asList(interfaces));
+        return result;
+    }
+
+    @NotNull
+    /* package */ List<BinaryJavaMethod> getOwnMethods() {
+        return methods;
+    }
+
+    /* package */ boolean hasAnnotationOnClassOrMembers(@NotNull FqName annotationFqName) {
+        if (findAnnotation(annotationFqName) != null) return true;
+        for (BinaryJavaField field : fields) {
+            if (field.findAnnotation(annotationFqName) != null) return true;
+        }
+        for (BinaryJavaMethod method : methods) {
+            if (method.findAnnotation(annotationFqName) != null) return true;
+        }
+        return false;
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaClass> getInnerClasses() {
+        if (innerClassNames.isEmpty()) return Collections.emptyList();
+
+        List<JavaClass> result = new ArrayList<JavaClass>(innerClassNames.size());
+        for (String innerClassName : innerClassNames) {
+            JavaClass innerClass = classFinder.findClassByInternalName(innerClassName);
+            if (innerClass != null) {
+                result.add(innerClass);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Nullable
+    public FqName getFqName() {
+        return fqName;
+    }
+
+    @NotNull
+    @Override
+    public Name getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isInterface() {
+        return (access & ACC_INTERFACE) != 0;
+    }
+
+    @Override
+    public boolean isAnnotationType() {
+        return (access & ACC_ANNOTATION) != 0;
+    }
+
+    @Override
+    public boolean isEnum() {
+        return (access & ACC_ENUM) != 0;
+    }
+
+    @Override
+    @Nullable
+    public JavaClass getOuterClass() {
+        return outerInternalName == null ? null : classFinder.findClassByInternalName(outerInternalName);
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaTypeParameter> getTypeParameters() {
+        parseSignature();
+        return typeParameters;
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaClassifierType> getSupertypes() {
+        parseSignature();
+        return supertypes;
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaMethod> getMethods() {
+        return Collections.<JavaMethod>unmodifiableList(methods);
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaMethod> getAllMethods() {
+        List<JavaMethod> result = new ArrayList<JavaMethod>();
+        Set<JavaClass> visited = new HashSet<JavaClass>();
+        collectAllMembers(this, visited, result, true);
+        return result;
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaField> getFields() {
+        return Collections.<JavaField>unmodifiableList(fields);
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaField> getAllFields() {
+        List<JavaField> result = new ArrayList<JavaField>();
+        Set<JavaClass> visited = new HashSet<JavaClass>();
+        collectAllMembers(this, visited, result, false);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectAllMembers(
+            @NotNull JavaClass javaClass,
+            @NotNull Set<JavaClass> visited,
+            @NotNull List<? extends JavaMember> result,
+            boolean methods
+    ) {
+        if (!visited.add(javaClass)) return;
+
+        if (!(javaClass instanceof BinaryJavaClass)) {
+            // Class loaded through PSI already knows all its members
+            ((List<JavaMember>) result).addAll(methods ? javaClass.getAllMethods() : javaClass.getAllFields());
+            return;
+        }
+
+        BinaryJavaClass binaryClass = (BinaryJavaClass) javaClass;
+        ((List<JavaMember>) result).addAll(methods ? binaryClass.methods : binaryClass.fields);
+
+        for (String superName : binaryClass.getSuperInternalNames()) {
+            JavaClass superClass = binaryClass.classFinder.findClassByInternalName(superName);
+            if (superClass != null) {
+                collectAllMembers(superClass, visited, result, methods);
+            }
+        }
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaMethod> getConstructors() {
+        List<JavaMethod> result = new ArrayList<JavaMethod>(1);
+        for (BinaryJavaMethod method : methods) {
+            if (method.isConstructor()) {
+                result.add(method);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isAbstract() {
+        return (access & ACC_ABSTRACT) != 0;
+    }
+
+    @Override
+    public boolean isStatic() {
+        return (access & ACC_STATIC) != 0;
+    }
+
+    @Override
+    public boolean isFinal() {
+        return (access & ACC_FINAL) != 0;
+    }
+
+    @NotNull
+    @Override
+    public Visibility getVisibility() {
+        return BinaryJavaElementUtil.getVisibility(access);
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaAnnotation> getAnnotations() {
+        return annotations;
+    }
+
+    @Nullable
+    @Override
+    public JavaAnnotation findAnnotation(@NotNull FqName fqName) {
+        return BinaryJavaAnnotation.findAnnotation(annotations, fqName);
+    }
+
+    @Override
+    @NotNull
+    public JavaClassifierType getDefaultType() {
+        if (defaultType == null) {
+            defaultType = BinaryJavaClassifierType.defaultType(this);
+        }
+        return defaultType;
+    }
+
+    @Override
+    @NotNull
+    public OriginKind getOriginKind() {
+        return OriginKind.COMPILED;
+    }
+
+    @Override
+    public int hashCode() {
+        return internalName.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof BinaryJavaClass && internalName.equals(((BinaryJavaClass) obj).internalName);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + internalName;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.JavaClassFinder;
+import org.jetbrains.jet.lang.resolve.java.JvmAnnotationNames;
+import org.jetbrains.jet.lang.resolve.java.kotlinSignature.SignaturesUtil;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.lang.resolve.name.Name;
+import org.jetbrains.jet.utils.ExceptionUtils;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Reads Java classes from binary dependencies directly with ASM, without building PSI for them.
+ *
+ * Some parts of the Java resolver only work with PSI: external annotations, alternative signatures and propagation of signatures
+ * from overridden methods. Classes which need any of these are not served by this finder, and are loaded by the fallback
+ * (PSI-based) finder instead. This includes classes which override methods of their supertypes (except methods of
+ * java.lang.Object), and classes with supertypes not served by this finder
+ */
+public class BinaryJavaClassFinder implements BinaryJavaTypeContext, JavaTypeProvider {
+    private static final String JAVA_LANG_OBJECT = "java/lang/Object";
+
+    private static final List<FqName> ANNOTATIONS_REQUIRING_PSI = Arrays.asList(
+            SignaturesUtil.KOTLIN_SIGNATURE,
+            JvmAnnotationNames.KOTLIN_CLASS,
+            JvmAnnotationNames.KOTLIN_PACKAGE,
+            JvmAnnotationNames.OLD_JET_CLASS_ANNOTATION,
+            JvmAnnotationNames.OLD_JET_PACKAGE_CLASS_ANNOTATION
+    );
+
+    private final ClassFileFinder classFileFinder;
+    private final JavaClassFinder fallbackFinder;
+
+    // Null values stand for classes which are not found or not served by this finder
+    private final Map<FqName, JavaClass> classesByFqName = new HashMap<FqName, JavaClass>();
+    private final Map<String, JavaClass> classesByInternalName = new HashMap<String, JavaClass>();
+    // Null values stand for class files which are not found
+    private final Map<String, BinaryJavaClass> binaryClasses = new HashMap<String, BinaryJavaClass>();
+
+    private final Map<BinaryJavaClass, Boolean> servedByBinaryModel = new HashMap<BinaryJavaClass, Boolean>();
+    private final Map<BinaryJavaClass, Set<String>> inheritedMethods = new HashMap<BinaryJavaClass, Set<String>>();
+
+    // Inner class name -> [outer class name, simple name], collected from InnerClasses attributes of all class files read so far
+    private final Map<String, String[]> innerClassEntries = new HashMap<String, String[]>();
+
+    private JavaClassifierType javaLangObjectType;
+
+    public BinaryJavaClassFinder(@NotNull ClassFileFinder classFileFinder, @NotNull JavaClassFinder fallbackFinder) {
+        this.classFileFinder = classFileFinder;
+        this.fallbackFinder = fallbackFinder;
+    }
+
+    /**
+     * @return binary class with the given name or null if the class should be loaded through PSI
+     */
+    @Nullable
+    public JavaClass findClass(@NotNull FqName fqName) {
+        if (classesByFqName.containsKey(fqName)) {
+            return classesByFqName.get(fqName);
+        }
+
+        JavaClass result = null;
+        VirtualFile file = classFileFinder.findClassFile(fqName);
+        if (file != null) {
+            BinaryJavaClass javaClass = readClass(file);
+            BinaryJavaClass cached = binaryClasses.get(javaClass.getInternalName());
+            if (cached != null) {
+                javaClass = cached;
+            }
+            else {
+                binaryClasses.put(javaClass.getInternalName(), javaClass);
+            }
+
+            if (fqName.equals(javaClass.getFqName()) && isServedByBinaryModel(javaClass)) {
+                result = javaClass;
+            }
+        }
+
+        classesByFqName.put(fqName, result);
+        return result;
+    }
+
+    /**
+     * Resolves classes referenced from class files. Classes not served by this finder are looked up with the fallback finder
+     */
+    @Nullable
+    public JavaClass findClassByInternalName(@NotNull String internalName) {
+        if (classesByInternalName.containsKey(internalName)) {
+            return classesByInternalName.get(internalName);
+        }
+
+        BinaryJavaClass binaryClass = findBinaryClass(internalName);
+        JavaClass result = binaryClass != null && isServedByBinaryModel(binaryClass)
+                           ? binaryClass
+                           : fallbackFinder.findClass(fqNameByInternalName(internalName));
+
+        classesByInternalName.put(internalName, result);
+        return result;
+    }
+
+    @Nullable
+    private BinaryJavaClass findBinaryClass(@NotNull String internalName) {
+        if (binaryClasses.containsKey(internalName)) {
+            return binaryClasses.get(internalName);
+        }
+
+        VirtualFile file = classFileFinder.findClassFileByInternalName(internalName);
+        BinaryJavaClass javaClass = file == null ? null : readClass(file);
+        binaryClasses.put(internalName, javaClass);
+        return javaClass;
+    }
+
+    @NotNull
+    private BinaryJavaClass readClass(@NotNull VirtualFile file) {
+        try {
+            return new BinaryJavaClass(file.contentsToByteArray(), this);
+        }
+        catch (IOException e) {
+            throw ExceptionUtils.rethrow(e);
+        }
+    }
+
+    private boolean isServedByBinaryModel(@NotNull BinaryJavaClass javaClass) {
+        Boolean cached = servedByBinaryModel.get(javaClass);
+        if (cached == null) {
+            cached = computeServedByBinaryModel(javaClass);
+            servedByBinaryModel.put(javaClass, cached);
+        }
+        return cached;
+    }
+
+    private boolean computeServedByBinaryModel(@NotNull BinaryJavaClass javaClass) {
+        // Local and anonymous classes
+        if (javaClass.getFqName() == null) return false;
+
+        // java.lang.Object is mapped to kotlin.Any, so its external annotations are never used
+        if (!JAVA_LANG_OBJECT.equals(javaClass.getInternalName()) &&
+            classFileFinder.hasExternalAnnotations(javaClass.getInternalName(), javaClass.getFqName())) return false;
+
+        for (FqName annotation : ANNOTATIONS_REQUIRING_PSI) {
+            if (javaClass.hasAnnotationOnClassOrMembers(annotation)) return false;
+        }
+
+        // Signatures of overriding methods are propagated from their super methods, which requires PSI
+        Set<String> inheritedMethods = getInheritedMethods(javaClass);
+        if (inheritedMethods == null) return false;
+
+        for (BinaryJavaMethod method : javaClass.getOwnMethods()) {
+            if (canOverride(method) && inheritedMethods.contains(methodKey(method))) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return keys of overridable methods declared in supertypes of the given class, or null if some of the supertypes
+     * don't exist as class files or are not served by this finder themselves
+     */
+    @Nullable
+    private Set<String> getInheritedMethods(@NotNull BinaryJavaClass javaClass) {
+        if (inheritedMethods.containsKey(javaClass)) {
+            return inheritedMethods.get(javaClass);
+        }
+
+        Set<String> result = new HashSet<String>();
+        for (String superName : javaClass.getSuperInternalNames()) {
+            // Overrides of equals/hashCode/toString get their signatures from kotlin.Any, not from java.lang.Object
+            if (JAVA_LANG_OBJECT.equals(superName)) continue;
+
+            BinaryJavaClass superClass = findBinaryClass(superName);
+            if (superClass == null || !isServedByBinaryModel(superClass)) {
+                result = null;
+                break;
+            }
+
+            for (BinaryJavaMethod method : superClass.getOwnMethods()) {
+                if (canOverride(method)) {
+                    result.add(methodKey(method));
+                }
+            }
+
+            Set<String> fromSuperClass = getInheritedMethods(superClass);
+            if (fromSuperClass == null) {
+                result = null;
+                break;
+            }
+            result.addAll(fromSuperClass);
+        }
+
+        inheritedMethods.put(javaClass, result);
+        return result;
+    }
+
+    private static boolean canOverride(@NotNull BinaryJavaMethod method) {
+        return !method.isConstructor() && !method.isStatic() && !method.isPrivate();
+    }
+
+    @NotNull
+    private static String methodKey(@NotNull BinaryJavaMethod method) {
+        return method.getName().asString() + "/" + method.getValueParameterCount();
+    }
+
+    @NotNull
+    @Override
+    public BinaryJavaClassFinder getClassFinder() {
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public JavaTypeParameter findTypeParameter(@NotNull String name) {
+        return null;
+    }
+
+    @NotNull
+    @Override
+    public JavaType createJavaLangObjectType() {
+        if (javaLangObjectType == null) {
+            javaLangObjectType = BinaryJavaClassifierType.classType(
+                    this, JAVA_LANG_OBJECT, Collections.<JavaType>emptyList(), Collections.<JavaType>emptyList());
+        }
+        return javaLangObjectType;
+    }
+
+    /* package */ void recordInnerClass(@NotNull String name, @Nullable String outerName, @Nullable String innerName) {
+        if (!innerClassEntries.containsKey(name)) {
+            innerClassEntries.put(name, new String[] {outerName, innerName});
+        }
+    }
+
+    /**
+     * Nested classes are recognized by the InnerClasses attribute, which is required for every nested class referenced from a class
+     * file. Other '$' characters are a legal part of the class name
+     */
+    @NotNull
+    public FqName fqNameByInternalName(@NotNull String internalName) {
+        String[] entry = innerClassEntries.get(internalName);
+        if (entry == null || entry[0] == null || entry[1] == null) {
+            return new FqName(internalName.replace('/', '.'));
+        }
+        return fqNameByInternalName(entry[0]).child(Name.identifier(entry[1]));
+    }
+
+    @NotNull
+    /* package */ FqName fqNameByDescriptor(@NotNull String desc) {
+        assert desc.startsWith("L") && desc.endsWith(";") : "Not a class descriptor: " + desc;
+        return fqNameByInternalName(desc.substring(1, desc.length() - 1));
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+
+import java.util.*;
+
+public class BinaryJavaClassifierType implements JavaClassifierType {
+    private final BinaryJavaTypeContext context;
+    // Internal name of a class (e.g. "java/util/Map$Entry") or the name of a type variable
+    private final String classifierName;
+    private final boolean isTypeVariable;
+    private final List<JavaType> typeArguments;
+    private final List<JavaType> outerTypeArguments;
+
+    private boolean resolved;
+    private JavaClassifier classifier;
+    private JavaTypeSubstitutor substitutor;
+
+    private BinaryJavaClassifierType(
+            @NotNull BinaryJavaTypeContext context,
+            @NotNull String classifierName,
+            boolean isTypeVariable,
+            @NotNull List<JavaType> typeArguments,
+            @NotNull List<JavaType> outerTypeArguments
+    ) {
+        this.context = context;
+        this.classifierName = classifierName;
+        this.isTypeVariable = isTypeVariable;
+        this.typeArguments = typeArguments;
+        this.outerTypeArguments = outerTypeArguments;
+    }
+
+    @NotNull
+    public static BinaryJavaClassifierType classType(
+            @NotNull BinaryJavaTypeContext context,
+            @NotNull String internalName,
+            @NotNull List<JavaType> typeArguments,
+            @NotNull List<JavaType> outerTypeArguments
+    ) {
+        return new BinaryJavaClassifierType(context, internalName, false, typeArguments, outerTypeArguments);
+    }
+
+    @NotNull
+    public static BinaryJavaClassifierType typeVariable(@NotNull BinaryJavaTypeContext context, @NotNull String name) {
+        return new BinaryJavaClassifierType(context, name, true, Collections.<JavaType>emptyList(), Collections.<JavaType>emptyList());
+    }
+
+    @NotNull
+    /* package */ static BinaryJavaClassifierType defaultType(@NotNull BinaryJavaClass javaClass) {
+        Collection<JavaTypeParameter> typeParameters = javaClass.getTypeParameters();
+        List<JavaType> arguments = new ArrayList<JavaType>(typeParameters.size());
+        for (JavaTypeParameter typeParameter : typeParameters) {
+            arguments.add(typeParameter.getType());
+        }
+        BinaryJavaClassifierType type = classType(javaClass, javaClass.getInternalName(), arguments, Collections.<JavaType>emptyList());
+        type.setClassifier(javaClass);
+        return type;
+    }
+
+    @NotNull
+    /* package */ static BinaryJavaClassifierType typeParameterType(@NotNull BinaryJavaTypeParameter typeParameter) {
+        BinaryJavaClassifierType type = typeVariable(typeParameter.getContext(), typeParameter.getName().asString());
+        type.setClassifier(typeParameter);
+        return type;
+    }
+
+    private void setClassifier(@NotNull JavaClassifier classifier) {
+        this.classifier = classifier;
+        this.resolved = true;
+    }
+
+    /* package */ boolean isClassType(@NotNull String internalName) {
+        return !isTypeVariable && classifierName.equals(internalName);
+    }
+
+    @Override
+    @Nullable
+    public JavaClassifier getClassifier() {
+        if (!resolved) {
+            classifier = isTypeVariable
+                         ? context.findTypeParameter(classifierName)
+                         : context.getClassFinder().findClassByInternalName(classifierName);
+            resolved = true;
+        }
+        return classifier;
+    }
+
+    @Override
+    @NotNull
+    public JavaTypeSubstitutor getSubstitutor() {
+        if (substitutor == null) {
+            substitutor = computeSubstitutor();
+        }
+        return substitutor;
+    }
+
+    @NotNull
+    private JavaTypeSubstitutor computeSubstitutor() {
+        JavaClassifier classifier = getClassifier();
+        if (!(classifier instanceof JavaClass)) return JavaTypeSubstitutor.EMPTY;
+
+        JavaClass javaClass = (JavaClass) classifier;
+        Map<JavaTypeParameter, JavaType> substitutionMap = new HashMap<JavaTypeParameter, JavaType>();
+        putArguments(substitutionMap, javaClass.getTypeParameters(), typeArguments);
+
+        JavaClass outerClass = javaClass.getOuterClass();
+        if (outerClass != null && !outerTypeArguments.isEmpty()) {
+            putArguments(substitutionMap, outerClass.getTypeParameters(), outerTypeArguments);
+        }
+
+        return substitutionMap.isEmpty() ? JavaTypeSubstitutor.EMPTY : new BinaryJavaTypeSubstitutor(substitutionMap);
+    }
+
+    private static void putArguments(
+            @NotNull Map<JavaTypeParameter, JavaType> substitutionMap,
+            @NotNull Collection<JavaTypeParameter> typeParameters,
+            @NotNull List<JavaType> arguments
+    ) {
+        // Raw type: all type parameters are mapped to null, the same way PSI does it
+        Iterator<JavaType> argumentIterator = arguments.iterator();
+        for (JavaTypeParameter typeParameter : typeParameters) {
+            substitutionMap.put(typeParameter, argumentIterator.hasNext() ? argumentIterator.next() : null);
+        }
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaClassifierType> getSupertypes() {
+        JavaClassifier classifier = getClassifier();
+        if (classifier instanceof JavaTypeParameter) {
+            return ((JavaTypeParameter) classifier).getUpperBounds();
+        }
+        if (!(classifier instanceof JavaClass)) return Collections.emptyList();
+
+        Collection<JavaClassifierType> supertypes = ((JavaClass) classifier).getSupertypes();
+        if (supertypes.isEmpty()) return supertypes;
+
+        JavaTypeSubstitutor substitutor = getSubstitutor();
+        List<JavaClassifierType> result = new ArrayList<JavaClassifierType>(supertypes.size());
+        for (JavaClassifierType supertype : supertypes) {
+            JavaType substituted = substitutor.substitute(supertype);
+            result.add(substituted instanceof JavaClassifierType ? (JavaClassifierType) substituted : supertype);
+        }
+        return result;
+    }
+
+    @NotNull
+    /* package */ JavaType substituteArguments(@NotNull JavaTypeSubstitutor substitutor) {
+        if (typeArguments.isEmpty() && outerTypeArguments.isEmpty()) return this;
+
+        BinaryJavaClassifierType result = new BinaryJavaClassifierType(
+                context, classifierName, isTypeVariable, substitute(typeArguments, substitutor), substitute(outerTypeArguments, substitutor)
+        );
+        if (resolved) {
+            result.setClassifier(classifier);
+        }
+        return result;
+    }
+
+    @NotNull
+    private static List<JavaType> substitute(@NotNull List<JavaType> types, @NotNull JavaTypeSubstitutor substitutor) {
+        if (types.isEmpty()) return types;
+        List<JavaType> result = new ArrayList<JavaType>(types.size());
+        for (JavaType type : types) {
+            result.add(substitutor.substitute(type));
+        }
+        return result;
+    }
+
+    @Override
+    @NotNull
+    public String getPresentableText() {
+        String name = isTypeVariable ? classifierName : classifierName.substring(classifierName.lastIndexOf('/') + 1).replace('$', '.');
+        if (typeArguments.isEmpty()) return name;
+
+        StringBuilder sb = new StringBuilder(name).append('<');
+        for (Iterator<JavaType> iterator = typeArguments.iterator(); iterator.hasNext(); ) {
+            JavaType argument = iterator.next();
+            sb.append(argument instanceof JavaClassifierType ? ((JavaClassifierType) argument).getPresentableText() : argument);
+            if (iterator.hasNext()) {
+                sb.append(",");
+            }
+        }
+        return sb.append('>').toString();
+    }
+
+    /**
+     * @return fully qualified name of the class or name of the type variable, without type arguments
+     */
+    @NotNull
+    /* package */ String getCanonicalName() {
+        return isTypeVariable ? classifierName : context.getClassFinder().fqNameByInternalName(classifierName).asString();
+    }
+
+    @Override
+    public boolean isRaw() {
+        if (!typeArguments.isEmpty()) return false;
+        JavaClassifier classifier = getClassifier();
+        return classifier instanceof JavaClass && !((JavaClass) classifier).getTypeParameters().isEmpty();
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaType> getTypeArguments() {
+        return typeArguments;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * classifierName.hashCode() + typeArguments.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof BinaryJavaClassifierType)) return false;
+        BinaryJavaClassifierType other = (BinaryJavaClassifierType) obj;
+        if (isTypeVariable != other.isTypeVariable || !classifierName.equals(other.classifierName)) return false;
+        if (isTypeVariable) {
+            JavaClassifier classifier = getClassifier();
+            return classifier == null ? other.getClassifier() == null : classifier.equals(other.getClassifier());
+        }
+        return typeArguments.equals(other.typeArguments) && outerTypeArguments.equals(other.outerTypeArguments);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + getPresentableText();
+    }
+}
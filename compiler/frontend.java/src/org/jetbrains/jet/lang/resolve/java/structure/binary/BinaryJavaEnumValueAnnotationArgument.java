@@ -0,0 +1,57 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaClass;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaElement;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaField;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaReferenceAnnotationArgument;
+
+public class BinaryJavaEnumValueAnnotationArgument extends BinaryJavaAnnotationArgument implements JavaReferenceAnnotationArgument {
+    private final String enumDesc;
+    private final String entryName;
+    private final BinaryJavaClassFinder classFinder;
+
+    public BinaryJavaEnumValueAnnotationArgument(
+            @Nullable String name,
+            @NotNull String enumDesc,
+            @NotNull String entryName,
+            @NotNull BinaryJavaClassFinder classFinder
+    ) {
+        super(name);
+        this.enumDesc = enumDesc;
+        this.entryName = entryName;
+        this.classFinder = classFinder;
+    }
+
+    @Override
+    @Nullable
+    public JavaElement resolve() {
+        JavaClass enumClass = classFinder.findClassByInternalName(enumDesc.substring(1, enumDesc.length() - 1));
+        if (enumClass == null) return null;
+
+        for (JavaField field : enumClass.getFields()) {
+            if (field.isEnumEntry() && entryName.equals(field.getName().asString())) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaField;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaType;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import static org.jetbrains.asm4.Opcodes.ACC_ENUM;
+
+public class BinaryJavaField extends BinaryJavaMember implements JavaField {
+    private final String desc;
+    private final String signature;
+    private final Object constantValue;
+
+    private JavaType type;
+
+    public BinaryJavaField(
+            @NotNull BinaryJavaClass containingClass,
+            int access,
+            @NotNull String name,
+            @NotNull String desc,
+            @Nullable String signature,
+            @Nullable Object constantValue
+    ) {
+        super(containingClass, access, Name.identifier(name));
+        this.desc = desc;
+        this.signature = signature;
+        // Boolean constants are stored as integers in the ConstantValue attribute
+        this.constantValue = "Z".equals(desc) && constantValue instanceof Integer
+                             ? Boolean.valueOf((Integer) constantValue != 0)
+                             : constantValue;
+    }
+
+    @Override
+    public boolean isEnumEntry() {
+        return (getAccess() & ACC_ENUM) != 0;
+    }
+
+    @Override
+    @NotNull
+    public JavaType getType() {
+        if (type == null) {
+            type = new BinarySignatureParser(signature != null ? signature : desc, getContainingClass()).parseType();
+        }
+        return type;
+    }
+
+    /**
+     * @return value of the ConstantValue attribute of a static final field
+     */
+    @Nullable
+    public Object getConstantValue() {
+        return constantValue;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * getContainingClass().hashCode() + getName().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof BinaryJavaField)) return false;
+        BinaryJavaField other = (BinaryJavaField) obj;
+        return getName().equals(other.getName()) && getContainingClass().equals(other.getContainingClass());
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + getContainingClass().getInternalName() + "." + getName();
+    }
+}
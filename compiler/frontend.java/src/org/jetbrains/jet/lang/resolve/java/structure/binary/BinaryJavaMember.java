@@ -0,0 +1,105 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.asm4.AnnotationVisitor;
+import org.jetbrains.jet.lang.descriptors.Visibility;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaAnnotation;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaMember;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.jetbrains.asm4.Opcodes.*;
+
+public abstract class BinaryJavaMember implements JavaMember {
+    private final BinaryJavaClass containingClass;
+    private final int access;
+    private final Name name;
+    private List<JavaAnnotation> annotations = Collections.emptyList();
+
+    protected BinaryJavaMember(@NotNull BinaryJavaClass containingClass, int access, @NotNull Name name) {
+        this.containingClass = containingClass;
+        this.access = access;
+        this.name = name;
+    }
+
+    @NotNull
+    /* package */ AnnotationVisitor addAnnotation(@NotNull String desc) {
+        annotations = BinaryJavaElementUtil.ensureMutable(annotations);
+        return BinaryJavaAnnotation.addAnnotation(annotations, desc, containingClass.getClassFinder());
+    }
+
+    protected int getAccess() {
+        return access;
+    }
+
+    @NotNull
+    @Override
+    public Name getName() {
+        return name;
+    }
+
+    @NotNull
+    @Override
+    public BinaryJavaClass getContainingClass() {
+        return containingClass;
+    }
+
+    @Override
+    public boolean isAbstract() {
+        return (access & ACC_ABSTRACT) != 0;
+    }
+
+    @Override
+    public boolean isStatic() {
+        return (access & ACC_STATIC) != 0;
+    }
+
+    @Override
+    public boolean isFinal() {
+        return (access & ACC_FINAL) != 0;
+    }
+
+    /* package */ boolean isPrivate() {
+        return (access & ACC_PRIVATE) != 0;
+    }
+
+    @NotNull
+    @Override
+    public Visibility getVisibility() {
+        return BinaryJavaElementUtil.getVisibility(access);
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaAnnotation> getAnnotations() {
+        return annotations;
+    }
+
+    @Nullable
+    @Override
+    public JavaAnnotation findAnnotation(@NotNull FqName fqName) {
+        return BinaryJavaAnnotation.findAnnotation(annotations, fqName);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.asm4.AnnotationVisitor;
+import org.jetbrains.asm4.Type;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import java.util.*;
+
+import static org.jetbrains.asm4.Opcodes.ACC_VARARGS;
+
+public class BinaryJavaMethod extends BinaryJavaMember implements JavaMethod, BinaryJavaTypeContext {
+    private final String desc;
+    private final String signature;
+    private final boolean isConstructor;
+    // Number of leading parameters present in the descriptor but not in the source (outer instance, enum name and ordinal)
+    private final int syntheticParameterCount;
+    private boolean hasAnnotationParameterDefaultValue;
+    // Indexed by the parameter number in the descriptor
+    private List<JavaAnnotation>[] parameterAnnotations;
+
+    private List<JavaTypeParameter> typeParameters;
+    private List<JavaValueParameter> valueParameters;
+    private JavaType returnType;
+
+    public BinaryJavaMethod(
+            @NotNull BinaryJavaClass containingClass,
+            int access,
+            @NotNull String name,
+            @NotNull String desc,
+            @Nullable String signature,
+            int syntheticParameterCount
+    ) {
+        super(containingClass, access, "<init>".equals(name) ? containingClass.getName() : Name.identifier(name));
+        this.desc = desc;
+        this.signature = signature;
+        this.isConstructor = "<init>".equals(name);
+        this.syntheticParameterCount = syntheticParameterCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    /* package */ AnnotationVisitor addParameterAnnotation(int parameter, @NotNull String desc) {
+        if (parameterAnnotations == null) {
+            parameterAnnotations = new List[Type.getArgumentTypes(this.desc).length];
+        }
+        if (parameter >= parameterAnnotations.length) return null;
+
+        List<JavaAnnotation> annotations = parameterAnnotations[parameter];
+        if (annotations == null) {
+            annotations = parameterAnnotations[parameter] = new ArrayList<JavaAnnotation>(1);
+        }
+        return BinaryJavaAnnotation.addAnnotation(annotations, desc, getClassFinder());
+    }
+
+    /* package */ void setHasAnnotationParameterDefaultValue() {
+        hasAnnotationParameterDefaultValue = true;
+    }
+
+    private void parseSignature() {
+        if (valueParameters != null) return;
+
+        BinarySignatureParser parser = new BinarySignatureParser(signature != null ? signature : desc, this);
+        typeParameters = parser.parseTypeParameters(this);
+        List<JavaType> parameterTypes = parser.parseParameterTypes();
+        JavaType type = parser.parseType();
+        returnType = isConstructor ? null : type;
+
+        // Generic signatures of constructors don't contain synthetic parameters, but parameter annotations are indexed by descriptor
+        int skip = signature != null ? 0 : syntheticParameterCount;
+        int annotationIndexShift = signature != null ? Type.getArgumentTypes(desc).length - parameterTypes.size() : 0;
+
+        int count = parameterTypes.size() - skip;
+        if (count <= 0) {
+            valueParameters = Collections.emptyList();
+            return;
+        }
+
+        valueParameters = new ArrayList<JavaValueParameter>(count);
+        for (int i = skip; i < parameterTypes.size(); i++) {
+            valueParameters.add(new BinaryJavaValueParameter(
+                    parameterTypes.get(i),
+                    getParameterAnnotations(i + annotationIndexShift),
+                    isVararg() && i == parameterTypes.size() - 1
+            ));
+        }
+    }
+
+    @NotNull
+    private Collection<JavaAnnotation> getParameterAnnotations(int index) {
+        if (parameterAnnotations == null || index >= parameterAnnotations.length || parameterAnnotations[index] == null) {
+            return Collections.emptyList();
+        }
+        return parameterAnnotations[index];
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaTypeParameter> getTypeParameters() {
+        parseSignature();
+        return typeParameters;
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaValueParameter> getValueParameters() {
+        parseSignature();
+        return valueParameters;
+    }
+
+    /* package */ int getValueParameterCount() {
+        return Type.getArgumentTypes(desc).length - syntheticParameterCount;
+    }
+
+    @Override
+    public boolean hasAnnotationParameterDefaultValue() {
+        return hasAnnotationParameterDefaultValue;
+    }
+
+    @Override
+    @Nullable
+    public JavaType getReturnType() {
+        parseSignature();
+        return returnType;
+    }
+
+    @Override
+    public boolean isVararg() {
+        return (getAccess() & ACC_VARARGS) != 0;
+    }
+
+    @Override
+    public boolean isConstructor() {
+        return isConstructor;
+    }
+
+    @NotNull
+    @Override
+    public BinaryJavaClassFinder getClassFinder() {
+        return getContainingClass().getClassFinder();
+    }
+
+    @Nullable
+    @Override
+    public JavaTypeParameter findTypeParameter(@NotNull String name) {
+        for (JavaTypeParameter typeParameter : getTypeParameters()) {
+            if (typeParameter.getName().asString().equals(name)) {
+                return typeParameter;
+            }
+        }
+        return getContainingClass().findTypeParameter(name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * getContainingClass().hashCode() + getName().hashCode()) + desc.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof BinaryJavaMethod)) return false;
+        BinaryJavaMethod other = (BinaryJavaMethod) obj;
+        return isConstructor == other.isConstructor && getName().equals(other.getName()) && desc.equals(other.desc) &&
+               getContainingClass().equals(other.getContainingClass());
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + getContainingClass().getInternalName() + "." + getName() + desc;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+
+import java.util.Iterator;
+
+/**
+ * Formats methods read from class files the same way as PsiFormatUtil does for PSI methods
+ */
+public class BinaryJavaSignatureFormatter {
+    private BinaryJavaSignatureFormatter() {
+    }
+
+    /**
+     * @see org.jetbrains.jet.lang.resolve.java.structure.JavaSignatureFormatter#formatMethod(JavaMethod)
+     */
+    @NotNull
+    public static String formatMethod(@NotNull BinaryJavaMethod method) {
+        StringBuilder sb = new StringBuilder(method.getName().asString()).append('(');
+        for (Iterator<JavaValueParameter> iterator = method.getValueParameters().iterator(); iterator.hasNext(); ) {
+            JavaValueParameter parameter = iterator.next();
+            if (parameter.isVararg() && parameter.getType() instanceof JavaArrayType) {
+                appendType(sb, ((JavaArrayType) parameter.getType()).getComponentType());
+                sb.append("...");
+            }
+            else {
+                appendType(sb, parameter.getType());
+            }
+            if (iterator.hasNext()) {
+                sb.append(", ");
+            }
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * @see org.jetbrains.jet.lang.resolve.java.structure.JavaSignatureFormatter#getExternalName(JavaMethod)
+     */
+    @NotNull
+    public static String getExternalName(@NotNull BinaryJavaMethod method) {
+        StringBuilder sb = new StringBuilder(method.getContainingClass().getInternalName().replace('/', '.').replace('$', '.'));
+        sb.append(' ');
+        JavaType returnType = method.getReturnType();
+        if (returnType != null) {
+            appendType(sb, returnType);
+            sb.append(' ');
+        }
+        return sb.append(formatMethod(method)).toString();
+    }
+
+    private static void appendType(@NotNull StringBuilder sb, @NotNull JavaType type) {
+        if (type instanceof JavaPrimitiveType) {
+            sb.append(((JavaPrimitiveType) type).getCanonicalText());
+        }
+        else if (type instanceof JavaArrayType) {
+            appendType(sb, ((JavaArrayType) type).getComponentType());
+            sb.append("[]");
+        }
+        else if (type instanceof JavaWildcardType) {
+            JavaWildcardType wildcardType = (JavaWildcardType) type;
+            JavaType bound = wildcardType.getBound();
+            sb.append('?');
+            if (bound != null) {
+                sb.append(wildcardType.isExtends() ? " extends " : " super ");
+                appendType(sb, bound);
+            }
+        }
+        else if (type instanceof BinaryJavaClassifierType) {
+            BinaryJavaClassifierType classifierType = (BinaryJavaClassifierType) type;
+            sb.append(classifierType.getCanonicalName());
+            if (!classifierType.getTypeArguments().isEmpty()) {
+                sb.append('<');
+                for (Iterator<JavaType> iterator = classifierType.getTypeArguments().iterator(); iterator.hasNext(); ) {
+                    appendType(sb, iterator.next());
+                    if (iterator.hasNext()) {
+                        sb.append(", ");
+                    }
+                }
+                sb.append('>');
+            }
+        }
+        else {
+            sb.append(type);
+        }
+    }
+}
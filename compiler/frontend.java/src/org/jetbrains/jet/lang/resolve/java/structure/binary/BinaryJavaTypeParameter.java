@@ -0,0 +1,109 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import java.util.Collection;
+
+public class BinaryJavaTypeParameter implements JavaTypeParameter {
+    private final JavaTypeParameterListOwner owner;
+    private final BinaryJavaTypeContext context;
+    private final int index;
+    private final Name name;
+    private final Collection<JavaClassifierType> upperBounds;
+
+    private JavaType type;
+
+    public BinaryJavaTypeParameter(
+            @NotNull JavaTypeParameterListOwner owner,
+            @NotNull BinaryJavaTypeContext context,
+            int index,
+            @NotNull String name,
+            @NotNull Collection<JavaClassifierType> upperBounds
+    ) {
+        this.owner = owner;
+        this.context = context;
+        this.index = index;
+        this.name = Name.identifier(name);
+        this.upperBounds = upperBounds;
+    }
+
+    @NotNull
+    /* package */ BinaryJavaTypeContext getContext() {
+        return context;
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    @NotNull
+    @Override
+    public Name getName() {
+        return name;
+    }
+
+    @Override
+    @NotNull
+    public Collection<JavaClassifierType> getUpperBounds() {
+        return upperBounds;
+    }
+
+    @Override
+    @Nullable
+    public JavaTypeParameterListOwner getOwner() {
+        return owner;
+    }
+
+    @NotNull
+    @Override
+    public JavaType getType() {
+        if (type == null) {
+            type = BinaryJavaClassifierType.typeParameterType(this);
+        }
+        return type;
+    }
+
+    @Override
+    @NotNull
+    public JavaTypeProvider getTypeProvider() {
+        return context.getClassFinder();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * owner.hashCode() + index;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof BinaryJavaTypeParameter)) return false;
+        BinaryJavaTypeParameter other = (BinaryJavaTypeParameter) obj;
+        return index == other.index && owner.equals(other.owner);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + name;
+    }
+}
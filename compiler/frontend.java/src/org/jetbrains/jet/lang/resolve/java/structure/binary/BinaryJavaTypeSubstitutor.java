@@ -0,0 +1,98 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.resolver.DescriptorResolverUtils;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+
+import java.util.Map;
+
+public class BinaryJavaTypeSubstitutor implements JavaTypeSubstitutor {
+    private final Map<JavaTypeParameter, JavaType> substitutionMap;
+
+    public BinaryJavaTypeSubstitutor(@NotNull Map<JavaTypeParameter, JavaType> substitutionMap) {
+        this.substitutionMap = substitutionMap;
+    }
+
+    @Override
+    @NotNull
+    public JavaType substitute(@NotNull JavaType type) {
+        if (type instanceof JavaClassifierType) {
+            JavaClassifier classifier = ((JavaClassifierType) type).getClassifier();
+            if (classifier instanceof JavaTypeParameter && substitutionMap.containsKey(classifier)) {
+                JavaType substituted = substitutionMap.get(classifier);
+                if (substituted != null) return substituted;
+
+                // Type parameter of a raw type is substituted with its erasure
+                JavaType erasure = DescriptorResolverUtils.erasure(type);
+                return erasure != null ? erasure : type;
+            }
+            if (type instanceof BinaryJavaClassifierType) {
+                return ((BinaryJavaClassifierType) type).substituteArguments(this);
+            }
+        }
+        else if (type instanceof JavaArrayType) {
+            JavaType componentType = ((JavaArrayType) type).getComponentType();
+            JavaType substituted = substitute(componentType);
+            return substituted == componentType ? type : JavaElementFactory.getInstance().createArrayType(substituted);
+        }
+        else if (type instanceof BinaryJavaWildcardType) {
+            BinaryJavaWildcardType wildcardType = (BinaryJavaWildcardType) type;
+            JavaType bound = wildcardType.getBound();
+            if (bound != null) {
+                JavaType substituted = substitute(bound);
+                if (substituted != bound) {
+                    return new BinaryJavaWildcardType(substituted, wildcardType.isExtends(), wildcardType.getClassFinder());
+                }
+            }
+        }
+        return type;
+    }
+
+    @Override
+    @Nullable
+    public JavaType substitute(@NotNull JavaTypeParameter typeParameter) {
+        if (substitutionMap.containsKey(typeParameter)) {
+            return substitutionMap.get(typeParameter);
+        }
+        return typeParameter.getType();
+    }
+
+    @Override
+    @NotNull
+    public Map<JavaTypeParameter, JavaType> getSubstitutionMap() {
+        return substitutionMap;
+    }
+
+    @Override
+    public int hashCode() {
+        return substitutionMap.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof BinaryJavaTypeSubstitutor && substitutionMap.equals(((BinaryJavaTypeSubstitutor) obj).substitutionMap);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + substitutionMap;
+    }
+}
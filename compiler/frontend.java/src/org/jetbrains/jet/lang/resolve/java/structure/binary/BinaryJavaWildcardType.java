@@ -0,0 +1,75 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaType;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaTypeProvider;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaWildcardType;
+
+public class BinaryJavaWildcardType implements JavaWildcardType {
+    private final JavaType bound;
+    private final boolean isExtends;
+    private final BinaryJavaClassFinder classFinder;
+
+    public BinaryJavaWildcardType(@Nullable JavaType bound, boolean isExtends, @NotNull BinaryJavaClassFinder classFinder) {
+        this.bound = bound;
+        this.isExtends = isExtends;
+        this.classFinder = classFinder;
+    }
+
+    @Override
+    @Nullable
+    public JavaType getBound() {
+        return bound;
+    }
+
+    @Override
+    public boolean isExtends() {
+        return isExtends;
+    }
+
+    @Override
+    @NotNull
+    public JavaTypeProvider getTypeProvider() {
+        return classFinder;
+    }
+
+    @NotNull
+    /* package */ BinaryJavaClassFinder getClassFinder() {
+        return classFinder;
+    }
+
+    @Override
+    public int hashCode() {
+        return bound == null ? 0 : 31 * bound.hashCode() + (isExtends ? 1 : 0);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof BinaryJavaWildcardType)) return false;
+        BinaryJavaWildcardType other = (BinaryJavaWildcardType) obj;
+        return isExtends == other.isExtends && (bound == null ? other.bound == null : bound.equals(other.bound));
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + (bound == null ? "?" : (isExtends ? "? extends " : "? super ") + bound);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaClassifierType;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaType;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaTypeParameter;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaTypeParameterListOwner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses JVM type descriptors and generic signatures (JVMS 4.3.4) into the Java structure model.
+ * Descriptors are a subset of the signature grammar, so the same parser handles both
+ */
+/* package */ class BinarySignatureParser {
+    private static final String JAVA_LANG_OBJECT = "java/lang/Object";
+
+    private final String signature;
+    private final BinaryJavaTypeContext context;
+    private int position;
+
+    public BinarySignatureParser(@NotNull String signature, @NotNull BinaryJavaTypeContext context) {
+        this.signature = signature;
+        this.context = context;
+    }
+
+    public boolean atEnd() {
+        return position >= signature.length();
+    }
+
+    @NotNull
+    public List<JavaTypeParameter> parseTypeParameters(@NotNull JavaTypeParameterListOwner owner) {
+        if (!skip('<')) return Collections.emptyList();
+
+        List<JavaTypeParameter> result = new ArrayList<JavaTypeParameter>(1);
+        while (!skip('>')) {
+            int colon = signature.indexOf(':', position);
+            String name = signature.substring(position, colon);
+            position = colon;
+
+            List<JavaClassifierType> bounds = new ArrayList<JavaClassifierType>(1);
+            while (skip(':')) {
+                // Class bound is empty if there are only interface bounds: "T::Ljava/lang/Comparable<TT;>;"
+                if (current() == ':') continue;
+                bounds.add((JavaClassifierType) parseType());
+            }
+
+            // "T extends Object" is the same as "T", and is represented in PSI with an empty bound list
+            if (bounds.size() == 1 && isJavaLangObject(bounds.get(0))) {
+                bounds = Collections.emptyList();
+            }
+
+            result.add(new BinaryJavaTypeParameter(owner, context, result.size(), name, bounds));
+        }
+        return result;
+    }
+
+    /**
+     * Must be called after type parameters are parsed. Return type and thrown exceptions are left unparsed
+     */
+    @NotNull
+    public List<JavaType> parseParameterTypes() {
+        expect('(');
+        List<JavaType> result = new ArrayList<JavaType>(2);
+        while (!skip(')')) {
+            result.add(parseType());
+        }
+        return result;
+    }
+
+    @NotNull
+    public JavaType parseType() {
+        char c = signature.charAt(position++);
+        switch (c) {
+            case 'L':
+                return parseClassType();
+            case 'T': {
+                int end = signature.indexOf(';', position);
+                String name = signature.substring(position, end);
+                position = end + 1;
+                return BinaryJavaClassifierType.typeVariable(context, name);
+            }
+            case '[':
+                return new BinaryJavaArrayType(parseType());
+            default:
+                return BinaryJavaPrimitiveType.byDescriptor(c);
+        }
+    }
+
+    @NotNull
+    private JavaType parseClassType() {
+        StringBuilder internalName = new StringBuilder();
+        List<JavaType> outerArguments = Collections.emptyList();
+        List<JavaType> arguments = Collections.emptyList();
+
+        while (true) {
+            int start = position;
+            char c = signature.charAt(position);
+            while (c != '<' && c != '.' && c != ';') {
+                c = signature.charAt(++position);
+            }
+            internalName.append(signature, start, position);
+
+            if (c == '<') {
+                position++;
+                arguments = parseTypeArguments();
+                c = signature.charAt(position);
+            }
+
+            position++;
+            if (c == ';') break;
+
+            // "Lpkg/Outer<TT;>.Inner;": arguments seen so far belong to the outer class
+            internalName.append('$');
+            outerArguments = arguments;
+            arguments = Collections.emptyList();
+        }
+
+        return BinaryJavaClassifierType.classType(context, internalName.toString(), arguments, outerArguments);
+    }
+
+    @NotNull
+    private List<JavaType> parseTypeArguments() {
+        List<JavaType> result = new ArrayList<JavaType>(1);
+        while (!skip('>')) {
+            char c = current();
+            if (c == '*') {
+                position++;
+                result.add(new BinaryJavaWildcardType(null, false, context.getClassFinder()));
+            }
+            else if (c == '+' || c == '-') {
+                position++;
+                result.add(new BinaryJavaWildcardType(parseType(), c == '+', context.getClassFinder()));
+            }
+            else {
+                result.add(parseType());
+            }
+        }
+        return result;
+    }
+
+    private char current() {
+        return signature.charAt(position);
+    }
+
+    private boolean skip(char c) {
+        if (position < signature.length() && signature.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!skip(c)) {
+            throw new IllegalStateException("'" + c + "' expected at " + position + " in signature: " + signature);
+        }
+    }
+
+    private static boolean isJavaLangObject(@NotNull JavaClassifierType type) {
+        return type instanceof BinaryJavaClassifierType && ((BinaryJavaClassifierType) type).isClassType(JAVA_LANG_OBJECT);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.binary;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+
+/**
+ * Locates class files of binary dependencies for {@link BinaryJavaClassFinder}
+ */
+public interface ClassFileFinder {
+    /**
+     * @return class file for the given class, or null if there's no such class file or the class is shadowed by a Java source file
+     */
+    @Nullable
+    VirtualFile findClassFile(@NotNull FqName fqName);
+
+    @Nullable
+    VirtualFile findClassFileByInternalName(@NotNull String internalName);
+
+    /**
+     * External annotations are only supported by the PSI-based Java model, so such classes should not be loaded from binaries
+     *
+     * @return true if there are external annotations on the given class or any of its members
+     */
+    boolean hasExternalAnnotations(@NotNull String internalName, @NotNull FqName fqName);
+}
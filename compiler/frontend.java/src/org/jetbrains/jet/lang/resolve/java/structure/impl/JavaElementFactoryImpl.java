@@ -20,11 +20,15 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.jet.lang.resolve.java.structure.JavaArrayType;
 import org.jetbrains.jet.lang.resolve.java.structure.JavaElementFactory;
 import org.jetbrains.jet.lang.resolve.java.structure.JavaType;
+import org.jetbrains.jet.lang.resolve.java.structure.binary.BinaryJavaArrayType;
 
 public class JavaElementFactoryImpl extends JavaElementFactory {
     @NotNull
     @Override
     public JavaArrayType createArrayType(@NotNull JavaType elementType) {
+        if (!(elementType instanceof JavaTypeImpl)) {
+            return new BinaryJavaArrayType(elementType);
+        }
         return new JavaArrayTypeImpl(((JavaTypeImpl) elementType).getPsi().createArrayType());
     }
 }
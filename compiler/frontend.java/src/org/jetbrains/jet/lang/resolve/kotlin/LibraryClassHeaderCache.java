@@ -0,0 +1,295 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.kotlin;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.JvmAbi;
+import org.jetbrains.jet.lang.resolve.kotlin.header.KotlinClassHeader;
+import org.jetbrains.jet.lang.resolve.kotlin.header.KotlinClassHeaderExternalizer;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Remembers headers of classes read from library jars between compilations, so that a warm compilation neither unpacks
+ * nor parses a library class only to find out whether it is a Kotlin class and to get its serialized data.
+ *
+ * Headers are grouped by jar, and a jar is identified by a hash of its content (names, CRCs and sizes of its entries, which
+ * are taken from the central directory without unpacking anything), so a rebuilt or replaced library never gets stale data.
+ * The cache file is read at once, but the part of it corresponding to a jar is only decoded when that jar is accessed. It is not
+ * memory-mapped, because a mapped file can't be replaced on save on Windows, and elsewhere the mapping would keep stale contents.
+ * Only jars accessed during the compilation are written back, which keeps the file from growing indefinitely.
+ */
+public final class LibraryClassHeaderCache {
+    private static final Logger LOG = Logger.getInstance(LibraryClassHeaderCache.class);
+
+    private static final int MAGIC = 0x4B4C4843;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String JAR_SEPARATOR = "!/";
+
+    @NotNull
+    private final File cacheFile;
+
+    // Sections of the cache file which weren't decoded yet, by content hash of the jar
+    private final Map<String, ByteBuffer> storedSections = new HashMap<String, ByteBuffer>();
+
+    // null values stand for jars whose content couldn't be hashed
+    private final Map<String, JarHeaders> jarsByPath = new HashMap<String, JarHeaders>();
+    private final Map<String, JarHeaders> jarsByHash = new LinkedHashMap<String, JarHeaders>();
+
+    private boolean modified = false;
+
+    private LibraryClassHeaderCache(@NotNull File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    @NotNull
+    public static LibraryClassHeaderCache load(@NotNull File cacheFile) {
+        LibraryClassHeaderCache cache = new LibraryClassHeaderCache(cacheFile);
+        if (cacheFile.isFile()) {
+            try {
+                cache.readTableOfContents();
+            }
+            catch (IOException e) {
+                LOG.warn("Library class cache is corrupted and will be rebuilt: " + cacheFile, e);
+                cache.storedSections.clear();
+            }
+        }
+        return cache;
+    }
+
+    @Nullable
+    public synchronized KotlinClassHeader getHeader(@NotNull VirtualFileKotlinClass kotlinClass) {
+        String path = kotlinClass.getFile().getPath();
+        int separator = path.indexOf(JAR_SEPARATOR);
+        JarHeaders jar = separator < 0 ? null : getJarHeaders(path.substring(0, separator));
+        if (jar == null) {
+            // Class directories are usually outputs of other modules and change too often to be worth caching
+            return KotlinClassHeader.readFromAnnotations(kotlinClass);
+        }
+
+        String entryName = path.substring(separator + JAR_SEPARATOR.length());
+        if (jar.headers.containsKey(entryName)) {
+            return jar.headers.get(entryName);
+        }
+
+        KotlinClassHeader header = KotlinClassHeader.readFromAnnotations(kotlinClass);
+        jar.headers.put(entryName, header);
+        modified = true;
+        return header;
+    }
+
+    public synchronized void save() {
+        if (!modified) return;
+        modified = false;
+
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(JvmAbi.VERSION);
+                out.writeInt(jarsByHash.size());
+                for (Map.Entry<String, JarHeaders> entry : jarsByHash.entrySet()) {
+                    byte[] section = entry.getValue().toByteArray();
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(section.length);
+                    out.write(section);
+                }
+            }
+            finally {
+                out.close();
+            }
+            FileUtil.rename(tempFile, cacheFile);
+        }
+        catch (IOException e) {
+            LOG.warn("Couldn't save library class cache to " + cacheFile, e);
+            FileUtil.delete(tempFile);
+        }
+    }
+
+    private void readTableOfContents() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(FileUtil.loadFileBytes(cacheFile));
+
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer));
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readInt() != JvmAbi.VERSION) {
+            // Written by another version of the compiler, will be overwritten
+            return;
+        }
+
+        int jarCount = in.readInt();
+        for (int i = 0; i < jarCount; i++) {
+            String hash = in.readUTF();
+            int length = in.readInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new EOFException("Section of " + length + " bytes doesn't fit into the file");
+            }
+
+            ByteBuffer section = buffer.slice();
+            section.limit(length);
+            buffer.position(buffer.position() + length);
+            storedSections.put(hash, section);
+        }
+    }
+
+    @Nullable
+    private JarHeaders getJarHeaders(@NotNull String jarPath) {
+        if (jarsByPath.containsKey(jarPath)) {
+            return jarsByPath.get(jarPath);
+        }
+
+        JarHeaders jar = null;
+        try {
+            String hash = computeContentHash(new File(jarPath));
+            jar = jarsByHash.get(hash);
+            if (jar == null) {
+                jar = new JarHeaders();
+                ByteBuffer section = storedSections.remove(hash);
+                if (section != null) {
+                    try {
+                        jar.read(section);
+                    }
+                    catch (IOException e) {
+                        LOG.warn("Library class cache is corrupted for " + jarPath, e);
+                        jar.headers.clear();
+                    }
+                }
+                jarsByHash.put(hash, jar);
+            }
+        }
+        catch (IOException e) {
+            LOG.warn("Couldn't read library " + jarPath, e);
+        }
+
+        jarsByPath.put(jarPath, jar);
+        return jar;
+    }
+
+    @NotNull
+    private static String computeContentHash(@NotNull File jarFile) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        ZipFile zipFile = new ZipFile(jarFile);
+        try {
+            DataOutputStream out = new DataOutputStream(new DigestingOutputStream(digest));
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                out.writeUTF(entry.getName());
+                out.writeLong(entry.getCrc());
+                out.writeLong(entry.getSize());
+            }
+            out.close();
+        }
+        finally {
+            zipFile.close();
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return result.toString();
+    }
+
+    private static class JarHeaders {
+        // null values stand for classes which are not Kotlin classes
+        private final Map<String, KotlinClassHeader> headers = new HashMap<String, KotlinClassHeader>();
+
+        private void read(@NotNull ByteBuffer section) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteBufferInputStream(section));
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String entryName = in.readUTF();
+                headers.put(entryName, KotlinClassHeaderExternalizer.load(in));
+            }
+        }
+
+        @NotNull
+        private byte[] toByteArray() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(headers.size());
+            for (Map.Entry<String, KotlinClassHeader> entry : headers.entrySet()) {
+                out.writeUTF(entry.getKey());
+                KotlinClassHeaderExternalizer.save(out, entry.getValue());
+            }
+            out.close();
+            return bytes.toByteArray();
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(@NotNull ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+    }
+
+    private static class DigestingOutputStream extends OutputStream {
+        private final MessageDigest digest;
+
+        private DigestingOutputStream(@NotNull MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(int b) {
+            digest.update((byte) b);
+        }
+
+        @Override
+        public void write(@NotNull byte[] b, int off, int len) {
+            digest.update(b, off, len);
+        }
+    }
+}
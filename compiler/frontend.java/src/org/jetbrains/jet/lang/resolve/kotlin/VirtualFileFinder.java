@@ -25,4 +25,7 @@ public interface VirtualFileFinder {
     // TODO: support scope
     @Nullable
     VirtualFile find(@NotNull FqName className);
+
+    @Nullable
+    KotlinJvmBinaryClass findKotlinClass(@NotNull FqName className);
 }
@@ -24,6 +24,8 @@ import org.jetbrains.asm4.ClassVisitor;
 import org.jetbrains.asm4.FieldVisitor;
 import org.jetbrains.asm4.MethodVisitor;
 import org.jetbrains.jet.lang.resolve.java.JvmClassName;
+import org.jetbrains.jet.lang.resolve.kotlin.header.KotlinClassHeader;
+import org.jetbrains.jet.lang.resolve.kotlin.header.KotlinClassHeaderProvider;
 import org.jetbrains.jet.lang.resolve.name.Name;
 import org.jetbrains.jet.utils.ExceptionUtils;
 
@@ -32,12 +34,21 @@ import java.io.IOException;
 import static org.jetbrains.asm4.ClassReader.*;
 import static org.jetbrains.asm4.Opcodes.ASM4;
 
-public class VirtualFileKotlinClass implements KotlinJvmBinaryClass {
+public class VirtualFileKotlinClass implements KotlinClassHeaderProvider {
     private final VirtualFile file;
+    @Nullable
+    private final LibraryClassHeaderCache headerCache;
     private JvmClassName className;
+    private KotlinClassHeader header;
+    private boolean headerRead;
 
     public VirtualFileKotlinClass(@NotNull VirtualFile file) {
+        this(file, null);
+    }
+
+    public VirtualFileKotlinClass(@NotNull VirtualFile file, @Nullable LibraryClassHeaderCache headerCache) {
         this.file = file;
+        this.headerCache = headerCache;
     }
 
     @NotNull
@@ -65,6 +76,16 @@ public class VirtualFileKotlinClass implements KotlinJvmBinaryClass {
         return className;
     }
 
+    @Nullable
+    @Override
+    public KotlinClassHeader getClassHeader() {
+        if (!headerRead) {
+            header = headerCache != null ? headerCache.getHeader(this) : KotlinClassHeader.readFromAnnotations(this);
+            headerRead = true;
+        }
+        return header;
+    }
+
     @Override
     public void loadClassAnnotations(@NotNull final AnnotationVisitor annotationVisitor) {
         try {
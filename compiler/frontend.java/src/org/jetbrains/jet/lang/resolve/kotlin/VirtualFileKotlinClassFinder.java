@@ -16,7 +16,6 @@
 
 package org.jetbrains.jet.lang.resolve.kotlin;
 
-import com.intellij.openapi.vfs.VirtualFile;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jet.lang.resolve.name.FqName;
@@ -34,7 +33,6 @@ public class VirtualFileKotlinClassFinder implements KotlinClassFinder {
     @Nullable
     @Override
     public KotlinJvmBinaryClass find(@NotNull FqName fqName) {
-        VirtualFile file = virtualFileFinder.find(fqName);
-        return file == null ? null : new VirtualFileKotlinClass(file);
+        return virtualFileFinder.findKotlinClass(fqName);
     }
 }
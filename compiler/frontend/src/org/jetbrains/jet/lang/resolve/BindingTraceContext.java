@@ -25,6 +25,7 @@ import org.jetbrains.jet.util.slicedmap.*;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class BindingTraceContext implements BindingTrace {
     private final List<Diagnostic> diagnosticList = Lists.newArrayList();
@@ -113,4 +114,13 @@ public class BindingTraceContext implements BindingTrace {
     public <K, V> Collection<K> getKeys(WritableSlice<K, V> slice) {
         return map.getKeys(slice);
     }
+
+    public int getEntryCount() {
+        int count = 0;
+        //noinspection UnusedDeclaration
+        for (Map.Entry<SlicedMapKey<?, ?>, ?> entry : map) {
+            count++;
+        }
+        return count;
+    }
 }
@@ -37,6 +37,7 @@ import org.jetbrains.jet.lang.resolve.calls.model.ResolvedCall;
 import org.jetbrains.jet.lang.resolve.calls.results.OverloadResolutionResults;
 import org.jetbrains.jet.lang.resolve.calls.util.CallMaker;
 import org.jetbrains.jet.lang.resolve.constants.CompileTimeConstant;
+import org.jetbrains.jet.lang.resolve.constants.ConstantExpressionEvaluator;
 import org.jetbrains.jet.lang.resolve.scopes.*;
 import org.jetbrains.jet.lang.resolve.scopes.receivers.ReceiverValue;
 import org.jetbrains.jet.lang.types.*;
@@ -49,6 +50,7 @@ import org.jetbrains.jet.lexer.JetTokens;
 import org.jetbrains.jet.util.Box;
 import org.jetbrains.jet.util.slicedmap.WritableSlice;
 import org.jetbrains.jet.storage.ReenteringLazyValueComputationException;
+import org.jetbrains.jet.utils.PerformanceReport;
 
 import javax.inject.Inject;
 import java.util.*;
@@ -153,9 +155,44 @@ public class BodyResolver {
     }
 
     public void resolveBodies() {
-        resolveBehaviorDeclarationBodies(context);
-        controlFlowAnalyzer.process(context);
-        declarationsChecker.process(context);
+        PerformanceReport.Phase phase = PerformanceReport.startPhase("bodies");
+        try {
+            resolveBehaviorDeclarationBodies(context);
+        }
+        finally {
+            phase.end();
+        }
+
+        phase = PerformanceReport.startPhase("constants");
+        try {
+            evaluateConstantExpressions();
+        }
+        finally {
+            phase.end();
+        }
+
+        phase = PerformanceReport.startPhase("control flow");
+        try {
+            controlFlowAnalyzer.process(context);
+        }
+        finally {
+            phase.end();
+        }
+
+        phase = PerformanceReport.startPhase("declarations checker");
+        try {
+            declarationsChecker.process(context);
+        }
+        finally {
+            phase.end();
+        }
+    }
+
+    private void evaluateConstantExpressions() {
+        for (JetFile file : context.getFiles()) {
+            if (!context.completeAnalysisNeeded(file)) continue;
+            ConstantExpressionEvaluator.evaluate(file, trace);
+        }
     }
 
     private void resolveDelegationSpecifierLists() {
@@ -659,7 +696,13 @@ public class BodyResolver {
             assert declaringScope != null;
 
             resolveAnnotationArguments(declaringScope, declaration);
-            resolveFunctionBody(trace, declaration, descriptor, declaringScope);
+            PerformanceReport.Phase phase = PerformanceReport.startPhase("function bodies", declaration.getContainingFile().getName());
+            try {
+                resolveFunctionBody(trace, declaration, descriptor, declaringScope);
+            }
+            finally {
+                phase.end();
+            }
 
             assert descriptor.getReturnType() != null;
         }
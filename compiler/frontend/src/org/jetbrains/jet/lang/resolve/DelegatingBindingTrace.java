@@ -17,6 +17,7 @@
 package org.jetbrains.jet.lang.resolve;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -24,26 +25,47 @@ import org.jetbrains.annotations.TestOnly;
 import org.jetbrains.jet.lang.diagnostics.Diagnostic;
 import org.jetbrains.jet.util.slicedmap.*;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class DelegatingBindingTrace implements BindingTrace {
-    @SuppressWarnings("ConstantConditions")
-    private final MutableSlicedMap map = BindingTraceContext.TRACK_REWRITES ? new TrackingSlicedMap(BindingTraceContext.TRACK_WITH_STACK_TRACES) : SlicedMapImpl.create();
+    // The map and the diagnostic list are not final: they can be handed over to another trace as a whole (see moveAllMyDataTo())
+    private MutableSlicedMap map = createMap();
 
     private final BindingContext parentContext;
-    private final List<Diagnostic> diagnostics = Lists.newArrayList();
+    private List<Diagnostic> diagnostics = Lists.newArrayList();
     private final String name;
 
+    // Own diagnostics followed by the parent's ones. Nothing is copied when the diagnostics are requested, only own diagnostics are
+    // copied when they are iterated, so that reporting to this trace while iterating doesn't fail
+    private final Collection<Diagnostic> allDiagnostics = new AbstractCollection<Diagnostic>() {
+        @NotNull
+        @Override
+        public Iterator<Diagnostic> iterator() {
+            return Iterators.concat(new ArrayList<Diagnostic>(diagnostics).iterator(), getParentDiagnostics().iterator());
+        }
+
+        @Override
+        public int size() {
+            return diagnostics.size() + getParentDiagnostics().size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return diagnostics.isEmpty() && getParentDiagnostics().isEmpty();
+        }
+    };
+
+    // Created on demand and reused until this trace is changed: the suppressors it caches depend on the recorded annotations
+    private DiagnosticsWithSuppression diagnosticsWithSuppression;
+
     private final BindingContext bindingContext = new BindingContext() {
         @NotNull
         @Override
         public Diagnostics getDiagnostics() {
-            ArrayList<Diagnostic> mergedDiagnostics = new ArrayList<Diagnostic>(diagnostics);
-            mergedDiagnostics.addAll(parentContext.getDiagnostics().noSuppression().all());
-            return new DiagnosticsWithSuppression(this, mergedDiagnostics);
+            if (diagnosticsWithSuppression == null) {
+                diagnosticsWithSuppression = new DiagnosticsWithSuppression(this, allDiagnostics);
+            }
+            return diagnosticsWithSuppression;
         }
 
         @Override
@@ -86,6 +108,7 @@ public class DelegatingBindingTrace implements BindingTrace {
     @Override
     public <K, V> void record(WritableSlice<K, V> slice, K key, V value) {
         map.put(slice, key, value);
+        diagnosticsWithSuppression = null;
     }
 
     @Override
@@ -115,9 +138,13 @@ public class DelegatingBindingTrace implements BindingTrace {
         if (keys.isEmpty()) return fromParent;
         if (fromParent.isEmpty()) return keys;
 
-        List<K> result = Lists.newArrayList(keys);
-        result.addAll(fromParent);
-        return result;
+        // Own keys are copied, so that recording to this trace while iterating doesn't fail
+        return new MergedCollection<K>(new ArrayList<K>(keys), fromParent);
+    }
+
+    @NotNull
+    private Collection<Diagnostic> getParentDiagnostics() {
+        return parentContext.getDiagnostics().noSuppression().all();
     }
 
     public void addAllMyDataTo(@NotNull BindingTrace trace) {
@@ -125,10 +152,45 @@ public class DelegatingBindingTrace implements BindingTrace {
     }
 
     public void moveAllMyDataTo(@NotNull BindingTrace trace) {
-        addAllMyDataTo(trace, null, true);
+        if (!handOverAllMyDataTo(trace)) {
+            addAllMyDataTo(trace, null, true);
+        }
         clear();
     }
 
+    /*
+     * When the target trace has no entries of its own, replaying our entries into it with record() (slice checks, rewrite
+     * policies, afterPut()) would produce exactly the map we already have, so the map is given to the target as a whole
+     */
+    private boolean handOverAllMyDataTo(@NotNull BindingTrace trace) {
+        if (!isPlainTrace(trace)) return false;
+
+        DelegatingBindingTrace target = (DelegatingBindingTrace) trace;
+        if (target == this || target.map.iterator().hasNext()) return false;
+
+        target.map = map;
+        map = createMap();
+        target.diagnosticsWithSuppression = null;
+        diagnosticsWithSuppression = null;
+
+        if (target.diagnostics.isEmpty()) {
+            target.diagnostics = diagnostics;
+            diagnostics = Lists.newArrayList();
+        }
+        else {
+            target.diagnostics.addAll(diagnostics);
+        }
+        return true;
+    }
+
+    // Traces overriding record() or report() must see every entry, so data is never handed over to them
+    private static boolean isPlainTrace(@NotNull BindingTrace trace) {
+        Class<? extends BindingTrace> traceClass = trace.getClass();
+        return traceClass == DelegatingBindingTrace.class
+               || traceClass == TemporaryBindingTrace.class
+               || traceClass == ChainedTemporaryBindingTrace.class;
+    }
+
     public void addAllMyDataTo(@NotNull BindingTrace trace, @Nullable TraceEntryFilter filter, boolean commitDiagnostics) {
         for (Map.Entry<SlicedMapKey<?, ?>, ?> entry : map) {
             SlicedMapKey slicedMapKey = entry.getKey();
@@ -151,17 +213,52 @@ public class DelegatingBindingTrace implements BindingTrace {
     }
 
     public void clear() {
-        map.clear();
-        diagnostics.clear();
+        // Dropping the data instead of clearing it is O(1) for failed candidates with many entries
+        map = createMap();
+        diagnostics = Lists.newArrayList();
+        diagnosticsWithSuppression = null;
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @NotNull
+    private static MutableSlicedMap createMap() {
+        return BindingTraceContext.TRACK_REWRITES ? new TrackingSlicedMap(BindingTraceContext.TRACK_WITH_STACK_TRACES) : SlicedMapImpl.create();
     }
 
     @Override
     public void report(@NotNull Diagnostic diagnostic) {
         diagnostics.add(diagnostic);
+        diagnosticsWithSuppression = null;
     }
 
     @Override
     public String toString() {
         return name;
     }
+
+    private static class MergedCollection<E> extends AbstractCollection<E> {
+        private final Collection<E> first;
+        private final Collection<E> second;
+
+        private MergedCollection(@NotNull Collection<E> first, @NotNull Collection<E> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @NotNull
+        @Override
+        public Iterator<E> iterator() {
+            return Iterators.concat(first.iterator(), second.iterator());
+        }
+
+        @Override
+        public int size() {
+            return first.size() + second.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return first.isEmpty() && second.isEmpty();
+        }
+    }
 }
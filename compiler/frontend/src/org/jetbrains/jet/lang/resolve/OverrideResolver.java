@@ -21,6 +21,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.Computable;
 import com.intellij.psi.PsiElement;
 import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.containers.LinkedMultiMap;
@@ -135,6 +136,11 @@ public class OverrideResolver {
             Collection<CallableMemberDescriptor> fromSupertypes = membersFromSupertypesByName.get(memberName);
             Collection<CallableMemberDescriptor> fromCurrent = membersFromCurrentByName.get(memberName);
 
+            if (fromCurrent.isEmpty() && canCreateFakeOverridesLazily(fromSupertypes)) {
+                classDescriptor.addLazyFakeOverrides(memberName, createFakeOverridesLazily(memberName, fromSupertypes, classDescriptor));
+                continue;
+            }
+
             OverridingUtil.generateOverridesInFunctionGroup(
                     memberName,
                     fromSupertypes,
@@ -165,6 +171,75 @@ public class OverrideResolver {
         resolveUnknownVisibilities(classDescriptor.getAllCallableMembers(), trace);
     }
 
+    /**
+     * Fake overrides of members which all come from the same non-generic class (not a trait) and have a single implementation
+     * each, not inherited from a trait, can't be reported by any of the checks here and aren't used by the code generation,
+     * so they are only needed if somebody looks them up by name. This is the case for most of the members of large
+     * Java superclasses like javax.swing.JComponent
+     */
+    private static boolean canCreateFakeOverridesLazily(@NotNull Collection<CallableMemberDescriptor> fromSupertypes) {
+        DeclarationDescriptor container = null;
+        for (CallableMemberDescriptor fromSupertype : fromSupertypes) {
+            if (container == null) {
+                container = fromSupertype.getContainingDeclaration();
+            }
+            else if (container != fromSupertype.getContainingDeclaration()) {
+                return false;
+            }
+
+            if (fromSupertype.getModality() == Modality.ABSTRACT) return false;
+
+            Collection<CallableMemberDescriptor> declarations = OverridingUtil.getOverriddenDeclarations(fromSupertype);
+            if (declarations.size() != 1) return false;
+            CallableMemberDescriptor declaration = declarations.iterator().next();
+            if (declaration.getModality() == Modality.ABSTRACT || DescriptorUtils.isTrait(declaration.getContainingDeclaration())) {
+                return false;
+            }
+        }
+
+        if (!(container instanceof ClassDescriptor)) return false;
+        ClassDescriptor superClass = (ClassDescriptor) container;
+        return superClass.getKind() != ClassKind.TRAIT && superClass.getTypeConstructor().getParameters().isEmpty();
+    }
+
+    @NotNull
+    private static Computable<Collection<CallableMemberDescriptor>> createFakeOverridesLazily(
+            @NotNull final Name name,
+            @NotNull Collection<CallableMemberDescriptor> fromSupertypes,
+            @NotNull final MutableClassDescriptor classDescriptor
+    ) {
+        final List<CallableMemberDescriptor> membersFromSupertypes = Lists.newArrayList(fromSupertypes);
+        return new Computable<Collection<CallableMemberDescriptor>>() {
+            @Override
+            public Collection<CallableMemberDescriptor> compute() {
+                final List<CallableMemberDescriptor> result = Lists.newArrayList();
+                OverridingUtil.generateOverridesInFunctionGroup(
+                        name,
+                        membersFromSupertypes,
+                        Collections.<CallableMemberDescriptor>emptyList(),
+                        classDescriptor,
+                        new OverridingUtil.DescriptorSink() {
+                            @Override
+                            public void addToScope(@NotNull CallableMemberDescriptor fakeOverride) {
+                                OverridingUtil.resolveUnknownVisibilityForMember(fakeOverride, new OverridingUtil.NotInferredVisibilitySink() {
+                                    @Override
+                                    public void cannotInferVisibility(@NotNull CallableMemberDescriptor descriptor) {
+                                        // Can't happen: visibility is inferred from the single overridden member
+                                    }
+                                });
+                                result.add(fakeOverride);
+                            }
+
+                            @Override
+                            public void conflict(@NotNull CallableMemberDescriptor fromSuper, @NotNull CallableMemberDescriptor fromCurrent) {
+                                // Both members are declared in the same superclass, where the conflict is reported
+                            }
+                        });
+                return result;
+            }
+        };
+    }
+
     public static void resolveUnknownVisibilities(
             @NotNull Collection<? extends CallableMemberDescriptor> descriptors,
             @NotNull BindingTrace trace) {
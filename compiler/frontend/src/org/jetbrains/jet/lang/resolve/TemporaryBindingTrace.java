@@ -40,8 +40,7 @@ public class TemporaryBindingTrace extends DelegatingBindingTrace {
     }
 
     public void commit() {
-        addAllMyDataTo(trace);
-        clear();
+        moveAllMyDataTo(trace);
     }
 
     public void commit(@NotNull TraceEntryFilter filter, boolean commitDiagnostics) {
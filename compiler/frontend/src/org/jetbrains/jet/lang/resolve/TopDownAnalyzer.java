@@ -36,6 +36,7 @@ import org.jetbrains.jet.lang.resolve.scopes.WritableScope;
 import org.jetbrains.jet.lang.resolve.scopes.WritableScopeImpl;
 import org.jetbrains.jet.lang.types.expressions.ExpressionTypingContext;
 import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns;
+import org.jetbrains.jet.utils.PerformanceReport;
 
 import javax.inject.Inject;
 import java.util.*;
@@ -122,13 +123,40 @@ public class TopDownAnalyzer {
 //        context.enableDebugOutput();
         context.debug("Enter");
 
-        typeHierarchyResolver.process(outerScope, owner, declarations);
-        declarationResolver.process(outerScope);
-        overrideResolver.process();
+        PerformanceReport.Phase phase = PerformanceReport.startPhase("type hierarchy");
+        try {
+            typeHierarchyResolver.process(outerScope, owner, declarations);
+        }
+        finally {
+            phase.end();
+        }
+        PerformanceReport.count("classes", context.getClasses().size() + context.getObjects().size());
+
+        phase = PerformanceReport.startPhase("declarations");
+        try {
+            declarationResolver.process(outerScope);
+        }
+        finally {
+            phase.end();
+        }
+
+        phase = PerformanceReport.startPhase("overrides");
+        try {
+            overrideResolver.process();
+        }
+        finally {
+            phase.end();
+        }
 
         lockScopes();
 
-        overloadResolver.process();
+        phase = PerformanceReport.startPhase("overloads");
+        try {
+            overloadResolver.process();
+        }
+        finally {
+            phase.end();
+        }
 
         if (!topDownAnalysisParameters.isAnalyzingBootstrapLibrary()) {
             bodyResolver.resolveBodies();
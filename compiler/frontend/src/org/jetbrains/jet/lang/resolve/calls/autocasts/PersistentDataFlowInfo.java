@@ -0,0 +1,231 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.calls.autocasts;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.types.JetType;
+import org.jetbrains.jet.lang.types.TypeUtils;
+import org.jetbrains.jet.utils.PersistentHashMap;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import static org.jetbrains.jet.lang.resolve.calls.autocasts.Nullability.NOT_NULL;
+
+/**
+ * Keeps complete information in persistent maps: each update copies O(log n) nodes and shares the rest with the original info,
+ * and and/or only look at entries which differ between the two infos, which is cheap when one of them is derived from the other
+ */
+/* package */ class PersistentDataFlowInfo implements DataFlowInfo {
+    @NotNull
+    private final PersistentHashMap<DataFlowValue, Nullability> nullabilityInfo;
+
+    /** Possible types of each value, the most recently established ones first */
+    @NotNull
+    private final PersistentHashMap<DataFlowValue, ImmutableSet<JetType>> typeInfo;
+
+    /* package */ PersistentDataFlowInfo(
+            @NotNull PersistentHashMap<DataFlowValue, Nullability> nullabilityInfo,
+            @NotNull PersistentHashMap<DataFlowValue, ImmutableSet<JetType>> typeInfo
+    ) {
+        this.nullabilityInfo = nullabilityInfo;
+        this.typeInfo = typeInfo;
+    }
+
+    @Override
+    @NotNull
+    public Nullability getNullability(@NotNull DataFlowValue key) {
+        if (!key.isStableIdentifier()) return key.getImmanentNullability();
+        Nullability nullability = nullabilityInfo.get(key);
+        return nullability != null ? nullability : key.getImmanentNullability();
+    }
+
+    @NotNull
+    private static PersistentHashMap<DataFlowValue, Nullability> putNullability(
+            @NotNull PersistentHashMap<DataFlowValue, Nullability> map,
+            @NotNull DataFlowValue value,
+            @NotNull Nullability nullability
+    ) {
+        if (!value.isStableIdentifier()) return map;
+        return map.plus(value, nullability);
+    }
+
+    @Override
+    @NotNull
+    public Set<JetType> getPossibleTypes(@NotNull DataFlowValue key) {
+        Set<JetType> types = typeInfo.get(key);
+        if (types == null) {
+            types = Collections.emptySet();
+        }
+        if (getNullability(key).canBeNull()) {
+            return types;
+        }
+
+        Set<JetType> enrichedTypes = Sets.newHashSetWithExpectedSize(types.size() + 1);
+        JetType originalType = key.getType();
+        if (originalType.isNullable()) {
+            enrichedTypes.add(TypeUtils.makeNotNullable(originalType));
+        }
+        for (JetType type : types) {
+            enrichedTypes.add(TypeUtils.makeNotNullable(type));
+        }
+
+        return enrichedTypes;
+    }
+
+    @Override
+    @NotNull
+    public DataFlowInfo equate(@NotNull DataFlowValue a, @NotNull DataFlowValue b) {
+        Nullability nullabilityOfA = getNullability(a);
+        Nullability nullabilityOfB = getNullability(b);
+
+        return refineNullability(a, nullabilityOfA.refine(nullabilityOfB), b, nullabilityOfB.refine(nullabilityOfA));
+    }
+
+    @Override
+    @NotNull
+    public DataFlowInfo disequate(@NotNull DataFlowValue a, @NotNull DataFlowValue b) {
+        Nullability nullabilityOfA = getNullability(a);
+        Nullability nullabilityOfB = getNullability(b);
+
+        return refineNullability(a, nullabilityOfA.refine(nullabilityOfB.invert()), b, nullabilityOfB.refine(nullabilityOfA.invert()));
+    }
+
+    @NotNull
+    private DataFlowInfo refineNullability(
+            @NotNull DataFlowValue a, @NotNull Nullability newNullabilityOfA,
+            @NotNull DataFlowValue b, @NotNull Nullability newNullabilityOfB
+    ) {
+        boolean changed = false;
+        changed |= a.isStableIdentifier() && newNullabilityOfA != getNullability(a);
+        changed |= b.isStableIdentifier() && newNullabilityOfB != getNullability(b);
+        if (!changed) return this;
+
+        PersistentHashMap<DataFlowValue, Nullability> newNullabilityInfo =
+                putNullability(putNullability(nullabilityInfo, a, newNullabilityOfA), b, newNullabilityOfB);
+        return new PersistentDataFlowInfo(newNullabilityInfo, typeInfo);
+    }
+
+    @Override
+    @NotNull
+    public DataFlowInfo establishSubtyping(@NotNull DataFlowValue value, @NotNull JetType type) {
+        if (value.getType().equals(type)) return this;
+        if (getPossibleTypes(value).contains(type)) return this;
+
+        PersistentHashMap<DataFlowValue, Nullability> newNullabilityInfo =
+                type.isNullable() ? nullabilityInfo : nullabilityInfo.plus(value, NOT_NULL);
+
+        ImmutableSet<JetType> types = typeInfo.get(value);
+        ImmutableSet<JetType> newTypes = types == null ? ImmutableSet.of(type) : union(ImmutableSet.of(type), types);
+        return new PersistentDataFlowInfo(newNullabilityInfo, typeInfo.plus(value, newTypes));
+    }
+
+    @NotNull
+    @Override
+    public DataFlowInfo and(@NotNull DataFlowInfo otherInfo) {
+        if (otherInfo == EMPTY) return this;
+        if (this == EMPTY) return otherInfo;
+        if (this == otherInfo) return this;
+
+        assert otherInfo instanceof PersistentDataFlowInfo : "Unknown DataFlowInfo type: " + otherInfo;
+        PersistentDataFlowInfo other = (PersistentDataFlowInfo) otherInfo;
+
+        PersistentHashMap<DataFlowValue, Nullability> newNullabilityInfo = nullabilityInfo;
+        for (Map.Entry<DataFlowValue, Nullability> entry : other.nullabilityInfo.entriesDifferentFrom(nullabilityInfo)) {
+            DataFlowValue key = entry.getKey();
+            Nullability thisFlags = getNullability(key);
+            Nullability flags = thisFlags.and(entry.getValue());
+            if (flags != thisFlags) {
+                newNullabilityInfo = newNullabilityInfo.plus(key, flags);
+            }
+        }
+
+        PersistentHashMap<DataFlowValue, ImmutableSet<JetType>> newTypeInfo = typeInfo;
+        for (Map.Entry<DataFlowValue, ImmutableSet<JetType>> entry : other.typeInfo.entriesDifferentFrom(typeInfo)) {
+            DataFlowValue key = entry.getKey();
+            ImmutableSet<JetType> thisTypes = typeInfo.get(key);
+            ImmutableSet<JetType> otherTypes = entry.getValue();
+            if (thisTypes == null) {
+                newTypeInfo = newTypeInfo.plus(key, otherTypes);
+            }
+            else if (!thisTypes.containsAll(otherTypes)) {
+                newTypeInfo = newTypeInfo.plus(key, union(otherTypes, thisTypes));
+            }
+        }
+
+        if (newNullabilityInfo == nullabilityInfo && newTypeInfo == typeInfo) {
+            return this;
+        }
+
+        return new PersistentDataFlowInfo(newNullabilityInfo, newTypeInfo);
+    }
+
+    @NotNull
+    @Override
+    public DataFlowInfo or(@NotNull DataFlowInfo otherInfo) {
+        if (otherInfo == EMPTY) return EMPTY;
+        if (this == EMPTY) return EMPTY;
+        if (this == otherInfo) return this;
+
+        assert otherInfo instanceof PersistentDataFlowInfo : "Unknown DataFlowInfo type: " + otherInfo;
+        PersistentDataFlowInfo other = (PersistentDataFlowInfo) otherInfo;
+
+        // Only values known in both infos remain, and entries shared by both infos remain unchanged
+        PersistentHashMap<DataFlowValue, Nullability> newNullabilityInfo = other.nullabilityInfo;
+        for (Map.Entry<DataFlowValue, Nullability> entry : other.nullabilityInfo.entriesDifferentFrom(nullabilityInfo)) {
+            DataFlowValue key = entry.getKey();
+            newNullabilityInfo = newNullabilityInfo.plus(key, getNullability(key).or(entry.getValue()));
+        }
+
+        PersistentHashMap<DataFlowValue, ImmutableSet<JetType>> newTypeInfo = other.typeInfo;
+        for (Map.Entry<DataFlowValue, ImmutableSet<JetType>> entry : other.typeInfo.entriesDifferentFrom(typeInfo)) {
+            DataFlowValue key = entry.getKey();
+            ImmutableSet<JetType> thisTypes = typeInfo.get(key);
+            ImmutableSet<JetType> commonTypes =
+                    thisTypes == null ? ImmutableSet.<JetType>of() : ImmutableSet.copyOf(Sets.intersection(thisTypes, entry.getValue()));
+            newTypeInfo = commonTypes.isEmpty() ? newTypeInfo.minus(key) : newTypeInfo.plus(key, commonTypes);
+        }
+
+        if (newNullabilityInfo.isEmpty() && newTypeInfo.isEmpty()) {
+            return EMPTY;
+        }
+
+        return new PersistentDataFlowInfo(newNullabilityInfo, newTypeInfo);
+    }
+
+    @NotNull
+    private static ImmutableSet<JetType> union(@NotNull Set<JetType> first, @NotNull Set<JetType> second) {
+        return ImmutableSet.<JetType>builder().addAll(first).addAll(second).build();
+    }
+
+    @Override
+    public boolean hasTypeInfoConstraints() {
+        return !typeInfo.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        if (typeInfo.isEmpty() && nullabilityInfo.isEmpty()) {
+            return "EMPTY";
+        }
+        return "Non-trivial DataFlowInfo";
+    }
+}
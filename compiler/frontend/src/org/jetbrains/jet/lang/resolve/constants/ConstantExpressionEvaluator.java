@@ -0,0 +1,421 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.constants;
+
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.descriptors.*;
+import org.jetbrains.jet.lang.psi.*;
+import org.jetbrains.jet.lang.resolve.BindingContext;
+import org.jetbrains.jet.lang.resolve.BindingTrace;
+import org.jetbrains.jet.lang.resolve.calls.model.ResolvedCall;
+import org.jetbrains.jet.lang.types.JetType;
+import org.jetbrains.jet.lang.types.expressions.OperatorConventions;
+import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns;
+import org.jetbrains.jet.lang.types.lang.PrimitiveType;
+import org.jetbrains.jet.lexer.JetTokens;
+
+import java.util.List;
+
+/**
+ * Folds calls of built-in operators on compile-time constants (arithmetic, bitwise operations, comparisons, equality,
+ * boolean operations, string concatenation and number conversions) and records their results as
+ * {@link BindingContext#COMPILE_TIME_VALUE}, so that backends emit precomputed constants instead of the calls.
+ *
+ * Works bottom-up on completely resolved code, so that the values of operands are already known.
+ * Nothing is folded if the result depends on an exception at runtime (integer division by zero).
+ * Results of floating point comparisons and of conversions of floating point numbers to integral ones are not folded,
+ * because targets where all numbers are doubles (JavaScript) would compute them differently.
+ */
+public class ConstantExpressionEvaluator extends JetTreeVisitorVoid {
+    private static final int INT_RANK = 0;
+    private static final int LONG_RANK = 1;
+    private static final int FLOAT_RANK = 2;
+    private static final int DOUBLE_RANK = 3;
+
+    @NotNull
+    private final BindingTrace trace;
+
+    private ConstantExpressionEvaluator(@NotNull BindingTrace trace) {
+        this.trace = trace;
+    }
+
+    public static void evaluate(@NotNull JetElement element, @NotNull BindingTrace trace) {
+        element.accept(new ConstantExpressionEvaluator(trace));
+    }
+
+    @Override
+    public void visitParenthesizedExpression(@NotNull JetParenthesizedExpression expression) {
+        super.visitParenthesizedExpression(expression);
+
+        JetExpression innerExpression = expression.getExpression();
+        if (innerExpression != null) {
+            record(expression, getValue(innerExpression));
+        }
+    }
+
+    @Override
+    public void visitPrefixExpression(@NotNull JetPrefixExpression expression) {
+        super.visitPrefixExpression(expression);
+
+        JetExpression baseExpression = expression.getBaseExpression();
+        if (baseExpression == null) return;
+
+        IElementType operationType = expression.getOperationReference().getReferencedNameElementType();
+        if (!OperatorConventions.UNARY_OPERATION_NAMES.containsKey(operationType)
+            || OperatorConventions.INCREMENT_OPERATIONS.contains(operationType)) return;
+
+        Object value = getValue(baseExpression);
+        if (value != null) {
+            record(expression, evaluateCall(expression.getOperationReference(), value, null));
+        }
+    }
+
+    @Override
+    public void visitBinaryExpression(@NotNull JetBinaryExpression expression) {
+        super.visitBinaryExpression(expression);
+
+        JetExpression left = expression.getLeft();
+        JetExpression right = expression.getRight();
+        if (left == null || right == null) return;
+
+        Object leftValue = getValue(left);
+        Object rightValue = getValue(right);
+        if (leftValue == null || rightValue == null) return;
+
+        JetSimpleNameExpression operationReference = expression.getOperationReference();
+        IElementType operationType = operationReference.getReferencedNameElementType();
+        if (OperatorConventions.EQUALS_OPERATIONS.contains(operationType)) {
+            Boolean equal = evaluateEquality(leftValue, rightValue);
+            if (equal != null) {
+                record(expression, BooleanValue.valueOf(equal == (operationType == JetTokens.EQEQ)));
+            }
+        }
+        else if (OperatorConventions.BOOLEAN_OPERATIONS.containsKey(operationType)) {
+            if (leftValue instanceof Boolean && rightValue instanceof Boolean) {
+                boolean isAnd = operationType == JetTokens.ANDAND;
+                boolean result = isAnd ? (Boolean) leftValue && (Boolean) rightValue : (Boolean) leftValue || (Boolean) rightValue;
+                record(expression, BooleanValue.valueOf(result));
+            }
+        }
+        else if (OperatorConventions.COMPARISON_OPERATIONS.contains(operationType)) {
+            CompileTimeConstant<?> comparison = evaluateCall(operationReference, leftValue, rightValue);
+            if (comparison instanceof IntValue) {
+                int result = ((IntValue) comparison).getValue();
+                boolean value;
+                if (operationType == JetTokens.LT) {
+                    value = result < 0;
+                }
+                else if (operationType == JetTokens.GT) {
+                    value = result > 0;
+                }
+                else if (operationType == JetTokens.LTEQ) {
+                    value = result <= 0;
+                }
+                else {
+                    value = result >= 0;
+                }
+                record(expression, BooleanValue.valueOf(value));
+            }
+        }
+        else if (operationType == JetTokens.IDENTIFIER || OperatorConventions.BINARY_OPERATION_NAMES.containsKey(operationType)) {
+            record(expression, evaluateCall(operationReference, leftValue, rightValue));
+        }
+    }
+
+    @Override
+    public void visitDotQualifiedExpression(@NotNull JetDotQualifiedExpression expression) {
+        super.visitDotQualifiedExpression(expression);
+
+        Object receiverValue = getValue(expression.getReceiverExpression());
+        JetExpression selector = expression.getSelectorExpression();
+        if (receiverValue == null || !(selector instanceof JetCallExpression)) return;
+
+        JetCallExpression callExpression = (JetCallExpression) selector;
+        JetExpression callee = callExpression.getCalleeExpression();
+        List<? extends ValueArgument> arguments = callExpression.getValueArguments();
+        if (!(callee instanceof JetSimpleNameExpression) || arguments.size() > 1) return;
+
+        Object argumentValue = null;
+        if (arguments.size() == 1) {
+            JetExpression argumentExpression = arguments.get(0).getArgumentExpression();
+            argumentValue = argumentExpression != null ? getValue(argumentExpression) : null;
+            if (argumentValue == null) return;
+        }
+
+        record(expression, evaluateCall(callee, receiverValue, argumentValue));
+    }
+
+    @Nullable
+    private Object getValue(@NotNull JetExpression expression) {
+        CompileTimeConstant<?> constant = trace.get(BindingContext.COMPILE_TIME_VALUE, expression);
+        return constant == null || constant instanceof ErrorValue ? null : constant.getValue();
+    }
+
+    private void record(@NotNull JetExpression expression, @Nullable CompileTimeConstant<?> value) {
+        if (value != null && trace.get(BindingContext.COMPILE_TIME_VALUE, expression) == null) {
+            trace.record(BindingContext.COMPILE_TIME_VALUE, expression, value);
+        }
+    }
+
+    @Nullable
+    private CompileTimeConstant<?> evaluateCall(@NotNull JetExpression callee, @NotNull Object receiver, @Nullable Object argument) {
+        ResolvedCall<? extends CallableDescriptor> resolvedCall = trace.get(BindingContext.RESOLVED_CALL, callee);
+        if (resolvedCall == null) return null;
+
+        CallableDescriptor descriptor = resolvedCall.getResultingDescriptor();
+        if (!(descriptor instanceof FunctionDescriptor) || descriptor.getReceiverParameter() != null) return null;
+        if ((descriptor.getValueParameters().size() == 1) != (argument != null)) return null;
+
+        DeclarationDescriptor containingDeclaration = descriptor.getContainingDeclaration();
+        JetType returnType = descriptor.getReturnType();
+        if (!isBuiltInConstantClass(containingDeclaration) || returnType == null || returnType.isNullable()) return null;
+
+        String name = descriptor.getName().asString();
+        KotlinBuiltIns builtIns = KotlinBuiltIns.getInstance();
+        ClassifierDescriptor resultClass = returnType.getConstructor().getDeclarationDescriptor();
+
+        if (receiver instanceof String) {
+            if ("plus".equals(name) && isExactlyConvertibleToString(argument)) {
+                return new StringValue((String) receiver + argument);
+            }
+            if ("compareTo".equals(name) && argument instanceof String) {
+                return new IntValue(((String) receiver).compareTo((String) argument));
+            }
+            return null;
+        }
+
+        if (receiver instanceof Boolean) {
+            if (argument == null) {
+                return "not".equals(name) ? BooleanValue.valueOf(!(Boolean) receiver) : null;
+            }
+            if (!(argument instanceof Boolean)) return null;
+
+            boolean a = (Boolean) receiver;
+            boolean b = (Boolean) argument;
+            if ("and".equals(name)) return BooleanValue.valueOf(a & b);
+            if ("or".equals(name)) return BooleanValue.valueOf(a | b);
+            if ("xor".equals(name)) return BooleanValue.valueOf(a ^ b);
+            return null;
+        }
+
+        PrimitiveType resultType = getPrimitiveType(resultClass, builtIns);
+        if (resultType == null || resultType == PrimitiveType.BOOLEAN) return null;
+
+        Number a = toNumber(receiver);
+        Number b = argument != null ? toNumber(argument) : null;
+        if (a == null || (argument != null && b == null)) return null;
+
+        if (argument == null && OperatorConventions.NUMBER_CONVERSIONS.contains(descriptor.getName())) {
+            if (rank(a) >= FLOAT_RANK && rank(resultType) < FLOAT_RANK) return null;
+            return createNumberValue(a, resultType);
+        }
+
+        int rank = Math.max(rank(a), Math.max(b != null ? rank(b) : INT_RANK, rank(resultType)));
+        Number result = b == null ? evaluateUnaryOperation(name, a, rank) : evaluateBinaryOperation(name, a, b, rank);
+        return result == null ? null : createNumberValue(result, resultType);
+    }
+
+    @Nullable
+    private static Number evaluateUnaryOperation(@NotNull String name, @NotNull Number a, int rank) {
+        switch (rank) {
+            case INT_RANK:
+                return evaluateIntOperation(name, a.intValue());
+            case LONG_RANK:
+                return evaluateLongOperation(name, a.longValue());
+            case FLOAT_RANK:
+                return evaluateFloatOperation(name, a.floatValue());
+            default:
+                return evaluateDoubleOperation(name, a.doubleValue());
+        }
+    }
+
+    @Nullable
+    private static Number evaluateBinaryOperation(@NotNull String name, @NotNull Number a, @NotNull Number b, int rank) {
+        switch (rank) {
+            case INT_RANK:
+                return evaluateIntOperation(name, a.intValue(), b.intValue());
+            case LONG_RANK:
+                return evaluateLongOperation(name, a.longValue(), b.longValue());
+            case FLOAT_RANK:
+                return evaluateFloatOperation(name, a.floatValue(), b.floatValue());
+            default:
+                return evaluateDoubleOperation(name, a.doubleValue(), b.doubleValue());
+        }
+    }
+
+    @Nullable
+    private static Integer evaluateIntOperation(@NotNull String name, int a) {
+        if ("plus".equals(name)) return a;
+        if ("minus".equals(name)) return -a;
+        if ("inv".equals(name)) return ~a;
+        return null;
+    }
+
+    @Nullable
+    private static Integer evaluateIntOperation(@NotNull String name, int a, int b) {
+        if ("plus".equals(name)) return a + b;
+        if ("minus".equals(name)) return a - b;
+        if ("times".equals(name)) return a * b;
+        if ("div".equals(name)) return b == 0 ? null : a / b;
+        if ("mod".equals(name)) return b == 0 ? null : a % b;
+        if ("and".equals(name)) return a & b;
+        if ("or".equals(name)) return a | b;
+        if ("xor".equals(name)) return a ^ b;
+        if ("shl".equals(name)) return a << b;
+        if ("shr".equals(name)) return a >> b;
+        if ("ushr".equals(name)) return a >>> b;
+        if ("compareTo".equals(name)) return a < b ? -1 : a == b ? 0 : 1;
+        return null;
+    }
+
+    @Nullable
+    private static Long evaluateLongOperation(@NotNull String name, long a) {
+        if ("plus".equals(name)) return a;
+        if ("minus".equals(name)) return -a;
+        if ("inv".equals(name)) return ~a;
+        return null;
+    }
+
+    @Nullable
+    private static Long evaluateLongOperation(@NotNull String name, long a, long b) {
+        if ("plus".equals(name)) return a + b;
+        if ("minus".equals(name)) return a - b;
+        if ("times".equals(name)) return a * b;
+        if ("div".equals(name)) return b == 0 ? null : a / b;
+        if ("mod".equals(name)) return b == 0 ? null : a % b;
+        if ("and".equals(name)) return a & b;
+        if ("or".equals(name)) return a | b;
+        if ("xor".equals(name)) return a ^ b;
+        if ("shl".equals(name)) return a << b;
+        if ("shr".equals(name)) return a >> b;
+        if ("ushr".equals(name)) return a >>> b;
+        if ("compareTo".equals(name)) return a < b ? -1L : a == b ? 0L : 1L;
+        return null;
+    }
+
+    @Nullable
+    private static Float evaluateFloatOperation(@NotNull String name, float a) {
+        if ("plus".equals(name)) return a;
+        if ("minus".equals(name)) return -a;
+        return null;
+    }
+
+    @Nullable
+    private static Float evaluateFloatOperation(@NotNull String name, float a, float b) {
+        if ("plus".equals(name)) return a + b;
+        if ("minus".equals(name)) return a - b;
+        if ("times".equals(name)) return a * b;
+        if ("div".equals(name)) return a / b;
+        if ("mod".equals(name)) return a % b;
+        return null;
+    }
+
+    @Nullable
+    private static Double evaluateDoubleOperation(@NotNull String name, double a) {
+        if ("plus".equals(name)) return a;
+        if ("minus".equals(name)) return -a;
+        return null;
+    }
+
+    @Nullable
+    private static Double evaluateDoubleOperation(@NotNull String name, double a, double b) {
+        if ("plus".equals(name)) return a + b;
+        if ("minus".equals(name)) return a - b;
+        if ("times".equals(name)) return a * b;
+        if ("div".equals(name)) return a / b;
+        if ("mod".equals(name)) return a % b;
+        return null;
+    }
+
+    @Nullable
+    private static Boolean evaluateEquality(@NotNull Object left, @NotNull Object right) {
+        if (left.getClass() != right.getClass() || left instanceof Float || left instanceof Double) return null;
+        return left.equals(right);
+    }
+
+    private static boolean isExactlyConvertibleToString(@Nullable Object value) {
+        // Floating point numbers and longs are printed differently by different targets
+        return value instanceof String || value instanceof Integer || value instanceof Short || value instanceof Byte
+               || value instanceof Character || value instanceof Boolean;
+    }
+
+    private static boolean isBuiltInConstantClass(@NotNull DeclarationDescriptor descriptor) {
+        KotlinBuiltIns builtIns = KotlinBuiltIns.getInstance();
+        return descriptor == builtIns.getString() || getPrimitiveType(descriptor, builtIns) != null;
+    }
+
+    @Nullable
+    private static PrimitiveType getPrimitiveType(@Nullable DeclarationDescriptor descriptor, @NotNull KotlinBuiltIns builtIns) {
+        for (PrimitiveType type : PrimitiveType.values()) {
+            if (builtIns.getPrimitiveClassDescriptor(type) == descriptor) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Number toNumber(@NotNull Object value) {
+        if (value instanceof Character) return (int) (Character) value;
+        if (value instanceof Number) return (Number) value;
+        return null;
+    }
+
+    private static int rank(@NotNull Number value) {
+        if (value instanceof Double) return DOUBLE_RANK;
+        if (value instanceof Float) return FLOAT_RANK;
+        if (value instanceof Long) return LONG_RANK;
+        return INT_RANK;
+    }
+
+    private static int rank(@NotNull PrimitiveType type) {
+        switch (type) {
+            case DOUBLE:
+                return DOUBLE_RANK;
+            case FLOAT:
+                return FLOAT_RANK;
+            case LONG:
+                return LONG_RANK;
+            default:
+                return INT_RANK;
+        }
+    }
+
+    @NotNull
+    private static CompileTimeConstant<?> createNumberValue(@NotNull Number value, @NotNull PrimitiveType type) {
+        switch (type) {
+            case CHAR:
+                return new CharValue((char) value.intValue());
+            case BYTE:
+                return new ByteValue(value.byteValue());
+            case SHORT:
+                return new ShortValue(value.shortValue());
+            case INT:
+                return new IntValue(value.intValue());
+            case LONG:
+                return new LongValue(value.longValue());
+            case FLOAT:
+                return new FloatValue(value.floatValue());
+            case DOUBLE:
+                return new DoubleValue(value.doubleValue());
+            default:
+                throw new IllegalArgumentException("Not a number type: " + type);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.preloading;
+
+import org.jetbrains.jet.preloading.instrumentation.InterceptionInstrumenter;
+import org.jetbrains.jet.preloading.instrumentation.Instrumenter;
+import org.jetbrains.jet.preloading.instrumentation.annotations.ClassName;
+import org.jetbrains.jet.preloading.instrumentation.annotations.MethodDesc;
+import org.jetbrains.jet.preloading.instrumentation.annotations.MethodName;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records call counts, inclusive time and allocated bytes of the methods matching the patterns given in the
+ * "kotlin.instrumentation.timing" system property, and prints a report sorted by time on exit.
+ *
+ * The property value is a ';'-separated list of patterns "classNameRegex#methodNameRegex[#methodDescRegex]",
+ * where class names are JVM internal names, like org/jetbrains/jet/codegen/ExpressionCodegen.
+ * If the property is not set, DEFAULT_PATTERNS are used.
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class MethodTimingInstrumenter implements Instrumenter {
+    public static final String PATTERNS_PROPERTY = "kotlin.instrumentation.timing";
+
+    public static final String DEFAULT_PATTERNS =
+            ".*/CallResolver#resolveFunctionCall;" +
+            ".*/ExpressionCodegen#gen;" +
+            ".*/LockBasedStorageManager\\$LockBasedLazyValue#compute";
+
+    // Referenced from the instrumented code, thus must be public and static
+    public static final MethodTimer timer = new MethodTimer();
+
+    private final InterceptionInstrumenter instrumenter;
+
+    public MethodTimingInstrumenter() {
+        this.instrumenter = new InterceptionInstrumenter(Collections.<Class<?>>emptyList());
+        try {
+            for (String pattern : System.getProperty(PATTERNS_PROPERTY, DEFAULT_PATTERNS).split(";")) {
+                if (pattern.trim().isEmpty()) continue;
+
+                String[] parts = pattern.trim().split("#");
+                if (parts.length < 2 || parts.length > 3) {
+                    throw new IllegalArgumentException(
+                            "Pattern must have the form classNameRegex#methodNameRegex[#methodDescRegex]: " + pattern);
+                }
+                instrumenter.addInterceptor(MethodTimingInstrumenter.class.getField("timer"),
+                                            parts[0], parts[1], parts.length == 3 ? parts[2] : "",
+                                            true, false, false);
+            }
+        }
+        catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public byte[] instrument(String resourceName, byte[] data) {
+        return instrumenter.instrument(resourceName, data);
+    }
+
+    @Override
+    public void dump(PrintStream out) {
+        instrumenter.dump(out);
+        timer.printReport(out);
+    }
+
+    public static class MethodTimer {
+        private final ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, MethodStatistics>>> statistics =
+                new ConcurrentHashMap<String, ConcurrentMap<String, ConcurrentMap<String, MethodStatistics>>>();
+        private final AtomicInteger statisticsCount = new AtomicInteger();
+
+        private final ThreadLocal<CallStack> stacks = new ThreadLocal<CallStack>() {
+            @Override
+            protected CallStack initialValue() {
+                return new CallStack();
+            }
+        };
+
+        public void enter(@ClassName String className, @MethodName String methodName, @MethodDesc String methodDesc) {
+            // Call sites pass constant strings here, so once the statistics are created the lookup doesn't allocate
+            stacks.get().push(getStatistics(className, methodName, methodDesc));
+        }
+
+        public void exit(@ClassName String className, @MethodName String methodName, @MethodDesc String methodDesc) {
+            stacks.get().pop(className, methodName, methodDesc);
+        }
+
+        private MethodStatistics getStatistics(String className, String methodName, String methodDesc) {
+            ConcurrentMap<String, ConcurrentMap<String, MethodStatistics>> byName = statistics.get(className);
+            if (byName == null) {
+                byName = putIfAbsent(statistics, className, new ConcurrentHashMap<String, ConcurrentMap<String, MethodStatistics>>());
+            }
+            ConcurrentMap<String, MethodStatistics> byDesc = byName.get(methodName);
+            if (byDesc == null) {
+                byDesc = putIfAbsent(byName, methodName, new ConcurrentHashMap<String, MethodStatistics>());
+            }
+            MethodStatistics result = byDesc.get(methodDesc);
+            if (result == null) {
+                // The index may be wasted if another thread wins the race, it only costs a slot in CallStack.activeDepth
+                int index = statisticsCount.getAndIncrement();
+                result = putIfAbsent(byDesc, methodDesc, new MethodStatistics(index, className, methodName, methodDesc));
+            }
+            return result;
+        }
+
+        private static <K, V> V putIfAbsent(ConcurrentMap<K, V> map, K key, V value) {
+            V existing = map.putIfAbsent(key, value);
+            return existing != null ? existing : value;
+        }
+
+        // Not named dump*(), otherwise InterceptionInstrumenter would call it once for every pattern
+        public void printReport(PrintStream out) {
+            List<MethodStatistics> all = new ArrayList<MethodStatistics>();
+            for (ConcurrentMap<String, ConcurrentMap<String, MethodStatistics>> byName : statistics.values()) {
+                for (ConcurrentMap<String, MethodStatistics> byDesc : byName.values()) {
+                    all.addAll(byDesc.values());
+                }
+            }
+            Collections.sort(all, new Comparator<MethodStatistics>() {
+                @Override
+                public int compare(MethodStatistics a, MethodStatistics b) {
+                    long x = a.nanos.get();
+                    long y = b.nanos.get();
+                    return x > y ? -1 : x < y ? 1 : 0;
+                }
+            });
+
+            boolean allocationsTracked = AllocationCounter.isSupported();
+            out.println("Method timing (inclusive, recursive calls are counted once):");
+            out.printf("%12s %12s %12s %12s  %s\n", "calls", "total ms", "avg us", allocationsTracked ? "alloc KB" : "", "method");
+            for (MethodStatistics s : all) {
+                long calls = s.calls.get();
+                long nanos = s.nanos.get();
+                out.printf("%12d %12.1f %12.2f %12s  %s\n",
+                           calls,
+                           nanos / 1e6,
+                           calls == 0 ? 0.0 : nanos / 1e3 / calls,
+                           allocationsTracked ? String.valueOf(s.allocatedBytes.get() / 1024) : "",
+                           s);
+            }
+            out.println();
+        }
+    }
+
+    private static class MethodStatistics {
+        private final int index;
+        private final String className;
+        private final String methodName;
+        private final String methodDesc;
+
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+        private final AtomicLong allocatedBytes = new AtomicLong();
+
+        private MethodStatistics(int index, String className, String methodName, String methodDesc) {
+            this.index = index;
+            this.className = className;
+            this.methodName = methodName;
+            this.methodDesc = methodDesc;
+        }
+
+        private boolean matches(String className, String methodName, String methodDesc) {
+            return this.className.equals(className) && this.methodName.equals(methodName) && this.methodDesc.equals(methodDesc);
+        }
+
+        @Override
+        public String toString() {
+            return className.replace('/', '.') + "." + methodName + methodDesc;
+        }
+    }
+
+    // Per-thread stack of the intercepted calls, arrays are reused to keep the overhead low and not to pollute allocation counts
+    private static class CallStack {
+        private final long threadId = Thread.currentThread().getId();
+
+        private MethodStatistics[] methods = new MethodStatistics[64];
+        private long[] startNanos = new long[64];
+        private long[] startBytes = new long[64];
+        private int size = 0;
+
+        // How many frames of each method (by MethodStatistics.index) are on this stack
+        private int[] activeDepth = new int[64];
+
+        public void push(MethodStatistics method) {
+            if (size == methods.length) {
+                methods = Arrays.copyOf(methods, size * 2);
+                startNanos = Arrays.copyOf(startNanos, size * 2);
+                startBytes = Arrays.copyOf(startBytes, size * 2);
+            }
+            if (method.index >= activeDepth.length) {
+                activeDepth = Arrays.copyOf(activeDepth, Math.max(activeDepth.length * 2, method.index + 1));
+            }
+
+            method.calls.incrementAndGet();
+            activeDepth[method.index]++;
+            methods[size] = method;
+            startBytes[size] = AllocationCounter.getAllocatedBytes(threadId);
+            startNanos[size] = System.nanoTime();
+            size++;
+        }
+
+        public void pop(String className, String methodName, String methodDesc) {
+            long endNanos = System.nanoTime();
+
+            // Exceptions propagated from callees don't trigger exit(), so the frames of such calls may still be here.
+            // They are dropped and their time is attributed only to the callers
+            int frame = size - 1;
+            while (frame >= 0 && !methods[frame].matches(className, methodName, methodDesc)) {
+                frame--;
+            }
+            if (frame < 0) return;
+
+            while (size > frame + 1) {
+                size--;
+                activeDepth[methods[size].index]--;
+                methods[size] = null;
+            }
+
+            size--;
+            MethodStatistics method = methods[size];
+            methods[size] = null;
+            if (--activeDepth[method.index] == 0) {
+                method.nanos.addAndGet(endNanos - startNanos[size]);
+                long startAllocated = startBytes[size];
+                if (startAllocated >= 0) {
+                    method.allocatedBytes.addAndGet(AllocationCounter.getAllocatedBytes(threadId) - startAllocated);
+                }
+            }
+        }
+    }
+
+    // Allocated bytes are only available on HotSpot-like JVMs, elsewhere the column is left empty
+    private static class AllocationCounter {
+        private static final com.sun.management.ThreadMXBean BEAN = createBean();
+
+        private static com.sun.management.ThreadMXBean createBean() {
+            try {
+                ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+
+                com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                if (!sunBean.isThreadAllocatedMemorySupported()) return null;
+                if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                    sunBean.setThreadAllocatedMemoryEnabled(true);
+                }
+                return sunBean;
+            }
+            catch (Throwable e) {
+                return null;
+            }
+        }
+
+        public static boolean isSupported() {
+            return BEAN != null;
+        }
+
+        public static long getAllocatedBytes(long threadId) {
+            return BEAN == null ? -1 : BEAN.getThreadAllocatedBytes(threadId);
+        }
+    }
+}
@@ -54,7 +54,7 @@ public class InterceptionInstrumenter {
     }
 
     private void addHandlerClass(Class<?> handlerClass) {
-        for (final Field field : handlerClass.getFields()) {
+        for (Field field : handlerClass.getFields()) {
             MethodInterceptor annotation = field.getAnnotation(MethodInterceptor.class);
             if (annotation == null) continue;
 
@@ -62,84 +62,106 @@ public class InterceptionInstrumenter {
                 throw new IllegalArgumentException("Non-static field annotated @MethodInterceptor: " + field);
             }
 
-            Pattern classPattern = compilePattern(annotation.className());
-            List<MethodInstrumenter> instrumenters = addClassPattern(classPattern);
+            String nameFromAnnotation = annotation.methodName();
+            addInterceptor(field,
+                           annotation.className(),
+                           nameFromAnnotation.isEmpty() ? field.getName() : nameFromAnnotation,
+                           annotation.methodDesc(),
+                           annotation.allowMultipleMatches(),
+                           annotation.logInterceptions(),
+                           annotation.dumpByteCode());
+        }
+    }
 
-            try {
-                Object interceptor = field.get(null);
-                if (interceptor == null) {
-                    throw new IllegalArgumentException("Interceptor is null: " + field);
-                }
+    // Same as annotating the field with @MethodInterceptor, but lets the patterns be computed at run time,
+    // so that a single interceptor object can be attached to several user-supplied patterns
+    public void addInterceptor(
+            final Field field,
+            String className,
+            String methodName,
+            String methodDesc,
+            boolean allowMultipleMatches,
+            boolean logInterceptions,
+            boolean dumpByteCode
+    ) {
+        if ((field.getModifiers() & Modifier.STATIC) == 0) {
+            throw new IllegalArgumentException("Non-static interceptor field: " + field);
+        }
 
-                final Class<?> interceptorClass = interceptor.getClass();
+        Pattern classPattern = compilePattern(className);
+        List<MethodInstrumenter> instrumenters = addClassPattern(classPattern);
 
-                FieldData fieldData = getFieldData(field, interceptorClass);
+        try {
+            Object interceptor = field.get(null);
+            if (interceptor == null) {
+                throw new IllegalArgumentException("Interceptor is null: " + field);
+            }
 
-                List<MethodData> enterData = new ArrayList<MethodData>();
-                List<MethodData> normalReturnData = new ArrayList<MethodData>();
-                List<MethodData> exceptionData = new ArrayList<MethodData>();
-                List<Method> dumpMethods = new ArrayList<Method>();
-                for (Method method : interceptorClass.getMethods()) {
-                    String name = method.getName();
-                    MethodData methodData = getMethodData(fieldData, method);
-                    if (name.startsWith("enter")) {
-                        enterData.add(methodData);
-                    }
-                    else if (name.startsWith("normalReturn")) {
-                        normalReturnData.add(methodData);
-                    }
-                    else if (name.startsWith("exception")) {
-                        exceptionData.add(methodData);
-                    }
-                    else if (name.startsWith("exit")) {
-                        normalReturnData.add(methodData);
-                        exceptionData.add(methodData);
-                    }
-                    else if (name.startsWith("dump")) {
-                        Class<?>[] parameterTypes = method.getParameterTypes();
-                        // Dump must have no parameters or one PrintStream parameter
-                        if (parameterTypes.length > 1) continue;
-                        if (parameterTypes.length == 1 && parameterTypes[0] != PrintStream.class) {
-                            continue;
-                        }
-                        dumpMethods.add(method);
-                    }
-                }
+            final Class<?> interceptorClass = interceptor.getClass();
 
-                if (enterData.isEmpty() && normalReturnData.isEmpty() && exceptionData.isEmpty()) {
-                    dumpTasks.add(new DumpAction() {
-                        @Override
-                        public void dump(PrintStream out) {
-                            out.println("WARNING: No relevant methods found in " + field + " of type " + interceptorClass.getCanonicalName());
-                        }
-                    });
-                }
+            FieldData fieldData = getFieldData(field, interceptorClass);
 
-                String nameFromAnnotation = annotation.methodName();
-                String methodName = nameFromAnnotation.isEmpty() ? field.getName() : nameFromAnnotation;
-                MethodInstrumenter instrumenter = new MethodInstrumenter(
-                        field.getDeclaringClass().getSimpleName() + "." + field.getName(),
-                        classPattern,
-                        compilePattern(methodName),
-                        compilePattern(annotation.methodDesc()),
-                        annotation.allowMultipleMatches(),
-                        enterData,
-                        normalReturnData,
-                        exceptionData,
-                        annotation.logInterceptions(),
-                        annotation.dumpByteCode());
-
-                for (Method dumpMethod : dumpMethods) {
-                    addDumpTask(interceptor, dumpMethod, instrumenter);
+            List<MethodData> enterData = new ArrayList<MethodData>();
+            List<MethodData> normalReturnData = new ArrayList<MethodData>();
+            List<MethodData> exceptionData = new ArrayList<MethodData>();
+            List<Method> dumpMethods = new ArrayList<Method>();
+            for (Method method : interceptorClass.getMethods()) {
+                String name = method.getName();
+                MethodData methodData = getMethodData(fieldData, method);
+                if (name.startsWith("enter")) {
+                    enterData.add(methodData);
+                }
+                else if (name.startsWith("normalReturn")) {
+                    normalReturnData.add(methodData);
+                }
+                else if (name.startsWith("exception")) {
+                    exceptionData.add(methodData);
+                }
+                else if (name.startsWith("exit")) {
+                    normalReturnData.add(methodData);
+                    exceptionData.add(methodData);
+                }
+                else if (name.startsWith("dump")) {
+                    Class<?>[] parameterTypes = method.getParameterTypes();
+                    // Dump must have no parameters or one PrintStream parameter
+                    if (parameterTypes.length > 1) continue;
+                    if (parameterTypes.length == 1 && parameterTypes[0] != PrintStream.class) {
+                        continue;
+                    }
+                    dumpMethods.add(method);
                 }
+            }
 
-                instrumenters.add(instrumenter);
-                neverMatchedInstrumenters.add(instrumenter);
+            if (enterData.isEmpty() && normalReturnData.isEmpty() && exceptionData.isEmpty()) {
+                dumpTasks.add(new DumpAction() {
+                    @Override
+                    public void dump(PrintStream out) {
+                        out.println("WARNING: No relevant methods found in " + field + " of type " + interceptorClass.getCanonicalName());
+                    }
+                });
             }
-            catch (IllegalAccessException e) {
-                throw new IllegalArgumentException(e);
+
+            MethodInstrumenter instrumenter = new MethodInstrumenter(
+                    field.getDeclaringClass().getSimpleName() + "." + field.getName(),
+                    classPattern,
+                    compilePattern(methodName),
+                    compilePattern(methodDesc),
+                    allowMultipleMatches,
+                    enterData,
+                    normalReturnData,
+                    exceptionData,
+                    logInterceptions,
+                    dumpByteCode);
+
+            for (Method dumpMethod : dumpMethods) {
+                addDumpTask(interceptor, dumpMethod, instrumenter);
             }
 
+            instrumenters.add(instrumenter);
+            neverMatchedInstrumenters.add(instrumenter);
+        }
+        catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(e);
         }
     }
 
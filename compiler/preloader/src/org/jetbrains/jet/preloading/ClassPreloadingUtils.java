@@ -24,6 +24,7 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -67,6 +68,35 @@ public class ClassPreloadingUtils {
         return preloadClasses(jarFiles, classCountEstimation, parent, null);
     }
 
+    /**
+     * Creates a class loader that indexes entries of {@code jarFiles} by their central directories and inflates them only when requested.
+     *
+     * NOTE: if many resources with the same name exist, only the first one will be loaded
+     *
+     * @param jarFiles jars to load classes from
+     * @param parent (nullable) parent class loader
+     * @param handler handler to be notified on class definitions done by this class loader, or null
+     * @param memoryMapJars whether jars should be memory-mapped instead of being read into the heap
+     * @param classesToPreload names of classes which are known to be needed, they are inflated in parallel in background threads
+     * @return a class loader that reads classes from the indexed jars
+     * @throws IOException on from reading the jar
+     */
+    public static ClassLoader preloadClassesLazily(
+            Collection<File> jarFiles,
+            ClassLoader parent,
+            ClassHandler handler,
+            boolean memoryMapJars,
+            Collection<String> classesToPreload
+    ) throws IOException {
+        Map<String, ResourceData> entries = indexAllEntriesOfJars(jarFiles, memoryMapJars, handler);
+
+        if (!classesToPreload.isEmpty()) {
+            startPreloading(entries, classesToPreload);
+        }
+
+        return createMemoryBasedClassLoader(parent, entries, handler);
+    }
+
     private static ClassLoader createMemoryBasedClassLoader(
             final ClassLoader parent,
             final Map<String, ResourceData> preloadedResources,
@@ -89,12 +119,20 @@ public class ClassPreloadingUtils {
                 ResourceData resourceData = preloadedResources.get(internalName);
                 if (resourceData == null) return null;
 
-                int sizeInBytes = resourceData.bytes.length;
+                byte[] bytes;
+                try {
+                    bytes = resourceData.getBytes();
+                }
+                catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+
+                int sizeInBytes = bytes.length;
                 if (handler != null) {
                     handler.beforeDefineClass(name, sizeInBytes);
                 }
 
-                Class<?> definedClass = defineClass(name, resourceData.bytes, 0, sizeInBytes);
+                Class<?> definedClass = defineClass(name, bytes, 0, sizeInBytes);
 
                 if (handler != null) {
                     handler.afterDefineClass(name);
@@ -159,7 +197,7 @@ public class ClassPreloadingUtils {
                         data = handler.instrument(name, data);
                     }
 
-                    resources.put(name, new ResourceData(jarFile, name, data));
+                    resources.put(name, new PreloadedResourceData(jarFile, name, data));
                 }
             }
             finally {
@@ -178,17 +216,75 @@ public class ClassPreloadingUtils {
         return resources;
     }
 
-    private static class ResourceData {
-        private final File jarFile;
-        private final String resourceName;
-        private final byte[] bytes;
+    private static Map<String, ResourceData> indexAllEntriesOfJars(
+            Collection<File> jarFiles,
+            boolean memoryMapJars,
+            ClassHandler handler
+    ) throws IOException {
+        List<ZipIndex> indices = new ArrayList<ZipIndex>(jarFiles.size());
+        int entryCount = 0;
+        for (File jarFile : jarFiles) {
+            if (handler != null) {
+                handler.beforeLoadJar(jarFile);
+            }
+
+            ZipIndex index = new ZipIndex(jarFile, memoryMapJars);
+            indices.add(index);
+            entryCount += index.getEntries().size();
 
-        public ResourceData(File jarFile, String resourceName, byte[] bytes) {
+            if (handler != null) {
+                handler.afterLoadJar(jarFile);
+            }
+        }
+
+        Map<String, ResourceData> resources = new HashMap<String, ResourceData>(entryCount * 4 / 3 + 1);
+        for (ZipIndex index : indices) {
+            for (ZipIndex.Entry entry : index.getEntries()) {
+                if (resources.containsKey(entry.getName())) continue; // Only the first resource is stored
+
+                resources.put(entry.getName(), new LazyResourceData(entry, handler));
+            }
+        }
+        return resources;
+    }
+
+    private static void startPreloading(Map<String, ResourceData> resources, Collection<String> classNames) {
+        final List<LazyResourceData> toPreload = new ArrayList<LazyResourceData>(classNames.size());
+        for (String className : classNames) {
+            ResourceData resourceData = resources.get(className.replace('.', '/').concat(".class"));
+            if (resourceData instanceof LazyResourceData) {
+                toPreload.add((LazyResourceData) resourceData);
+            }
+        }
+
+        int threadCount = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        for (int i = 0; i < threadCount; i++) {
+            final int first = i;
+            final int step = threadCount;
+            Thread thread = new Thread("Class preloading " + i) {
+                @Override
+                public void run() {
+                    for (int j = first; j < toPreload.size(); j += step) {
+                        toPreload.get(j).preload();
+                    }
+                }
+            };
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private static abstract class ResourceData {
+        protected final File jarFile;
+        protected final String resourceName;
+
+        protected ResourceData(File jarFile, String resourceName) {
             this.jarFile = jarFile;
             this.resourceName = resourceName;
-            this.bytes = bytes;
         }
 
+        public abstract byte[] getBytes() throws IOException;
+
         public URL getURL() {
             try {
                 String path = "file:" + jarFile + "!/" + resourceName;
@@ -201,7 +297,7 @@ public class ClassPreloadingUtils {
 
                             @Override
                             public InputStream getInputStream() throws IOException {
-                                return new ByteArrayInputStream(bytes);
+                                return new ByteArrayInputStream(getBytes());
                             }
                         };
                     }
@@ -212,6 +308,54 @@ public class ClassPreloadingUtils {
                 return null;
             }
         }
+    }
+
+    private static class PreloadedResourceData extends ResourceData {
+        private final byte[] bytes;
+
+        public PreloadedResourceData(File jarFile, String resourceName, byte[] bytes) {
+            super(jarFile, resourceName);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return bytes;
+        }
+    }
+
+    private static class LazyResourceData extends ResourceData {
+        private final ZipIndex.Entry entry;
+        private final ClassHandler handler;
+
+        private static final byte[] TAKEN = new byte[0];
+
+        // Inflated in advance by a preloading thread, dropped as soon as it is taken
+        private final AtomicReference<byte[]> preloaded = new AtomicReference<byte[]>();
+
+        public LazyResourceData(ZipIndex.Entry entry, ClassHandler handler) {
+            super(entry.getZipFile(), entry.getName());
+            this.entry = entry;
+            this.handler = handler;
+        }
+
+        public void preload() {
+            try {
+                preloaded.compareAndSet(null, entry.read());
+            }
+            catch (IOException e) {
+                // Will be reported when the class is actually loaded
+            }
+        }
 
+        @Override
+        public byte[] getBytes() throws IOException {
+            byte[] data = preloaded.getAndSet(TAKEN);
+            if (data == null || data == TAKEN) {
+                data = entry.read();
+            }
+            // instrumenters are not required to be thread-safe, so they are only called from the loading thread
+            return handler != null ? handler.instrument(resourceName, data) : data;
+        }
     }
 }
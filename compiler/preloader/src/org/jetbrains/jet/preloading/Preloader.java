@@ -2,7 +2,7 @@ package org.jetbrains.jet.preloading;
 
 import org.jetbrains.jet.preloading.instrumentation.Instrumenter;
 
-import java.io.File;
+import java.io.*;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -13,6 +13,9 @@ public class Preloader {
 
     public static final int PRELOADER_ARG_COUNT = 4;
     private static final String INSTRUMENT_PREFIX = "instrument=";
+    private static final String LAZY = "lazy";
+    private static final String MEMORY_MAP_OPTION = "mmap";
+    private static final String PROFILE_PREFIX = "profile=";
 
     public static void main(String[] args) throws Exception {
         if (args.length < PRELOADER_ARG_COUNT) {
@@ -23,15 +26,7 @@ public class Preloader {
 
         String mainClassCanonicalName = args[1];
 
-        int classNumber;
-        try {
-            classNumber = Integer.parseInt(args[2]);
-        }
-        catch (NumberFormatException e) {
-            System.out.println(e.getMessage());
-            printUsageAndExit();
-            return;
-        }
+        LoadingOptions loadingOptions = parseLoadingOptions(args[2]);
 
         String modeStr = args[3];
         Mode mode = parseMode(modeStr);
@@ -44,7 +39,23 @@ public class Preloader {
         ClassLoader withInstrumenter = instrumentersClasspath.length > 0 ? new URLClassLoader(instrumentersClasspath, parent) : parent;
 
         Handler handler = getHandler(mode, withInstrumenter);
-        ClassLoader preloaded = ClassPreloadingUtils.preloadClasses(files, classNumber, withInstrumenter, handler);
+        ClassLoader preloaded;
+        if (loadingOptions.lazy) {
+            Collection<String> classesToPreload = Collections.emptyList();
+            File profile = loadingOptions.profile;
+            if (profile != null) {
+                if (profile.exists()) {
+                    classesToPreload = readProfile(profile);
+                }
+                else {
+                    handler = new ProfileRecordingHandler(handler, profile);
+                }
+            }
+            preloaded = ClassPreloadingUtils.preloadClassesLazily(files, withInstrumenter, handler, loadingOptions.memoryMap, classesToPreload);
+        }
+        else {
+            preloaded = ClassPreloadingUtils.preloadClasses(files, loadingOptions.classNumber, withInstrumenter, handler);
+        }
 
         Class<?> mainClass = preloaded.loadClass(mainClassCanonicalName);
         Method mainMethod = mainClass.getMethod("main", String[].class);
@@ -145,6 +156,66 @@ public class Preloader {
         }
     }
 
+    private static class LoadingOptions {
+        private int classNumber;
+        private boolean lazy;
+        private boolean memoryMap;
+        private File profile;
+    }
+
+    private static LoadingOptions parseLoadingOptions(String arg) {
+        LoadingOptions options = new LoadingOptions();
+        if (!arg.startsWith(LAZY)) {
+            try {
+                options.classNumber = Integer.parseInt(arg);
+            }
+            catch (NumberFormatException e) {
+                System.out.println(e.getMessage());
+                printUsageAndExit();
+            }
+            return options;
+        }
+
+        options.lazy = true;
+        String[] parts = arg.split(",");
+        if (!LAZY.equals(parts[0])) {
+            System.out.println("Unrecognized argument: " + arg);
+            printUsageAndExit();
+        }
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i];
+            if (MEMORY_MAP_OPTION.equals(part)) {
+                options.memoryMap = true;
+            }
+            else if (part.startsWith(PROFILE_PREFIX)) {
+                options.profile = new File(part.substring(PROFILE_PREFIX.length()));
+            }
+            else {
+                System.out.println("Unrecognized lazy loading option: " + part);
+                printUsageAndExit();
+            }
+        }
+        return options;
+    }
+
+    private static List<String> readProfile(File profile) throws IOException {
+        List<String> classNames = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(profile));
+        try {
+            while (true) {
+                String line = reader.readLine();
+                if (line == null) break;
+                if (!line.isEmpty()) {
+                    classNames.add(line);
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+        return classNames;
+    }
+
     private enum Mode {
         NO_TIME,
         TIME,
@@ -162,11 +233,71 @@ public class Preloader {
     }
 
     private static void printUsageAndExit() {
-        System.out.println("Usage: Preloader <paths to jars> <main class> <class number estimate> <notime|time|instrument=<instrumenters class path>> <parameters to pass to the main class>");
+        System.out.println("Usage: Preloader <paths to jars> <main class> <class number estimate|lazy[,mmap][,profile=<file>]> " +
+                           "<notime|time|instrument=<instrumenters class path>> <parameters to pass to the main class>");
         System.exit(1);
     }
 
     private static class Handler extends ClassPreloadingUtils.ClassHandler {
         public void done() {}
     }
+
+    // Records names of all defined classes, so that next runs can inflate them in advance
+    private static class ProfileRecordingHandler extends Handler {
+        private final Handler delegate;
+        private final File profile;
+        private final List<String> definedClasses = Collections.synchronizedList(new ArrayList<String>());
+
+        private ProfileRecordingHandler(Handler delegate, File profile) {
+            this.delegate = delegate;
+            this.profile = profile;
+        }
+
+        @Override
+        public byte[] instrument(String resourceName, byte[] data) {
+            return delegate.instrument(resourceName, data);
+        }
+
+        @Override
+        public void beforeDefineClass(String name, int sizeInBytes) {
+            delegate.beforeDefineClass(name, sizeInBytes);
+        }
+
+        @Override
+        public void afterDefineClass(String name) {
+            definedClasses.add(name);
+            delegate.afterDefineClass(name);
+        }
+
+        @Override
+        public void beforeLoadJar(File jarFile) {
+            delegate.beforeLoadJar(jarFile);
+        }
+
+        @Override
+        public void afterLoadJar(File jarFile) {
+            delegate.afterLoadJar(jarFile);
+        }
+
+        @Override
+        public void done() {
+            delegate.done();
+            try {
+                PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(profile)));
+                try {
+                    synchronized (definedClasses) {
+                        for (String name : definedClasses) {
+                            writer.println(name);
+                        }
+                    }
+                }
+                finally {
+                    writer.close();
+                }
+            }
+            catch (IOException e) {
+                System.err.println("PRELOADER WARNING: Can't write profile to " + profile + ": " + e.getMessage());
+            }
+        }
+    }
 }
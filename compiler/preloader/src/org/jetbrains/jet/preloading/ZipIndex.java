@@ -0,0 +1,207 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.preloading;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Entries of a zip file read from its central directory. Contents of entries are inflated only on request.
+ *
+ * The whole file is either memory-mapped or read into memory as is (compressed), which is much cheaper than inflating all entries.
+ * ZIP64 archives are not supported.
+ */
+class ZipIndex {
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public static class Entry {
+        private final ZipIndex zip;
+        private final String name;
+        private final int method;
+        private final int compressedSize;
+        private final int size;
+        private final int localHeaderOffset;
+
+        private Entry(ZipIndex zip, String name, int method, int compressedSize, int size, int localHeaderOffset) {
+            this.zip = zip;
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public File getZipFile() {
+            return zip.file;
+        }
+
+        public byte[] read() throws IOException {
+            return zip.read(this);
+        }
+    }
+
+    private final File file;
+    private final ByteBuffer buffer;
+    private final List<Entry> entries;
+
+    public ZipIndex(File file, boolean memoryMap) throws IOException {
+        this.file = file;
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            if (memoryMap) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            else {
+                byte[] bytes = new byte[(int) channel.size()];
+                randomAccessFile.readFully(bytes);
+                buffer = ByteBuffer.wrap(bytes);
+            }
+        }
+        finally {
+            randomAccessFile.close();
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        entries = readCentralDirectory();
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    private List<Entry> readCentralDirectory() throws IOException {
+        int end = findEndOfCentralDirectory();
+        int entryCount = buffer.getShort(end + 10) & 0xFFFF;
+        int offset = buffer.getInt(end + 16);
+
+        List<Entry> result = new ArrayList<Entry>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+            if (offset < 0 || offset + CENTRAL_DIRECTORY_HEADER_SIZE > buffer.limit() ||
+                buffer.getInt(offset) != CENTRAL_DIRECTORY_HEADER_SIGNATURE) {
+                throw new IOException("Corrupted central directory in " + file);
+            }
+            int method = buffer.getShort(offset + 10) & 0xFFFF;
+            int compressedSize = buffer.getInt(offset + 20);
+            int size = buffer.getInt(offset + 24);
+            int nameLength = buffer.getShort(offset + 28) & 0xFFFF;
+            int extraLength = buffer.getShort(offset + 30) & 0xFFFF;
+            int commentLength = buffer.getShort(offset + 32) & 0xFFFF;
+            int localHeaderOffset = buffer.getInt(offset + 42);
+
+            String name = new String(getBytes(offset + CENTRAL_DIRECTORY_HEADER_SIZE, nameLength), UTF_8);
+            if (!name.endsWith("/")) {
+                result.add(new Entry(this, name, method, compressedSize, size, localHeaderOffset));
+            }
+
+            offset += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private int findEndOfCentralDirectory() throws IOException {
+        int last = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+        int first = Math.max(0, last - MAX_COMMENT_LENGTH);
+        for (int offset = last; offset >= first; offset--) {
+            if (buffer.getInt(offset) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return offset;
+            }
+        }
+        throw new IOException("End of central directory not found in " + file);
+    }
+
+    private byte[] read(Entry entry) throws IOException {
+        int offset = entry.localHeaderOffset;
+        if (buffer.getInt(offset) != LOCAL_HEADER_SIGNATURE) {
+            throw new IOException("Corrupted local header of " + entry.name + " in " + file);
+        }
+        int nameLength = buffer.getShort(offset + 26) & 0xFFFF;
+        int extraLength = buffer.getShort(offset + 28) & 0xFFFF;
+        int dataOffset = offset + LOCAL_HEADER_SIZE + nameLength + extraLength;
+
+        if (entry.method == STORED) {
+            return getBytes(dataOffset, entry.compressedSize);
+        }
+        if (entry.method != DEFLATED) {
+            throw new IOException("Unsupported compression method " + entry.method + " of " + entry.name + " in " + file);
+        }
+
+        // inflater without zlib header needs an extra dummy byte at the end of input
+        byte[] data = new byte[entry.compressedSize + 1];
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(dataOffset);
+        duplicate.get(data, 0, entry.compressedSize);
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            byte[] result = new byte[entry.size];
+            int count = 0;
+            while (count < result.length && !inflater.finished()) {
+                int inflated = inflater.inflate(result, count, result.length - count);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                count += inflated;
+            }
+            if (count != result.length) {
+                throw new IOException("Unexpected size of " + entry.name + " in " + file);
+            }
+            return result;
+        }
+        catch (DataFormatException e) {
+            throw new IOException("Corrupted data of " + entry.name + " in " + file + ": " + e.getMessage());
+        }
+        finally {
+            inflater.end();
+        }
+    }
+
+    private byte[] getBytes(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+        duplicate.get(bytes);
+        return bytes;
+    }
+}
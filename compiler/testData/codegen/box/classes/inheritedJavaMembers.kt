@@ -0,0 +1,22 @@
+open class Worker : Thread() {
+    var result = ""
+
+    override fun run() {
+        result += "O"
+    }
+}
+
+class NamedWorker : Worker() {
+    fun work(): String {
+        setName("K")
+        run()
+        return result + getName()
+    }
+}
+
+fun box(): String {
+    val worker = NamedWorker()
+    val result = worker.work()
+    if (worker.isAlive()) return "Fail: worker is alive"
+    return result
+}
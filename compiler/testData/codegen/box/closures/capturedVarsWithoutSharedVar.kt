@@ -0,0 +1,61 @@
+inline fun repeatTimes(times: Int, action: (Int) -> Unit) {
+    for (i in 0..times - 1) action(i)
+}
+
+inline fun <T> storeAndCall(f: () -> T): T {
+    val saved = f
+    return saved()
+}
+
+fun call(f: () -> Unit) = f()
+
+fun countMultiples(n: Int, divisor: Int): Int {
+    var count = 0
+    repeatTimes(n) { if (it % divisor == 0) count++ }
+    return count
+}
+
+fun notReassigned(): String {
+    var s = "O"
+    var k = "K"
+    val f = { s + k }
+    return f()
+}
+
+fun reassignedAfterCapture(): Int {
+    var x = 1
+    val f = { x }
+    x = 2
+    return f()
+}
+
+fun writtenInClosure(): Int {
+    var x = 1
+    call { x += 41 }
+    return x
+}
+
+fun writtenInEscapingLambda(): Int {
+    var x = 0
+    storeAndCall { x++ }
+    repeatTimes(3) { x++ }
+    return x
+}
+
+fun writtenInLocalClass(): Int {
+    var x = 1
+    object {
+        fun run() { x = 5 }
+    }.run()
+    return x
+}
+
+fun box(): String {
+    if (countMultiples(10, 3) != 4) return "fail inlined lambda: ${countMultiples(10, 3)}"
+    if (notReassigned() != "OK") return "fail not reassigned: ${notReassigned()}"
+    if (reassignedAfterCapture() != 2) return "fail reassigned after capture: ${reassignedAfterCapture()}"
+    if (writtenInClosure() != 42) return "fail written in closure: ${writtenInClosure()}"
+    if (writtenInEscapingLambda() != 4) return "fail written in escaping lambda: ${writtenInEscapingLambda()}"
+    if (writtenInLocalClass() != 5) return "fail written in local class: ${writtenInLocalClass()}"
+    return "OK"
+}
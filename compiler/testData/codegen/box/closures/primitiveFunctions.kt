@@ -0,0 +1,39 @@
+fun applyInt(f: (Int) -> Int, x: Int) = f(x)
+fun testInt(f: (Int) -> Boolean, x: Int) = f.invoke(x)
+fun applyLong(f: (Long) -> Long, x: Long) = f(x)
+fun testDouble(f: (Double) -> Boolean, x: Double) = f(x)
+fun applyDouble(f: (Double) -> Double, x: Double) = f(x)
+fun foldInts(f: (Int, Int) -> Int, a: Int, b: Int) = f(a, b)
+fun <T> applyGeneric(f: (T) -> T, x: T) = f(x)
+fun applyNullable(f: (Int?) -> Int?, x: Int?) = f(x)
+
+class Doubler : jet.Function1<Int, Int> {
+    override fun invoke(p1: Int) = p1 * 2
+}
+
+fun twice(x: Int) = x * 2
+
+fun box(): String {
+    var calls = 0
+    if (applyInt({ calls++; it + 1 }, 1) != 2) return "fail 1"
+    if (calls != 1) return "fail 2"
+    if (!testInt({ it % 2 == 0 }, 4)) return "fail 3"
+    if (applyLong({ it * 3 }, 5000000000L) != 15000000000L) return "fail 4"
+    if (!testDouble({ it > 0.5 }, 1.0)) return "fail 5"
+    if (applyDouble({ it / 2 }, 3.0) != 1.5) return "fail 6"
+    if (foldInts({ (a, b) -> a - b }, 5, 3) != 2) return "fail 7"
+
+    if (applyInt(Doubler(), 21) != 42) return "fail 8"
+    if (applyInt(::twice, 4) != 8) return "fail 9"
+    if (applyGeneric({ (x: Int) -> x + 1 }, 1) != 2) return "fail 10"
+    if (applyNullable({ it }, null) != null) return "fail 11"
+
+    val f: (Int) -> Int = { it * it }
+    var sum = 0
+    for (i in 1..3) {
+        sum += f(i)
+    }
+    if (sum != 14) return "fail 12"
+
+    return "OK"
+}
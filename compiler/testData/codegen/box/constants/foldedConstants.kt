@@ -0,0 +1,35 @@
+val KB = 1 shl 10
+val MASK = (1 shl 10) - 1
+val GREETING = "Hello, " + "world" + '!'
+
+fun box(): String {
+    if (KB != 1024) return "fail KB: $KB"
+    if (MASK != 1023) return "fail MASK: $MASK"
+    if (GREETING != "Hello, world!") return "fail GREETING: $GREETING"
+
+    if (2147483647 + 1 != -2147483647 - 1) return "fail int overflow"
+    if (7 / 2 != 3) return "fail 7 / 2"
+    if (-7 % 3 != -1) return "fail -7 % 3"
+    if (-1 ushr 28 != 15) return "fail ushr"
+    if ((1L shl 40) != 1099511627776L) return "fail 1L shl 40"
+    if ('a' + 1 != 98) return "fail 'a' + 1"
+    if ('c' - 'a' != 2) return "fail 'c' - 'a'"
+    if (1.5 * 2 != 3.0) return "fail 1.5 * 2"
+    if ((255).toByte() != (-1).toByte()) return "fail toByte"
+    if ("a" + "b" + 1 + 'c' + true != "ab1ctrue") return "fail concatenation"
+    if (!(2 * 3 > 5 && 1 < 2 && "a" < "b")) return "fail comparison"
+    if (0.inv() != -1 || !(true xor false)) return "fail inv, xor"
+
+    try {
+        1 / 0
+        return "fail: division by zero is folded"
+    }
+    catch (e: ArithmeticException) {
+    }
+
+    return when (KB) {
+        1 shl 9 -> "fail when: 1 shl 9"
+        1 shl 10 -> "OK"
+        else -> "fail when: else"
+    }
+}
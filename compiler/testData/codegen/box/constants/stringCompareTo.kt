@@ -0,0 +1,13 @@
+fun box(): String {
+    if ("a".compareTo("c") != -2) return "fail \"a\".compareTo(\"c\"): ${"a".compareTo("c")}"
+    if (("a" compareTo "c") != -2) return "fail \"a\" compareTo \"c\""
+    if ("abc".compareTo("a") != 2) return "fail \"abc\".compareTo(\"a\")"
+    if ("b".compareTo("b") != 0) return "fail \"b\".compareTo(\"b\")"
+
+    val a = "a"
+    if ("a".compareTo("c") != a.compareTo("c")) return "fail: folded and computed results differ"
+
+    if (!("a" < "c" && "c" > "a" && "b" <= "b" && !("abc" <= "a"))) return "fail comparison"
+
+    return "OK"
+}
@@ -0,0 +1,42 @@
+import java.lang as j
+
+var log = ""
+
+fun <T> logged(s: String, value: T): T {
+    log += s
+    return value
+}
+
+fun box(): String {
+    val big = 10000000000L
+    if (big in 0L..1L) return "Fail 1"
+    if (big !in 0L..big) return "Fail 2"
+    if (-big in 0L..big) return "Fail 3"
+
+    if (0.5 !in 0.0..1.0) return "Fail 4"
+    if (1.5 in 0.0..1.0) return "Fail 5"
+    if (j.Double.NaN in 0.0..1.0) return "Fail 6"
+    if (0.5 in 0.0..j.Double.NaN) return "Fail 7"
+    if (0.5.toFloat() !in 0.0.toFloat()..1.0.toFloat()) return "Fail 8"
+    if (j.Float.NaN in j.Float.NEGATIVE_INFINITY..j.Float.POSITIVE_INFINITY) return "Fail 9"
+
+    if ('c' !in 'a'..'z') return "Fail 10"
+    if ('C' in 'a'..'z') return "Fail 11"
+    if (5.toByte() in 1.toByte()..3.toByte()) return "Fail 12"
+
+    val array = intArray(1, 2, 3)
+    if (0 !in array.indices) return "Fail 13"
+    if (3 in array.indices) return "Fail 14"
+    if (-1 in array.indices) return "Fail 15"
+    if (0 in IntArray(0).indices) return "Fail 16"
+
+    if (logged("x", 5) in logged("a", 6)..logged("b", 10)) return "Fail 17"
+    if (log != "xab") return "Fail 18: $log"
+
+    val result = when (big) {
+        in 0L..1L -> "Fail 19"
+        !in 0L..big -> "Fail 20"
+        else -> "OK"
+    }
+    return result
+}
@@ -0,0 +1,47 @@
+class Delegate {
+    var metadata: PropertyMetadata? = null
+    var inner = 1
+
+    fun get(t: Any?, p: PropertyMetadata): Int {
+        check(p)
+        return inner
+    }
+
+    fun set(t: Any?, p: PropertyMetadata, i: Int) {
+        check(p)
+        inner = i
+    }
+
+    fun check(p: PropertyMetadata) {
+        if (metadata != null && metadata !== p) throw AssertionError("PropertyMetadata for ${p.name} is not cached")
+        metadata = p
+    }
+}
+
+class A {
+    var prop: Int by Delegate()
+}
+
+object O {
+    var prop: Int by Delegate()
+}
+
+var topLevel: Int by Delegate()
+
+fun box(): String {
+    val a = A()
+    a.prop = a.prop + 1
+    if (a.prop != 2) return "fail class"
+
+    val b = A()
+    b.prop = b.prop + 1
+    if (b.prop != 2) return "fail second instance"
+
+    O.prop = O.prop + 1
+    if (O.prop != 2) return "fail object"
+
+    topLevel = topLevel + 1
+    if (topLevel != 2) return "fail top level"
+
+    return "OK"
+}
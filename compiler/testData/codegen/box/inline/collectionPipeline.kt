@@ -0,0 +1,74 @@
+import java.util.ArrayList
+
+inline fun <T> Iterable<T>.forEachItem(operation: (T) -> Unit) {
+    for (element in this) operation(element)
+}
+
+inline fun <T> Iterable<T>.filterItems(predicate: (T) -> Boolean): List<T> {
+    val result = ArrayList<T>()
+    for (element in this) {
+        if (predicate(element)) result.add(element)
+    }
+    return result
+}
+
+inline fun <T, R> Iterable<T>.mapItems(transform: (T) -> R): List<R> {
+    val result = ArrayList<R>()
+    for (element in this) {
+        result.add(transform(element))
+    }
+    return result
+}
+
+inline fun <T> Iterable<T>.firstItem(predicate: (T) -> Boolean): T? {
+    for (element in this) {
+        if (predicate(element)) return element
+    }
+    return null
+}
+
+inline fun repeatTimes(times: Int, action: (Int) -> Unit) {
+    var i = 0
+    while (i < times) {
+        action(i)
+        i++
+    }
+}
+
+inline fun <T> T.applyTwice(f: (T) -> T): T = f(f(this))
+
+inline fun sumOf(vararg numbers: Int, transform: (Int) -> Int): Int {
+    var sum = 0
+    for (n in numbers) sum += transform(n)
+    return sum
+}
+
+inline fun describe(value: Int, prefix: String = "#"): String {
+    if (value < 0) return "negative"
+    return prefix + value
+}
+
+fun box(): String {
+    val list = ArrayList<Int>()
+    for (i in 1..5) list.add(i)
+
+    var sum = 0
+    list.forEachItem { sum += it }
+    if (sum != 15) return "fail forEach: $sum"
+
+    val doubledEven = list.filterItems { it % 2 == 0 }.mapItems { it * 2 }
+    if (doubledEven.size() != 2 || doubledEven.get(0) != 4 || doubledEven.get(1) != 8) return "fail pipeline: $doubledEven"
+
+    if (list.firstItem { it > 3 } != 4) return "fail firstItem"
+    if (list.firstItem { it > 10 } != null) return "fail firstItem null"
+
+    var calls = ""
+    repeatTimes(3) { calls += it }
+    if (calls != "012") return "fail repeatTimes: $calls"
+
+    if (3.applyTwice { it * 3 } != 27) return "fail applyTwice"
+    if (sumOf(1, 2, 3) { it * it } != 14) return "fail vararg"
+    if (describe(-1) != "negative" || describe(5) != "#5" || describe(5, "n") != "n5") return "fail default"
+
+    return "OK"
+}
@@ -0,0 +1,32 @@
+inline fun <T> storeAndCall(value: T, f: (T) -> String): String {
+    val saved = f
+    return saved(value) + f(value)
+}
+
+inline fun call(f: () -> String): String = f()
+
+private fun secret() = "secret"
+
+inline fun usesPrivate(f: () -> String): String = f() + secret()
+
+inline fun countDown(n: Int): Int = if (n <= 0) 0 else 1 + countDown(n - 1)
+
+class Box(val value: String) {
+    fun get() = call { value }
+
+    fun nested() = call { call { value } }
+}
+
+fun box(): String {
+    if (storeAndCall(21) { "$it" } != "2121") return "fail escaping lambda"
+    if (usesPrivate { "a" } != "asecret") return "fail private"
+    if (countDown(5) != 5) return "fail recursion"
+    if (Box("b").get() != "b") return "fail this"
+    if (Box("c").nested() != "c") return "fail nested"
+
+    var x = 0
+    val s = call { x++; "s$x" }
+    if (s != "s1" || x != 1) return "fail captured var: $s $x"
+
+    return "OK"
+}
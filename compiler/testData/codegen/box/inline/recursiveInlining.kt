@@ -0,0 +1,34 @@
+inline fun repeatTimes(times: Int, action: (Int) -> Unit) {
+    for (i in 0..times - 1) action(i)
+}
+
+inline fun twice(action: () -> Unit) {
+    action()
+    action()
+}
+
+inline fun factorial(n: Int): Int = if (n <= 1) 1 else n * factorial(n - 1)
+
+fun box(): String {
+    // The inner call is generated inside the inlined outer one, so it is called as usual and its literal becomes a closure
+    var sum = 0
+    repeatTimes(3) { i ->
+        repeatTimes(2) { j ->
+            sum += i * j + 1
+        }
+    }
+    if (sum != 9) return "fail nested: $sum"
+
+    // Here both calls are inlined
+    var count = 0
+    repeatTimes(2) {
+        twice { count++ }
+    }
+    if (count != 4) return "fail different functions: $count"
+
+    var product = 1
+    repeatTimes(factorial(3)) { product *= 2 }
+    if (product != 64) return "fail recursive: $product"
+
+    return "OK"
+}
@@ -0,0 +1,27 @@
+fun intEq(a: Int?, b: Int): Boolean = a != null && a == b
+fun intNotEq(a: Int?, b: Int?): Boolean = a != null && b != null && a != b
+fun longEq(a: Long?, b: Long): Boolean = if (a == null) false else b == a
+fun charEq(a: Char?, b: Char): Boolean = a != null && a == b
+fun boolEq(a: Boolean?, b: Boolean): Boolean = a != null && a == b
+fun doubleEq(a: Double?, b: Double): Boolean = a != null && a == b
+fun longCompare(a: Long?, b: Long): Int = if (a != null) a.compareTo(b) else -2
+
+fun box(): String {
+    if (!intEq(1000, 1000)) return "fail 1"
+    if (intEq(1000, 1001)) return "fail 2"
+    if (intEq(null, 0)) return "fail 3"
+    if (!intNotEq(1000, 1001)) return "fail 4"
+    if (intNotEq(1000, 1000)) return "fail 5"
+    if (intNotEq(null, 1)) return "fail 6"
+    if (!longEq(10000000000, 10000000000)) return "fail 7"
+    if (longEq(null, 0)) return "fail 8"
+    if (!charEq('x', 'x')) return "fail 9"
+    if (charEq('x', 'y')) return "fail 10"
+    if (!boolEq(false, false)) return "fail 11"
+    if (boolEq(null, false)) return "fail 12"
+    if (!doubleEq(0.5, 0.5)) return "fail 13"
+    if (longCompare(1, 2) != -1 || longCompare(2, 2) != 0 || longCompare(3, 2) != 1) return "fail 14"
+    if (longCompare(-9223372036854775807 - 1, 9223372036854775807) != -1) return "fail 15"
+    if (longCompare(null, 0) != -2) return "fail 16"
+    return "OK"
+}
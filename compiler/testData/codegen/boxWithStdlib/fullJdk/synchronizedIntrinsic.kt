@@ -0,0 +1,47 @@
+val lock = Any()
+var lockEvaluations = 0
+
+fun evaluateLock(): Any {
+    lockEvaluations++
+    return lock
+}
+
+fun fail(): Int = throw IllegalStateException("Fail")
+
+fun box(): String {
+    var held = false
+    val result = synchronized(evaluateLock()) {
+        held = Thread.holdsLock(lock)
+        42
+    }
+    if (!held) return "Fail: lock is not held"
+    if (result != 42) return "Fail result: $result"
+    if (lockEvaluations != 1) return "Fail lock evaluations: $lockEvaluations"
+    if (Thread.holdsLock(lock)) return "Fail: lock is not released"
+
+    var counter = 0
+    for (i in 1..10) {
+        synchronized(lock) {
+            counter += i
+        }
+    }
+    if (counter != 55) return "Fail counter: $counter"
+
+    try {
+        synchronized(lock) { fail() }
+        return "Fail: no exception"
+    }
+    catch (e: IllegalStateException) {
+        if (Thread.holdsLock(lock)) return "Fail: lock is not released after exception"
+    }
+
+    val nested = synchronized(lock) { synchronized(evaluateLock()) { "O" } + "K" }
+    if (Thread.holdsLock(lock)) return "Fail: lock is not released after nested synchronized"
+
+    val block = { if (Thread.holdsLock(lock)) "OK" else "Fail: lock is not held by function value" }
+    val fromFunction = synchronized(lock, block)
+    if (fromFunction != "OK") return fromFunction
+    if (Thread.holdsLock(lock)) return "Fail: lock is not released after function value"
+
+    return nested
+}
@@ -0,0 +1,66 @@
+import java.util.ArrayList
+
+fun <T> collect(progression: Progression<T>): List<T> {
+    val result = ArrayList<T>()
+    for (element in progression) {
+        result.add(element)
+    }
+    return result
+}
+
+fun box(): String {
+    val array = array("a", "b", "c", "d", "e")
+    val list = listOf(1, 2, 3, 4)
+    val empty = IntArray(0)
+
+    val l1 = ArrayList<Int>()
+    for (i in array.indices) l1.add(i)
+    if (l1 != listOf(0, 1, 2, 3, 4)) return "Fail array.indices: $l1"
+
+    val l2 = ArrayList<Int>()
+    for (i in list.indices) l2.add(i)
+    if (l2 != listOf(0, 1, 2, 3)) return "Fail list.indices: $l2"
+
+    for (i in empty.indices) return "Fail empty.indices: $i"
+    for (i in empty.indices.reversed()) return "Fail empty.indices.reversed(): $i"
+
+    val l3 = ArrayList<Int>()
+    for (i in array.indices.reversed()) l3.add(i)
+    if (l3 != listOf(4, 3, 2, 1, 0)) return "Fail array.indices.reversed(): $l3"
+
+    val l4 = ArrayList<Int>()
+    for (i in list.indices step 2) l4.add(i)
+    if (l4 != listOf(0, 2)) return "Fail list.indices step 2: $l4"
+
+    val l5 = ArrayList<Int>()
+    for (i in (array.indices step 3).reversed()) l5.add(i)
+    if (l5 != collect((array.indices step 3).reversed())) return "Fail (array.indices step 3).reversed(): $l5"
+
+    val range = 1..7
+    val l6 = ArrayList<Int>()
+    for (i in range.reversed() step 3) l6.add(i)
+    if (l6 != collect(range.reversed() step 3)) return "Fail range.reversed() step 3: $l6"
+
+    val progression = 10 downTo 1
+    val l7 = ArrayList<Int>()
+    for (i in progression step 4) l7.add(i)
+    if (l7 != collect(progression step 4)) return "Fail progression step 4: $l7"
+
+    val l8 = ArrayList<Int>()
+    for (i in (progression step 4).reversed()) l8.add(i)
+    if (l8 != collect((progression step 4).reversed())) return "Fail (progression step 4).reversed(): $l8"
+
+    val l9 = ArrayList<Long>()
+    for (i in 5.toByte() downTo 1L step 2L) l9.add(i)
+    if (l9 != listOf(5L, 3L, 1L)) return "Fail 5.toByte() downTo 1L step 2L: $l9"
+
+    val l10 = ArrayList<Char>()
+    for (c in ('a'.downTo('e')).reversed()) l10.add(c)
+    if (l10.isNotEmpty()) return "Fail ('a'.downTo('e')).reversed(): $l10"
+
+    val l11 = ArrayList<Double>()
+    for (d in (1.0..2.0).reversed()) l11.add(d)
+    if (l11 != listOf(2.0, 1.0)) return "Fail (1.0..2.0).reversed(): $l11"
+
+    return "OK"
+}
@@ -0,0 +1,38 @@
+import java.util.ArrayList
+
+fun zero() = 0
+
+fun failureMessage(f: () -> Unit): String? {
+    try {
+        f()
+    }
+    catch (e: IllegalArgumentException) {
+        return e.getMessage()
+    }
+    return null
+}
+
+fun box(): String {
+    val m1 = failureMessage { for (i in 1..5 step zero()) {} }
+    if (m1 != "Step must be positive, was: 0") return "Fail 1: $m1"
+
+    val m2 = failureMessage { for (i in 10 downTo 1 step -2) {} }
+    if (m2 != "Step must be positive, was: -2") return "Fail 2: $m2"
+
+    val m3 = failureMessage { for (i in (1L..5L).reversed() step -3L) {} }
+    if (m3 != "Step must be positive, was: -3") return "Fail 3: $m3"
+
+    val m4 = failureMessage { for (c in 'a'..'z' step 0) {} }
+    if (m4 != "Step must be positive, was: 0") return "Fail 4: $m4"
+
+    val log = ArrayList<String>()
+    fun logged(s: String, value: Int): Int {
+        log.add(s)
+        return value
+    }
+    val m5 = failureMessage { for (i in logged("start", 1)..logged("end", 5) step logged("step", -1)) { log.add("body") } }
+    if (m5 != "Step must be positive, was: -1") return "Fail 5: $m5"
+    if (log != listOf("start", "end", "step")) return "Fail 6: $log"
+
+    return "OK"
+}
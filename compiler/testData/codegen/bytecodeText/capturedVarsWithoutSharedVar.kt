@@ -0,0 +1,16 @@
+inline fun repeatTimes(times: Int, action: (Int) -> Unit) {
+    for (i in 0..times - 1) action(i)
+}
+
+fun countMultiples(n: Int, divisor: Int): Int {
+    var count = 0
+    repeatTimes(n) { if (it % divisor == 0) count++ }
+    return count
+}
+
+fun notReassigned(): () -> String {
+    var s = "OK"
+    return { s }
+}
+
+// 0 jet/runtime/SharedVar
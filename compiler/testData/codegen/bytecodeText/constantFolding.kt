@@ -0,0 +1,11 @@
+val MASK = (1 shl 10) - 1
+
+fun concat() = "a" + "b" + 1
+
+fun multiply() = 2 * 3 * 7
+
+// 0 ISHL
+// 0 ISUB
+// 0 IMUL
+// 0 StringBuilder
+// 1 LDC "ab1"
@@ -0,0 +1,12 @@
+fun intEq(a: Int?, b: Int) = a != null && a == b
+
+fun bothNotNull(a: Long?, b: Long?) = a != null && b != null && a != b
+
+fun compareLongs(a: Long, b: Long) = a < b || a.compareTo(b) == 1
+
+fun nullable(a: Int?, b: Int) = a == b
+
+// 1 areEqual
+// 1 valueOf
+// 0 compare \(JJ\)I
+// 3 LCMP
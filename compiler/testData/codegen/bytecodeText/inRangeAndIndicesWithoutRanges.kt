@@ -0,0 +1,22 @@
+fun inLongRange(x: Long, a: Long, b: Long) = x in a..b
+
+fun inDoubleRange(x: Double) = x !in 0.0..1.0
+
+fun inIndices(i: Int, array: Array<String>) = i in array.indices
+
+fun sum(array: IntArray): Int {
+    var result = 0
+    for (i in array.indices) {
+        result += array[i]
+    }
+    return result
+}
+
+fun whenInCharRange(c: Char) = when (c) {
+    in 'a'..'z' -> 1
+    else -> 0
+}
+
+// 0 jet/runtime/Ranges
+// 0 jet/\w*Range
+// 0 contains
@@ -0,0 +1,12 @@
+inline fun <T> Iterable<T>.forEachItem(operation: (T) -> Unit) {
+    for (element in this) operation(element)
+}
+
+fun sum(list: List<Int>): Int {
+    var result = 0
+    list.forEachItem { result += it }
+    return result
+}
+
+// 1 INVOKEINTERFACE jet/Function1.invoke
+// 0 \$sum\$1
@@ -0,0 +1,9 @@
+fun apply(f: (Int) -> Int, x: Int) = f(x)
+
+fun applyNullable(f: (Int?) -> Int, x: Int) = f(x)
+
+fun test() = apply({ it + 1 }, 1)
+
+// 1 INSTANCEOF jet/runtime/PrimitiveFunction\$IntToInt
+// 1 INVOKEINTERFACE jet/runtime/PrimitiveFunction\$IntToInt.invoke \(I\)I
+// 2 INVOKEINTERFACE jet/Function1.invoke
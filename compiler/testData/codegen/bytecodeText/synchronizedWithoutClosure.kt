@@ -0,0 +1,19 @@
+class Counter {
+    private val lock = Any()
+    private var count = 0
+
+    fun increment(): Int {
+        var result = 0
+        synchronized(lock) {
+            count++
+            result = count
+        }
+        return result
+    }
+}
+
+// 1 MONITORENTER
+// 2 MONITOREXIT
+// 0 stupidSync
+// 0 \$increment\$1
+// 0 jet/runtime/SharedVar
@@ -0,0 +1,4 @@
+class A {
+    internal fun foo(s: String) {
+    }
+}
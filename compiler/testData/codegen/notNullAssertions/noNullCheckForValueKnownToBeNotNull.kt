@@ -0,0 +1,6 @@
+fun foo(s: String?): String = if (s != null) s!! else ""
+
+fun bar(a: Any?): Any {
+    if (a == null) return ""
+    return a!!
+}
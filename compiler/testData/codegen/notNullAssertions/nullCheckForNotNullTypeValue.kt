@@ -0,0 +1,3 @@
+private fun foo(s: String): String = s!!
+
+fun bar(s: String): String = s!!
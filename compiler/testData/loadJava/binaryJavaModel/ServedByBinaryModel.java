@@ -0,0 +1,21 @@
+package test;
+
+public class ServedByBinaryModel {
+    public static class Nested {
+        public void foo() {}
+    }
+
+    public Dollar$Name dollar() { return null; }
+
+    @Override
+    public boolean equals(Object o) { return o == this; }
+
+    @Override
+    public int hashCode() { return 0; }
+
+    @Override
+    public String toString() { return "ServedByBinaryModel"; }
+}
+
+class Dollar$Name {
+}
@@ -102,6 +102,24 @@ public class FqNameTest {
         Assert.assertSame(fqName, fqName.toSafe().toUnsafe());
     }
 
+    @Test
+    public void namesAreInterned() {
+        Assert.assertSame(Name.identifier("foo"), Name.identifier(new String("foo")));
+        Assert.assertSame(Name.identifier("foo"), Name.guess("foo"));
+        Assert.assertSame(Name.special("<foo>"), Name.guess("<foo>"));
+        Assert.assertNotSame(Name.identifierNoValidate("<foo>"), Name.special("<foo>"));
+        Assert.assertFalse(Name.identifierNoValidate("<foo>").equals(Name.special("<foo>")));
+    }
+
+    @Test
+    public void segmentsShareNames() {
+        FqName fqName = new FqName("com.jetbrains.jet");
+        Assert.assertSame(Name.identifier("jet"), fqName.shortName());
+        Assert.assertSame(Name.identifier("jetbrains"), fqName.parent().shortName());
+        Assert.assertSame(new FqName("org.jetbrains").shortName(), fqName.pathSegments().get(1));
+        Assert.assertSame(FqName.ROOT.child(Name.identifier("com")).shortName(), fqName.pathSegments().get(0));
+    }
+
     @Test
     public void isValidJavaFqName() {
         Assert.assertTrue(QualifiedNamesUtil.isValidJavaFqName(""));
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet;
+
+import junit.framework.TestCase;
+import org.jetbrains.jet.utils.PerformanceReport;
+
+public class PerformanceReportTest extends TestCase {
+    @Override
+    protected void tearDown() throws Exception {
+        PerformanceReport.install(null);
+        super.tearDown();
+    }
+
+    public void testNothingRecordedWhenNotInstalled() {
+        PerformanceReport.startPhase("parsing").end();
+        PerformanceReport.count("files", 1);
+        assertNull(PerformanceReport.getCurrent());
+    }
+
+    public void testPhasesAndCounters() {
+        PerformanceReport report = new PerformanceReport();
+        PerformanceReport.install(report);
+
+        PerformanceReport.startPhase("analysis").end();
+        PerformanceReport.startPhase("parsing", "a.kt").end();
+        PerformanceReport.startPhase("parsing", "a.kt").end();
+        PerformanceReport.startPhase("parsing", "b\"c.kt").end();
+        PerformanceReport.count("files", 2);
+        PerformanceReport.count("files", 1);
+
+        String json = report.toJson();
+        assertTrue(json, json.startsWith("{\"phases\":[{\"name\":\"analysis\",\"count\":1,"));
+        assertTrue(json, json.contains("{\"name\":\"parsing\",\"file\":\"a.kt\",\"count\":2,"));
+        assertTrue(json, json.contains("\"file\":\"b\\\"c.kt\""));
+        assertTrue(json, json.endsWith("\"counters\":{\"files\":3}}"));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet;
+
+import org.jetbrains.jet.utils.PersistentHashMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class PersistentHashMapTest {
+    private static final class Key {
+        private final int value;
+        private final int hashCode;
+
+        private Key(int value, int hashCode) {
+            this.value = value;
+            this.hashCode = hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return "Key" + value;
+        }
+    }
+
+    @Test
+    public void plusDoesNotChangeOriginal() {
+        PersistentHashMap<String, Integer> empty = PersistentHashMap.empty();
+        PersistentHashMap<String, Integer> one = empty.plus("a", 1);
+        PersistentHashMap<String, Integer> two = one.plus("b", 2);
+
+        Assert.assertTrue(empty.isEmpty());
+        Assert.assertNull(empty.get("a"));
+        Assert.assertEquals(1, one.size());
+        Assert.assertNull(one.get("b"));
+        Assert.assertEquals(2, two.size());
+        Assert.assertEquals(Integer.valueOf(1), two.get("a"));
+        Assert.assertEquals(Integer.valueOf(2), two.get("b"));
+    }
+
+    @Test
+    public void updateWithSameValueReturnsSameMap() {
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty().plus("a", 1);
+        Assert.assertSame(map, map.plus("a", 1));
+        Assert.assertSame(map, map.minus("b"));
+    }
+
+    @Test
+    public void entriesDifferentFromBase() {
+        PersistentHashMap<Integer, Integer> base = PersistentHashMap.empty();
+        for (int i = 0; i < 1000; i++) {
+            base = base.plus(i, i);
+        }
+        PersistentHashMap<Integer, Integer> derived = base.plus(5, -5).plus(2000, 2000);
+
+        Set<Integer> keys = new HashSet<Integer>();
+        for (Map.Entry<Integer, Integer> entry : derived.entriesDifferentFrom(base)) {
+            keys.add(entry.getKey());
+        }
+        Assert.assertTrue(keys.contains(5));
+        Assert.assertTrue(keys.contains(2000));
+        Assert.assertTrue("Shared entries should not be visited: " + keys.size(), keys.size() < 100);
+        Assert.assertTrue(base.entriesDifferentFrom(base).isEmpty());
+    }
+
+    @Test
+    public void randomOperationsWithCollisions() {
+        Random random = new Random(42);
+        for (int round = 0; round < 30; round++) {
+            int range = 1 + random.nextInt(300);
+            int hashModulo = round % 2 == 0 ? 7 : Integer.MAX_VALUE;
+            PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+            Map<Key, Integer> expected = new HashMap<Key, Integer>();
+
+            for (int i = 0; i < 1000; i++) {
+                int value = random.nextInt(range);
+                Key key = new Key(value, (value * 0x9E3779B9) % hashModulo);
+                if (random.nextInt(3) == 0) {
+                    map = map.minus(key);
+                    expected.remove(key);
+                }
+                else {
+                    int newValue = random.nextInt(5);
+                    map = map.plus(key, newValue);
+                    expected.put(key, newValue);
+                }
+                Assert.assertEquals(expected.size(), map.size());
+            }
+
+            Map<Key, Integer> actual = new HashMap<Key, Integer>();
+            for (Map.Entry<Key, Integer> entry : map) {
+                actual.put(entry.getKey(), entry.getValue());
+                Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+            }
+            Assert.assertEquals(expected, actual);
+        }
+    }
+}
@@ -52,11 +52,36 @@ public class BytecodeTextTestGenerated extends AbstractBytecodeTextTest {
         doTest("compiler/testData/codegen/bytecodeText/annotationRetentionPolicySource.kt");
     }
     
+    @TestMetadata("capturedVarsWithoutSharedVar.kt")
+    public void testCapturedVarsWithoutSharedVar() throws Exception {
+        doTest("compiler/testData/codegen/bytecodeText/capturedVarsWithoutSharedVar.kt");
+    }
+    
     @TestMetadata("componentEvaluatesOnlyOnce.kt")
     public void testComponentEvaluatesOnlyOnce() throws Exception {
         doTest("compiler/testData/codegen/bytecodeText/componentEvaluatesOnlyOnce.kt");
     }
     
+    @TestMetadata("constantFolding.kt")
+    public void testConstantFolding() throws Exception {
+        doTest("compiler/testData/codegen/bytecodeText/constantFolding.kt");
+    }
+    
+    @TestMetadata("equalityWithNotNullAutocast.kt")
+    public void testEqualityWithNotNullAutocast() throws Exception {
+        doTest("compiler/testData/codegen/bytecodeText/equalityWithNotNullAutocast.kt");
+    }
+    
+    @TestMetadata("inRangeAndIndicesWithoutRanges.kt")
+    public void testInRangeAndIndicesWithoutRanges() throws Exception {
+        doTest("compiler/testData/codegen/bytecodeText/inRangeAndIndicesWithoutRanges.kt");
+    }
+    
+    @TestMetadata("inlineLambda.kt")
+    public void testInlineLambda() throws Exception {
+        doTest("compiler/testData/codegen/bytecodeText/inlineLambda.kt");
+    }
+    
     @TestMetadata("intConstantNotNull.kt")
     public void testIntConstantNotNull() throws Exception {
         doTest("compiler/testData/codegen/bytecodeText/intConstantNotNull.kt");
@@ -87,11 +112,21 @@ public class BytecodeTextTestGenerated extends AbstractBytecodeTextTest {
         doTest("compiler/testData/codegen/bytecodeText/kt2887.kt");
     }
     
+    @TestMetadata("primitiveFunctionInvoke.kt")
+    public void testPrimitiveFunctionInvoke() throws Exception {
+        doTest("compiler/testData/codegen/bytecodeText/primitiveFunctionInvoke.kt");
+    }
+    
     @TestMetadata("privateDefaultArgs.kt")
     public void testPrivateDefaultArgs() throws Exception {
         doTest("compiler/testData/codegen/bytecodeText/privateDefaultArgs.kt");
     }
     
+    @TestMetadata("synchronizedWithoutClosure.kt")
+    public void testSynchronizedWithoutClosure() throws Exception {
+        doTest("compiler/testData/codegen/bytecodeText/synchronizedWithoutClosure.kt");
+    }
+    
     @TestMetadata("topLevelFunWithDefaultArgs.kt")
     public void testTopLevelFunWithDefaultArgs() throws Exception {
         doTest("compiler/testData/codegen/bytecodeText/topLevelFunWithDefaultArgs.kt");
@@ -45,11 +45,23 @@ public class GenerateNotNullAssertionsTest extends CodegenTestCase {
     }
 
     private void setUpEnvironment(boolean generateAssertions, boolean generateParamAssertions, File... extraClassPath) {
+        setUpEnvironment(generateAssertions, generateParamAssertions, false, true, extraClassPath);
+    }
+
+    private void setUpEnvironment(
+            boolean generateAssertions,
+            boolean generateParamAssertions,
+            boolean inlineAssertions,
+            boolean generateParamAssertionsForInternal,
+            File... extraClassPath
+    ) {
         CompilerConfiguration configuration = JetTestUtils.compilerConfigurationForTests(
                 ConfigurationKind.JDK_ONLY, TestJdkKind.MOCK_JDK, extraClassPath);
 
         configuration.put(JVMConfigurationKeys.GENERATE_NOT_NULL_ASSERTIONS, generateAssertions);
         configuration.put(JVMConfigurationKeys.GENERATE_NOT_NULL_PARAMETER_ASSERTIONS, generateParamAssertions);
+        configuration.put(JVMConfigurationKeys.INLINE_NOT_NULL_ASSERTIONS, inlineAssertions);
+        configuration.put(JVMConfigurationKeys.GENERATE_NOT_NULL_PARAMETER_ASSERTIONS_FOR_INTERNAL, generateParamAssertionsForInternal);
 
         myEnvironment = new JetCoreEnvironment(getTestRootDisposable(), configuration);
     }
@@ -101,6 +113,24 @@ public class GenerateNotNullAssertionsTest extends CodegenTestCase {
         generateFunction().invoke(null);
     }
 
+    public void testGenerateInlineAssertions() throws Exception {
+        File javaClassesTempDirectory = compileJava("notNullAssertions/A.java");
+
+        setUpEnvironment(true, false, true, true, javaClassesTempDirectory);
+
+        loadFile("notNullAssertions/AssertionChecker.kt");
+        generateFunction("checkAssertions").invoke(null, true);
+    }
+
+    public void testGenerateInlineParamAssertions() throws Exception {
+        File javaClassesTempDirectory = compileJava("notNullAssertions/doGenerateParamAssertions.java");
+
+        setUpEnvironment(false, true, true, true, javaClassesTempDirectory);
+
+        loadFile("notNullAssertions/doGenerateParamAssertions.kt");
+        generateFunction().invoke(null);
+    }
+
     public void testDoNotGenerateParamAssertions() throws Exception {
         setUpEnvironment(false, false);
 
@@ -117,6 +147,14 @@ public class GenerateNotNullAssertionsTest extends CodegenTestCase {
         assertNoIntrinsicsMethodIsCalled("A");
     }
 
+    public void testNoParamAssertionForInternalMethod() throws Exception {
+        setUpEnvironment(false, true, false, false);
+
+        loadFile("notNullAssertions/noAssertionForInternalMethod.kt");
+
+        assertNoIntrinsicsMethodIsCalled("A");
+    }
+
     public void testArrayListGet() {
         setUpEnvironment(true, true);
 
@@ -138,6 +176,36 @@ public class GenerateNotNullAssertionsTest extends CodegenTestCase {
         assertEquals(3, StringUtil.getOccurrenceCount(text, "checkParameterIsNotNull"));
     }
 
+    public void testJavaMultipleSubstitutionsInline() {
+        File javaClassesTempDirectory = compileJava("notNullAssertions/javaMultipleSubstitutions.java");
+        setUpEnvironment(true, true, true, true, javaClassesTempDirectory);
+
+        loadFile("notNullAssertions/javaMultipleSubstitutions.kt");
+        String text = generateToText();
+
+        assertEquals(0, StringUtil.getOccurrenceCount(text, "checkReturnedValueIsNotNull"));
+        assertEquals(0, StringUtil.getOccurrenceCount(text, "checkParameterIsNotNull"));
+        assertEquals(3, StringUtil.getOccurrenceCount(text, "throwReturnedValueIsNullException"));
+        assertEquals(3, StringUtil.getOccurrenceCount(text, "throwParameterIsNullException"));
+        assertEquals(6, StringUtil.getOccurrenceCount(text, "IFNONNULL"));
+    }
+
+    public void testNoNullCheckForValueKnownToBeNotNull() {
+        setUpEnvironment(false, false);
+
+        loadFile("notNullAssertions/noNullCheckForValueKnownToBeNotNull.kt");
+
+        assertNoIntrinsicsMethodIsCalled(PackageClassUtils.getPackageClassName(FqName.ROOT));
+    }
+
+    public void testNullCheckForNotNullTypeValue() {
+        setUpEnvironment(true, false);
+
+        loadFile("notNullAssertions/nullCheckForNotNullTypeValue.kt");
+
+        assertEquals(2, StringUtil.getOccurrenceCount(generateToText(), "throwNpe"));
+    }
+
     public void testAssertionForNotNullTypeParam() {
         setUpEnvironment(true, true);
 
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.codegen;
+
+import org.jetbrains.jet.ConfigurationKind;
+import org.jetbrains.jet.codegen.state.GenerationState;
+import org.jetbrains.jet.codegen.state.JetTypeMapper;
+
+public class TypeMapperCacheTest extends CodegenTestCase {
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        createEnvironmentWithMockJdkAndIdeaAnnotations(ConfigurationKind.JDK_ONLY);
+    }
+
+    public void testSignatureOfCalledFunctionIsMappedOnce() throws Exception {
+        StringBuilder calls = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            calls.append("    foo(").append(i).append(", \"\")\n");
+        }
+        loadText("package test\n" +
+                 "\n" +
+                 "fun foo(i: Int, s: String): String = s + i\n" +
+                 "\n" +
+                 "fun bar() {\n" +
+                 calls +
+                 "}\n");
+
+        GenerationState state = GenerationUtils.compileFileGetGenerationStateForTest(myFiles.getPsiFile());
+        JetTypeMapper typeMapper = state.getTypeMapper();
+
+        assertTrue("Signature of foo should be taken from the cache: " + typeMapper.getCacheStatistics(),
+                   typeMapper.getSignatureCacheHits() >= 100);
+        assertTrue("Too many signatures computed: " + typeMapper.getCacheStatistics(),
+                   typeMapper.getSignatureCacheMisses() < 20);
+    }
+}
@@ -31,7 +31,7 @@ import org.jetbrains.jet.codegen.generated.AbstractBlackBoxCodegenTest;
 /** This class is generated by {@link org.jetbrains.jet.generators.tests.GenerateTests}. DO NOT MODIFY MANUALLY */
 @SuppressWarnings("all")
 @TestMetadata("compiler/testData/codegen/box")
-@InnerTestClasses({BlackBoxCodegenTestGenerated.Arrays.class, BlackBoxCodegenTestGenerated.Bridges.class, BlackBoxCodegenTestGenerated.BuiltinStubMethods.class, BlackBoxCodegenTestGenerated.CallableReference.class, BlackBoxCodegenTestGenerated.Casts.class, BlackBoxCodegenTestGenerated.Classes.class, BlackBoxCodegenTestGenerated.Closures.class, BlackBoxCodegenTestGenerated.Constants.class, BlackBoxCodegenTestGenerated.ControlStructures.class, BlackBoxCodegenTestGenerated.DefaultArguments.class, BlackBoxCodegenTestGenerated.DelegatedProperty.class, BlackBoxCodegenTestGenerated.Elvis.class, BlackBoxCodegenTestGenerated.Enum.class, BlackBoxCodegenTestGenerated.ExclExcl.class, BlackBoxCodegenTestGenerated.ExtensionFunctions.class, BlackBoxCodegenTestGenerated.ExtensionProperties.class, BlackBoxCodegenTestGenerated.FieldRename.class, BlackBoxCodegenTestGenerated.Finally.class, BlackBoxCodegenTestGenerated.Functions.class, BlackBoxCodegenTestGenerated.InnerNested.class, BlackBoxCodegenTestGenerated.Instructions.class, BlackBoxCodegenTestGenerated.Intrinsics.class, BlackBoxCodegenTestGenerated.Labels.class, BlackBoxCodegenTestGenerated.LocalClasses.class, BlackBoxCodegenTestGenerated.MultiDecl.class, BlackBoxCodegenTestGenerated.Namespace.class, BlackBoxCodegenTestGenerated.Objects.class, BlackBoxCodegenTestGenerated.OperatorConventions.class, BlackBoxCodegenTestGenerated.PrimitiveTypes.class, BlackBoxCodegenTestGenerated.Properties.class, BlackBoxCodegenTestGenerated.Reflection.class, BlackBoxCodegenTestGenerated.SafeCall.class, BlackBoxCodegenTestGenerated.SamConstructors.class, BlackBoxCodegenTestGenerated.Strings.class, BlackBoxCodegenTestGenerated.Super.class, BlackBoxCodegenTestGenerated.ToArray.class, BlackBoxCodegenTestGenerated.Traits.class, BlackBoxCodegenTestGenerated.TypeInfo.class, BlackBoxCodegenTestGenerated.Unit.class, BlackBoxCodegenTestGenerated.Vararg.class, BlackBoxCodegenTestGenerated.When.class})
+@InnerTestClasses({BlackBoxCodegenTestGenerated.Arrays.class, BlackBoxCodegenTestGenerated.Bridges.class, BlackBoxCodegenTestGenerated.BuiltinStubMethods.class, BlackBoxCodegenTestGenerated.CallableReference.class, BlackBoxCodegenTestGenerated.Casts.class, BlackBoxCodegenTestGenerated.Classes.class, BlackBoxCodegenTestGenerated.Closures.class, BlackBoxCodegenTestGenerated.Constants.class, BlackBoxCodegenTestGenerated.ControlStructures.class, BlackBoxCodegenTestGenerated.DefaultArguments.class, BlackBoxCodegenTestGenerated.DelegatedProperty.class, BlackBoxCodegenTestGenerated.Elvis.class, BlackBoxCodegenTestGenerated.Enum.class, BlackBoxCodegenTestGenerated.ExclExcl.class, BlackBoxCodegenTestGenerated.ExtensionFunctions.class, BlackBoxCodegenTestGenerated.ExtensionProperties.class, BlackBoxCodegenTestGenerated.FieldRename.class, BlackBoxCodegenTestGenerated.Finally.class, BlackBoxCodegenTestGenerated.Functions.class, BlackBoxCodegenTestGenerated.Inline.class, BlackBoxCodegenTestGenerated.InnerNested.class, BlackBoxCodegenTestGenerated.Instructions.class, BlackBoxCodegenTestGenerated.Intrinsics.class, BlackBoxCodegenTestGenerated.Labels.class, BlackBoxCodegenTestGenerated.LocalClasses.class, BlackBoxCodegenTestGenerated.MultiDecl.class, BlackBoxCodegenTestGenerated.Namespace.class, BlackBoxCodegenTestGenerated.Objects.class, BlackBoxCodegenTestGenerated.OperatorConventions.class, BlackBoxCodegenTestGenerated.PrimitiveTypes.class, BlackBoxCodegenTestGenerated.Properties.class, BlackBoxCodegenTestGenerated.Reflection.class, BlackBoxCodegenTestGenerated.SafeCall.class, BlackBoxCodegenTestGenerated.SamConstructors.class, BlackBoxCodegenTestGenerated.Strings.class, BlackBoxCodegenTestGenerated.Super.class, BlackBoxCodegenTestGenerated.ToArray.class, BlackBoxCodegenTestGenerated.Traits.class, BlackBoxCodegenTestGenerated.TypeInfo.class, BlackBoxCodegenTestGenerated.Unit.class, BlackBoxCodegenTestGenerated.Vararg.class, BlackBoxCodegenTestGenerated.When.class})
 public class BlackBoxCodegenTestGenerated extends AbstractBlackBoxCodegenTest {
     public void testAllFilesPresentInBox() throws Exception {
         JetTestUtils.assertAllTestsPresentByMetadata(this.getClass(), "org.jetbrains.jet.generators.tests.GenerateTests", new File("compiler/testData/codegen/box"), Pattern.compile("^(.+)\\.kt$"), true);
@@ -818,6 +818,11 @@ public class BlackBoxCodegenTestGenerated extends AbstractBlackBoxCodegenTest {
             doTest("compiler/testData/codegen/box/classes/inheritedInnerClass.kt");
         }
         
+        @TestMetadata("inheritedJavaMembers.kt")
+        public void testInheritedJavaMembers() throws Exception {
+            doTest("compiler/testData/codegen/box/classes/inheritedJavaMembers.kt");
+        }
+        
         @TestMetadata("inheritedMethod.kt")
         public void testInheritedMethod() throws Exception {
             doTest("compiler/testData/codegen/box/classes/inheritedMethod.kt");
@@ -1207,6 +1212,11 @@ public class BlackBoxCodegenTestGenerated extends AbstractBlackBoxCodegenTest {
             doTest("compiler/testData/codegen/box/closures/capturedLocalGenericFun.kt");
         }
         
+        @TestMetadata("capturedVarsWithoutSharedVar.kt")
+        public void testCapturedVarsWithoutSharedVar() throws Exception {
+            doTest("compiler/testData/codegen/box/closures/capturedVarsWithoutSharedVar.kt");
+        }
+        
         @TestMetadata("closureInsideConstrucor.kt")
         public void testClosureInsideConstrucor() throws Exception {
             doTest("compiler/testData/codegen/box/closures/closureInsideConstrucor.kt");
@@ -1287,6 +1297,11 @@ public class BlackBoxCodegenTestGenerated extends AbstractBlackBoxCodegenTest {
             doTest("compiler/testData/codegen/box/closures/localReturnWithAutolabel.kt");
         }
         
+        @TestMetadata("primitiveFunctions.kt")
+        public void testPrimitiveFunctions() throws Exception {
+            doTest("compiler/testData/codegen/box/closures/primitiveFunctions.kt");
+        }
+        
         @TestMetadata("recursiveClosure.kt")
         public void testRecursiveClosure() throws Exception {
             doTest("compiler/testData/codegen/box/closures/recursiveClosure.kt");
@@ -1354,6 +1369,16 @@ public class BlackBoxCodegenTestGenerated extends AbstractBlackBoxCodegenTest {
             doTest("compiler/testData/codegen/box/constants/constantsInWhen.kt");
         }
         
+        @TestMetadata("foldedConstants.kt")
+        public void testFoldedConstants() throws Exception {
+            doTest("compiler/testData/codegen/box/constants/foldedConstants.kt");
+        }
+        
+        @TestMetadata("stringCompareTo.kt")
+        public void testStringCompareTo() throws Exception {
+            doTest("compiler/testData/codegen/box/constants/stringCompareTo.kt");
+        }
+        
     }
     
     @TestMetadata("compiler/testData/codegen/box/controlStructures")
@@ -1452,6 +1477,11 @@ public class BlackBoxCodegenTestGenerated extends AbstractBlackBoxCodegenTest {
             doTest("compiler/testData/codegen/box/controlStructures/inRangeConditionsInWhen.kt");
         }
         
+        @TestMetadata("inRangeOfPrimitives.kt")
+        public void testInRangeOfPrimitives() throws Exception {
+            doTest("compiler/testData/codegen/box/controlStructures/inRangeOfPrimitives.kt");
+        }
+        
         @TestMetadata("kt1441.kt")
         public void testKt1441() throws Exception {
             doTest("compiler/testData/codegen/box/controlStructures/kt1441.kt");
@@ -1787,6 +1817,11 @@ public class BlackBoxCodegenTestGenerated extends AbstractBlackBoxCodegenTest {
             JetTestUtils.assertAllTestsPresentByMetadata(this.getClass(), "org.jetbrains.jet.generators.tests.GenerateTests", new File("compiler/testData/codegen/box/delegatedProperty"), Pattern.compile("^(.+)\\.kt$"), true);
         }
         
+        @TestMetadata("cachedPropertyMetadata.kt")
+        public void testCachedPropertyMetadata() throws Exception {
+            doTest("compiler/testData/codegen/box/delegatedProperty/cachedPropertyMetadata.kt");
+        }
+        
         @TestMetadata("capturePropertyInClosure.kt")
         public void testCapturePropertyInClosure() throws Exception {
             doTest("compiler/testData/codegen/box/delegatedProperty/capturePropertyInClosure.kt");
@@ -2522,6 +2557,29 @@ public class BlackBoxCodegenTestGenerated extends AbstractBlackBoxCodegenTest {
         }
     }
     
+    @TestMetadata("compiler/testData/codegen/box/inline")
+    public static class Inline extends AbstractBlackBoxCodegenTest {
+        public void testAllFilesPresentInInline() throws Exception {
+            JetTestUtils.assertAllTestsPresentByMetadata(this.getClass(), "org.jetbrains.jet.generators.tests.GenerateTests", new File("compiler/testData/codegen/box/inline"), Pattern.compile("^(.+)\\.kt$"), true);
+        }
+        
+        @TestMetadata("collectionPipeline.kt")
+        public void testCollectionPipeline() throws Exception {
+            doTest("compiler/testData/codegen/box/inline/collectionPipeline.kt");
+        }
+        
+        @TestMetadata("notInlinedLambda.kt")
+        public void testNotInlinedLambda() throws Exception {
+            doTest("compiler/testData/codegen/box/inline/notInlinedLambda.kt");
+        }
+        
+        @TestMetadata("recursiveInlining.kt")
+        public void testRecursiveInlining() throws Exception {
+            doTest("compiler/testData/codegen/box/inline/recursiveInlining.kt");
+        }
+        
+    }
+    
     @TestMetadata("compiler/testData/codegen/box/innerNested")
     public static class InnerNested extends AbstractBlackBoxCodegenTest {
         public void testAllFilesPresentInInnerNested() throws Exception {
@@ -3582,6 +3640,11 @@ public class BlackBoxCodegenTestGenerated extends AbstractBlackBoxCodegenTest {
             doTest("compiler/testData/codegen/box/primitiveTypes/ea35963.kt");
         }
         
+        @TestMetadata("equalityWithNotNullAutocast.kt")
+        public void testEqualityWithNotNullAutocast() throws Exception {
+            doTest("compiler/testData/codegen/box/primitiveTypes/equalityWithNotNullAutocast.kt");
+        }
+        
         @TestMetadata("incrementByteCharShort.kt")
         public void testIncrementByteCharShort() throws Exception {
             doTest("compiler/testData/codegen/box/primitiveTypes/incrementByteCharShort.kt");
@@ -4452,6 +4515,7 @@ public class BlackBoxCodegenTestGenerated extends AbstractBlackBoxCodegenTest {
         suite.addTestSuite(FieldRename.class);
         suite.addTestSuite(Finally.class);
         suite.addTest(Functions.innerSuite());
+        suite.addTestSuite(Inline.class);
         suite.addTestSuite(InnerNested.class);
         suite.addTest(Instructions.innerSuite());
         suite.addTestSuite(Intrinsics.class);
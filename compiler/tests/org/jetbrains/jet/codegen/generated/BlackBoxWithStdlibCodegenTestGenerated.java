@@ -437,6 +437,11 @@ public class BlackBoxWithStdlibCodegenTestGenerated extends AbstractBlackBoxCode
             doTestWithStdlib("compiler/testData/codegen/boxWithStdlib/fullJdk/sync.kt");
         }
         
+        @TestMetadata("synchronizedIntrinsic.kt")
+        public void testSynchronizedIntrinsic() throws Exception {
+            doTestWithStdlib("compiler/testData/codegen/boxWithStdlib/fullJdk/synchronizedIntrinsic.kt");
+        }
+        
     }
     
     @TestMetadata("compiler/testData/codegen/boxWithStdlib/jdkAnnotations")
@@ -479,11 +484,21 @@ public class BlackBoxWithStdlibCodegenTestGenerated extends AbstractBlackBoxCode
             doTestWithStdlib("compiler/testData/codegen/boxWithStdlib/ranges/forByteProgressionWithIntIncrement.kt");
         }
         
+        @TestMetadata("indicesReversedAndStepped.kt")
+        public void testIndicesReversedAndStepped() throws Exception {
+            doTestWithStdlib("compiler/testData/codegen/boxWithStdlib/ranges/indicesReversedAndStepped.kt");
+        }
+        
         @TestMetadata("multiAssignmentIterationOverIntRange.kt")
         public void testMultiAssignmentIterationOverIntRange() throws Exception {
             doTestWithStdlib("compiler/testData/codegen/boxWithStdlib/ranges/multiAssignmentIterationOverIntRange.kt");
         }
         
+        @TestMetadata("stepMustBePositive.kt")
+        public void testStepMustBePositive() throws Exception {
+            doTestWithStdlib("compiler/testData/codegen/boxWithStdlib/ranges/stepMustBePositive.kt");
+        }
+        
         @TestMetadata("compiler/testData/codegen/boxWithStdlib/ranges/expression")
         public static class Expression extends AbstractBlackBoxCodegenTest {
             public void testAllFilesPresentInExpression() throws Exception {
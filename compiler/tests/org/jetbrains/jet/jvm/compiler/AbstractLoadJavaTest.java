@@ -106,11 +106,18 @@ public abstract class AbstractLoadJavaTest extends TestCaseWithTmpdir {
                 getTestRootDisposable(), ConfigurationKind.JDK_AND_ANNOTATIONS, TestJdkKind.MOCK_JDK);
 
         Pair<NamespaceDescriptor, BindingContext> javaNamespaceAndContext = compileJavaAndLoadTestNamespaceAndBindingContextFromBinary(
-                srcFiles, compiledDir, getTestRootDisposable(), ConfigurationKind.ALL);
+                srcFiles, compiledDir, getTestRootDisposable(), ConfigurationKind.ALL, isBinaryJavaModel());
 
         checkJavaNamespace(getTxtFile(javaFileName), javaNamespaceAndContext.first, javaNamespaceAndContext.second, configuration);
     }
 
+    /**
+     * @return true if compiled Java classes should be read with the ASM-based Java model instead of PSI
+     */
+    protected boolean isBinaryJavaModel() {
+        return false;
+    }
+
     protected void doTestSourceJava(@NotNull String javaFileName) throws Exception {
         File originalJavaFile = new File(javaFileName);
         File expectedFile = getTxtFile(javaFileName);
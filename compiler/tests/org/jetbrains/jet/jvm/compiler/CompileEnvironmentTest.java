@@ -94,6 +94,29 @@ public class CompileEnvironmentTest extends TestCase {
         }
     }
 
+    public void testSmokeWithLibraryCache() throws IOException {
+        File tempDir = FileUtil.createTempDirectory("compilerTest", "compilerTest");
+        try {
+            File cache = new File(tempDir, "libraries.cache");
+            for (int i = 0; i < 2; i++) {
+                File out = new File(tempDir, "out" + i);
+                ExitCode exitCode = new K2JVMCompiler()
+                        .exec(System.out, "-src", JetTestCaseBuilder.getTestDataPathBase() + "/compiler/smoke/Smoke.kt",
+                              "-output", out.getAbsolutePath(),
+                              "-noStdlib",
+                              "-classpath", ForTestCompileRuntime.runtimeJarForTests().getAbsolutePath(),
+                              "-noJdkAnnotations",
+                              "-annotations", ForTestPackJdkAnnotations.jdkAnnotationsForTests().getAbsolutePath(),
+                              "-libraryCache", cache.getAbsolutePath());
+                Assert.assertEquals(ExitCode.OK, exitCode);
+                assertEquals(2, out.listFiles()[0].listFiles().length);
+                assertTrue("library cache is not written", cache.length() > 0);
+            }
+        } finally {
+            FileUtil.delete(tempDir);
+        }
+    }
+
     private static List<String> listEntries(JarInputStream is) throws IOException {
         List<String> entries = new ArrayList<String>();
         while (true) {
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.jvm.compiler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.ConfigurationKind;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.TestJdkKind;
+import org.jetbrains.jet.cli.jvm.JVMConfigurationKeys;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+import org.jetbrains.jet.config.CompilerConfiguration;
+import org.jetbrains.jet.di.InjectorForJavaDescriptorResolver;
+import org.jetbrains.jet.lang.resolve.BindingTraceContext;
+import org.jetbrains.jet.lang.resolve.java.JavaClassFinder;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaClass;
+import org.jetbrains.jet.lang.resolve.java.structure.binary.BinaryJavaClass;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+/*
+    Checks that compiled Java classes read from class files without PSI produce the same descriptors as the PSI-based Java model.
+*/
+public class LoadJavaBinaryModelTest extends AbstractLoadJavaTest {
+    private static final String TEST_DATA_PATH = "compiler/testData/loadJava/compiledJava/";
+
+    @Override
+    protected boolean isBinaryJavaModel() {
+        return true;
+    }
+
+    public void testJavaEnum() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "JavaEnum.java");
+    }
+
+    public void testOverrideMethod() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "OverrideMethod.java");
+    }
+
+    public void testPackageLocalVisibility() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "PackageLocalVisibility.java");
+    }
+
+    public void testSubclassFromNested() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "SubclassFromNested.java");
+    }
+
+    public void testAnnotationInParam() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "annotations/AnnotationInParam.java");
+    }
+
+    public void testClassObjectArrayInParam() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "annotations/ClassObjectArrayInParam.java");
+    }
+
+    public void testEnumInParam() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "annotations/EnumInParam.java");
+    }
+
+    public void testPrimitiveValueInParam() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "annotations/PrimitiveValueInParam.java");
+    }
+
+    public void testDeeplyInnerClass() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "static/DeeplyInnerClass.java");
+    }
+
+    public void testInnerClass() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "static/InnerClass.java");
+    }
+
+    public void testStaticFinal() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "static/StaticFinal.java");
+    }
+
+    public void testStaticMembersInEnum() throws Exception {
+        doTestCompiledJava(TEST_DATA_PATH + "static/StaticMembersInEnum.java");
+    }
+
+    public void testClassesAreServedByBinaryModel() throws Exception {
+        File compiledDir = new File(tmpdir, "compiled");
+        assertTrue(compiledDir.mkdir());
+        JetTestUtils.compileJavaFiles(
+                Collections.singletonList(new File("compiler/testData/loadJava/binaryJavaModel/ServedByBinaryModel.java")),
+                Arrays.asList("-d", compiledDir.getPath()));
+
+        // JDK annotations are on the path, including annotations.xml for java.lang
+        CompilerConfiguration configuration =
+                JetTestUtils.compilerConfigurationForTests(ConfigurationKind.ALL, TestJdkKind.MOCK_JDK, compiledDir);
+        configuration.put(JVMConfigurationKeys.BINARY_JAVA_MODEL, true);
+        JetCoreEnvironment environment = new JetCoreEnvironment(getTestRootDisposable(), configuration);
+        JavaClassFinder finder = new InjectorForJavaDescriptorResolver(environment.getProject(), new BindingTraceContext())
+                .getJavaClassFinder();
+
+        assertServedByBinaryModel(finder, "java.lang.Object");
+        assertServedByBinaryModel(finder, "test.ServedByBinaryModel");
+        assertServedByBinaryModel(finder, "test.ServedByBinaryModel.Nested");
+        assertServedByBinaryModel(finder, "test.Dollar$Name");
+    }
+
+    private static void assertServedByBinaryModel(@NotNull JavaClassFinder finder, @NotNull String fqName) {
+        JavaClass javaClass = finder.findClass(new FqName(fqName));
+        assertNotNull("Class not found: " + fqName, javaClass);
+        assertTrue("Class is not read from binaries: " + fqName, javaClass instanceof BinaryJavaClass);
+        assertEquals(fqName, javaClass.getFqName().asString());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.jvm.compiler.longTest;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.util.Disposer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.analyzer.AnalyzeExhaust;
+import org.jetbrains.jet.cli.jvm.JVMConfigurationKeys;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+import org.jetbrains.jet.codegen.ClassFileFactory;
+import org.jetbrains.jet.codegen.GeneratedClassLoader;
+import org.jetbrains.jet.codegen.GenerationUtils;
+import org.jetbrains.jet.lang.psi.JetFile;
+import org.jetbrains.jet.lang.psi.JetPsiFactory;
+import org.jetbrains.jet.lang.resolve.AnalyzerScriptParameter;
+import org.jetbrains.jet.lang.resolve.java.AnalyzerFacadeForJVM;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.utils.PerformanceReport;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.jetbrains.jet.lang.resolve.java.PackageClassUtils.getPackageClassFqName;
+
+/**
+ * Base class for benchmarks run from <code>main()</code>: creates a compiler environment, lets the subclass measure its scenarios
+ * and prints the collected {@link PerformanceReport} as JSON
+ */
+public abstract class AbstractBenchmark {
+    protected interface Scenario {
+        void run() throws Exception;
+    }
+
+    private final int warmUpRuns;
+    private final int runs;
+    private final PerformanceReport report = new PerformanceReport();
+
+    protected AbstractBenchmark(int warmUpRuns, int runs) {
+        this.warmUpRuns = warmUpRuns;
+        this.runs = runs;
+    }
+
+    @NotNull
+    protected JetCoreEnvironment createEnvironment(@NotNull Disposable disposable) {
+        return JetTestUtils.createEnvironmentWithFullJdk(disposable);
+    }
+
+    protected abstract void runScenarios(@NotNull JetCoreEnvironment environment) throws Exception;
+
+    public final void run() throws Exception {
+        Disposable disposable = Disposer.newDisposable();
+        try {
+            runScenarios(createEnvironment(disposable));
+            System.out.println(report.toJson());
+        }
+        finally {
+            Disposer.dispose(disposable);
+        }
+    }
+
+    /**
+     * Runs the scenario without measuring it to warm up the JIT, and then measures each of the following runs as a phase
+     */
+    protected final void measure(@NotNull String phaseName, @NotNull Scenario scenario) throws Exception {
+        for (int i = 0; i < warmUpRuns; i++) {
+            scenario.run();
+        }
+
+        PerformanceReport.install(report);
+        try {
+            for (int i = 0; i < runs; i++) {
+                PerformanceReport.Phase phase = PerformanceReport.startPhase(phaseName);
+                try {
+                    scenario.run();
+                }
+                finally {
+                    phase.end();
+                }
+            }
+        }
+        finally {
+            PerformanceReport.install(null);
+        }
+    }
+
+    /**
+     * Adds a value which is measured by the benchmark itself rather than timed, e.g. retained memory, to the report
+     */
+    protected final void count(@NotNull String counter, long value) {
+        PerformanceReport.install(report);
+        try {
+            PerformanceReport.count(counter, value);
+        }
+        finally {
+            PerformanceReport.install(null);
+        }
+    }
+
+    @NotNull
+    protected static AnalyzeExhaust analyzeFile(@NotNull JetCoreEnvironment environment, @NotNull String fileName, @NotNull String text) {
+        JetFile file = JetPsiFactory.createFile(environment.getProject(), fileName, text);
+        return AnalyzerFacadeForJVM.analyzeOneFileWithJavaIntegrationAndCheckForErrors(
+                file, Collections.<AnalyzerScriptParameter>emptyList());
+    }
+
+    /**
+     * Compiles the file, which should be in the root package, and loads its package class together with the environment's classpath
+     */
+    @NotNull
+    protected static Class<?> compileAndLoadPackageClass(
+            @NotNull JetCoreEnvironment environment,
+            @NotNull String fileName,
+            @NotNull String text
+    ) throws Exception {
+        JetFile file = JetPsiFactory.createFile(environment.getProject(), fileName, text);
+        ClassFileFactory factory = GenerationUtils.compileFileGetClassFileFactoryForTest(file);
+
+        List<URL> urls = new ArrayList<URL>();
+        for (File root : environment.getConfiguration().getList(JVMConfigurationKeys.CLASSPATH_KEY)) {
+            urls.add(root.toURI().toURL());
+        }
+        GeneratedClassLoader classLoader = new GeneratedClassLoader(
+                factory, AbstractBenchmark.class.getClassLoader(), urls.toArray(new URL[urls.size()]));
+        return classLoader.loadClass(getPackageClassFqName(FqName.ROOT).asString());
+    }
+}
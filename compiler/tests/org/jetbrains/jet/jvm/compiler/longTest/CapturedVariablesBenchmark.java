@@ -0,0 +1,83 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.jvm.compiler.longTest;
+
+import com.intellij.openapi.Disposable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.ConfigurationKind;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+
+import java.lang.reflect.Method;
+
+/**
+ * Runs loops accumulating counters in local <code>var</code>s captured by function literals. When the higher-order functions
+ * are not inline, the counters are boxed into <code>jet.runtime.SharedVar</code> objects, and when they are, the counters stay
+ * in local variable slots. Prints time and memory allocated by each variant
+ */
+public class CapturedVariablesBenchmark extends AbstractBenchmark {
+    private static final int CALLS_PER_RUN = 10000;
+
+    private static final String COUNTERS =
+            "INLINE fun repeatTimes(times: Int, action: (Int) -> Unit) {\n" +
+            "    for (i in 0..times - 1) action(i)\n" +
+            "}\n" +
+            "\n" +
+            "fun counters(n: Int): Int {\n" +
+            "    var even = 0\n" +
+            "    var odd = 0\n" +
+            "    var sum = 0L\n" +
+            "    repeatTimes(n) {\n" +
+            "        if (it % 2 == 0) even++ else odd++\n" +
+            "        sum += it\n" +
+            "    }\n" +
+            "    return even - odd + (sum % 7).toInt()\n" +
+            "}\n";
+
+    public static void main(String[] args) throws Exception {
+        new CapturedVariablesBenchmark().run();
+    }
+
+    private CapturedVariablesBenchmark() {
+        super(5, 20);
+    }
+
+    @NotNull
+    @Override
+    protected JetCoreEnvironment createEnvironment(@NotNull Disposable disposable) {
+        return JetTestUtils.createEnvironmentWithMockJdkAndIdeaAnnotations(disposable, ConfigurationKind.ALL);
+    }
+
+    @Override
+    protected void runScenarios(@NotNull JetCoreEnvironment environment) throws Exception {
+        measureCounters("shared vars", compileAndLoadPackageClass(environment, "counters.kt", COUNTERS.replace("INLINE", "")));
+        measureCounters("local vars", compileAndLoadPackageClass(environment, "counters.kt", COUNTERS.replace("INLINE", "inline")));
+    }
+
+    private void measureCounters(@NotNull String name, @NotNull Class<?> packageClass) throws Exception {
+        final Method counters = packageClass.getMethod("counters", int.class);
+
+        measure(name, new Scenario() {
+            @Override
+            public void run() throws Exception {
+                for (int i = 0; i < CALLS_PER_RUN; i++) {
+                    counters.invoke(null, i % 100);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.jvm.compiler.longTest;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+
+/**
+ * Resolves functions with hundreds of null checks and autocasts on their parameters, so that every if, && and when branch
+ * creates, combines and queries DataFlowInfo holding many values, and prints time and memory allocated by the analysis
+ */
+public class DataFlowInfoBenchmark extends AbstractBenchmark {
+    private static final int FUNCTIONS = 10;
+    private static final int CHECKS = 300;
+
+    public static void main(String[] args) throws Exception {
+        new DataFlowInfoBenchmark().run();
+    }
+
+    private DataFlowInfoBenchmark() {
+        super(3, 10);
+    }
+
+    @Override
+    protected void runScenarios(@NotNull final JetCoreEnvironment environment) throws Exception {
+        final String text = generateText();
+        measure("null checks", new Scenario() {
+            @Override
+            public void run() {
+                analyzeFile(environment, "nullChecks.kt", text);
+            }
+        });
+    }
+
+    private static String generateText() {
+        StringBuilder sb = new StringBuilder();
+        for (int f = 0; f < FUNCTIONS; f++) {
+            sb.append("fun check").append(f).append("(");
+            for (int i = 0; i < CHECKS; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append("s").append(i).append(": String?, a").append(i).append(": Any?");
+            }
+            sb.append("): Int {\n");
+            sb.append("    var sum = 0\n");
+            for (int i = 0; i < CHECKS; i++) {
+                String s = "s" + i;
+                String a = "a" + i;
+                sb.append("    if (").append(s).append(" != null && ").append(a).append(" is String) {\n");
+                sb.append("        sum += ").append(s).append(".length + ").append(a).append(".length\n");
+                sb.append("    }\n");
+                sb.append("    if (").append(s).append(" == null) return sum\n");
+                sb.append("    sum += when (").append(a).append(") {\n");
+                sb.append("        is Int -> ").append(a).append(" + ").append(s).append(".length\n");
+                sb.append("        else -> ").append(s).append(".length\n");
+                sb.append("    }\n");
+            }
+            sb.append("    return sum\n");
+            sb.append("}\n\n");
+        }
+        return sb.toString();
+    }
+}
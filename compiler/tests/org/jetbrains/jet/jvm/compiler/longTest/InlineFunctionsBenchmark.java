@@ -0,0 +1,99 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.jvm.compiler.longTest;
+
+import com.intellij.openapi.Disposable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.ConfigurationKind;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Runs a map/filter/forEach pipeline written with stdlib-style higher-order functions, compiled once with the functions
+ * declared <code>inline</code> and once without, and prints time and memory allocated by each variant
+ */
+public class InlineFunctionsBenchmark extends AbstractBenchmark {
+    private static final int CALLS_PER_RUN = 10000;
+
+    private static final String PIPELINE =
+            "import java.util.ArrayList\n" +
+            "\n" +
+            "INLINE fun <T> Iterable<T>.filterItems(predicate: (T) -> Boolean): List<T> {\n" +
+            "    val result = ArrayList<T>()\n" +
+            "    for (element in this) if (predicate(element)) result.add(element)\n" +
+            "    return result\n" +
+            "}\n" +
+            "\n" +
+            "INLINE fun <T, R> Iterable<T>.mapItems(transform: (T) -> R): List<R> {\n" +
+            "    val result = ArrayList<R>()\n" +
+            "    for (element in this) result.add(transform(element))\n" +
+            "    return result\n" +
+            "}\n" +
+            "\n" +
+            "INLINE fun <T> Iterable<T>.forEachItem(operation: (T) -> Unit) {\n" +
+            "    for (element in this) operation(element)\n" +
+            "}\n" +
+            "\n" +
+            "fun numbers(): List<Int> {\n" +
+            "    val result = ArrayList<Int>()\n" +
+            "    for (i in 1..100) result.add(i)\n" +
+            "    return result\n" +
+            "}\n" +
+            "\n" +
+            "fun pipeline(numbers: List<Int>, limit: Int): Int {\n" +
+            "    var sum = 0\n" +
+            "    numbers.filterItems { it % 3 != 0 }.mapItems { it * 2 }.forEachItem { if (it < limit) sum += it }\n" +
+            "    return sum\n" +
+            "}\n";
+
+    public static void main(String[] args) throws Exception {
+        new InlineFunctionsBenchmark().run();
+    }
+
+    private InlineFunctionsBenchmark() {
+        super(5, 20);
+    }
+
+    @NotNull
+    @Override
+    protected JetCoreEnvironment createEnvironment(@NotNull Disposable disposable) {
+        return JetTestUtils.createEnvironmentWithMockJdkAndIdeaAnnotations(disposable, ConfigurationKind.ALL);
+    }
+
+    @Override
+    protected void runScenarios(@NotNull JetCoreEnvironment environment) throws Exception {
+        measurePipeline("closures", compileAndLoadPackageClass(environment, "pipeline.kt", PIPELINE.replace("INLINE", "")));
+        measurePipeline("inlined", compileAndLoadPackageClass(environment, "pipeline.kt", PIPELINE.replace("INLINE", "inline")));
+    }
+
+    private void measurePipeline(@NotNull String name, @NotNull Class<?> packageClass) throws Exception {
+        final Object numbers = packageClass.getMethod("numbers").invoke(null);
+        final Method pipeline = packageClass.getMethod("pipeline", List.class, int.class);
+
+        measure(name, new Scenario() {
+            @Override
+            public void run() throws Exception {
+                for (int i = 0; i < CALLS_PER_RUN; i++) {
+                    pipeline.invoke(null, numbers, i);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.jvm.compiler.longTest;
+package org.jetbrains.jet.jvm.compiler.longTest;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+
+/**
+ * Resolves a file with many classes extending javax.swing.JComponent, which makes OverridingUtil bind overrides and
+ * create fake overrides for the large inherited Swing/AWT hierarchy, and prints time and memory allocated by the analysis
+ */
+public class OverridesOfJComponentBenchmark extends AbstractBenchmark {
+    private static final int CLASSES = 100;
+
+    public static void main(String[] args) throws Exception {
+        new OverridesOfJComponentBenchmark().run();
+    }
+
+    private OverridesOfJComponentBenchmark() {
+        super(3, 10);
+    }
+
+    @Override
+    protected void runScenarios(@NotNull final JetCoreEnvironment environment) throws Exception {
+        measure("JComponent overrides", new Scenario() {
+            @Override
+            public void run() {
+                analyzeFile(environment, "components.kt", generateText());
+            }
+        });
+    }
+
+    private static String generateText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("import javax.swing.JComponent\n");
+        sb.append("import java.awt.Graphics\n");
+        sb.append("\n");
+        for (int i = 0; i < CLASSES; i++) {
+            sb.append("open class Component").append(i).append(" : JComponent() {\n");
+            sb.append("    override fun paintComponent(g: Graphics?) {\n");
+            sb.append("        super.paintComponent(g)\n");
+            sb.append("    }\n");
+            sb.append("    fun add(index: Int, count: Int): Int = index + count\n");
+            sb.append("    fun repaint(times: Int) {}\n");
+            sb.append("}\n\n");
+            sb.append("class SubComponent").append(i).append(" : Component").append(i).append("() {\n");
+            sb.append("    override fun paintComponent(g: Graphics?) {}\n");
+            sb.append("}\n\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.jvm.compiler.longTest;
+
+import com.intellij.openapi.Disposable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.ConfigurationKind;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+
+/**
+ * Resolves a file full of overloaded calls several times and prints time and memory allocated by the analysis
+ */
+public class ResolveOverloadedCallsBenchmark extends AbstractBenchmark {
+    private static final int FUNCTIONS = 300;
+
+    public static void main(String[] args) throws Exception {
+        new ResolveOverloadedCallsBenchmark().run();
+    }
+
+    private ResolveOverloadedCallsBenchmark() {
+        super(3, 10);
+    }
+
+    @NotNull
+    @Override
+    protected JetCoreEnvironment createEnvironment(@NotNull Disposable disposable) {
+        return JetTestUtils.createEnvironmentWithMockJdkAndIdeaAnnotations(disposable, ConfigurationKind.ALL);
+    }
+
+    @Override
+    protected void runScenarios(@NotNull final JetCoreEnvironment environment) throws Exception {
+        measure("overloaded calls", new Scenario() {
+            @Override
+            public void run() {
+                analyzeFile(environment, "overloads.kt", generateText());
+            }
+        });
+    }
+
+    private static String generateText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("fun f(a: Int): Int = a\n");
+        sb.append("fun f(a: Long): Long = a\n");
+        sb.append("fun f(a: String): String = a\n");
+        sb.append("fun f(a: Any?): Any? = a\n");
+        sb.append("fun f(a: Int, b: Int): Int = a + b\n");
+        sb.append("fun f(a: String, b: Any): String = a + b\n");
+        sb.append("fun <T> f(a: List<T>): T = a.get(0)\n");
+        sb.append("fun f(vararg a: Int): Int = a.size\n");
+        sb.append("\n");
+        for (int i = 0; i < FUNCTIONS; i++) {
+            sb.append("fun test").append(i).append("(list: List<String>): Any? {\n");
+            sb.append("    val x = f(").append(i).append(")\n");
+            sb.append("    val y = f(\"").append(i).append("\", f(x, x))\n");
+            sb.append("    val z = f(f(list), f(").append(i).append("L))\n");
+            sb.append("    return f(f(x, f(1, 2, 3)).toString(), f(y, f(z)))\n");
+            sb.append("}\n\n");
+        }
+        return sb.toString();
+    }
+}
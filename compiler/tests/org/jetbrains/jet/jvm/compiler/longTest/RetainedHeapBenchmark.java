@@ -0,0 +1,75 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.jvm.compiler.longTest;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.analyzer.AnalyzeExhaust;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+import org.jetbrains.jet.lang.resolve.BindingContext;
+
+/**
+ * Resolves a file using many JDK classes and prints the heap retained by the analysis results, which is dominated by
+ * descriptors, scopes and their names. Run it before and after a change to compare the compiler's memory footprint
+ */
+public class RetainedHeapBenchmark extends AbstractBenchmark {
+    private static final int CLASSES = 100;
+
+    private static final String[] JDK_TYPES = {
+            "java.util.ArrayList<String>", "java.util.HashMap<String, Int>", "java.util.TreeSet<String>",
+            "java.util.LinkedList<Any>", "java.util.concurrent.ConcurrentHashMap<Int, String>",
+            "javax.swing.JComponent", "javax.swing.JTable", "java.awt.Graphics2D", "java.io.File", "java.lang.StringBuilder"
+    };
+
+    public static void main(String[] args) throws Exception {
+        new RetainedHeapBenchmark().run();
+    }
+
+    private RetainedHeapBenchmark() {
+        super(0, 1);
+    }
+
+    @Override
+    protected void runScenarios(@NotNull JetCoreEnvironment environment) {
+        long before = usedHeapAfterGc();
+        AnalyzeExhaust exhaust = analyzeFile(environment, "jdkUsages.kt", generateText());
+        long after = usedHeapAfterGc();
+
+        count("retained heap bytes", after - before);
+        count("recorded expression types", exhaust.getBindingContext().getKeys(BindingContext.EXPRESSION_TYPE).size());
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String generateText() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < CLASSES; i++) {
+            String type = JDK_TYPES[i % JDK_TYPES.length];
+            sb.append("fun use").append(i).append("(value: ").append(type).append("): String {\n");
+            sb.append("    val copy = value\n");
+            sb.append("    return copy.toString() + copy.hashCode()\n");
+            sb.append("}\n\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.resolve;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.jetbrains.jet.ConfigurationKind;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+import org.jetbrains.jet.lang.descriptors.ClassDescriptor;
+import org.jetbrains.jet.lang.descriptors.ConstructorDescriptor;
+import org.jetbrains.jet.lang.descriptors.annotations.AnnotationDescriptor;
+import org.jetbrains.jet.lang.diagnostics.Diagnostic;
+import org.jetbrains.jet.lang.diagnostics.Errors;
+import org.jetbrains.jet.lang.psi.JetExpression;
+import org.jetbrains.jet.lang.psi.JetFile;
+import org.jetbrains.jet.lang.psi.JetNamedFunction;
+import org.jetbrains.jet.lang.psi.JetPsiFactory;
+import org.jetbrains.jet.lang.resolve.BindingContext;
+import org.jetbrains.jet.lang.resolve.BindingTraceContext;
+import org.jetbrains.jet.lang.resolve.DelegatingBindingTrace;
+import org.jetbrains.jet.lang.resolve.Diagnostics;
+import org.jetbrains.jet.lang.resolve.TemporaryBindingTrace;
+import org.jetbrains.jet.lang.resolve.constants.ArrayValue;
+import org.jetbrains.jet.lang.resolve.constants.CompileTimeConstant;
+import org.jetbrains.jet.lang.resolve.constants.StringValue;
+import org.jetbrains.jet.lang.resolve.lazy.KotlinTestWithEnvironment;
+import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+public class DelegatingBindingTraceTest extends KotlinTestWithEnvironment {
+    @Override
+    protected JetCoreEnvironment createEnvironment() {
+        return createEnvironmentWithMockJdk(ConfigurationKind.JDK_ONLY);
+    }
+
+    public void testDiagnosticsOfTraceChain() {
+        JetExpression expression = JetPsiFactory.createExpression(getProject(), "1");
+        Diagnostic first = Errors.CYCLIC_INHERITANCE_HIERARCHY.on(expression);
+        Diagnostic second = Errors.TRAIT_CAN_NOT_BE_FINAL.on(expression);
+        Diagnostic third = Errors.CONSTRUCTOR_IN_TRAIT.on(expression);
+
+        BindingTraceContext root = new BindingTraceContext();
+        DelegatingBindingTrace middle = new DelegatingBindingTrace(root.getBindingContext(), "middle");
+        DelegatingBindingTrace leaf = new DelegatingBindingTrace(middle.getBindingContext(), "leaf");
+
+        root.report(first);
+        middle.report(second);
+
+        Diagnostics diagnostics = leaf.getBindingContext().getDiagnostics();
+        assertSame(diagnostics, leaf.getBindingContext().getDiagnostics());
+        assertEquals(Arrays.asList(second, first), Lists.newArrayList(diagnostics.all()));
+
+        leaf.report(third);
+        assertEquals(Arrays.asList(third, second, first), Lists.newArrayList(diagnostics.noSuppression().all()));
+        assertEquals(3, diagnostics.all().size());
+
+        leaf.clear();
+        middle.clear();
+        assertEquals(Arrays.asList(first), Lists.newArrayList(leaf.getBindingContext().getDiagnostics().all()));
+    }
+
+    public void testSuppressionAnnotationRecordedAfterQuery() {
+        JetFile file = JetPsiFactory.createFile(getProject(), "suppress(\"constructor_in_trait\") fun foo() = 1");
+        JetNamedFunction function = (JetNamedFunction) file.getDeclarations().get(0);
+        JetExpression body = function.getBodyExpression();
+        assertNotNull(body);
+
+        BindingTraceContext root = new BindingTraceContext();
+        DelegatingBindingTrace trace = new DelegatingBindingTrace(root.getBindingContext(), "trace");
+        trace.report(Errors.CONSTRUCTOR_IN_TRAIT.on(body));
+
+        assertEquals(1, trace.getBindingContext().getDiagnostics().all().size());
+
+        trace.record(BindingContext.ANNOTATION, function.getAnnotationEntries().get(0), createSuppressAnnotation("constructor_in_trait"));
+        assertTrue(trace.getBindingContext().getDiagnostics().all().isEmpty());
+    }
+
+    private static AnnotationDescriptor createSuppressAnnotation(String name) {
+        KotlinBuiltIns builtIns = KotlinBuiltIns.getInstance();
+        ClassDescriptor suppressClass = builtIns.getSuppressAnnotationClass();
+        ConstructorDescriptor constructor = suppressClass.getUnsubstitutedPrimaryConstructor();
+        assertNotNull(constructor);
+
+        AnnotationDescriptor annotation = new AnnotationDescriptor();
+        annotation.setAnnotationType(suppressClass.getDefaultType());
+        annotation.setValueArgument(
+                constructor.getValueParameters().get(0),
+                new ArrayValue(Collections.<CompileTimeConstant<?>>singletonList(new StringValue(name)),
+                               builtIns.getArrayType(builtIns.getStringType())));
+        return annotation;
+    }
+
+    public void testKeysOfTraceChain() {
+        ClassDescriptor any = KotlinBuiltIns.getInstance().getAny();
+        ClassDescriptor string = KotlinBuiltIns.getInstance().getString();
+
+        BindingTraceContext root = new BindingTraceContext();
+        DelegatingBindingTrace leaf = new DelegatingBindingTrace(root.getBindingContext(), "leaf");
+
+        assertTrue(leaf.getKeys(BindingContext.INCOMPLETE_HIERARCHY).isEmpty());
+
+        root.record(BindingContext.INCOMPLETE_HIERARCHY, any);
+        leaf.record(BindingContext.INCOMPLETE_HIERARCHY, string);
+
+        Collection<ClassDescriptor> keys = leaf.getKeys(BindingContext.INCOMPLETE_HIERARCHY);
+        assertEquals(2, keys.size());
+        assertEquals(Arrays.asList(string, any), Lists.newArrayList(keys));
+    }
+
+    public void testCommitToEmptyTraceHandsOverData() {
+        JetExpression expression = JetPsiFactory.createExpression(getProject(), "1");
+        Diagnostic diagnostic = Errors.TRAIT_CAN_NOT_BE_FINAL.on(expression);
+        ClassDescriptor any = KotlinBuiltIns.getInstance().getAny();
+        ClassDescriptor string = KotlinBuiltIns.getInstance().getString();
+
+        BindingTraceContext root = new BindingTraceContext();
+        DelegatingBindingTrace parent = new DelegatingBindingTrace(root.getBindingContext(), "parent");
+        TemporaryBindingTrace temporary = TemporaryBindingTrace.create(parent, "temporary");
+
+        temporary.record(BindingContext.INCOMPLETE_HIERARCHY, string);
+        temporary.record(BindingContext.PROCESSED, expression);
+        temporary.report(diagnostic);
+        temporary.commit();
+
+        assertEquals(Arrays.asList(string), Lists.newArrayList(parent.getKeys(BindingContext.INCOMPLETE_HIERARCHY)));
+        assertEquals(Boolean.TRUE, parent.get(BindingContext.PROCESSED, expression));
+        assertEquals(Arrays.asList(diagnostic), Lists.newArrayList(parent.getBindingContext().getDiagnostics().all()));
+
+        assertTrue(root.getKeys(BindingContext.INCOMPLETE_HIERARCHY).isEmpty());
+        assertTrue(root.getBindingContext().getDiagnostics().all().isEmpty());
+
+        // The temporary trace must not share the handed over data with the parent afterwards
+        temporary.record(BindingContext.INCOMPLETE_HIERARCHY, any);
+        temporary.report(Errors.CONSTRUCTOR_IN_TRAIT.on(expression));
+        assertEquals(Arrays.asList(string), Lists.newArrayList(parent.getKeys(BindingContext.INCOMPLETE_HIERARCHY)));
+        assertEquals(Arrays.asList(diagnostic), Lists.newArrayList(parent.getBindingContext().getDiagnostics().all()));
+    }
+
+    public void testCommitToNonEmptyTraceAddsData() {
+        JetExpression expression = JetPsiFactory.createExpression(getProject(), "1");
+        Diagnostic first = Errors.TRAIT_CAN_NOT_BE_FINAL.on(expression);
+        Diagnostic second = Errors.CONSTRUCTOR_IN_TRAIT.on(expression);
+        ClassDescriptor any = KotlinBuiltIns.getInstance().getAny();
+        ClassDescriptor string = KotlinBuiltIns.getInstance().getString();
+
+        BindingTraceContext root = new BindingTraceContext();
+        DelegatingBindingTrace parent = new DelegatingBindingTrace(root.getBindingContext(), "parent");
+        parent.record(BindingContext.INCOMPLETE_HIERARCHY, any);
+        parent.report(first);
+
+        TemporaryBindingTrace temporary = TemporaryBindingTrace.create(parent, "temporary");
+        temporary.record(BindingContext.INCOMPLETE_HIERARCHY, string);
+        temporary.report(second);
+        temporary.commit();
+
+        assertEquals(Sets.newHashSet(any, string), Sets.newHashSet(parent.getKeys(BindingContext.INCOMPLETE_HIERARCHY)));
+        assertEquals(Arrays.asList(first, second), Lists.newArrayList(parent.getBindingContext().getDiagnostics().all()));
+        assertTrue(root.getKeys(BindingContext.INCOMPLETE_HIERARCHY).isEmpty());
+    }
+
+    public void testCommitToBindingTraceContextRecordsData() {
+        JetExpression expression = JetPsiFactory.createExpression(getProject(), "1");
+        Diagnostic diagnostic = Errors.TRAIT_CAN_NOT_BE_FINAL.on(expression);
+        ClassDescriptor string = KotlinBuiltIns.getInstance().getString();
+
+        BindingTraceContext root = new BindingTraceContext();
+        TemporaryBindingTrace temporary = TemporaryBindingTrace.create(root, "temporary");
+        temporary.record(BindingContext.INCOMPLETE_HIERARCHY, string);
+        temporary.report(diagnostic);
+        temporary.commit();
+
+        assertEquals(Arrays.asList(string), Lists.newArrayList(root.getKeys(BindingContext.INCOMPLETE_HIERARCHY)));
+        assertEquals(Arrays.asList(diagnostic), Lists.newArrayList(root.getBindingContext().getDiagnostics().all()));
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects wall time, CPU time and allocated memory of compiler phases, and arbitrary counters.
+ *
+ * A report is installed for the current thread by the compiler driver. Phases are measured with
+ * {@code PerformanceReport.startPhase(...)} / {@code Phase.end()}, which do nothing when no report is installed
+ */
+public class PerformanceReport {
+    private static final ThreadLocal<PerformanceReport> CURRENT = new ThreadLocal<PerformanceReport>();
+
+    private static final Phase NO_PHASE = new Phase(null, "", null) {
+        @Override
+        public void end() {
+        }
+    };
+
+    public static void install(@Nullable PerformanceReport report) {
+        if (report == null) {
+            CURRENT.remove();
+        }
+        else {
+            CURRENT.set(report);
+        }
+    }
+
+    @Nullable
+    public static PerformanceReport getCurrent() {
+        return CURRENT.get();
+    }
+
+    @NotNull
+    public static Phase startPhase(@NotNull String name) {
+        return startPhase(name, null);
+    }
+
+    /**
+     * @param file file or another unit the phase is applied to, or null if the phase is applied to the whole module
+     */
+    @NotNull
+    public static Phase startPhase(@NotNull String name, @Nullable String file) {
+        PerformanceReport report = CURRENT.get();
+        return report == null ? NO_PHASE : new Phase(report, name, file);
+    }
+
+    public static void count(@NotNull String counter, long delta) {
+        PerformanceReport report = CURRENT.get();
+        if (report != null) {
+            Long value = report.counters.get(counter);
+            report.counters.put(counter, value == null ? delta : value + delta);
+        }
+    }
+
+    private final Map<String, PhaseStatistics> phases = new LinkedHashMap<String, PhaseStatistics>();
+    private final Map<String, PhaseStatistics> files = new LinkedHashMap<String, PhaseStatistics>();
+    private final Map<String, Long> counters = new LinkedHashMap<String, Long>();
+
+    private void record(@NotNull String name, @Nullable String file, long wallNanos, long cpuNanos, long allocatedBytes) {
+        Map<String, PhaseStatistics> map = file == null ? phases : files;
+        String key = file == null ? name : name + ":" + file;
+        PhaseStatistics statistics = map.get(key);
+        if (statistics == null) {
+            statistics = new PhaseStatistics(name, file);
+            map.put(key, statistics);
+        }
+        statistics.add(wallNanos, cpuNanos, allocatedBytes);
+    }
+
+    @NotNull
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"phases\":[");
+        appendPhases(sb, phases);
+        sb.append("],\"files\":[");
+        appendPhases(sb, files);
+        sb.append("],\"counters\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            appendString(sb, entry.getKey());
+            sb.append(':').append(entry.getValue());
+        }
+        sb.append("}}");
+        return sb.toString();
+    }
+
+    private static void appendPhases(@NotNull StringBuilder sb, @NotNull Map<String, PhaseStatistics> phases) {
+        boolean first = true;
+        for (PhaseStatistics phase : phases.values()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append("{\"name\":");
+            appendString(sb, phase.name);
+            if (phase.file != null) {
+                sb.append(",\"file\":");
+                appendString(sb, phase.file);
+            }
+            sb.append(",\"count\":").append(phase.count);
+            sb.append(",\"wallMs\":").append(phase.wallNanos / 1000000);
+            sb.append(",\"cpuMs\":").append(phase.cpuNanos / 1000000);
+            sb.append(",\"allocatedBytes\":").append(phase.allocatedBytes);
+            sb.append('}');
+        }
+    }
+
+    private static void appendString(@NotNull StringBuilder sb, @NotNull String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < ' ') {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static long currentThreadCpuTime() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean.isCurrentThreadCpuTimeSupported() ? bean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    public static class Phase {
+        private final PerformanceReport report;
+        private final String name;
+        private final String file;
+        private final long wallStart;
+        private final long cpuStart;
+        private final long allocatedStart;
+
+        private Phase(@Nullable PerformanceReport report, @NotNull String name, @Nullable String file) {
+            this.report = report;
+            this.name = name;
+            this.file = file;
+            if (report != null) {
+                wallStart = System.nanoTime();
+                cpuStart = currentThreadCpuTime();
+                allocatedStart = currentThreadAllocatedBytes();
+            }
+            else {
+                wallStart = cpuStart = allocatedStart = 0;
+            }
+        }
+
+        public void end() {
+            assert report != null;
+            report.record(name, file,
+                          System.nanoTime() - wallStart,
+                          currentThreadCpuTime() - cpuStart,
+                          currentThreadAllocatedBytes() - allocatedStart);
+        }
+    }
+
+    private static class PhaseStatistics {
+        private final String name;
+        private final String file;
+        private int count;
+        private long wallNanos;
+        private long cpuNanos;
+        private long allocatedBytes;
+
+        private PhaseStatistics(@NotNull String name, @Nullable String file) {
+            this.name = name;
+            this.file = file;
+        }
+
+        private void add(long wallNanos, long cpuNanos, long allocatedBytes) {
+            count++;
+            this.wallNanos += wallNanos;
+            this.cpuNanos += cpuNanos;
+            this.allocatedBytes += allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable hash map based on a hash array mapped trie. An update copies only the nodes on the path from the root
+ * to the changed entry, so the resulting map shares the rest of its structure with the original one.
+ *
+ * Null keys and values are not supported
+ */
+public final class PersistentHashMap<K, V> implements Iterable<Map.Entry<K, V>> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<Object, Object>(null, 0);
+
+    @Nullable
+    private final Node<K, V> root;
+    private final int size;
+
+    private PersistentHashMap(@Nullable Node<K, V> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Nullable
+    public V get(@NotNull K key) {
+        return root == null ? null : root.get(key, hash(key), 0);
+    }
+
+    @NotNull
+    public PersistentHashMap<K, V> plus(@NotNull K key, @NotNull V value) {
+        int hash = hash(key);
+        if (root == null) {
+            return new PersistentHashMap<K, V>(new Leaf<K, V>(hash, key, value), 1);
+        }
+        boolean added = root.get(key, hash, 0) == null;
+        Node<K, V> newRoot = root.plus(hash, key, value, 0);
+        return newRoot == root ? this : new PersistentHashMap<K, V>(newRoot, added ? size + 1 : size);
+    }
+
+    @NotNull
+    public PersistentHashMap<K, V> minus(@NotNull K key) {
+        int hash = hash(key);
+        if (root == null || root.get(key, hash, 0) == null) return this;
+        Node<K, V> newRoot = root.minus(hash, key, 0);
+        return newRoot == null ? PersistentHashMap.<K, V>empty() : new PersistentHashMap<K, V>(newRoot, size - 1);
+    }
+
+    @NotNull
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        List<Map.Entry<K, V>> result = new ArrayList<Map.Entry<K, V>>(size);
+        if (root != null) {
+            root.collect(result);
+        }
+        return Collections.unmodifiableList(result).iterator();
+    }
+
+    /**
+     * Returns entries of this map except those stored in subtrees shared with the given map. If this map was obtained from
+     * {@code base} by a few updates, this takes time proportional to the number of updates rather than to the size of the map.
+     * The result contains all entries which are absent in {@code base} or have a different value there, and may contain some equal ones
+     */
+    @NotNull
+    public List<Map.Entry<K, V>> entriesDifferentFrom(@NotNull PersistentHashMap<K, V> base) {
+        List<Map.Entry<K, V>> result = new ArrayList<Map.Entry<K, V>>();
+        if (root != null) {
+            root.collectDifferent(base.root, result);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<K, V> entry : this) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return sb.append('}').toString();
+    }
+
+    private static int hash(@NotNull Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static abstract class Node<K, V> {
+        @Nullable
+        abstract V get(@NotNull K key, int hash, int shift);
+
+        @NotNull
+        abstract Node<K, V> plus(int hash, @NotNull K key, @NotNull V value, int shift);
+
+        /**
+         * The key must be present in this node
+         * @return null if the node becomes empty
+         */
+        @Nullable
+        abstract Node<K, V> minus(int hash, @NotNull K key, int shift);
+
+        abstract void collect(@NotNull List<Map.Entry<K, V>> result);
+
+        void collectDifferent(@Nullable Node<K, V> base, @NotNull List<Map.Entry<K, V>> result) {
+            if (this != base) {
+                collect(result);
+            }
+        }
+    }
+
+    private static final class Leaf<K, V> extends Node<K, V> implements Map.Entry<K, V> {
+        private final int hash;
+        private final K key;
+        private final V value;
+
+        private Leaf(int hash, @NotNull K key, @NotNull V value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        V get(@NotNull K key, int hash, int shift) {
+            return this.hash == hash && this.key.equals(key) ? value : null;
+        }
+
+        @NotNull
+        @Override
+        Node<K, V> plus(int hash, @NotNull K key, @NotNull V value, int shift) {
+            if (this.hash == hash && this.key.equals(key)) {
+                return this.value.equals(value) ? this : new Leaf<K, V>(hash, key, value);
+            }
+            Leaf<K, V> leaf = new Leaf<K, V>(hash, key, value);
+            if (this.hash == hash) {
+                return new CollisionNode<K, V>(hash, CollisionNode.leaves(this, leaf));
+            }
+            return BitmapNode.pair(this, this.hash, leaf, hash, shift);
+        }
+
+        @Override
+        Node<K, V> minus(int hash, @NotNull K key, int shift) {
+            return null;
+        }
+
+        @Override
+        void collect(@NotNull List<Map.Entry<K, V>> result) {
+            result.add(this);
+        }
+
+        @Override
+        void collectDifferent(@Nullable Node<K, V> base, @NotNull List<Map.Entry<K, V>> result) {
+            if (base instanceof Leaf) {
+                Leaf<K, V> leaf = (Leaf<K, V>) base;
+                if (key.equals(leaf.key) && value.equals(leaf.value)) return;
+            }
+            result.add(this);
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private static final class CollisionNode<K, V> extends Node<K, V> {
+        private final int hash;
+        private final Leaf<K, V>[] leaves;
+
+        private CollisionNode(int hash, @NotNull Leaf<K, V>[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @SuppressWarnings("unchecked")
+        @NotNull
+        private static <K, V> Leaf<K, V>[] leaves(@NotNull Leaf<K, V> first, @NotNull Leaf<K, V> second) {
+            return new Leaf[] {first, second};
+        }
+
+        @Override
+        V get(@NotNull K key, int hash, int shift) {
+            if (this.hash != hash) return null;
+            for (Leaf<K, V> leaf : leaves) {
+                if (leaf.key.equals(key)) return leaf.value;
+            }
+            return null;
+        }
+
+        @NotNull
+        @Override
+        Node<K, V> plus(int hash, @NotNull K key, @NotNull V value, int shift) {
+            if (this.hash != hash) {
+                return BitmapNode.pair(this, this.hash, new Leaf<K, V>(hash, key, value), hash, shift);
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key)) {
+                    if (leaves[i].value.equals(value)) return this;
+                    Leaf<K, V>[] newLeaves = leaves.clone();
+                    newLeaves[i] = new Leaf<K, V>(hash, key, value);
+                    return new CollisionNode<K, V>(hash, newLeaves);
+                }
+            }
+            Leaf<K, V>[] newLeaves = copyOf(leaves, leaves.length + 1);
+            newLeaves[leaves.length] = new Leaf<K, V>(hash, key, value);
+            return new CollisionNode<K, V>(hash, newLeaves);
+        }
+
+        @Override
+        Node<K, V> minus(int hash, @NotNull K key, int shift) {
+            int index = 0;
+            while (!leaves[index].key.equals(key)) {
+                index++;
+            }
+            if (leaves.length == 2) {
+                return leaves[1 - index];
+            }
+            Leaf<K, V>[] newLeaves = copyOf(leaves, leaves.length - 1);
+            System.arraycopy(leaves, index + 1, newLeaves, index, leaves.length - index - 1);
+            return new CollisionNode<K, V>(hash, newLeaves);
+        }
+
+        @Override
+        void collect(@NotNull List<Map.Entry<K, V>> result) {
+            Collections.addAll(result, leaves);
+        }
+
+        @SuppressWarnings("unchecked")
+        @NotNull
+        private static <K, V> Leaf<K, V>[] copyOf(@NotNull Leaf<K, V>[] leaves, int length) {
+            Leaf<K, V>[] result = new Leaf[length];
+            System.arraycopy(leaves, 0, result, 0, Math.min(length, leaves.length));
+            return result;
+        }
+    }
+
+    private static final class BitmapNode<K, V> extends Node<K, V> {
+        private final int bitmap;
+        private final Node<K, V>[] children;
+
+        private BitmapNode(int bitmap, @NotNull Node<K, V>[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        /**
+         * Creates a node at the given level containing two nodes with different hashes
+         */
+        @NotNull
+        private static <K, V> Node<K, V> pair(
+                @NotNull Node<K, V> first, int firstHash,
+                @NotNull Node<K, V> second, int secondHash,
+                int shift
+        ) {
+            int firstIndex = (firstHash >>> shift) & MASK;
+            int secondIndex = (secondHash >>> shift) & MASK;
+            if (firstIndex == secondIndex) {
+                return new BitmapNode<K, V>(1 << firstIndex, nodes(pair(first, firstHash, second, secondHash, shift + BITS)));
+            }
+            return new BitmapNode<K, V>((1 << firstIndex) | (1 << secondIndex),
+                                        firstIndex < secondIndex ? nodes(first, second) : nodes(second, first));
+        }
+
+        @SuppressWarnings("unchecked")
+        @NotNull
+        private static <K, V> Node<K, V>[] nodes(@NotNull Node<K, V> single) {
+            return new Node[] {single};
+        }
+
+        @SuppressWarnings("unchecked")
+        @NotNull
+        private static <K, V> Node<K, V>[] nodes(@NotNull Node<K, V> first, @NotNull Node<K, V> second) {
+            return new Node[] {first, second};
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        V get(@NotNull K key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return null;
+            return children[index(bit)].get(key, hash, shift + BITS);
+        }
+
+        @SuppressWarnings("unchecked")
+        @NotNull
+        @Override
+        Node<K, V> plus(int hash, @NotNull K key, @NotNull V value, int shift) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Node<K, V>[] newChildren = new Node[children.length + 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                newChildren[index] = new Leaf<K, V>(hash, key, value);
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                return new BitmapNode<K, V>(bitmap | bit, newChildren);
+            }
+
+            Node<K, V> child = children[index];
+            Node<K, V> newChild = child.plus(hash, key, value, shift + BITS);
+            if (newChild == child) return this;
+
+            Node<K, V>[] newChildren = children.clone();
+            newChildren[index] = newChild;
+            return new BitmapNode<K, V>(bitmap, newChildren);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        Node<K, V> minus(int hash, @NotNull K key, int shift) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            Node<K, V> newChild = children[index].minus(hash, key, shift + BITS);
+            if (newChild != null) {
+                Node<K, V>[] newChildren = children.clone();
+                newChildren[index] = newChild;
+                return new BitmapNode<K, V>(bitmap, newChildren);
+            }
+
+            if (children.length == 1) return null;
+
+            Node<K, V>[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            return new BitmapNode<K, V>(bitmap & ~bit, newChildren);
+        }
+
+        @Override
+        void collect(@NotNull List<Map.Entry<K, V>> result) {
+            for (Node<K, V> child : children) {
+                child.collect(result);
+            }
+        }
+
+        @Override
+        void collectDifferent(@Nullable Node<K, V> base, @NotNull List<Map.Entry<K, V>> result) {
+            if (this == base) return;
+            if (!(base instanceof BitmapNode)) {
+                collect(result);
+                return;
+            }
+
+            BitmapNode<K, V> baseNode = (BitmapNode<K, V>) base;
+            int index = 0;
+            for (int bits = bitmap; bits != 0; bits &= bits - 1) {
+                int bit = Integer.lowestOneBit(bits);
+                Node<K, V> child = children[index++];
+                if ((baseNode.bitmap & bit) != 0) {
+                    child.collectDifferent(baseNode.children[baseNode.index(bit)], result);
+                }
+                else {
+                    child.collect(result);
+                }
+            }
+        }
+    }
+}
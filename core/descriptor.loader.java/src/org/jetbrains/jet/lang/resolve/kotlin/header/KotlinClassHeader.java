@@ -23,6 +23,18 @@ import org.jetbrains.jet.lang.resolve.kotlin.KotlinJvmBinaryClass;
 public abstract class KotlinClassHeader {
     @Nullable
     public static KotlinClassHeader read(@NotNull KotlinJvmBinaryClass kotlinClass) {
+        if (kotlinClass instanceof KotlinClassHeaderProvider) {
+            return ((KotlinClassHeaderProvider) kotlinClass).getClassHeader();
+        }
+        return readFromAnnotations(kotlinClass);
+    }
+
+    /**
+     * Reads the header from class annotations, bypassing any header remembered by the class itself.
+     * Intended for implementations of {@link KotlinClassHeaderProvider}
+     */
+    @Nullable
+    public static KotlinClassHeader readFromAnnotations(@NotNull KotlinJvmBinaryClass kotlinClass) {
         return ReadKotlinClassHeaderAnnotationVisitor.read(kotlinClass);
     }
 
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.kotlin.header;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes headers of Kotlin binary classes to a stream and reads them back, so that they can be persisted between compilations.
+ * An absent header (i.e. the class is not a Kotlin class) is also written, because remembering that is just as useful
+ */
+public final class KotlinClassHeaderExternalizer {
+    private static final byte NO_HEADER = 0;
+    private static final byte INCOMPATIBLE = 1;
+    private static final byte PACKAGE_FRAGMENT = 2;
+    private static final byte CLASS = 3;
+    private static final byte PACKAGE = 4;
+
+    private KotlinClassHeaderExternalizer() {
+    }
+
+    public static void save(@NotNull DataOutput out, @Nullable KotlinClassHeader header) throws IOException {
+        if (header == null) {
+            out.writeByte(NO_HEADER);
+            return;
+        }
+
+        if (header instanceof SerializedDataHeader) {
+            SerializedDataHeader serializedDataHeader = (SerializedDataHeader) header;
+            out.writeByte(serializedDataHeader.getKind() == SerializedDataHeader.Kind.CLASS ? CLASS : PACKAGE);
+            out.writeInt(header.getVersion());
+            String[] data = serializedDataHeader.getAnnotationData();
+            out.writeInt(data.length);
+            for (String string : data) {
+                out.writeUTF(string);
+            }
+        }
+        else if (header instanceof PackageFragmentClassHeader) {
+            out.writeByte(PACKAGE_FRAGMENT);
+            out.writeInt(header.getVersion());
+        }
+        else if (header instanceof IncompatibleAnnotationHeader) {
+            out.writeByte(INCOMPATIBLE);
+            out.writeInt(header.getVersion());
+        }
+        else {
+            throw new IllegalArgumentException("Unknown header: " + header);
+        }
+    }
+
+    @Nullable
+    public static KotlinClassHeader load(@NotNull DataInput in) throws IOException {
+        byte tag = in.readByte();
+        if (tag == NO_HEADER) {
+            return null;
+        }
+
+        int version = in.readInt();
+        switch (tag) {
+            case INCOMPATIBLE:
+                return new IncompatibleAnnotationHeader(version);
+            case PACKAGE_FRAGMENT:
+                return new PackageFragmentClassHeader(version);
+            case CLASS:
+            case PACKAGE:
+                String[] data = new String[in.readInt()];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = in.readUTF();
+                }
+                SerializedDataHeader.Kind kind = tag == CLASS ? SerializedDataHeader.Kind.CLASS : SerializedDataHeader.Kind.PACKAGE;
+                return new SerializedDataHeader(version, data, kind);
+            default:
+                throw new IOException("Unknown header tag: " + tag);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.kotlin.header;
+
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.kotlin.KotlinJvmBinaryClass;
+
+/**
+ * A binary class which knows its header without visiting its annotations again, e.g. because the header was already read
+ * or was loaded from a cache. {@link KotlinClassHeader#read(KotlinJvmBinaryClass)} delegates to such classes
+ */
+public interface KotlinClassHeaderProvider extends KotlinJvmBinaryClass {
+    @Nullable
+    KotlinClassHeader getClassHeader();
+}
@@ -17,6 +17,7 @@
 package org.jetbrains.jet.lang.descriptors.impl;
 
 import com.google.common.collect.Sets;
+import com.intellij.openapi.util.Computable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jet.lang.descriptors.*;
@@ -32,7 +33,7 @@ public class MutableClassDescriptor extends MutableClassDescriptorLite {
     private ConstructorDescriptor primaryConstructor;
 
     private final Set<CallableMemberDescriptor> declaredCallableMembers = Sets.newLinkedHashSet();
-    private final Set<CallableMemberDescriptor> allCallableMembers = Sets.newLinkedHashSet(); // includes fake overrides
+    private final Set<CallableMemberDescriptor> allCallableMembers = Sets.newLinkedHashSet(); // includes fake overrides, except lazy ones
     private final Set<PropertyDescriptor> properties = Sets.newLinkedHashSet();
     private final Set<SimpleFunctionDescriptor> functions = Sets.newLinkedHashSet();
 
@@ -40,6 +41,7 @@ public class MutableClassDescriptor extends MutableClassDescriptorLite {
     // This scope contains type parameters but does not contain inner classes
     private final WritableScope scopeForSupertypeResolution;
     private WritableScope scopeForInitializers = null; //contains members + primary constructor value parameters + map for backing fields
+    private LazyFakeOverridesScope lazyFakeOverrides = null;
 
     public MutableClassDescriptor(@NotNull DeclarationDescriptor containingDeclaration,
                                   @NotNull JetScope outerScope, ClassKind kind, boolean isInner, Name name) {
@@ -117,6 +119,19 @@ public class MutableClassDescriptor extends MutableClassDescriptorLite {
         return allCallableMembers;
     }
 
+    /**
+     * Fake overrides which are only needed when looked up by name. They are created on the first lookup of this name
+     * in the member scope, or when all descriptors of the member scope are requested, and never appear in getAllCallableMembers()
+     */
+    public void addLazyFakeOverrides(@NotNull Name name, @NotNull Computable<Collection<CallableMemberDescriptor>> fakeOverrides) {
+        if (lazyFakeOverrides == null) {
+            lazyFakeOverrides = new LazyFakeOverridesScope(this);
+            getScopeForMemberLookupAsWritableScope().importScope(lazyFakeOverrides);
+            scopeForMemberResolution.importScope(lazyFakeOverrides);
+        }
+        lazyFakeOverrides.addFakeOverrides(name, fakeOverrides);
+    }
+
     @Override
     public void setTypeParameterDescriptors(List<TypeParameterDescriptor> typeParameters) {
         super.setTypeParameterDescriptors(typeParameters);
@@ -92,7 +92,7 @@ public abstract class MutableClassDescriptorLite extends ClassDescriptorBase {
                 supertypes);
     }
 
-    private WritableScope getScopeForMemberLookupAsWritableScope() {
+    protected WritableScope getScopeForMemberLookupAsWritableScope() {
         // hack
         return (WritableScope) scopeForMemberLookup;
     }
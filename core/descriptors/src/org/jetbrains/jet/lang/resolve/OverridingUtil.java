@@ -18,6 +18,7 @@ package org.jetbrains.jet.lang.resolve;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.*;
+import com.intellij.openapi.util.Pair;
 import com.intellij.util.Function;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
@@ -51,37 +52,58 @@ public class OverridingUtil {
     }
 
     public static <D> Set<D> filterOverrides(Set<D> candidateSet, Function<? super D, ? extends CallableDescriptor> transform) {
+        List<CallableDescriptor> transformed = Lists.newArrayListWithCapacity(candidateSet.size());
+        for (D candidate : candidateSet) {
+            transformed.add(transform.fun(candidate));
+        }
+
+        // Computed once per candidate instead of once per pair of candidates
+        Map<CallableDescriptor, Set<CallableDescriptor>> overriddenOriginals = Maps.newHashMap();
+
         Set<D> candidates = Sets.newLinkedHashSet();
+        List<CallableDescriptor> transformedCandidates = Lists.newArrayList();
+        Iterator<CallableDescriptor> transformedIterator = transformed.iterator();
         outerLoop:
         for (D meD : candidateSet) {
-            CallableDescriptor me = transform.fun(meD);
-            for (D otherD : candidateSet) {
-                CallableDescriptor other = transform.fun(otherD);
+            CallableDescriptor me = transformedIterator.next();
+            CallableDescriptor meOriginal = me.getOriginal();
+            for (CallableDescriptor other : transformed) {
                 if (me == other) continue;
-                if (overrides(other, me)) {
+                if (getAllOverriddenOriginals(other, overriddenOriginals).contains(meOriginal)) {
                     continue outerLoop;
                 }
             }
-            for (D otherD : candidates) {
-                CallableDescriptor other = transform.fun(otherD);
-                if (me.getOriginal() == other.getOriginal()
+            for (CallableDescriptor other : transformedCandidates) {
+                if (meOriginal == other.getOriginal()
                     && isOverridableBy(other, me).getResult() == OverrideCompatibilityInfo.Result.OVERRIDABLE
                     && isOverridableBy(me, other).getResult() == OverrideCompatibilityInfo.Result.OVERRIDABLE) {
                     continue outerLoop;
                 }
             }
-//            System.out.println(me);
             candidates.add(meD);
+            transformedCandidates.add(me);
         }
-//        Set<D> candidates = Sets.newLinkedHashSet(candidateSet);
-//        for (D descriptor : candidateSet) {
-//            Set<CallableDescriptor> overriddenDescriptors = Sets.newHashSet();
-//            getAllOverriddenDescriptors(descriptor.getOriginal(), overriddenDescriptors);
-//            candidates.removeAll(overriddenDescriptors);
-//        }
         return candidates;
     }
 
+    @NotNull
+    private static Set<CallableDescriptor> getAllOverriddenOriginals(
+            @NotNull CallableDescriptor descriptor,
+            @NotNull Map<CallableDescriptor, Set<CallableDescriptor>> cache
+    ) {
+        Set<CallableDescriptor> result = cache.get(descriptor);
+        if (result == null) {
+            Set<CallableDescriptor> overriddenDescriptors = Sets.newHashSet();
+            getAllOverriddenDescriptors(descriptor.getOriginal(), overriddenDescriptors);
+            result = Sets.newHashSetWithExpectedSize(overriddenDescriptors.size());
+            for (CallableDescriptor overridden : overriddenDescriptors) {
+                result.add(overridden.getOriginal());
+            }
+            cache.put(descriptor, result);
+        }
+        return result;
+    }
+
     public static <Descriptor extends CallableDescriptor> boolean overrides(@NotNull Descriptor f, @NotNull Descriptor g) {
         Set<CallableDescriptor> overriddenDescriptors = Sets.newHashSet();
         getAllOverriddenDescriptors(f.getOriginal(), overriddenDescriptors);
@@ -323,9 +345,10 @@ public class OverridingUtil {
     ) {
         Collection<CallableMemberDescriptor> notOverridden = Sets.newLinkedHashSet(membersFromSupertypes);
 
+        ErasedSignatureIndex fromSupertypesIndex = membersFromCurrent.isEmpty() ? null : new ErasedSignatureIndex(membersFromSupertypes);
         for (CallableMemberDescriptor fromCurrent : membersFromCurrent) {
             Collection<CallableMemberDescriptor> bound =
-                    extractAndBindOverridesForMember(fromCurrent, membersFromSupertypes, current, sink);
+                    extractAndBindOverridesForMember(fromCurrent, fromSupertypesIndex, current, sink);
             notOverridden.removeAll(bound);
         }
 
@@ -334,12 +357,12 @@ public class OverridingUtil {
 
     private static Collection<CallableMemberDescriptor> extractAndBindOverridesForMember(
             @NotNull CallableMemberDescriptor fromCurrent,
-            @NotNull Collection<? extends CallableMemberDescriptor> descriptorsFromSuper,
+            @NotNull ErasedSignatureIndex descriptorsFromSuper,
             @NotNull ClassDescriptor current,
             @NotNull DescriptorSink sink
     ) {
         Collection<CallableMemberDescriptor> bound = Lists.newArrayList();
-        for (CallableMemberDescriptor fromSupertype : descriptorsFromSuper) {
+        for (CallableMemberDescriptor fromSupertype : descriptorsFromSuper.getPossiblyOverridable(fromCurrent)) {
             OverrideCompatibilityInfo.Result result = isOverridableBy(fromSupertype, fromCurrent).getResult();
 
             boolean isVisible = Visibilities.isVisible(fromSupertype, current);
@@ -465,6 +488,7 @@ public class OverridingUtil {
     ) {
         Collection<CallableMemberDescriptor> overridable = Lists.newArrayList();
         overridable.add(overrider);
+        ErasedSignature overriderSignature = ErasedSignature.create(overrider);
         for (Iterator<CallableMemberDescriptor> iterator = extractFrom.iterator(); iterator.hasNext(); ) {
             CallableMemberDescriptor candidate = iterator.next();
             if (overrider == candidate) {
@@ -472,6 +496,8 @@ public class OverridingUtil {
                 continue;
             }
 
+            if (!overriderSignature.mayBeOverridableWith(ErasedSignature.create(candidate))) continue;
+
             OverrideCompatibilityInfo.Result result1 = isOverridableBy(candidate, overrider).getResult();
             OverrideCompatibilityInfo.Result result2 = isOverridableBy(overrider, candidate).getResult();
             if (result1 == OVERRIDABLE && result2 == OVERRIDABLE) {
@@ -554,6 +580,92 @@ public class OverridingUtil {
         return maxVisibility;
     }
 
+    /**
+     * A cheap necessary condition for isOverridableBy() to return anything other than INCOMPATIBLE, in either direction:
+     * kind of member, presence of receiver, number of value parameters and classes of parameter types must match.
+     * Parameters whose types are type parameters or errors match anything.
+     */
+    private static class ErasedSignature {
+        private final boolean isFunction;
+        private final boolean hasReceiver;
+        private final TypeConstructor[] parameterClasses;
+
+        private ErasedSignature(boolean isFunction, boolean hasReceiver, @NotNull TypeConstructor[] parameterClasses) {
+            this.isFunction = isFunction;
+            this.hasReceiver = hasReceiver;
+            this.parameterClasses = parameterClasses;
+        }
+
+        @NotNull
+        public static ErasedSignature create(@NotNull CallableDescriptor descriptor) {
+            List<JetType> parameterTypes = compiledValueParameters(descriptor);
+            TypeConstructor[] parameterClasses = new TypeConstructor[parameterTypes.size()];
+            for (int i = 0; i < parameterClasses.length; i++) {
+                JetType type = parameterTypes.get(i);
+                TypeConstructor constructor = type.getConstructor();
+                if (!type.isError() && constructor.getDeclarationDescriptor() instanceof ClassDescriptor) {
+                    parameterClasses[i] = constructor;
+                }
+            }
+            return new ErasedSignature(descriptor instanceof FunctionDescriptor, descriptor.getReceiverParameter() != null, parameterClasses);
+        }
+
+        // Signatures which may be overridable with each other are guaranteed to have equal keys
+        @NotNull
+        public Object getKey() {
+            return (parameterClasses.length << 2) | (isFunction ? 2 : 0) | (hasReceiver ? 1 : 0);
+        }
+
+        public boolean mayBeOverridableWith(@NotNull ErasedSignature other) {
+            if (isFunction != other.isFunction
+                || hasReceiver != other.hasReceiver
+                || parameterClasses.length != other.parameterClasses.length) {
+                return false;
+            }
+            for (int i = 0; i < parameterClasses.length; i++) {
+                TypeConstructor a = parameterClasses[i];
+                TypeConstructor b = other.parameterClasses[i];
+                if (a != null && b != null && !a.equals(b)) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Members from supertypes bucketed by ErasedSignature.getKey(), so that every member from the current class
+     * is only checked against the ones that can possibly be overridden by it. Buckets preserve the original order.
+     */
+    private static class ErasedSignatureIndex {
+        private final Map<Object, List<Pair<ErasedSignature, CallableMemberDescriptor>>> buckets = Maps.newHashMap();
+
+        public ErasedSignatureIndex(@NotNull Collection<? extends CallableMemberDescriptor> members) {
+            for (CallableMemberDescriptor member : members) {
+                ErasedSignature signature = ErasedSignature.create(member);
+                List<Pair<ErasedSignature, CallableMemberDescriptor>> bucket = buckets.get(signature.getKey());
+                if (bucket == null) {
+                    bucket = Lists.newArrayList();
+                    buckets.put(signature.getKey(), bucket);
+                }
+                bucket.add(Pair.create(signature, member));
+            }
+        }
+
+        @NotNull
+        public List<CallableMemberDescriptor> getPossiblyOverridable(@NotNull CallableMemberDescriptor member) {
+            ErasedSignature signature = ErasedSignature.create(member);
+            List<Pair<ErasedSignature, CallableMemberDescriptor>> bucket = buckets.get(signature.getKey());
+            if (bucket == null) return Collections.emptyList();
+
+            List<CallableMemberDescriptor> result = Lists.newArrayListWithCapacity(bucket.size());
+            for (Pair<ErasedSignature, CallableMemberDescriptor> pair : bucket) {
+                if (signature.mayBeOverridableWith(pair.first)) {
+                    result.add(pair.second);
+                }
+            }
+            return result;
+        }
+    }
+
     public interface DescriptorSink {
         void addToScope(@NotNull CallableMemberDescriptor fakeOverride);
 
@@ -16,16 +16,39 @@
 
 package org.jetbrains.jet.lang.resolve.name;
 
+import com.google.common.collect.MapMaker;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Names are interned: there's exactly one instance of Name for each distinct string (separately for identifiers and special names)
+ * which is alive, so names are compared by identity
+ */
 public final class Name implements Comparable<Name> {
+    private static final ConcurrentMap<String, Name> IDENTIFIERS = new MapMaker().weakValues().makeMap();
+    private static final ConcurrentMap<String, Name> SPECIAL_NAMES = new MapMaker().weakValues().makeMap();
+
     @NotNull
     private final String name;
     private final boolean special;
+    private final int hashCode;
 
     private Name(@NotNull String name, boolean special) {
         this.name = name;
         this.special = special;
+        this.hashCode = 31 * name.hashCode() + (special ? 1 : 0);
+    }
+
+    @NotNull
+    private static Name intern(@NotNull String name, boolean special) {
+        ConcurrentMap<String, Name> names = special ? SPECIAL_NAMES : IDENTIFIERS;
+        Name result = names.get(name);
+        if (result != null) return result;
+
+        Name newName = new Name(name, special);
+        Name existing = names.putIfAbsent(name, newName);
+        return existing != null ? existing : newName;
     }
 
     @NotNull
@@ -55,7 +78,7 @@ public final class Name implements Comparable<Name> {
         if (!isValidIdentifier(name)) {
             throw new IllegalArgumentException("invalid identifier: " + name);
         }
-        return new Name(name, false);
+        return intern(name, false);
     }
 
     public static boolean isValidIdentifier(@NotNull String name) {
@@ -65,7 +88,7 @@ public final class Name implements Comparable<Name> {
     /** Must be validated by caller */
     @NotNull
     public static Name identifierNoValidate(@NotNull String name) {
-        return new Name(name, false);
+        return intern(name, false);
     }
 
     @NotNull
@@ -73,7 +96,7 @@ public final class Name implements Comparable<Name> {
         if (!name.startsWith("<")) {
             throw new IllegalArgumentException("special name must start with '<': " + name);
         }
-        return new Name(name, true);
+        return intern(name, true);
     }
 
     // TODO: wrong
@@ -94,21 +117,11 @@ public final class Name implements Comparable<Name> {
 
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Name)) return false;
-
-        Name name1 = (Name) o;
-
-        if (special != name1.special) return false;
-        if (!name.equals(name1.name)) return false;
-
-        return true;
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        int result = name.hashCode();
-        result = 31 * result + (special ? 1 : 0);
-        return result;
+        return hashCode;
     }
 }
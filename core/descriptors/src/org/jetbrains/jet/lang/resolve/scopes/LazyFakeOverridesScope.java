@@ -0,0 +1,106 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.scopes;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.intellij.openapi.util.Computable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.descriptors.*;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import java.util.*;
+
+/**
+ * Fake overrides of a class which are created per name when this name is first looked up.
+ * Enumerating all descriptors creates all of them.
+ */
+public class LazyFakeOverridesScope extends JetScopeImpl {
+    private final ClassDescriptor classDescriptor;
+    private final Set<Name> names = Sets.newLinkedHashSet();
+    private final Map<Name, Computable<Collection<CallableMemberDescriptor>>> pending = Maps.newHashMap();
+    private final Map<Name, Collection<CallableMemberDescriptor>> created = Maps.newHashMap();
+
+    public LazyFakeOverridesScope(@NotNull ClassDescriptor classDescriptor) {
+        this.classDescriptor = classDescriptor;
+    }
+
+    public synchronized void addFakeOverrides(@NotNull Name name, @NotNull Computable<Collection<CallableMemberDescriptor>> fakeOverrides) {
+        boolean added = names.add(name);
+        assert added : "Fake overrides for " + name + " are already added to " + classDescriptor;
+        pending.put(name, fakeOverrides);
+    }
+
+    @NotNull
+    private synchronized Collection<CallableMemberDescriptor> getFakeOverrides(@NotNull Name name) {
+        Collection<CallableMemberDescriptor> result = created.get(name);
+        if (result == null) {
+            Computable<Collection<CallableMemberDescriptor>> computable = pending.remove(name);
+            if (computable == null) return Collections.emptyList();
+
+            result = computable.compute();
+            created.put(name, result);
+        }
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public Collection<FunctionDescriptor> getFunctions(@NotNull Name name) {
+        Collection<FunctionDescriptor> result = Lists.newArrayList();
+        for (CallableMemberDescriptor descriptor : getFakeOverrides(name)) {
+            if (descriptor instanceof FunctionDescriptor) {
+                result.add((FunctionDescriptor) descriptor);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public Collection<VariableDescriptor> getProperties(@NotNull Name name) {
+        Collection<VariableDescriptor> result = Lists.newArrayList();
+        for (CallableMemberDescriptor descriptor : getFakeOverrides(name)) {
+            if (descriptor instanceof PropertyDescriptor) {
+                result.add((PropertyDescriptor) descriptor);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public synchronized Collection<DeclarationDescriptor> getAllDescriptors() {
+        Collection<DeclarationDescriptor> result = Lists.newArrayList();
+        for (Name name : names) {
+            result.addAll(getFakeOverrides(name));
+        }
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public DeclarationDescriptor getContainingDeclaration() {
+        return classDescriptor;
+    }
+
+    @Override
+    public String toString() {
+        return "Lazy fake overrides of " + classDescriptor;
+    }
+}
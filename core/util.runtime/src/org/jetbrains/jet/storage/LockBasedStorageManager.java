@@ -27,6 +27,7 @@ import org.jetbrains.jet.utils.WrappedValues;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -39,6 +40,13 @@ public class LockBasedStorageManager implements StorageManager {
         }
     };
 
+    // Lazy values and memoized function results computed by all storage managers, for performance reports
+    private static final AtomicLong COMPUTED_LAZY_VALUES = new AtomicLong();
+
+    public static long getComputedLazyValueCount() {
+        return COMPUTED_LAZY_VALUES.get();
+    }
+
     protected final Lock lock;
 
     public LockBasedStorageManager() {
@@ -199,6 +207,7 @@ public class LockBasedStorageManager implements StorageManager {
                 }
 
                 value = NotValue.COMPUTING;
+                COMPUTED_LAZY_VALUES.incrementAndGet();
                 try {
                     T typedValue = computable.compute();
                     value = typedValue;
@@ -269,6 +278,7 @@ public class LockBasedStorageManager implements StorageManager {
                 value = cache.get(input);
                 if (value != null) return WrappedValues.unescapeExceptionOrNull(value);
 
+                COMPUTED_LAZY_VALUES.incrementAndGet();
                 try {
                     V typedValue = compute.fun(input);
                     Object oldValue = cache.put(input, WrappedValues.escapeNull(typedValue));
@@ -111,7 +111,7 @@ public class KotlinCompilerRunner {
                 "-module", moduleFile.getAbsolutePath(),
                 "-output", outputDir.getPath(),
                 "-tags", "-verbose", "-version",
-                "-notNullAssertions", "-notNullParamAssertions",
+                "-notNullAssertions", "-notNullParamAssertions", "-inlineNotNullAssertions",
                 "-noStdlib", "-noJdkAnnotations", "-noJdk"};
     }
 
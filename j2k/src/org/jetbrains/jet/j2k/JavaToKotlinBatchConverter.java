@@ -0,0 +1,175 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.j2k;
+
+import com.intellij.core.JavaCoreApplicationEnvironment;
+import com.intellij.core.JavaCoreProjectEnvironment;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.j2k.visitors.ClassVisitor;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Converts a whole tree of Java sources to Kotlin.
+ *
+ * All files are loaded into a single environment with the source root on the classpath,
+ * so references between the files are resolved. Files are converted in parallel,
+ * each worker thread has its own {@link Converter}, and the result of each file is written to disk as soon as it is ready.
+ */
+public class JavaToKotlinBatchConverter {
+    @NotNull
+    private final VirtualFile sourceRoot;
+    @NotNull
+    private final JavaCoreProjectEnvironment environment;
+    @NotNull
+    private final List<PsiJavaFile> javaFiles = new ArrayList<PsiJavaFile>();
+    @NotNull
+    private final Set<String> classIdentifiers;
+    @NotNull
+    private final Set<J2KConverterFlags> flags = EnumSet.noneOf(J2KConverterFlags.class);
+
+    public JavaToKotlinBatchConverter(@NotNull Disposable disposable, @NotNull File sourceRoot, @NotNull List<File> classpath) {
+        JavaCoreApplicationEnvironment applicationEnvironment = new JavaCoreApplicationEnvironment(disposable);
+        environment = JavaToKotlinTranslator.setUpJavaCoreEnvironment(disposable, applicationEnvironment);
+        for (File jar : classpath) {
+            environment.addJarToClassPath(jar);
+        }
+
+        VirtualFile root = applicationEnvironment.getLocalFileSystem().findFileByPath(sourceRoot.getAbsolutePath());
+        if (root == null || !root.isDirectory()) {
+            throw new IllegalArgumentException("Source root is not a directory: " + sourceRoot);
+        }
+        this.sourceRoot = root;
+        environment.addSourcesToClasspath(root);
+
+        collectJavaFiles(root, PsiManager.getInstance(environment.getProject()));
+
+        ClassVisitor classVisitor = new ClassVisitor();
+        for (PsiJavaFile file : javaFiles) {
+            file.accept(classVisitor);
+        }
+        classIdentifiers = classVisitor.getClassIdentifiers();
+    }
+
+    public void addFlag(@NotNull J2KConverterFlags flag) {
+        flags.add(flag);
+    }
+
+    public int getFileCount() {
+        return javaFiles.size();
+    }
+
+    /**
+     * @return error messages for the files which could not be converted
+     */
+    @NotNull
+    public List<String> convert(@NotNull File outputRoot, int threadCount) throws InterruptedException {
+        ThreadLocal<Converter> converters = new ThreadLocal<Converter>() {
+            @Override
+            protected Converter initialValue() {
+                Converter converter = new Converter(environment.getProject());
+                converter.setClassIdentifiers(classIdentifiers);
+                for (J2KConverterFlags flag : flags) {
+                    converter.addFlag(flag);
+                }
+                return converter;
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>(javaFiles.size());
+            for (PsiJavaFile file : javaFiles) {
+                futures.add(executor.submit(new ConvertFileTask(file, getOutputFile(outputRoot, file), converters)));
+            }
+
+            List<String> errors = new ArrayList<String>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                }
+                catch (ExecutionException e) {
+                    errors.add(javaFiles.get(i).getVirtualFile().getPath() + ": " + e.getCause());
+                }
+            }
+            return errors;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @NotNull
+    private File getOutputFile(@NotNull File outputRoot, @NotNull PsiJavaFile file) {
+        String path = file.getVirtualFile().getPath().substring(sourceRoot.getPath().length());
+        return new File(outputRoot, path.substring(0, path.length() - ".java".length()) + ".kt");
+    }
+
+    private void collectJavaFiles(@NotNull VirtualFile directory, @NotNull PsiManager psiManager) {
+        for (VirtualFile child : directory.getChildren()) {
+            if (child.isDirectory()) {
+                collectJavaFiles(child, psiManager);
+            }
+            else if ("java".equals(child.getExtension())) {
+                PsiFile psiFile = psiManager.findFile(child);
+                if (psiFile instanceof PsiJavaFile) {
+                    javaFiles.add((PsiJavaFile) psiFile);
+                }
+            }
+        }
+    }
+
+    private static class ConvertFileTask implements Callable<Void> {
+        @NotNull
+        private final PsiJavaFile javaFile;
+        @NotNull
+        private final File outputFile;
+        @NotNull
+        private final ThreadLocal<Converter> converters;
+
+        private ConvertFileTask(@NotNull PsiJavaFile javaFile, @NotNull File outputFile, @NotNull ThreadLocal<Converter> converters) {
+            this.javaFile = javaFile;
+            this.outputFile = outputFile;
+            this.converters = converters;
+        }
+
+        @Override
+        public Void call() throws IOException {
+            String kotlinCode = converters.get().fileToFile(javaFile).toKotlin();
+
+            File directory = outputFile.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+                throw new IOException("Can't create directory " + directory);
+            }
+            Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), "UTF-8"));
+            try {
+                JavaToKotlinTranslator.prettify(kotlinCode, writer);
+            }
+            finally {
+                writer.close();
+            }
+            return null;
+        }
+    }
+}
@@ -63,8 +63,15 @@ public class JavaToKotlinTranslator {
 
     @NotNull
     static JavaCoreProjectEnvironment setUpJavaCoreEnvironment() {
-        JavaCoreApplicationEnvironment applicationEnvironment = new JavaCoreApplicationEnvironment(DISPOSABLE);
-        JavaCoreProjectEnvironment javaCoreEnvironment = new JavaCoreProjectEnvironment(DISPOSABLE, applicationEnvironment);
+        return setUpJavaCoreEnvironment(DISPOSABLE, new JavaCoreApplicationEnvironment(DISPOSABLE));
+    }
+
+    @NotNull
+    static JavaCoreProjectEnvironment setUpJavaCoreEnvironment(
+            @NotNull Disposable disposable,
+            @NotNull JavaCoreApplicationEnvironment applicationEnvironment
+    ) {
+        JavaCoreProjectEnvironment javaCoreEnvironment = new JavaCoreProjectEnvironment(disposable, applicationEnvironment);
 
         javaCoreEnvironment.addJarToClassPath(PathUtil.findRtJar());
         File annotations = findAnnotations();
@@ -79,15 +86,72 @@ public class JavaToKotlinTranslator {
         if (code == null) {
             return "";
         }
-        return code
-                .trim()
-                .replaceAll("\r\n", "\n")
-                .replaceAll(" \n", "\n")
-                .replaceAll("\n ", "\n")
-                .replaceAll("\n+", "\n")
-                .replaceAll(" +", " ")
-                .trim()
-                ;
+        StringBuilder sb = new StringBuilder(code.length());
+        try {
+            prettify(code, sb);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    // Trims the code, collapses line breaks and spaces, drops one space before and one after each line break.
+    // Single pass equivalent of a chain of regular expression replacements, writes directly to the output.
+    static void prettify(@NotNull CharSequence code, @NotNull Appendable out) throws IOException {
+        int start = 0;
+        int end = code.length();
+        while (start < end && code.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && code.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        boolean newLinePending = false;
+        boolean afterNewLine = false;
+        int i = start;
+        while (i < end) {
+            char c = code.charAt(i);
+            if (c == ' ') {
+                int spacesEnd = i;
+                while (spacesEnd < end && code.charAt(spacesEnd) == ' ') {
+                    spacesEnd++;
+                }
+                int removedSpaces = (isNewLine(code, spacesEnd, end) ? 1 : 0) + (afterNewLine ? 1 : 0);
+                if (spacesEnd - i > removedSpaces) {
+                    if (newLinePending) {
+                        out.append('\n');
+                        newLinePending = false;
+                    }
+                    out.append(' ');
+                    afterNewLine = false;
+                }
+                i = spacesEnd;
+            }
+            else if (isNewLine(code, i, end)) {
+                newLinePending = true;
+                afterNewLine = true;
+                i += c == '\r' ? 2 : 1;
+            }
+            else {
+                if (newLinePending) {
+                    out.append('\n');
+                    newLinePending = false;
+                }
+                out.append(c);
+                afterNewLine = false;
+                i++;
+            }
+        }
+    }
+
+    private static boolean isNewLine(@NotNull CharSequence code, int index, int end) {
+        if (index >= end) {
+            return false;
+        }
+        char c = code.charAt(index);
+        return c == '\n' || (c == '\r' && index + 1 < end && code.charAt(index + 1) == '\n');
     }
 
     @Nullable
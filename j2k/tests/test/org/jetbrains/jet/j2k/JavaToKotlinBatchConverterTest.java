@@ -0,0 +1,53 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.j2k;
+
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.testFramework.UsefulTestCase;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+public class JavaToKotlinBatchConverterTest extends UsefulTestCase {
+    public void testSourceTree() throws Exception {
+        File sourceRoot = FileUtil.createTempDirectory("java", null);
+        File outputRoot = FileUtil.createTempDirectory("kotlin", null);
+        FileUtil.writeToFile(new File(sourceRoot, "a/A.java"), "package a; public class A { public b.B b; }");
+        FileUtil.writeToFile(new File(sourceRoot, "b/B.java"), "package b; public class B { public a.A a; }");
+
+        JavaToKotlinBatchConverter converter =
+                new JavaToKotlinBatchConverter(getTestRootDisposable(), sourceRoot, Collections.<File>emptyList());
+        assertEquals(2, converter.getFileCount());
+
+        List<String> errors = converter.convert(outputRoot, 2);
+        assertEmpty(errors);
+
+        String a = FileUtil.loadFile(new File(outputRoot, "a/A.kt"));
+        assertTrue(a, a.contains("class A"));
+        String b = FileUtil.loadFile(new File(outputRoot, "b/B.kt"));
+        assertTrue(b, b.contains("class B"));
+    }
+
+    public void testPrettify() {
+        assertEquals("a\nb", JavaToKotlinTranslator.prettify("  a \n\n\n b  "));
+        assertEquals("a \n b", JavaToKotlinTranslator.prettify("a  \r\n  b"));
+        assertEquals("a b\nc", JavaToKotlinTranslator.prettify("a    b\n \nc"));
+        assertEquals("", JavaToKotlinTranslator.prettify(" \n "));
+        assertEquals("", JavaToKotlinTranslator.prettify(null));
+    }
+}
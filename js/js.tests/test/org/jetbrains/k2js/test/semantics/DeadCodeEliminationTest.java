@@ -0,0 +1,78 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.k2js.test.semantics;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.psi.JetFile;
+import org.jetbrains.jet.lang.resolve.BindingContext;
+import org.jetbrains.k2js.config.EcmaVersion;
+import org.jetbrains.k2js.facade.MainCallParameters;
+import org.jetbrains.k2js.test.SingleFileTranslationTest;
+import org.jetbrains.k2js.test.config.TestConfig;
+import org.jetbrains.k2js.test.config.TestConfigFactory;
+import org.jetbrains.k2js.test.rhino.RhinoSystemOutputChecker;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+public final class DeadCodeEliminationTest extends SingleFileTranslationTest {
+
+    private static final TestConfigFactory DEAD_CODE_ELIMINATION_CONFIG = new TestConfigFactory() {
+        @Override
+        public TestConfig create(@NotNull Project project,
+                @NotNull EcmaVersion version,
+                @NotNull List<JetFile> files,
+                @NotNull BindingContext context) {
+            TestConfig config = new TestConfig(project, version, files, context);
+            config.setEliminateDeadCode(true);
+            return config;
+        }
+    };
+
+    public DeadCodeEliminationTest() {
+        super("deadCodeElimination/");
+    }
+
+    public void testUnreferencedDeclarations() throws Exception {
+        String output = translateAndCheckOutput("OK");
+        assertTrue(output.contains("usedFunction"));
+        assertTrue(output.contains("UsedClass"));
+        assertFalse(output.contains("unusedFunction"));
+        assertFalse(output.contains("UnusedClass"));
+        assertFalse(output.contains("UnusedBase"));
+        assertFalse(output.contains("UnusedDerived"));
+    }
+
+    public void testReferencedFromClass() throws Exception {
+        String output = translateAndCheckOutput("OK");
+        assertTrue(output.contains("helper"));
+        assertTrue(output.contains("Base"));
+    }
+
+    @NotNull
+    private String translateAndCheckOutput(@NotNull String expectedResult) throws Exception {
+        String filename = getTestName(true) + ".kt";
+        generateJavaScriptFiles(Collections.singletonList(getInputFilePath(filename)), filename,
+                                MainCallParameters.mainWithoutArguments(), DEFAULT_ECMA_VERSIONS, DEAD_CODE_ELIMINATION_CONFIG);
+        runRhinoTests(filename, DEFAULT_ECMA_VERSIONS, new RhinoSystemOutputChecker(expectedResult));
+        return FileUtil.loadFile(new File(getOutputFilePath(filename, EcmaVersion.defaultVersion())));
+    }
+}
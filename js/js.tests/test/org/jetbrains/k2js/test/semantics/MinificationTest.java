@@ -0,0 +1,97 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.k2js.test.semantics;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.psi.JetFile;
+import org.jetbrains.jet.lang.resolve.BindingContext;
+import org.jetbrains.k2js.config.EcmaVersion;
+import org.jetbrains.k2js.facade.MainCallParameters;
+import org.jetbrains.k2js.test.SingleFileTranslationTest;
+import org.jetbrains.k2js.test.config.TestConfig;
+import org.jetbrains.k2js.test.config.TestConfigFactory;
+import org.jetbrains.k2js.test.rhino.RhinoSystemOutputChecker;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public final class MinificationTest extends SingleFileTranslationTest {
+
+    private static final TestConfigFactory MINIFICATION_CONFIG = new TestConfigFactory() {
+        @Override
+        public TestConfig create(@NotNull Project project,
+                @NotNull EcmaVersion version,
+                @NotNull List<JetFile> files,
+                @NotNull BindingContext context) {
+            TestConfig config = new TestConfig(project, version, files, context);
+            config.setMinify(true);
+            return config;
+        }
+    };
+
+    public MinificationTest() {
+        super("minification/");
+    }
+
+    public void testLocalNames() throws Exception {
+        String filename = getTestName(true) + ".kt";
+        generateJavaScriptFiles(Collections.singletonList(getInputFilePath(filename)), filename,
+                                MainCallParameters.mainWithoutArguments(), DEFAULT_ECMA_VERSIONS, MINIFICATION_CONFIG);
+        runRhinoTests(filename, DEFAULT_ECMA_VERSIONS, new RhinoSystemOutputChecker("OK"));
+
+        String output = FileUtil.loadFile(new File(getOutputFilePath(filename, EcmaVersion.defaultVersion())));
+        // members are part of the module API, locals and temporaries are renamed
+        assertTrue(output.contains("makeAdder"));
+        assertFalse(output.contains("dividend"));
+        assertFalse(output.contains("tmp$"));
+        assertFalse(output.contains("\n  "));
+    }
+
+    public void testManyLocalNames() throws Exception {
+        // Short names generated for 320th, 736th and 783rd locals would be "if", "in" and "do"
+        int count = 1000;
+        StringBuilder sb = new StringBuilder();
+        sb.append("package foo\n\n");
+        sb.append("fun sum(): Int {\n");
+        sb.append("    val v0 = 0\n");
+        for (int i = 1; i < count; i++) {
+            sb.append("    val v").append(i).append(" = v").append(i - 1).append(" + 1\n");
+        }
+        sb.append("    return v").append(count - 1).append("\n");
+        sb.append("}\n\n");
+        sb.append("fun box(): String = if (sum() == ").append(count - 1).append(") \"OK\" else \"fail\"\n\n");
+        sb.append("fun main(args: Array<String>) {\n");
+        sb.append("    print(box())\n");
+        sb.append("}\n");
+
+        File input = FileUtil.createTempFile("manyLocalNames", ".kt", true);
+        FileUtil.writeToFile(input, sb.toString());
+
+        String filename = getTestName(true) + ".kt";
+        generateJavaScriptFiles(Collections.singletonList(input.getPath()), filename,
+                                MainCallParameters.mainWithoutArguments(), DEFAULT_ECMA_VERSIONS, MINIFICATION_CONFIG);
+        runRhinoTests(filename, DEFAULT_ECMA_VERSIONS, new RhinoSystemOutputChecker("OK"));
+
+        String output = FileUtil.loadFile(new File(getOutputFilePath(filename, EcmaVersion.defaultVersion())));
+        assertFalse(output.contains("v999"));
+        assertFalse(Pattern.compile("[\\s,](if|in|do)\\s*=[^=]").matcher(output).find());
+    }
+}
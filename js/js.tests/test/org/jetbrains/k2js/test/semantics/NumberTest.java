@@ -50,6 +50,10 @@ public final class NumberTest extends SingleFileTranslationTest {
         checkFooBoxIsOk();
     }
 
+    public void testConstantFolding() throws Exception {
+        checkFooBoxIsOk();
+    }
+
     public void testHexademicalConstant() throws Exception {
         try {
             fooBoxTest();
@@ -16,9 +16,13 @@
 
 package org.jetbrains.k2js.test.semantics;
 
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.k2js.config.EcmaVersion;
 import org.jetbrains.k2js.test.SingleFileTranslationTest;
 import org.mozilla.javascript.JavaScriptException;
 
+import java.io.File;
+
 public final class PatternMatchingTest extends SingleFileTranslationTest {
 
     public PatternMatchingTest() {
@@ -85,4 +89,22 @@ public final class PatternMatchingTest extends SingleFileTranslationTest {
     public void testWhenWithOnlyElse() throws Exception {
         fooBoxTest();
     }
-}
\ No newline at end of file
+
+    public void testWhenSwitchOnInt() throws Exception {
+        fooBoxTest();
+    }
+
+    public void testWhenSwitchOnString() throws Exception {
+        fooBoxTest();
+        String output = FileUtil.loadFile(new File(getOutputFilePath(getTestName(true) + ".kt", EcmaVersion.defaultVersion())));
+        assertTrue(output.contains("switch"));
+    }
+
+    public void testWhenWithBreakInLoop() throws Exception {
+        fooBoxTest();
+    }
+
+    public void testWhenWithConstantConditions() throws Exception {
+        fooBoxTest();
+    }
+}
@@ -19,17 +19,35 @@ package org.jetbrains.js.compiler;
 import com.google.dart.compiler.backend.js.JsToStringGenerationVisitor;
 import com.google.dart.compiler.backend.js.ast.*;
 import com.google.dart.compiler.util.TextOutput;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.js.compiler.sourcemap.SourceMap3Builder;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static com.google.dart.compiler.backend.js.ast.JsVars.JsVar;
 
 public class JsSourceGenerationVisitor extends JsToStringGenerationVisitor implements TextOutput.OutListener {
     @Nullable
     private final SourceMapBuilder sourceMapBuilder;
 
+    // new names of declarations and references, the original names are recorded in the source map
+    @NotNull
+    private final Map<JsNode, JsName> renamedNodes;
+
     private Object pendingSourceInfo;
+    private String pendingOriginalName;
+    private String originalName;
 
     public JsSourceGenerationVisitor(TextOutput out, @Nullable SourceMapBuilder sourceMapBuilder) {
+        this(out, sourceMapBuilder, Collections.<JsNode, JsName>emptyMap());
+    }
+
+    public JsSourceGenerationVisitor(TextOutput out, @Nullable SourceMapBuilder sourceMapBuilder, @NotNull Map<JsNode, JsName> renamedNodes) {
         super(out);
         this.sourceMapBuilder = sourceMapBuilder;
+        this.renamedNodes = renamedNodes;
         out.setOutListener(this);
     }
 
@@ -54,15 +72,19 @@ public class JsSourceGenerationVisitor extends JsToStringGenerationVisitor imple
     public void indentedAfterNewLine() {
         if (pendingSourceInfo != null) {
             assert sourceMapBuilder != null;
-            sourceMapBuilder.processSourceInfo(pendingSourceInfo);
+            processSourceInfo(pendingSourceInfo, pendingOriginalName);
             pendingSourceInfo = null;
+            pendingOriginalName = null;
         }
     }
 
     @Override
     public void accept(JsNode node) {
         if (!(node instanceof JsNameRef)) {
+            JsName newName = renamedNodes.get(node);
+            originalName = newName != null ? ((HasName) node).getName().getIdent() : null;
             mapSource(node);
+            originalName = null;
         }
         super.accept(node);
     }
@@ -74,14 +96,59 @@ public class JsSourceGenerationVisitor extends JsToStringGenerationVisitor imple
                 assert pendingSourceInfo == null;
                 if (p.isJustNewlined()) {
                     pendingSourceInfo = sourceInfo;
+                    pendingOriginalName = originalName;
                 }
                 else {
-                    sourceMapBuilder.processSourceInfo(sourceInfo);
+                    processSourceInfo(sourceInfo, originalName);
                 }
             }
         }
     }
 
+    private void processSourceInfo(@NotNull Object sourceInfo, @Nullable String name) {
+        assert sourceMapBuilder != null;
+        if (name != null && sourceMapBuilder instanceof SourceMap3Builder) {
+            ((SourceMap3Builder) sourceMapBuilder).setNextMappingName(name);
+            sourceMapBuilder.processSourceInfo(sourceInfo);
+            ((SourceMap3Builder) sourceMapBuilder).setNextMappingName(null);
+        }
+        else {
+            sourceMapBuilder.processSourceInfo(sourceInfo);
+        }
+    }
+
+    @Override
+    public void visitNameRef(JsNameRef nameRef) {
+        JsName newName = renamedNodes.get(nameRef);
+        if (newName == null) {
+            super.visitNameRef(nameRef);
+            return;
+        }
+
+        JsNameRef renamed = newName.makeRef();
+        renamed.setSource(nameRef.getSource());
+        originalName = nameRef.getIdent();
+        super.visitNameRef(renamed);
+        originalName = null;
+    }
+
+    @Override
+    public void visitParameter(JsParameter x) {
+        JsName newName = renamedNodes.get(x);
+        super.visitParameter(newName != null ? new JsParameter(newName) : x);
+    }
+
+    @Override
+    public void visit(JsVar var) {
+        JsName newName = renamedNodes.get(var);
+        if (newName == null) {
+            super.visit(var);
+            return;
+        }
+
+        super.visit(new JsVar(newName, var.getInitExpression()));
+    }
+
     @Override
     protected void beforeNodePrinted(JsNode node) {
         mapSource(node);
@@ -4,6 +4,7 @@ import com.google.dart.compiler.common.SourceInfo;
 import com.google.dart.compiler.util.TextOutput;
 import com.intellij.util.PairConsumer;
 import gnu.trove.TObjectIntHashMap;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.js.compiler.SourceMapBuilder;
 
 import java.io.File;
@@ -29,10 +30,16 @@ public class SourceMap3Builder implements SourceMapBuilder {
 
     private final List<String> orderedSources = new ArrayList<String>();
 
+    private final TObjectIntHashMap<String> names = new TObjectIntHashMap<String>();
+    private final List<String> orderedNames = new ArrayList<String>();
+    @Nullable
+    private String nextMappingName;
+
     private int previousGeneratedColumn = -1;
     private int previousSourceIndex;
     private int previousSourceLine;
     private int previousSourceColumn;
+    private int previousNameIndex;
 
     public SourceMap3Builder(File generatedFile, TextOutput textOutput, PairConsumer<SourceMapBuilder, Object> sourceInfoConsumer) {
         this.generatedFile = generatedFile;
@@ -51,6 +58,7 @@ public class SourceMap3Builder implements SourceMapBuilder {
         sb.append("{\"version\":3,\"file\":\"").append(generatedFile.getName()).append('"').append(',');
         appendSources(sb);
         sb.append(",\"names\":[");
+        appendNames(sb);
         sb.append("],\"mappings\":\"");
         sb.append(out);
         sb.append("\"}");
@@ -72,6 +80,37 @@ public class SourceMap3Builder implements SourceMapBuilder {
         sb.append(']');
     }
 
+    private void appendNames(StringBuilder sb) {
+        boolean isNotFirst = false;
+        for (String name : orderedNames) {
+            if (isNotFirst) {
+                sb.append(',');
+            }
+            else {
+                isNotFirst = true;
+            }
+            sb.append('"').append(name).append('"');
+        }
+    }
+
+    /**
+     * The original name of the symbol printed at the next mapping, used for renamed identifiers
+     */
+    public void setNextMappingName(@Nullable String name) {
+        nextMappingName = name;
+    }
+
+    private int getNameIndex(String name) {
+        if (names.containsKey(name)) {
+            return names.get(name);
+        }
+
+        int nameIndex = orderedNames.size();
+        names.put(name, nameIndex);
+        orderedNames.add(name);
+        return nameIndex;
+    }
+
     @Override
     public void newLine() {
         out.append(';');
@@ -127,6 +166,12 @@ public class SourceMap3Builder implements SourceMapBuilder {
 
         Base64VLQ.encode(out, sourceColumn - previousSourceColumn);
         previousSourceColumn = sourceColumn;
+
+        if (nextMappingName != null) {
+            int nameIndex = getNameIndex(nextMappingName);
+            Base64VLQ.encode(out, nameIndex - previousNameIndex);
+            previousNameIndex = nameIndex;
+        }
     }
 
     @Override
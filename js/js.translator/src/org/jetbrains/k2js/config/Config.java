@@ -149,6 +149,10 @@ public abstract class Config {
 
     private final boolean sourcemap;
 
+    private boolean eliminateDeadCode = false;
+
+    private boolean minify = false;
+
     public Config(@NotNull Project project, @NotNull String moduleId, @NotNull EcmaVersion ecmaVersion) {
         this(project, moduleId, ecmaVersion, false);
     }
@@ -164,6 +168,29 @@ public abstract class Config {
         return sourcemap;
     }
 
+    /**
+     * If set, declarations unreachable from main function and tests are removed from the output,
+     * so they can't be used from other JavaScript code
+     */
+    public boolean isEliminateDeadCode() {
+        return eliminateDeadCode;
+    }
+
+    public void setEliminateDeadCode(boolean eliminateDeadCode) {
+        this.eliminateDeadCode = eliminateDeadCode;
+    }
+
+    /**
+     * If set, local variables and parameters get the shortest possible names and no whitespace is generated
+     */
+    public boolean isMinify() {
+        return minify;
+    }
+
+    public void setMinify(boolean minify) {
+        this.minify = minify;
+    }
+
     @NotNull
     public Project getProject() {
         return project;
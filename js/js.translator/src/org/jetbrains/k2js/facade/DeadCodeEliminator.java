@@ -0,0 +1,233 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.k2js.facade;
+
+import com.google.dart.compiler.backend.js.ast.*;
+import com.google.dart.compiler.util.TextOutputImpl;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.js.compiler.JsSourceGenerationVisitor;
+import org.jetbrains.k2js.translate.context.Namer;
+
+import java.util.*;
+
+import static com.google.dart.compiler.backend.js.ast.JsVars.JsVar;
+
+/**
+ * Removes package members (functions and classes) which are never referenced from the code reachable
+ * from the entry points of the program: main call, tests, package initializers.
+ *
+ * References are tracked by names: a member is kept if any reachable code mentions an identifier or a string equal to its name.
+ * This is conservative and does not require any knowledge about JavaScript semantics.
+ */
+public final class DeadCodeEliminator {
+
+    public static final class Statistics {
+        private final int removedDeclarations;
+        private final int removedBytes;
+
+        private Statistics(int removedDeclarations, int removedBytes) {
+            this.removedDeclarations = removedDeclarations;
+            this.removedBytes = removedBytes;
+        }
+
+        public int getRemovedDeclarations() {
+            return removedDeclarations;
+        }
+
+        public int getRemovedBytes() {
+            return removedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "Dead code elimination removed " + removedDeclarations + " declarations (" + removedBytes + " bytes)";
+        }
+    }
+
+    private static final Set<String> PACKAGE_DEFINITION_METHODS = ContainerUtil.newHashSet("definePackage", "defineRootPackage");
+
+    @NotNull
+    public static Statistics eliminate(@NotNull JsProgram program) {
+        return new DeadCodeEliminator().doEliminate(program);
+    }
+
+    private final List<Candidate> candidates = new ArrayList<Candidate>();
+    private final Set<String> referencedNames = new HashSet<String>();
+    private final ReferenceCollector collector = new ReferenceCollector();
+
+    private DeadCodeEliminator() {
+    }
+
+    @NotNull
+    private Statistics doEliminate(@NotNull JsProgram program) {
+        collector.accept(program);
+
+        List<Candidate> unreachable = new ArrayList<Candidate>(candidates);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Iterator<Candidate> iterator = unreachable.iterator(); iterator.hasNext(); ) {
+                Candidate candidate = iterator.next();
+                if (referencedNames.contains(candidate.name)) {
+                    iterator.remove();
+                    collector.accept(candidate.initializer.getValueExpr());
+                    changed = true;
+                }
+            }
+        }
+
+        int removedBytes = 0;
+        for (Candidate candidate : unreachable) {
+            removedBytes += getSourceLength(candidate.initializer);
+            candidate.owner.remove(candidate.initializer);
+        }
+        return new Statistics(unreachable.size(), removedBytes);
+    }
+
+    private static int getSourceLength(@NotNull JsNode node) {
+        TextOutputImpl output = new TextOutputImpl();
+        new JsSourceGenerationVisitor(output, null).accept(node);
+        return output.toString().length();
+    }
+
+    private void addCandidates(@NotNull JsObjectLiteral literal) {
+        List<JsPropertyInitializer> initializers = literal.getPropertyInitializers();
+        for (JsPropertyInitializer initializer : initializers) {
+            String name = getLabelName(initializer.getLabelExpr());
+            if (name != null && isRemovable(initializer.getValueExpr())) {
+                candidates.add(new Candidate(name, initializer, initializers));
+            }
+            else {
+                collector.accept(initializer);
+            }
+        }
+    }
+
+    private static String getLabelName(@NotNull JsExpression label) {
+        if (label instanceof JsNameRef) {
+            return ((JsNameRef) label).getIdent();
+        }
+        if (label instanceof JsStringLiteral) {
+            return ((JsStringLiteral) label).getValue();
+        }
+        return null;
+    }
+
+    // Functions, classes (created by Kotlin runtime functions without side effects) and aliases of classes
+    private static boolean isRemovable(@NotNull JsExpression value) {
+        if (value instanceof JsFunction || value instanceof JsNameRef) {
+            return true;
+        }
+        if (value instanceof JsInvocation) {
+            JsInvocation invocation = (JsInvocation) value;
+            return isKotlinRuntimeCall(invocation) && !isPackageDefinition(invocation);
+        }
+        return false;
+    }
+
+    private static boolean isKotlinRuntimeCall(@NotNull JsInvocation invocation) {
+        JsExpression qualifier = invocation.getQualifier();
+        if (!(qualifier instanceof JsNameRef)) return false;
+
+        JsExpression receiver = ((JsNameRef) qualifier).getQualifier();
+        return receiver instanceof JsNameRef && Namer.KOTLIN_NAME.equals(((JsNameRef) receiver).getIdent());
+    }
+
+    private static boolean isPackageDefinition(@NotNull JsInvocation invocation) {
+        return isKotlinRuntimeCall(invocation) &&
+               PACKAGE_DEFINITION_METHODS.contains(((JsNameRef) invocation.getQualifier()).getIdent());
+    }
+
+    private static final class Candidate {
+        private final String name;
+        private final JsPropertyInitializer initializer;
+        private final List<JsPropertyInitializer> owner;
+
+        private Candidate(@NotNull String name, @NotNull JsPropertyInitializer initializer, @NotNull List<JsPropertyInitializer> owner) {
+            this.name = name;
+            this.initializer = initializer;
+            this.owner = owner;
+        }
+    }
+
+    private final class ReferenceCollector extends RecursiveJsVisitor {
+        @Override
+        public void visitNameRef(JsNameRef nameRef) {
+            referencedNames.add(nameRef.getIdent());
+            super.visitNameRef(nameRef);
+        }
+
+        @Override
+        public void visitString(JsStringLiteral x) {
+            referencedNames.add(x.getValue());
+        }
+
+        @Override
+        public void visitPropertyInitializer(JsPropertyInitializer x) {
+            // a label of an object literal is not a reference
+            accept(x.getValueExpr());
+        }
+
+        @Override
+        public void visitInvocation(JsInvocation invocation) {
+            if (!isPackageDefinition(invocation)) {
+                super.visitInvocation(invocation);
+                return;
+            }
+
+            accept(invocation.getQualifier());
+            for (JsExpression argument : invocation.getArguments()) {
+                if (argument instanceof JsObjectLiteral) {
+                    addCandidates((JsObjectLiteral) argument);
+                }
+                else {
+                    accept(argument);
+                }
+            }
+        }
+
+        @Override
+        public void visit(JsVar x) {
+            JsExpression initializer = x.getInitExpression();
+            if (!Namer.nameForClassesVariable().equals(x.getName().getIdent()) || initializer == null) {
+                super.visit(x);
+                return;
+            }
+
+            // classes are either defined right in an object literal or returned in it from a function defining open classes
+            if (initializer instanceof JsObjectLiteral) {
+                addCandidates((JsObjectLiteral) initializer);
+            }
+            else if (initializer instanceof JsInvocation && ((JsInvocation) initializer).getQualifier() instanceof JsFunction) {
+                JsFunction function = (JsFunction) ((JsInvocation) initializer).getQualifier();
+                for (JsStatement statement : function.getBody().getStatements()) {
+                    if (statement instanceof JsReturn && ((JsReturn) statement).getExpression() instanceof JsObjectLiteral) {
+                        addCandidates((JsObjectLiteral) ((JsReturn) statement).getExpression());
+                    }
+                    else {
+                        accept(statement);
+                    }
+                }
+            }
+            else {
+                super.visit(x);
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.k2js.facade;
+
+import com.google.dart.compiler.backend.js.JsReservedIdentifiers;
+import com.google.dart.compiler.backend.js.ast.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+import static com.google.dart.compiler.backend.js.ast.JsVars.JsVar;
+
+/**
+ * Chooses the shortest possible names for parameters and local variables of functions.
+ *
+ * The program is not modified: the result maps declarations and references to their new names
+ * and is used by {@link org.jetbrains.js.compiler.JsSourceGenerationVisitor} when the source is printed.
+ * Names which are visible outside of functions (global variables, properties) are part of the module API and are kept.
+ * New names never coincide with identifiers which are already used in the program,
+ * and names in inner functions never shadow renamed names of enclosing functions.
+ */
+public final class JsNameMinifier {
+
+    private static final String FIRST_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String NEXT_CHARS = FIRST_CHARS + "0123456789";
+
+    // Keywords, literals and future reserved words of ECMAScript 3 and 5, JsReservedIdentifiers contains only some of them
+    private static final Set<String> KEYWORDS = new HashSet<String>(Arrays.asList(
+            "break", "case", "catch", "continue", "debugger", "default", "delete", "do", "else", "finally", "for", "function",
+            "if", "in", "instanceof", "new", "return", "switch", "this", "throw", "try", "typeof", "var", "void", "while", "with",
+            "null", "true", "false",
+            "class", "const", "enum", "export", "extends", "import", "super",
+            "implements", "interface", "let", "package", "private", "protected", "public", "static", "yield",
+            "abstract", "boolean", "byte", "char", "double", "final", "float", "goto", "int", "long", "native", "short",
+            "synchronized", "throws", "transient", "volatile"
+    ));
+
+    @NotNull
+    public static Map<JsNode, JsName> minify(@NotNull JsProgram program) {
+        JsNameMinifier minifier = new JsNameMinifier();
+        minifier.new IdentifierCollector().accept(program);
+        minifier.new Renamer().accept(program);
+        return minifier.renamedNodes;
+    }
+
+    private final Set<String> usedIdentifiers = new HashSet<String>();
+    // names of catch parameters, for-in variables and named functions can't be changed in the AST, so they are never renamed
+    private final Set<String> fixedIdentifiers = new HashSet<String>();
+    private final List<String> shortIdentifiers = new ArrayList<String>();
+    private int shortIdentifierCounter = 0;
+
+    private final Map<JsNode, JsName> renamedNodes = new IdentityHashMap<JsNode, JsName>();
+
+    private JsNameMinifier() {
+    }
+
+    @NotNull
+    private String getShortIdentifier(int index) {
+        while (shortIdentifiers.size() <= index) {
+            String candidate = generateIdentifier(shortIdentifierCounter++);
+            if (!usedIdentifiers.contains(candidate) && !KEYWORDS.contains(candidate) &&
+                !JsReservedIdentifiers.reservedGlobalSymbols.contains(candidate)) {
+                shortIdentifiers.add(candidate);
+            }
+        }
+        return shortIdentifiers.get(index);
+    }
+
+    @NotNull
+    private static String generateIdentifier(int counter) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(FIRST_CHARS.charAt(counter % FIRST_CHARS.length()));
+        counter /= FIRST_CHARS.length();
+        while (counter > 0) {
+            counter--;
+            sb.append(NEXT_CHARS.charAt(counter % NEXT_CHARS.length()));
+            counter /= NEXT_CHARS.length();
+        }
+        return sb.toString();
+    }
+
+    private final class IdentifierCollector extends RecursiveJsVisitor {
+        @Override
+        public void visitNameRef(JsNameRef nameRef) {
+            if (nameRef.getQualifier() == null) {
+                usedIdentifiers.add(nameRef.getIdent());
+            }
+            super.visitNameRef(nameRef);
+        }
+
+        @Override
+        public void visitPropertyInitializer(JsPropertyInitializer x) {
+            // a label of an object literal is a property name
+            accept(x.getValueExpr());
+        }
+
+        @Override
+        public void visitParameter(JsParameter x) {
+            usedIdentifiers.add(x.getName().getIdent());
+        }
+
+        @Override
+        public void visit(JsVar x) {
+            usedIdentifiers.add(x.getName().getIdent());
+            super.visit(x);
+        }
+
+        @Override
+        public void visitFunction(JsFunction x) {
+            addFixed(x.getName());
+            super.visitFunction(x);
+        }
+
+        @Override
+        public void visitCatch(JsCatch x) {
+            addFixed(x.getParameter().getName());
+            super.visitCatch(x);
+        }
+
+        @Override
+        public void visitForIn(JsForIn x) {
+            addFixed(x.getIterVarName());
+            super.visitForIn(x);
+        }
+
+        private void addFixed(@Nullable JsName name) {
+            if (name != null) {
+                usedIdentifiers.add(name.getIdent());
+                fixedIdentifiers.add(name.getIdent());
+            }
+        }
+    }
+
+    // Collects names declared by a function, var declarations are visible in the whole function body
+    private static final class DeclarationCollector extends RecursiveJsVisitor {
+        private final Set<String> declaredIdentifiers = new LinkedHashSet<String>();
+
+        @NotNull
+        public static Set<String> collect(@NotNull JsFunction function) {
+            DeclarationCollector collector = new DeclarationCollector();
+            for (JsParameter parameter : function.getParameters()) {
+                collector.declaredIdentifiers.add(parameter.getName().getIdent());
+            }
+            collector.accept(function.getBody());
+            return collector.declaredIdentifiers;
+        }
+
+        @Override
+        public void visit(JsVar x) {
+            declaredIdentifiers.add(x.getName().getIdent());
+            super.visit(x);
+        }
+
+        @Override
+        public void visitForIn(JsForIn x) {
+            if (x.getIterVarName() != null) {
+                declaredIdentifiers.add(x.getIterVarName().getIdent());
+            }
+            super.visitForIn(x);
+        }
+
+        @Override
+        public void visitFunction(JsFunction x) {
+            // a named inner function is declared in this function, the rest of its declarations are its own
+            if (x.getName() != null) {
+                declaredIdentifiers.add(x.getName().getIdent());
+            }
+        }
+    }
+
+    private final class Renamer extends RecursiveJsVisitor {
+        // innermost scope is the last one, declared but not renamed identifiers are mapped to null
+        private final List<Map<String, JsName>> scopes = new ArrayList<Map<String, JsName>>();
+        private int nextIndex = 0;
+
+        @Override
+        public void visitFunction(JsFunction x) {
+            int savedNextIndex = nextIndex;
+            Map<String, JsName> scope = new HashMap<String, JsName>();
+            for (String identifier : DeclarationCollector.collect(x)) {
+                if (fixedIdentifiers.contains(identifier)) {
+                    scope.put(identifier, null);
+                }
+                else {
+                    scope.put(identifier, x.getScope().declareName(getShortIdentifier(nextIndex++)));
+                }
+            }
+
+            scopes.add(scope);
+            super.visitFunction(x);
+            scopes.remove(scopes.size() - 1);
+            nextIndex = savedNextIndex;
+        }
+
+        @Override
+        public void visitCatch(JsCatch x) {
+            scopes.add(Collections.<String, JsName>singletonMap(x.getParameter().getName().getIdent(), null));
+            if (x.getCondition() != null) {
+                accept(x.getCondition());
+            }
+            accept(x.getBody());
+            scopes.remove(scopes.size() - 1);
+        }
+
+        @Override
+        public void visitParameter(JsParameter x) {
+            rename(x, x.getName().getIdent());
+        }
+
+        @Override
+        public void visit(JsVar x) {
+            rename(x, x.getName().getIdent());
+            super.visit(x);
+        }
+
+        @Override
+        public void visitNameRef(JsNameRef nameRef) {
+            if (nameRef.getQualifier() == null) {
+                rename(nameRef, nameRef.getIdent());
+            }
+            super.visitNameRef(nameRef);
+        }
+
+        @Override
+        public void visitPropertyInitializer(JsPropertyInitializer x) {
+            accept(x.getValueExpr());
+        }
+
+        private void rename(@NotNull JsNode node, @NotNull String identifier) {
+            for (int i = scopes.size() - 1; i >= 0; i--) {
+                Map<String, JsName> scope = scopes.get(i);
+                if (scope.containsKey(identifier)) {
+                    JsName newName = scope.get(identifier);
+                    if (newName != null) {
+                        renamedNodes.put(node, newName);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.jetbrains.k2js.facade;
 
+import com.google.dart.compiler.backend.js.ast.JsName;
+import com.google.dart.compiler.backend.js.ast.JsNode;
 import com.google.dart.compiler.backend.js.ast.JsProgram;
 import com.google.dart.compiler.util.TextOutputImpl;
 import com.intellij.openapi.project.Project;
@@ -37,6 +39,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.jetbrains.k2js.facade.FacadeUtils.parseString;
 
@@ -48,24 +51,32 @@ public final class K2JSTranslator {
     public static final String FLUSH_SYSTEM_OUT = "Kotlin.System.flush();\n";
     public static final String GET_SYSTEM_OUT = "Kotlin.System.output();\n";
 
-    public static void translateWithMainCallParametersAndSaveToFile(@NotNull MainCallParameters mainCall,
+    /**
+     * @return statistics of dead code elimination or null if it was not performed
+     */
+    @Nullable
+    public static DeadCodeEliminator.Statistics translateWithMainCallParametersAndSaveToFile(@NotNull MainCallParameters mainCall,
             @NotNull List<JetFile> files,
             @NotNull String outputPath,
             @NotNull Config config) throws TranslationException, IOException {
         K2JSTranslator translator = new K2JSTranslator(config);
         File outFile = new File(outputPath);
-        TextOutputImpl output = new TextOutputImpl();
+        TextOutputImpl output = new TextOutputImpl(config.isMinify());
         SourceMapBuilder sourceMapBuilder = config.isSourcemap() ? new SourceMap3Builder(outFile, output, new SourceMapBuilderConsumer()) : null;
         String programCode = translator.generateProgramCode(files, mainCall, output, sourceMapBuilder);
         FileUtil.writeToFile(outFile, programCode);
         if (sourceMapBuilder != null) {
             FileUtil.writeToFile(sourceMapBuilder.getOutFile(), sourceMapBuilder.build());
         }
+        return translator.deadCodeEliminationStatistics;
     }
 
     @NotNull
     private final Config config;
 
+    @Nullable
+    private DeadCodeEliminator.Statistics deadCodeEliminationStatistics = null;
+
 
     public K2JSTranslator(@NotNull Config config) {
         this.config = config;
@@ -88,7 +99,7 @@ public final class K2JSTranslator {
     @NotNull
     public String generateProgramCode(@NotNull List<JetFile> files, @NotNull MainCallParameters mainCallParameters)
             throws TranslationException {
-        return generateProgramCode(files, mainCallParameters, new TextOutputImpl(), null);
+        return generateProgramCode(files, mainCallParameters, new TextOutputImpl(config.isMinify()), null);
     }
 
     @NotNull
@@ -99,7 +110,12 @@ public final class K2JSTranslator {
             @Nullable SourceMapBuilder sourceMapBuilder
     ) throws TranslationException {
         JsProgram program = generateProgram(files, mainCallParameters);
-        JsSourceGenerationVisitor sourceGenerator = new JsSourceGenerationVisitor(output, sourceMapBuilder);
+        // without main call every declaration is a part of the module API
+        if (config.isEliminateDeadCode() && mainCallParameters.shouldBeGenerated()) {
+            deadCodeEliminationStatistics = DeadCodeEliminator.eliminate(program);
+        }
+        Map<JsNode, JsName> renamedNodes = config.isMinify() ? JsNameMinifier.minify(program) : Collections.<JsNode, JsName>emptyMap();
+        JsSourceGenerationVisitor sourceGenerator = new JsSourceGenerationVisitor(output, sourceMapBuilder, renamedNodes);
         program.accept(sourceGenerator);
         return output.toString();
     }
@@ -49,6 +49,8 @@ public final class PropertyTranslator extends AbstractTranslator {
     private final PropertyDescriptor descriptor;
     @Nullable
     private final JetProperty declaration;
+    @Nullable
+    private JsNameRef propertyMetadata;
 
     public static void translateAccessors(@NotNull PropertyDescriptor descriptor, @NotNull List<JsPropertyInitializer> result, @NotNull TranslationContext context) {
         translateAccessors(descriptor, null, result, context);
@@ -136,9 +138,13 @@ public final class PropertyTranslator extends AbstractTranslator {
     }
 
     private JsExpression createPropertyMetadata() {
-        JsNameRef propertyMetadataRef = context().namer().propertyMetadataRef();
-        JsExpression argument = context().program().getStringLiteral(getPropertyName());
-        return new JsNew(propertyMetadataRef, Collections.singletonList(argument));
+        if (propertyMetadata == null) {
+            JsNameRef propertyMetadataRef = context().namer().propertyMetadataRef();
+            JsExpression argument = context().program().getStringLiteral(getPropertyName());
+            JsExpression metadata = new JsNew(propertyMetadataRef, Collections.singletonList(argument));
+            propertyMetadata = context().literalFunctionTranslator().defineValue(metadata);
+        }
+        return propertyMetadata;
     }
 
     private JsExpression getDelegateCall(ResolvedCall<FunctionDescriptor> call, List<JsExpression> args) {
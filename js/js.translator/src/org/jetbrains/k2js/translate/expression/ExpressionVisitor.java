@@ -74,6 +74,12 @@ public final class ExpressionVisitor extends TranslatorVisitor<JsNode> {
 
         assert compileTimeValue != null;
 
+        return translateConstant(compileTimeValue, expression, context);
+    }
+
+    @NotNull
+    public static JsExpression translateConstant(@NotNull CompileTimeConstant<?> compileTimeValue, @NotNull JetExpression expression,
+            @NotNull TranslationContext context) {
         if (compileTimeValue instanceof NullValue) {
             return JsLiteral.NULL;
         }
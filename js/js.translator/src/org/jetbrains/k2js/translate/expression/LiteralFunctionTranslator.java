@@ -133,9 +133,17 @@ public class LiteralFunctionTranslator extends AbstractTranslator {
     }
 
     private JsNameRef createReference(JsFunction fun) {
+        return defineValue(fun);
+    }
+
+    /**
+     * Hoists the value to the current definition place, so it is evaluated once instead of on every use.
+     */
+    @NotNull
+    public JsNameRef defineValue(@NotNull JsExpression value) {
         Trinity<List<JsPropertyInitializer>, LabelGenerator, JsExpression> place = definitionPlace.getValue();
         JsNameRef nameRef = new JsNameRef(place.second.generate(), place.third);
-        place.first.add(new JsPropertyInitializer(nameRef, fun));
+        place.first.add(new JsPropertyInitializer(nameRef, value));
         return nameRef;
     }
 
@@ -18,9 +18,13 @@ package org.jetbrains.k2js.translate.expression;
 
 import com.google.dart.compiler.backend.js.ast.*;
 import com.intellij.openapi.util.Pair;
+import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.descriptors.ClassifierDescriptor;
 import org.jetbrains.jet.lang.psi.*;
+import org.jetbrains.jet.lang.types.JetType;
+import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns;
 import org.jetbrains.k2js.translate.context.TranslationContext;
 import org.jetbrains.k2js.translate.general.AbstractTranslator;
 import org.jetbrains.k2js.translate.general.Translation;
@@ -80,10 +84,20 @@ public final class WhenTranslator extends AbstractTranslator {
     private void translateAsStatement(List<JsStatement> statements) {
         addTempVarsStatement(statements);
 
+        if (canBeTranslatedAsSwitch()) {
+            statements.add(translateAsSwitch());
+            return;
+        }
+
         JsIf prevIf = null;
         for (JetWhenEntry entry : whenExpression.getEntries()) {
+            Boolean constantCondition = getConstantConditionValue(entry);
+            if (Boolean.FALSE.equals(constantCondition)) {
+                continue;
+            }
+
             JsStatement statement = withReturnValueCaptured(translateEntryExpression(entry));
-            if (entry.isElse()) {
+            if (entry.isElse() || Boolean.TRUE.equals(constantCondition)) {
                 if (prevIf == null) {
                     statements.add(statement);
                 }
@@ -104,6 +118,105 @@ public final class WhenTranslator extends AbstractTranslator {
         }
     }
 
+    // Value of the entry condition if it is known at compile time, for when without subject only.
+    @Nullable
+    private Boolean getConstantConditionValue(@NotNull JetWhenEntry entry) {
+        if (expressionToMatch != null || entry.isElse()) {
+            return null;
+        }
+
+        boolean allFalse = true;
+        for (JetWhenCondition condition : entry.getConditions()) {
+            Object value = getConstantValue(condition);
+            if (Boolean.TRUE.equals(value)) {
+                return true;
+            }
+            if (!Boolean.FALSE.equals(value)) {
+                allFalse = false;
+            }
+        }
+        return allFalse ? false : null;
+    }
+
+    @Nullable
+    private Object getConstantValue(@NotNull JetWhenCondition condition) {
+        if (!(condition instanceof JetWhenConditionWithExpression)) {
+            return null;
+        }
+        JetExpression expression = ((JetWhenConditionWithExpression) condition).getExpression();
+        return expression != null ? BindingUtils.getCompileTimeValue(bindingContext(), expression) : null;
+    }
+
+    private boolean canBeTranslatedAsSwitch() {
+        JetExpression subject = whenExpression.getSubjectExpression();
+        if (subject == null || !isSwitchableType(BindingUtils.getTypeForExpression(bindingContext(), subject))) {
+            return false;
+        }
+
+        boolean hasCases = false;
+        for (JetWhenEntry entry : whenExpression.getEntries()) {
+            // unlabeled break inside the entry would leave the switch instead of the enclosing loop
+            for (JetBreakExpression breakExpression : PsiTreeUtil.findChildrenOfType(entry, JetBreakExpression.class)) {
+                if (breakExpression.getTargetLabel() == null) {
+                    return false;
+                }
+            }
+            if (entry.isElse()) {
+                continue;
+            }
+            for (JetWhenCondition condition : entry.getConditions()) {
+                Object value = getConstantValue(condition);
+                if (!(value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof String)) {
+                    return false;
+                }
+                hasCases = true;
+            }
+        }
+        return hasCases;
+    }
+
+    private static boolean isSwitchableType(@NotNull JetType type) {
+        ClassifierDescriptor descriptor = type.getConstructor().getDeclarationDescriptor();
+        KotlinBuiltIns builtIns = KotlinBuiltIns.getInstance();
+        return descriptor == builtIns.getInt() ||
+               descriptor == builtIns.getShort() ||
+               descriptor == builtIns.getByte() ||
+               descriptor == builtIns.getString();
+    }
+
+    @NotNull
+    private JsSwitch translateAsSwitch() {
+        JsExpression expressionToMatch = getExpressionToMatch();
+        assert expressionToMatch != null : "Switch can only be generated for when with subject.";
+
+        JsSwitch jsSwitch = new JsSwitch();
+        jsSwitch.setExpression(expressionToMatch);
+        List<JsSwitchMember> cases = jsSwitch.getCases();
+        for (JetWhenEntry entry : whenExpression.getEntries()) {
+            JsStatement statement = withReturnValueCaptured(translateEntryExpression(entry));
+            if (entry.isElse()) {
+                JsDefault jsDefault = new JsDefault();
+                jsDefault.getStatements().add(statement);
+                cases.add(jsDefault);
+                break;
+            }
+
+            JsCase jsCase = null;
+            for (JetWhenCondition condition : entry.getConditions()) {
+                JetExpression patternExpression = ((JetWhenConditionWithExpression) condition).getExpression();
+                assert patternExpression != null : "Expression pattern should have an expression.";
+                jsCase = new JsCase();
+                JsExpression caseExpression = Translation.patternTranslator(context()).translateExpressionForExpressionPattern(patternExpression);
+                jsCase.setCaseExpression(caseExpression);
+                cases.add(jsCase);
+            }
+            assert jsCase != null : "When entry (not else) should have at least one condition";
+            jsCase.getStatements().add(statement);
+            jsCase.getStatements().add(new JsBreak());
+        }
+        return jsSwitch;
+    }
+
     private void addTempVarsStatement(List<JsStatement> statements) {
         JsVars vars = new JsVars();
         if (expressionToMatch != null && expressionToMatch.first != null) {
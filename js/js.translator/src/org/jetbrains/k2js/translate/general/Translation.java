@@ -20,11 +20,14 @@ import com.google.dart.compiler.backend.js.ast.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jet.lang.descriptors.FunctionDescriptor;
+import org.jetbrains.jet.lang.psi.JetConstantExpression;
 import org.jetbrains.jet.lang.psi.JetDeclarationWithBody;
 import org.jetbrains.jet.lang.psi.JetExpression;
 import org.jetbrains.jet.lang.psi.JetFile;
 import org.jetbrains.jet.lang.psi.JetNamedFunction;
 import org.jetbrains.jet.lang.resolve.BindingContext;
+import org.jetbrains.jet.lang.resolve.constants.CompileTimeConstant;
+import org.jetbrains.jet.lang.resolve.constants.ErrorValue;
 import org.jetbrains.k2js.config.Config;
 import org.jetbrains.k2js.facade.MainCallParameters;
 import org.jetbrains.k2js.facade.exceptions.MainFunctionNotFoundException;
@@ -79,6 +82,10 @@ public final class Translation {
         if (aliasForExpression != null) {
             return aliasForExpression.makeRef();
         }
+        CompileTimeConstant<?> compileTimeValue = context.bindingContext().get(BindingContext.COMPILE_TIME_VALUE, expression);
+        if (compileTimeValue != null && isFoldedConstantTranslatable(compileTimeValue, expression)) {
+            return ExpressionVisitor.translateConstant(compileTimeValue, expression, context);
+        }
         DangerousData data = collect(expression, context);
         if (data.shouldBeTranslated()) {
             return DangerousTranslator.translate(data, context);
@@ -86,6 +93,13 @@ public final class Translation {
         return doTranslateExpression(expression, context);
     }
 
+    private static boolean isFoldedConstantTranslatable(@NotNull CompileTimeConstant<?> compileTimeValue, @NotNull JetExpression expression) {
+        if (expression instanceof JetConstantExpression || compileTimeValue instanceof ErrorValue) return false;
+        // All numbers are doubles at runtime, so longs and floats computed by the frontend could differ from what the program computes
+        Object value = compileTimeValue.getValue();
+        return !(value instanceof Long || value instanceof Float || value instanceof Double);
+    }
+
     //NOTE: use with care
     @NotNull
     public static JsNode doTranslateExpression(JetExpression expression, TranslationContext context) {
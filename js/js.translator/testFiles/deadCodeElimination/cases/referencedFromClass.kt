@@ -0,0 +1,13 @@
+package foo
+
+fun helper(): String = "OK"
+
+open class Base {
+    open fun result(): String = helper()
+}
+
+class Derived : Base()
+
+fun main(args: Array<String>) {
+    print(Derived().result())
+}
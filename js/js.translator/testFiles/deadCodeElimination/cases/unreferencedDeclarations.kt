@@ -0,0 +1,21 @@
+package foo
+
+fun usedFunction(): String = "O"
+
+fun unusedFunction(): String = "fail"
+
+class UsedClass {
+    fun k(): String = "K"
+}
+
+class UnusedClass {
+    fun k(): String = unusedFunction()
+}
+
+open class UnusedBase
+
+class UnusedDerived : UnusedBase()
+
+fun main(args: Array<String>) {
+    print(usedFunction() + UsedClass().k())
+}
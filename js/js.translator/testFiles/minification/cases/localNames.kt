@@ -0,0 +1,47 @@
+package foo
+
+class Counter(val start: Int) {
+    fun sum(values: Array<Int>): Int {
+        var result = start
+        for (value in values) {
+            result += value
+        }
+        return result
+    }
+}
+
+fun makeAdder(increment: Int): (Int) -> Int {
+    val captured = increment * 2
+    return { argument -> argument + captured - increment }
+}
+
+fun safeDivide(dividend: Int, divisor: Int): Int {
+    try {
+        if (divisor == 0) throw Exception("division by zero")
+        return dividend / divisor
+    }
+    catch (e: Exception) {
+        return -1
+    }
+}
+
+fun box(): String {
+    val counter = Counter(10)
+    if (counter.sum(array(1, 2, 3)) != 16) return "fail: sum"
+    val adder = makeAdder(5)
+    if (adder(1) != 6) return "fail: closure"
+    if (safeDivide(6, 3) != 2) return "fail: divide"
+    if (safeDivide(1, 0) != -1) return "fail: catch"
+    var i = 0
+    var j = 0
+    while (i < 5) {
+        i++
+        j += i
+    }
+    if (j != 15) return "fail: loop"
+    return "OK"
+}
+
+fun main(args: Array<String>) {
+    print(box())
+}
@@ -0,0 +1,18 @@
+package foo
+
+val KB = 1 shl 10
+
+fun box(): String {
+    if (KB != 1024) return "1 shl 10 = $KB"
+    if (7 / 2 != 3) return "7 / 2 = ${7 / 2}"
+    if (-7 % 3 != -1) return "-7 % 3 = ${-7 % 3}"
+    if (2147483647 + 1 != -2147483647 - 1) return "2147483647 + 1 = ${2147483647 + 1}"
+    if ("a" + "b" + 1 + true != "ab1true") return "\"a\" + \"b\" + 1 + true = ${"a" + "b" + 1 + true}"
+    if (!(2 * 3 > 5 && 1 < 2)) return "2 * 3 > 5 && 1 < 2"
+
+    return when (KB) {
+        1 shl 9 -> "when: 1 shl 9"
+        1 shl 10 -> "OK"
+        else -> "when: else"
+    }
+}
@@ -0,0 +1,27 @@
+package foo
+
+fun classify(i: Int): String = when (i) {
+    1, 2 -> "small"
+    3 -> "three"
+    -1 -> "negative"
+    else -> "other"
+}
+
+fun classifyNullable(i: Int?): Int {
+    when (i) {
+        0 -> return 0
+        1 -> return 1
+    }
+    return -1
+}
+
+fun box(): Boolean {
+    if (classify(1) != "small") return false
+    if (classify(2) != "small") return false
+    if (classify(3) != "three") return false
+    if (classify(-1) != "negative") return false
+    if (classify(10) != "other") return false
+    if (classifyNullable(null) != -1) return false
+    if (classifyNullable(1) != 1) return false
+    return classifyNullable(0) == 0
+}
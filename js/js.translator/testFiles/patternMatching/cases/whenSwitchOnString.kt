@@ -0,0 +1,15 @@
+package foo
+
+fun code(s: String): Int {
+    var result = 0
+    when (s) {
+        "a" -> result = 1
+        "b", "c" -> result = 2
+        "" -> result = 3
+    }
+    return result
+}
+
+fun box(): Boolean {
+    return code("a") == 1 && code("b") == 2 && code("c") == 2 && code("") == 3 && code("d") == 0
+}
@@ -0,0 +1,15 @@
+package foo
+
+fun box(): Boolean {
+    var i = 0
+    var sum = 0
+    while (true) {
+        when (i) {
+            0 -> sum += 1
+            5 -> break
+            else -> sum += 10
+        }
+        i++
+    }
+    return i == 5 && sum == 41
+}
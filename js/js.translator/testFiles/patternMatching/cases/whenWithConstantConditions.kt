@@ -0,0 +1,12 @@
+package foo
+
+fun box(): Boolean {
+    var calls = 0
+    val r = when {
+        false -> { calls++; 1 }
+        1 > 2 -> { calls++; 2 }
+        true -> 3
+        else -> { calls++; 4 }
+    }
+    return r == 3 && calls == 0
+}
@@ -35,37 +35,56 @@ public class Intrinsics {
 
     public static void checkReturnedValueIsNotNull(Object value, String className, String methodName) {
         if (value == null) {
-            IllegalStateException exception =
-                    new IllegalStateException("Method specified as non-null returned null: " + className + "." + methodName);
-            throw sanitizeStackTrace(exception);
+            throwReturnedValueIsNullException(className, methodName);
         }
     }
 
     public static void checkFieldIsNotNull(Object value, String className, String fieldName) {
         if (value == null) {
-            IllegalStateException exception =
-                    new IllegalStateException("Field specified as non-null contains null: " + className + "." + fieldName);
-            throw sanitizeStackTrace(exception);
+            throwFieldIsNullException(className, fieldName);
         }
     }
 
     public static void checkParameterIsNotNull(Object value, String paramName) {
         if (value == null) {
-            StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
-
-            // #0 is Thread.getStackTrace(), #1 is Intrinsics.checkParameterIsNotNull, #2 is our caller
-            StackTraceElement caller = stackTraceElements[2];
-            String className = caller.getClassName();
-            String methodName = caller.getMethodName();
-
-            IllegalArgumentException exception =
-                    new IllegalArgumentException("Parameter specified as non-null contains null: " +
-                                                 "method " + className + "." + methodName +
-                                                 ", parameter " + paramName);
-            throw sanitizeStackTrace(exception);
+            throw parameterIsNullException(paramName, 1);
         }
     }
 
+    public static void throwReturnedValueIsNullException(String className, String methodName) {
+        IllegalStateException exception =
+                new IllegalStateException("Method specified as non-null returned null: " + className + "." + methodName);
+        throw sanitizeStackTrace(exception);
+    }
+
+    public static void throwFieldIsNullException(String className, String fieldName) {
+        IllegalStateException exception =
+                new IllegalStateException("Field specified as non-null contains null: " + className + "." + fieldName);
+        throw sanitizeStackTrace(exception);
+    }
+
+    public static void throwParameterIsNullException(String paramName) {
+        throw parameterIsNullException(paramName, 1);
+    }
+
+    /**
+     * @param depth the number of Intrinsics methods between this one and the method whose parameter is null
+     */
+    private static IllegalArgumentException parameterIsNullException(String paramName, int depth) {
+        StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
+
+        // #0 is Thread.getStackTrace(), #1 is Intrinsics.parameterIsNullException, then the Intrinsics methods, then our caller
+        StackTraceElement caller = stackTraceElements[depth + 2];
+        String className = caller.getClassName();
+        String methodName = caller.getMethodName();
+
+        IllegalArgumentException exception =
+                new IllegalArgumentException("Parameter specified as non-null contains null: " +
+                                             "method " + className + "." + methodName +
+                                             ", parameter " + paramName);
+        return sanitizeStackTrace(exception);
+    }
+
     public static <T> Class<T> getJavaClass(T self) {
         return (Class<T>) self.getClass();
     }
@@ -88,30 +107,31 @@ public class Intrinsics {
         }
     }
 
+    private static final String INTRINSICS_CLASS_NAME = "jet.runtime.Intrinsics";
+
     private static final Set<String> METHOD_NAMES_TO_SKIP = new HashSet<String>(Arrays.asList(
-            "throwNpe", "checkReturnedValueIsNotNull", "checkFieldIsNotNull", "checkParameterIsNotNull"
+            "throwNpe", "checkReturnedValueIsNotNull", "checkFieldIsNotNull", "checkParameterIsNotNull",
+            "throwReturnedValueIsNullException", "throwFieldIsNullException", "throwParameterIsNullException"
     ));
 
     private static <T extends Throwable> T sanitizeStackTrace(T throwable) {
         StackTraceElement[] stackTrace = throwable.getStackTrace();
-        ArrayList<StackTraceElement> list = new ArrayList<StackTraceElement>();
-        boolean skip = true;
-        for(StackTraceElement ste : stackTrace) {
-            if (!skip) {
-                list.add(ste);
-            }
-            else {
-                if ("jet.runtime.Intrinsics".equals(ste.getClassName())) {
-                    if (METHOD_NAMES_TO_SKIP.contains(ste.getMethodName())) {
-                        skip = false;
-                    }
-                }
-            }
+        int start = 0;
+        while (start < stackTrace.length && !isMethodToSkip(stackTrace[start])) {
+            start++;
+        }
+        // check* methods call throw* ones, so all the Intrinsics frames above the caller are dropped
+        while (start < stackTrace.length && INTRINSICS_CLASS_NAME.equals(stackTrace[start].getClassName())) {
+            start++;
         }
-        throwable.setStackTrace(list.toArray(new StackTraceElement[list.size()]));
+        throwable.setStackTrace(Arrays.copyOfRange(stackTrace, start, stackTrace.length));
         return throwable;
     }
 
+    private static boolean isMethodToSkip(StackTraceElement element) {
+        return INTRINSICS_CLASS_NAME.equals(element.getClassName()) && METHOD_NAMES_TO_SKIP.contains(element.getMethodName());
+    }
+
     private static class JetNullPointerException extends NullPointerException {
         @Override
         public synchronized Throwable fillInStackTrace() {
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2010-2013 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jet.runtime;
+
+/**
+ * Specialized entry points of function objects taking and returning primitive values.
+ * A closure implements one of these in addition to its jet.FunctionN interface when its signature matches,
+ * so that the compiler can invoke it without boxing arguments and the result
+ */
+public final class PrimitiveFunction {
+    private PrimitiveFunction() {
+    }
+
+    public interface IntToInt {
+        int invoke(int p1);
+    }
+
+    public interface IntToBoolean {
+        boolean invoke(int p1);
+    }
+
+    public interface LongToLong {
+        long invoke(long p1);
+    }
+
+    public interface LongToBoolean {
+        boolean invoke(long p1);
+    }
+
+    public interface DoubleToDouble {
+        double invoke(double p1);
+    }
+
+    public interface DoubleToBoolean {
+        boolean invoke(double p1);
+    }
+
+    public interface IntIntToInt {
+        int invoke(int p1, int p2);
+    }
+
+    public interface LongLongToLong {
+        long invoke(long p1, long p2);
+    }
+
+    public interface DoubleDoubleToDouble {
+        double invoke(double p1, double p2);
+    }
+}